@@ -18,10 +18,16 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.util.Policy;
@@ -33,6 +39,13 @@ import org.eclipse.core.runtime.Status;
  *
  */
 public class BeanPropertyHelper {
+	private static final ClassValue<Map<Method, MethodHandle>> GETTERS = new ClassValue<Map<Method, MethodHandle>>() {
+		@Override
+		protected Map<Method, MethodHandle> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<Method, MethodHandle>();
+		}
+	};
+
 	/**
 	 * Sets the contents of the given property on the given source object to the
 	 * given value.
@@ -84,8 +97,23 @@ public class BeanPropertyHelper {
 	 */
 	public static Object readProperty(Object source,
 			PropertyDescriptor propertyDescriptor) {
+		Method readMethod = propertyDescriptor.getReadMethod();
+		if (readMethod != null
+				&& readMethod.getDeclaringClass().isInstance(source)) {
+			MethodHandle getter = getGetter(readMethod);
+			if (getter != null) {
+				try {
+					return (Object) getter.invokeExact(source);
+				} catch (Throwable e) {
+					/*
+					 * Same as an InvocationTargetException on the reflective
+					 * path below.
+					 */
+					throw new RuntimeException(e);
+				}
+			}
+		}
 		try {
-			Method readMethod = propertyDescriptor.getReadMethod();
 			if (readMethod == null) {
 				throw new IllegalArgumentException(propertyDescriptor.getName()
 						+ " property does not have a read method."); //$NON-NLS-1$
@@ -111,6 +139,34 @@ public class BeanPropertyHelper {
 		}
 	}
 
+	/**
+	 * Returns a method handle of type <code>(Object)Object</code> invoking the
+	 * given getter, or <code>null</code> if none can be created. The handles
+	 * are created once and cached with the class declaring the getter, so
+	 * reading a property of many beans does not go through reflection for
+	 * each of them.
+	 */
+	private static MethodHandle getGetter(Method readMethod) {
+		Map<Method, MethodHandle> getters = GETTERS.get(readMethod
+				.getDeclaringClass());
+		MethodHandle getter = getters.get(readMethod);
+		if (getter == null && !Modifier.isStatic(readMethod.getModifiers())) {
+			try {
+				if (!readMethod.isAccessible()) {
+					readMethod.setAccessible(true);
+				}
+				getter = MethodHandles.lookup().unreflect(readMethod)
+						.asType(MethodType.methodType(Object.class, Object.class));
+				getters.put(readMethod, getter);
+			} catch (SecurityException e) {
+				// use the reflective path
+			} catch (IllegalAccessException e) {
+				// use the reflective path
+			}
+		}
+		return getter;
+	}
+
 	/**
 	 * Returns the element type of the given collection-typed property for the
 	 * given bean.
@@ -12,7 +12,9 @@
 package org.eclipse.core.internal.databinding.beans;
 
 import java.beans.PropertyChangeListener;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 
 import org.eclipse.core.databinding.beans.BeansObservables;
@@ -28,6 +30,16 @@ import org.eclipse.core.runtime.Status;
  * @since 1.0
  */
 public class BeanPropertyListenerSupport {
+	private static final String ADD_METHOD_NAME = "addPropertyChangeListener"; //$NON-NLS-1$
+	private static final String REMOVE_METHOD_NAME = "removePropertyChangeListener"; //$NON-NLS-1$
+
+	private static final ClassValue<ListenerMethods> LISTENER_METHODS = new ClassValue<ListenerMethods>() {
+		@Override
+		protected ListenerMethods computeValue(Class<?> type) {
+			return new ListenerMethods(type);
+		}
+	};
+
 	/**
 	 * Start listen to target (if it supports the JavaBean property change
 	 * listener pattern)
@@ -42,7 +54,7 @@ public class BeanPropertyListenerSupport {
 		Assert.isNotNull(listener, "Listener cannot be null"); //$NON-NLS-1$
 		Assert.isNotNull(propertyName, "Property name cannot be null"); //$NON-NLS-1$
 		processListener(bean, propertyName, listener,
-				"addPropertyChangeListener", "Could not attach listener to ");//$NON-NLS-1$ //$NON-NLS-2$
+				ADD_METHOD_NAME, "Could not attach listener to ");//$NON-NLS-1$
 	}
 
 	/**
@@ -62,7 +74,7 @@ public class BeanPropertyListenerSupport {
 				bean,
 				propertyName,
 				listener,
-				"removePropertyChangeListener", "Cound not remove listener from "); //$NON-NLS-1$ //$NON-NLS-2$
+				REMOVE_METHOD_NAME, "Cound not remove listener from "); //$NON-NLS-1$
 	}
 
 	/**
@@ -81,45 +93,74 @@ public class BeanPropertyListenerSupport {
 	 */
 	private static boolean processListener(Object bean, String propertyName,
 			PropertyChangeListener listener, String methodName, String message) {
-		Method method = null;
-		Object[] parameters = null;
-
+		ListenerMethods methods = LISTENER_METHODS.get(bean.getClass());
+		boolean add = ADD_METHOD_NAME.equals(methodName);
+		MethodHandle named = add ? methods.addNamed : methods.removeNamed;
+		MethodHandle unnamed = add ? methods.addUnnamed
+				: methods.removeUnnamed;
 		try {
-			try {
-				method = bean.getClass().getMethod(
-						methodName,
-						new Class[] { String.class,
-								PropertyChangeListener.class });
-
-				parameters = new Object[] { propertyName, listener };
-			} catch (NoSuchMethodException e) {
-				method = bean.getClass().getMethod(methodName,
-						new Class[] { PropertyChangeListener.class });
-
-				parameters = new Object[] { listener };
+			if (named != null) {
+				named.invokeExact(bean, propertyName, listener);
+				return true;
 			}
-		} catch (SecurityException e) {
-			// ignore
-		} catch (NoSuchMethodException e) {
+			if (unnamed != null) {
+				unnamed.invokeExact(bean, listener);
+				return true;
+			}
+		} catch (Throwable e) {
 			log(IStatus.WARNING, message + bean, e);
+			return false;
+		}
+		if (!methods.securityException) {
+			log(IStatus.WARNING, message + bean, new NoSuchMethodException(
+					methodName));
 		}
+		return false;
+	}
 
-		if (method != null) {
-			if (!method.isAccessible()) {
-				method.setAccessible(true);
-			}
+	/**
+	 * The listener registration methods of a bean class, resolved once per
+	 * class rather than each time a bean of the class is observed.
+	 */
+	private static class ListenerMethods {
+		MethodHandle addNamed;
+		MethodHandle addUnnamed;
+		MethodHandle removeNamed;
+		MethodHandle removeUnnamed;
+		boolean securityException;
+
+		ListenerMethods(Class<?> type) {
+			MethodType namedType = MethodType.methodType(void.class,
+					Object.class, String.class, PropertyChangeListener.class);
+			MethodType unnamedType = MethodType.methodType(void.class,
+					Object.class, PropertyChangeListener.class);
+			addNamed = find(type, ADD_METHOD_NAME, namedType);
+			if (addNamed == null)
+				addUnnamed = find(type, ADD_METHOD_NAME, unnamedType);
+			removeNamed = find(type, REMOVE_METHOD_NAME, namedType);
+			if (removeNamed == null)
+				removeUnnamed = find(type, REMOVE_METHOD_NAME, unnamedType);
+		}
+
+		private MethodHandle find(Class<?> type, String methodName,
+				MethodType handleType) {
 			try {
-				method.invoke(bean, parameters);
-				return true;
-			} catch (IllegalArgumentException e) {
-				log(IStatus.WARNING, message + bean, e);
+				Method method = type.getMethod(methodName, handleType
+						.dropParameterTypes(0, 1).parameterArray());
+				if (!method.isAccessible()) {
+					method.setAccessible(true);
+				}
+				return MethodHandles.lookup().unreflect(method)
+						.asType(handleType);
+			} catch (SecurityException e) {
+				securityException = true;
+			} catch (NoSuchMethodException e) {
+				// try the next variant
 			} catch (IllegalAccessException e) {
-				log(IStatus.WARNING, message + bean, e);
-			} catch (InvocationTargetException e) {
-				log(IStatus.WARNING, message + bean, e);
+				// treated as missing
 			}
+			return null;
 		}
-		return false;
 	}
 
 	/**
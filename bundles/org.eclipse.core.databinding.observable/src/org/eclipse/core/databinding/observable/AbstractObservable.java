@@ -22,6 +22,13 @@ import org.eclipse.core.runtime.AssertionFailedException;
 public abstract class AbstractObservable extends ChangeManager implements IObservable {
 	private boolean disposed = false;
 
+	/*
+	 * Change and stale events carry nothing but their source, so they are
+	 * created once and shared by all notifications
+	 */
+	private ChangeEvent changeEvent;
+	private StaleEvent staleEvent;
+
 	/**
 	 * @param realm
 	 */
@@ -68,12 +75,16 @@ public abstract class AbstractObservable extends ChangeManager implements IObser
 
 	protected void fireChange() {
 		checkRealm();
-		fireEvent(new ChangeEvent(this));
+		if (changeEvent == null)
+			changeEvent = new ChangeEvent(this);
+		fireEvent(changeEvent);
 	}
 
 	protected void fireStale() {
 		checkRealm();
-		fireEvent(new StaleEvent(this));
+		if (staleEvent == null)
+			staleEvent = new StaleEvent(this);
+		fireEvent(staleEvent);
 	}
 
 	/**
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.map.IObservableMap;
+import org.eclipse.core.databinding.observable.map.MapChangeEvent;
+import org.eclipse.core.databinding.observable.map.MapDiff;
+import org.eclipse.core.databinding.observable.set.IObservableSet;
+import org.eclipse.core.databinding.observable.set.SetChangeEvent;
+import org.eclipse.core.databinding.observable.set.SetDiff;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.ValueDiff;
+import org.eclipse.core.internal.databinding.observable.PendingDiffs;
+import org.eclipse.core.internal.databinding.observable.Util;
+
+/**
+ * The change events held back while a batch is open in a realm. The diffs of
+ * each observable are merged, and one event of each kind is fired per
+ * observable when the batch is committed.
+ *
+ * @see Realm#beginBatch()
+ * @since 1.5
+ */
+/* package */class BatchedEvents {
+
+	/*
+	 * Nesting depth of beginBatch calls
+	 */
+	int depth;
+
+	/*
+	 * Maps each ChangeManager to its PendingEvents
+	 */
+	private final Map pending = new IdentityHashMap();
+
+	/*
+	 * ChangeManagers in the order they first fired an event
+	 */
+	private final List order = new ArrayList();
+
+	/**
+	 * Holds back the given event if it can be merged.
+	 *
+	 * @param changeManager
+	 *            the change manager firing the event
+	 * @param event
+	 *            the event
+	 * @return <code>true</code> if the event was held back,
+	 *         <code>false</code> if it must be fired right away
+	 */
+	boolean add(ChangeManager changeManager, ObservableEvent event) {
+		if (!(event instanceof ChangeEvent || event instanceof ListChangeEvent
+				|| event instanceof SetChangeEvent
+				|| event instanceof MapChangeEvent || event instanceof ValueChangeEvent)) {
+			return false;
+		}
+		PendingEvents events = (PendingEvents) pending.get(changeManager);
+		if (events == null) {
+			events = new PendingEvents(event.getObservable());
+			pending.put(changeManager, events);
+			order.add(changeManager);
+		}
+		events.add(event);
+		return true;
+	}
+
+	/**
+	 * Fires the merged events, in the order in which the observables first
+	 * fired an event during the batch.
+	 */
+	void fire() {
+		for (int i = 0; i < order.size(); i++) {
+			ChangeManager changeManager = (ChangeManager) order.get(i);
+			((PendingEvents) pending.get(changeManager)).fire(changeManager);
+		}
+	}
+
+	private static class PendingEvents {
+		private final IObservable observable;
+
+		private boolean changed;
+
+		private final PendingDiffs diffs = new PendingDiffs();
+
+		private boolean valueChanged;
+		private Object oldValue;
+		private Object newValue;
+
+		PendingEvents(IObservable observable) {
+			this.observable = observable;
+		}
+
+		void add(ObservableEvent event) {
+			if (event instanceof ChangeEvent) {
+				changed = true;
+			} else if (event instanceof ListChangeEvent) {
+				diffs.add(((ListChangeEvent) event).diff);
+			} else if (event instanceof SetChangeEvent) {
+				diffs.add(((SetChangeEvent) event).diff);
+			} else if (event instanceof MapChangeEvent) {
+				diffs.add(((MapChangeEvent) event).diff);
+			} else if (event instanceof ValueChangeEvent) {
+				ValueDiff diff = ((ValueChangeEvent) event).diff;
+				if (!valueChanged) {
+					valueChanged = true;
+					oldValue = diff.getOldValue();
+				}
+				newValue = diff.getNewValue();
+			}
+		}
+
+		void fire(ChangeManager changeManager) {
+			ObservableEvent typedEvent = null;
+			if (!diffs.isEmpty()) {
+				typedEvent = createEvent(diffs.createDiff());
+			} else if (valueChanged) {
+				if (!Util.equals(oldValue, newValue)) {
+					typedEvent = new ValueChangeEvent(
+							(IObservableValue) observable,
+							Diffs.createValueDiff(oldValue, newValue));
+				}
+			} else if (changed) {
+				changeManager.fireEvent(new ChangeEvent(observable));
+				return;
+			}
+			if (typedEvent == null) {
+				// the changes made during the batch cancel out
+				return;
+			}
+			if (changed) {
+				changeManager.fireEvent(new ChangeEvent(observable));
+			}
+			changeManager.fireEvent(typedEvent);
+		}
+
+		private ObservableEvent createEvent(IDiff diff) {
+			if (diff instanceof ListDiff) {
+				return new ListChangeEvent((IObservableList) observable,
+						(ListDiff) diff);
+			}
+			if (diff instanceof SetDiff) {
+				return new SetChangeEvent((IObservableSet) observable,
+						(SetDiff) diff);
+			}
+			if (diff instanceof MapDiff) {
+				return new MapChangeEvent((IObservableMap) observable,
+						(MapDiff) diff);
+			}
+			return null;
+		}
+	}
+}
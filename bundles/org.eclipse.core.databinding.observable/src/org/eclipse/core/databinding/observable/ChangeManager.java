@@ -13,8 +13,8 @@
 
 package org.eclipse.core.databinding.observable;
 
+import org.eclipse.core.internal.databinding.observable.PropagationScheduler;
 import org.eclipse.core.runtime.Assert;
-import org.eclipse.core.runtime.ListenerList;
 
 /**
  * Listener management implementation. Exposed to subclasses in form of
@@ -25,10 +25,31 @@ import org.eclipse.core.runtime.ListenerList;
  */
 /* package */class ChangeManager {
 
-	ListenerList[] listenerLists = null;
-	Object listenerTypes[] = null;
+	private static final IObservablesListener[] NO_LISTENERS = new IObservablesListener[0];
+
+	/**
+	 * Listener types alternating with the array of listeners of each type, or
+	 * <code>null</code>. The table and the listener arrays are never modified
+	 * once published; adding or removing a listener replaces them. Events can
+	 * therefore be fired without locking or copying.
+	 * <p>
+	 * Listeners may be added and removed from any thread. The table is
+	 * replaced, and {@link #firstListenerAdded()} and
+	 * {@link #lastListenerRemoved()} are called, while holding the lock of
+	 * this manager. No concurrent change is lost, and the hooks run once per
+	 * transition, in order.
+	 * </p>
+	 */
+	private volatile Object[] listenerTable = null;
 	private final Realm realm;
 
+	/**
+	 * Reference registered with {@link ListenerStatistics} once this manager
+	 * gained a listener while tracking was enabled, or <code>null</code>.
+	 * Guarded by the lock of {@link ListenerStatistics}.
+	 */
+	/* package */Object statisticsReference;
+
 	/**
 	 * @param realm
 	 *
@@ -44,30 +65,37 @@ import org.eclipse.core.runtime.ListenerList;
 	 */
 	protected void addListener(Object listenerType,
 			IObservablesListener listener) {
-		int listenerTypeIndex = findListenerTypeIndex(listenerType);
-		if (listenerTypeIndex == -1) {
-			int length;
-			if (listenerTypes == null) {
-				length = 0;
-				listenerTypes = new Object[1];
-				listenerLists = new ListenerList[1];
+		synchronized (this) {
+			Object[] table = listenerTable;
+			int index = findListenerTypeIndex(table, listenerType);
+			Object[] newTable;
+			if (index == -1) {
+				int length = table == null ? 0 : table.length;
+				newTable = new Object[length + 2];
+				if (table != null) {
+					System.arraycopy(table, 0, newTable, 0, length);
+				}
+				newTable[length] = listenerType;
+				newTable[length + 1] = new IObservablesListener[] { listener };
 			} else {
-				length = listenerTypes.length;
-				System.arraycopy(listenerTypes, 0,
-						listenerTypes = new Object[length + 1], 0, length);
-				System
-						.arraycopy(listenerLists, 0,
-								listenerLists = new ListenerList[length + 1],
-								0, length);
+				IObservablesListener[] listeners = (IObservablesListener[]) table[index + 1];
+				if (indexOf(listeners, listener) != -1) {
+					return;
+				}
+				IObservablesListener[] newListeners = new IObservablesListener[listeners.length + 1];
+				System.arraycopy(listeners, 0, newListeners, 0,
+						listeners.length);
+				newListeners[listeners.length] = listener;
+				newTable = table.clone();
+				newTable[index + 1] = newListeners;
+			}
+			listenerTable = newTable;
+			if (!hasListeners(table) && hasListeners(newTable)) {
+				firstListenerAdded();
 			}
-			listenerTypes[length] = listenerType;
-			listenerLists[length] = new ListenerList();
-			listenerTypeIndex = length;
 		}
-		boolean hadListeners = hasListeners();
-		listenerLists[listenerTypeIndex].add(listener);
-		if (!hadListeners && hasListeners()) {
-			firstListenerAdded();
+		if (ListenerStatistics.enabled && statisticsReference == null) {
+			ListenerStatistics.track(this);
 		}
 	}
 
@@ -77,31 +105,62 @@ import org.eclipse.core.runtime.ListenerList;
 	 */
 	protected void removeListener(Object listenerType,
 			IObservablesListener listener) {
-		int listenerTypeIndex = findListenerTypeIndex(listenerType);
-		if (listenerTypeIndex != -1) {
-			boolean hadListeners = hasListeners();
-			listenerLists[listenerTypeIndex].remove(listener);
-			if (listenerLists[listenerTypeIndex].size() == 0) {
-				if (hadListeners && !hasListeners()) {
-					this.lastListenerRemoved();
-				}
+		synchronized (this) {
+			Object[] table = listenerTable;
+			int index = findListenerTypeIndex(table, listenerType);
+			if (index == -1) {
+				return;
+			}
+			IObservablesListener[] listeners = (IObservablesListener[]) table[index + 1];
+			int listenerIndex = indexOf(listeners, listener);
+			if (listenerIndex == -1) {
+				return;
+			}
+			IObservablesListener[] newListeners;
+			if (listeners.length == 1) {
+				newListeners = NO_LISTENERS;
+			} else {
+				newListeners = new IObservablesListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, listenerIndex);
+				System.arraycopy(listeners, listenerIndex + 1, newListeners,
+						listenerIndex, newListeners.length - listenerIndex);
+			}
+			Object[] newTable = table.clone();
+			newTable[index + 1] = newListeners;
+			listenerTable = newTable;
+			if (hasListeners(table) && !hasListeners(newTable)) {
+				lastListenerRemoved();
 			}
 		}
 	}
 
 	protected boolean hasListeners() {
-		if (listenerTypes != null)
-			for (int i = 0; i < listenerTypes.length; i++)
-				if (listenerTypes[i] != DisposeEvent.TYPE)
-					if (listenerLists[i].size() > 0)
+		return hasListeners(listenerTable);
+	}
+
+	private static boolean hasListeners(Object[] table) {
+		if (table != null)
+			for (int i = 0; i < table.length; i += 2)
+				if (table[i] != DisposeEvent.TYPE)
+					if (((IObservablesListener[]) table[i + 1]).length > 0)
 						return true;
 		return false;
 	}
 
-	private int findListenerTypeIndex(Object listenerType) {
-		if (listenerTypes != null) {
-			for (int i = 0; i < listenerTypes.length; i++) {
-				if (listenerTypes[i] == listenerType) {
+	/* package */int getListenerCount() {
+		Object[] table = listenerTable;
+		int count = 0;
+		if (table != null)
+			for (int i = 1; i < table.length; i += 2)
+				count += ((IObservablesListener[]) table[i]).length;
+		return count;
+	}
+
+	private static int findListenerTypeIndex(Object[] table,
+			Object listenerType) {
+		if (table != null) {
+			for (int i = 0; i < table.length; i += 2) {
+				if (table[i] == listenerType) {
 					return i;
 				}
 			}
@@ -109,15 +168,40 @@ import org.eclipse.core.runtime.ListenerList;
 		return -1;
 	}
 
+	private static int indexOf(IObservablesListener[] listeners,
+			IObservablesListener listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i].equals(listener)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	protected void fireEvent(ObservableEvent event) {
-		Object listenerType = event.getListenerType();
-		int listenerTypeIndex = findListenerTypeIndex(listenerType);
-		if (listenerTypeIndex != -1) {
-			Object[] listeners = listenerLists[listenerTypeIndex]
-					.getListeners();
+		Object[] table = listenerTable;
+		int index = findListenerTypeIndex(table, event.getListenerType());
+		if (index == -1) {
+			return;
+		}
+		IObservablesListener[] listeners = (IObservablesListener[]) table[index + 1];
+		if (listeners.length == 0) {
+			// nobody to notify, not even after a batch
+			return;
+		}
+		BatchedEvents batch = realm.getBatch();
+		if (batch != null && batch.add(this, event)) {
+			return;
+		}
+		// computed observables notified by this event are propagated once
+		// the outermost dispatch has returned
+		PropagationScheduler.beginDispatch();
+		try {
 			for (int i = 0; i < listeners.length; i++) {
-				event.dispatch((IObservablesListener) listeners[i]);
+				event.dispatch(listeners[i]);
 			}
+		} finally {
+			PropagationScheduler.endDispatch();
 		}
 	}
 
@@ -137,8 +221,7 @@ import org.eclipse.core.runtime.ListenerList;
 	 *
 	 */
 	public void dispose() {
-		listenerLists = null;
-		listenerTypes = null;
+		listenerTable = null;
 	}
 
 	/**
@@ -151,8 +234,8 @@ import org.eclipse.core.runtime.ListenerList;
 	@Override
 	protected Object clone() throws CloneNotSupportedException {
 		ChangeManager duplicate = (ChangeManager) super.clone();
-		duplicate.listenerLists = null;
-		duplicate.listenerTypes = null;
+		duplicate.listenerTable = null;
+		duplicate.statisticsReference = null;
 		return duplicate;
 	}
 }
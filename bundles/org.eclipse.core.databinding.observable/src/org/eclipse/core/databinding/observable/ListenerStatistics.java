@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding.observable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the observables that have listeners, so that observables
+ * accumulating listeners that are never removed can be found.
+ * <p>
+ * Tracking is disabled by default. Once enabled, every observable gaining a
+ * listener is remembered until it is garbage collected, without being kept
+ * alive. The listener counts are read when a snapshot is taken, so they are
+ * always current; comparing successive snapshots reveals the observables whose
+ * listeners keep growing.
+ * </p>
+ * <p>
+ * Observables extending {@link AbstractObservable} are reported as
+ * themselves. Observables managing their listeners through a
+ * {@link ChangeSupport} are reported as that change support, whose
+ * {@link Object#toString()} describes its observable where possible.
+ * </p>
+ *
+ * @since 1.5
+ */
+public final class ListenerStatistics {
+
+	/* package */static volatile boolean enabled;
+
+	private static final Set references = new HashSet();
+
+	private static final ReferenceQueue queue = new ReferenceQueue();
+
+	private ListenerStatistics() {
+	}
+
+	/**
+	 * Enables or disables the tracking of observables with listeners.
+	 * Observables tracked while enabled are still reported after tracking has
+	 * been disabled, until they are garbage collected or {@link #reset()} is
+	 * called.
+	 *
+	 * @param enabled
+	 *            <code>true</code> to track observables gaining listeners
+	 */
+	public static void setEnabled(boolean enabled) {
+		ListenerStatistics.enabled = enabled;
+	}
+
+	/**
+	 * @return whether observables gaining listeners are tracked
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Forgets all observables tracked so far.
+	 */
+	public static void reset() {
+		synchronized (references) {
+			for (Iterator it = references.iterator(); it.hasNext();) {
+				ChangeManager manager = (ChangeManager) ((WeakReference) it
+						.next()).get();
+				if (manager != null) {
+					manager.statisticsReference = null;
+				}
+			}
+			references.clear();
+			purge();
+		}
+	}
+
+	/**
+	 * Returns the number of listeners of every tracked observable that
+	 * currently has listeners. Dispose listeners are included, as they keep
+	 * their owners reachable as much as any other listener.
+	 *
+	 * @return a snapshot mapping each observable, or the {@link ChangeSupport}
+	 *         of an observable, to its number of listeners as an
+	 *         {@link Integer}; keys are compared by identity
+	 */
+	public static Map getListenerCounts() {
+		Map counts = new IdentityHashMap();
+		synchronized (references) {
+			purge();
+			for (Iterator it = references.iterator(); it.hasNext();) {
+				ChangeManager manager = (ChangeManager) ((WeakReference) it
+						.next()).get();
+				if (manager != null) {
+					int count = manager.getListenerCount();
+					if (count > 0) {
+						counts.put(manager, new Integer(count));
+					}
+				}
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns a textual report of the tracked observables with the most
+	 * listeners, one per line, most listeners first. Observables are identified
+	 * by their class and identity hash code.
+	 *
+	 * @param limit
+	 *            the maximum number of observables to report
+	 * @return the report
+	 */
+	public static String createReport(int limit) {
+		List entries = new ArrayList(getListenerCounts().entrySet());
+		Collections.sort(entries, new Comparator() {
+			@Override
+			public int compare(Object o1, Object o2) {
+				int count1 = ((Integer) ((Map.Entry) o1).getValue()).intValue();
+				int count2 = ((Integer) ((Map.Entry) o2).getValue()).intValue();
+				return count1 > count2 ? -1 : (count1 == count2 ? 0 : 1);
+			}
+		});
+		StringBuffer buffer = new StringBuffer();
+		for (int i = 0; i < entries.size() && i < limit; i++) {
+			Map.Entry entry = (Map.Entry) entries.get(i);
+			buffer.append(entry.getValue()).append('\t');
+			Object owner = entry.getKey();
+			if (owner instanceof ChangeSupport) {
+				buffer.append(owner);
+			} else {
+				// the toString() of observables may read their contents, and
+				// must then run in their realm
+				buffer.append(owner.getClass().getName()).append('@')
+						.append(Integer.toHexString(System
+								.identityHashCode(owner)));
+			}
+			buffer.append('\n');
+		}
+		return buffer.toString();
+	}
+
+	/* package */static void track(ChangeManager manager) {
+		synchronized (references) {
+			if (manager.statisticsReference == null) {
+				purge();
+				WeakReference reference = new WeakReference(manager, queue);
+				manager.statisticsReference = reference;
+				references.add(reference);
+			}
+		}
+	}
+
+	private static void purge() {
+		Object reference;
+		while ((reference = queue.poll()) != null) {
+			references.remove(reference);
+		}
+	}
+}
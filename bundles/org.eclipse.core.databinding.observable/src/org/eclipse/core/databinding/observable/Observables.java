@@ -37,10 +37,15 @@ import org.eclipse.core.databinding.observable.value.IVetoableValue;
 import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
 import org.eclipse.core.databinding.observable.value.ValueChangingEvent;
 import org.eclipse.core.internal.databinding.observable.ConstantObservableValue;
+import org.eclipse.core.internal.databinding.observable.DelayedObservableList;
+import org.eclipse.core.internal.databinding.observable.DelayedObservableMap;
+import org.eclipse.core.internal.databinding.observable.DelayedObservableSet;
 import org.eclipse.core.internal.databinding.observable.DelayedObservableValue;
 import org.eclipse.core.internal.databinding.observable.EmptyObservableList;
 import org.eclipse.core.internal.databinding.observable.EmptyObservableSet;
 import org.eclipse.core.internal.databinding.observable.MapEntryObservableValue;
+import org.eclipse.core.internal.databinding.observable.RealmBridgedObservableList;
+import org.eclipse.core.internal.databinding.observable.RealmBridgedObservableValue;
 import org.eclipse.core.internal.databinding.observable.StalenessObservableValue;
 import org.eclipse.core.internal.databinding.observable.UnmodifiableObservableList;
 import org.eclipse.core.internal.databinding.observable.UnmodifiableObservableMap;
@@ -99,6 +104,123 @@ public class Observables {
 		return new DelayedObservableValue(delay, observable);
 	}
 
+	/**
+	 * Returns an observable list which fires the changes of <code>list</code>
+	 * in batches. A change starts a batch, and the changes received within
+	 * <code>delay</code> milliseconds from then on are fired together as one
+	 * list change event, so no change is held back for longer than
+	 * <code>delay</code> milliseconds. The diff entries of the event are those
+	 * of the changes, in the order they were received. If
+	 * <code>maxBatchSize</code> is positive, a batch is fired early once it
+	 * holds that many diff entries.
+	 * <p>
+	 * This observable helps when a list changes at a high rate, for instance
+	 * when data is streamed into a UI. Its listeners then handle one event per
+	 * batch instead of one event per change.
+	 * </p>
+	 * <p>
+	 * The returned observable fires a stale event when a batch starts, and
+	 * remains stale until the batch is fired. Reading its elements while a
+	 * batch is pending fires the batch first, so a reader never sees changes
+	 * before it has been notified of them.
+	 * </p>
+	 *
+	 * @param delay
+	 *            the maximum time in milliseconds a change is held back
+	 * @param maxBatchSize
+	 *            the number of list diff entries at which a batch is fired right
+	 *            away, or 0 for no limit
+	 * @param list
+	 *            the observable list being delayed
+	 * @return an observable list which fires the changes of
+	 *         <code>list</code> in batches
+	 *
+	 * @since 1.5
+	 */
+	public static IObservableList observeDelayedList(int delay, int maxBatchSize,
+			IObservableList list) {
+		return new DelayedObservableList(delay, maxBatchSize, list);
+	}
+
+	/**
+	 * Returns an observable set which fires the changes of <code>set</code> in
+	 * batches. The changes received within <code>delay</code> milliseconds of
+	 * the change starting a batch are merged into the diff of a single set
+	 * change event. An element which is added and then removed again within a
+	 * batch, or removed and then added again, is not part of that diff. If
+	 * <code>maxBatchSize</code> is positive, a batch is fired early once that
+	 * many elements have been added or removed, counting each addition and
+	 * removal.
+	 * <p>
+	 * Listeners of a set which changes many times per second, for instance one
+	 * filled from a stream of data, thus receive at most one event per
+	 * <code>delay</code> milliseconds, with fewer elements to process.
+	 * </p>
+	 * <p>
+	 * The returned observable is stale from the start of a batch until the
+	 * batch is fired. If the changes of a batch cancel each other out, it fires
+	 * an event with an empty diff. Reading its elements fires any pending
+	 * batch first.
+	 * </p>
+	 *
+	 * @param delay
+	 *            the maximum time in milliseconds a change is held back
+	 * @param maxBatchSize
+	 *            the number of set elements at which a batch is fired right
+	 *            away, or 0 for no limit
+	 * @param set
+	 *            the observable set being delayed
+	 * @return an observable set which fires the changes of
+	 *         <code>set</code> in batches
+	 *
+	 * @since 1.5
+	 */
+	public static IObservableSet observeDelayedSet(int delay, int maxBatchSize,
+			IObservableSet set) {
+		return new DelayedObservableSet(delay, maxBatchSize, set);
+	}
+
+	/**
+	 * Returns an observable map which fires the changes of <code>map</code> in
+	 * batches. All changes received within <code>delay</code> milliseconds of
+	 * the change starting a batch are merged into the diff of a single map
+	 * change event, which compares each key's state before the batch with its
+	 * state after it. A key added and removed again within the batch, or ending
+	 * the batch with its original value, is therefore not part of the diff,
+	 * and a key removed and added again with another value is reported as
+	 * changed. If
+	 * <code>maxBatchSize</code> is positive, a batch is fired early once its
+	 * changes amount to that many keys, counting a key again each time it
+	 * changes.
+	 * <p>
+	 * Use this observable for a map whose entries are updated at a high rate,
+	 * for instance from a stream of data, when its listeners only need to
+	 * catch up with the map from time to time.
+	 * </p>
+	 * <p>
+	 * The returned observable is stale from the start of a batch until the
+	 * batch is fired. If the changes of a batch cancel each other out, it fires
+	 * an event with an empty diff. Reading its entries fires any pending batch
+	 * first, so that the diff of that batch matches what was read.
+	 * </p>
+	 *
+	 * @param delay
+	 *            the maximum time in milliseconds a change is held back
+	 * @param maxBatchSize
+	 *            the number of map keys at which a batch is fired right
+	 *            away, or 0 for no limit
+	 * @param map
+	 *            the observable map being delayed
+	 * @return an observable map which fires the changes of
+	 *         <code>map</code> in batches
+	 *
+	 * @since 1.5
+	 */
+	public static IObservableMap observeDelayedMap(int delay, int maxBatchSize,
+			IObservableMap map) {
+		return new DelayedObservableMap(delay, maxBatchSize, map);
+	}
+
 	/**
 	 * Returns an unmodifiable observable value backed by the given observable
 	 * value.
@@ -433,6 +555,61 @@ public class Observables {
 		return new DecoratingObservableSet(target, false);
 	}
 
+	/**
+	 * Returns an unmodifiable observable value in the given realm which mirrors
+	 * <code>value</code>, an observable value of another realm. Changes of
+	 * <code>value</code> are handed over without locking, and the mirror is
+	 * updated by a single runnable pending in <code>realm</code> at any time,
+	 * however often <code>value</code> changes. Values superseded before the
+	 * runnable has run are skipped. This helps to display a model that is
+	 * updated at a high rate by a background realm without flooding the UI
+	 * realm with runnables.
+	 * <p>
+	 * The returned observable is stale until the initial value of
+	 * <code>value</code> has arrived in <code>realm</code>. Disposing of the
+	 * returned observable does not dispose of <code>value</code>.
+	 * </p>
+	 *
+	 * @param realm
+	 *            the realm of the returned observable
+	 * @param value
+	 *            the observable value to mirror
+	 * @return an unmodifiable observable value in <code>realm</code> mirroring
+	 *         <code>value</code>
+	 * @since 1.5
+	 */
+	public static IObservableValue bridgedObservableValue(Realm realm,
+			IObservableValue value) {
+		return new RealmBridgedObservableValue(realm, value);
+	}
+
+	/**
+	 * Returns an unmodifiable observable list in the given realm which mirrors
+	 * <code>list</code>, an observable list of another realm. The diffs of
+	 * <code>list</code> are handed over through a lock-free queue, and the
+	 * mirror is updated by a single runnable pending in <code>realm</code> at
+	 * any time, which merges all diffs queued until it runs into one list
+	 * change event. This helps to display a model that is updated at a high
+	 * rate by a background realm without flooding the UI realm with runnables.
+	 * <p>
+	 * The returned observable is stale until the initial contents of
+	 * <code>list</code> have arrived in <code>realm</code>. Disposing of the
+	 * returned observable does not dispose of <code>list</code>.
+	 * </p>
+	 *
+	 * @param realm
+	 *            the realm of the returned observable
+	 * @param list
+	 *            the observable list to mirror
+	 * @return an unmodifiable observable list in <code>realm</code> mirroring
+	 *         <code>list</code>
+	 * @since 1.5
+	 */
+	public static IObservableList bridgedObservableList(Realm realm,
+			IObservableList list) {
+		return new RealmBridgedObservableList(realm, list);
+	}
+
 	/**
 	 * Returns an observable list that contains the same elements as the given
 	 * list, and fires the same events as the given list, but can be disposed of
@@ -18,6 +18,7 @@ import java.util.TimerTask;
 
 import org.eclipse.core.databinding.util.Policy;
 import org.eclipse.core.internal.databinding.observable.Queue;
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.SafeRunner;
@@ -120,6 +121,8 @@ public abstract class Realm {
 
 	Queue workQueue = new Queue();
 
+	private BatchedEvents batch;
+
 	/**
 	 * Runs the given runnable. If an exception occurs within the runnable, it
 	 * is logged and not re-thrown. If the runnable implements
@@ -322,6 +325,66 @@ public abstract class Realm {
 		}
 	}
 
+	/**
+	 * Starts a batch of changes in this realm. Until the batch is committed,
+	 * observables in this realm do not deliver change events. Instead, the
+	 * diffs each observable fires are merged, and
+	 * {@link #commitBatch()} fires at most one change event and one list, set,
+	 * map or value change event per observable. Stale, dispose and other
+	 * events are delivered right away.
+	 * <p>
+	 * Batches can be nested; the events are delivered when the outermost batch
+	 * is committed. Every call to this method must be matched by a call to
+	 * {@link #commitBatch()}, typically in a <code>finally</code> block.
+	 * Listeners that depend on change events, such as computed observables,
+	 * are not updated until the batch is committed.
+	 * </p>
+	 * <p>
+	 * This method must be called from within this realm.
+	 * </p>
+	 *
+	 * @since 1.5
+	 */
+	public void beginBatch() {
+		Assert.isTrue(isCurrent(), "This method must be called from within the realm"); //$NON-NLS-1$
+		if (batch == null) {
+			batch = new BatchedEvents();
+		}
+		batch.depth++;
+	}
+
+	/**
+	 * Ends a batch of changes started with {@link #beginBatch()}. If this ends
+	 * the outermost batch, the merged change events are fired, in the order in
+	 * which the observables first changed during the batch.
+	 * <p>
+	 * This method must be called from within this realm.
+	 * </p>
+	 *
+	 * @since 1.5
+	 */
+	public void commitBatch() {
+		Assert.isTrue(isCurrent(), "This method must be called from within the realm"); //$NON-NLS-1$
+		Assert.isTrue(batch != null, "No batch has been started"); //$NON-NLS-1$
+		if (--batch.depth == 0) {
+			BatchedEvents events = batch;
+			// listeners may change observables again, which must not be
+			// batched any more
+			batch = null;
+			events.fire();
+		}
+	}
+
+	/**
+	 * Returns the events held back by the current batch, or <code>null</code>
+	 * if no batch has been started.
+	 *
+	 * @return the current batch, or <code>null</code>
+	 */
+	/* package */BatchedEvents getBatch() {
+		return batch;
+	}
+
 	/**
 	 * Sets the provided <code>realm</code> as the default for the duration of
 	 * {@link Runnable#run()} and resets the previous realm after completion.
@@ -63,12 +63,28 @@ public abstract class AbstractObservableList extends AbstractList implements
 		protected boolean hasListeners() {
 			return super.hasListeners();
 		}
+
+		@Override
+		public String toString() {
+			// identifies the observable in listener statistics without
+			// reading its contents
+			Object observable = AbstractObservableList.this;
+			return observable.getClass().getName() + '@'
+					+ Integer.toHexString(System.identityHashCode(observable));
+		}
 	}
 
 	private final Realm realm;
 	private PrivateChangeSupport changeSupport;
 	private volatile boolean disposed = false;
 
+	/*
+	 * Change and stale events carry nothing but their source, so they are
+	 * created once and shared by all notifications
+	 */
+	private ChangeEvent changeEvent;
+	private StaleEvent staleEvent;
+
 	/**
 	 * @param realm
 	 *
@@ -176,7 +192,9 @@ public abstract class AbstractObservableList extends AbstractList implements
 	 */
 	protected void fireChange() {
 		checkRealm();
-		changeSupport.fireEvent(new ChangeEvent(this));
+		if (changeEvent == null)
+			changeEvent = new ChangeEvent(this);
+		changeSupport.fireEvent(changeEvent);
 	}
 
 	/**
@@ -184,7 +202,9 @@ public abstract class AbstractObservableList extends AbstractList implements
 	 */
 	protected void fireStale() {
 		checkRealm();
-		changeSupport.fireEvent(new StaleEvent(this));
+		if (staleEvent == null)
+			staleEvent = new StaleEvent(this);
+		changeSupport.fireEvent(staleEvent);
 	}
 
 	/**
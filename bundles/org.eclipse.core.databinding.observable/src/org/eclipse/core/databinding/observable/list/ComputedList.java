@@ -26,6 +26,7 @@ import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.StaleEvent;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.internal.databinding.observable.PropagationScheduler;
 
 /**
  * A lazily calculated list that automatically computes and registers listeners
@@ -76,6 +77,12 @@ import org.eclipse.core.databinding.observable.value.IObservableValue;
 public abstract class ComputedList extends AbstractObservableList {
 	private List cachedList = new ArrayList();
 
+	/**
+	 * Copy of the list before the dependency changes that are waiting to be
+	 * propagated.
+	 */
+	private List scheduledOldList = null;
+
 	private boolean dirty = true;
 	private boolean stale = false;
 
@@ -148,9 +155,13 @@ public abstract class ComputedList extends AbstractObservableList {
 	 * The IChangeListener is attached to every dependency.
 	 * </p>
 	 *
+	 * <p>
+	 * The Node is scheduled for propagation when a dependency changes.
+	 * </p>
+	 *
 	 */
-	private class PrivateInterface implements Runnable, IChangeListener,
-			IStaleListener {
+	private class PrivateInterface extends PropagationScheduler.Node implements
+			Runnable, IChangeListener, IStaleListener {
 		@Override
 		public void run() {
 			cachedList = calculate();
@@ -168,6 +179,11 @@ public abstract class ComputedList extends AbstractObservableList {
 		public void handleChange(ChangeEvent event) {
 			makeDirty();
 		}
+
+		@Override
+		protected void propagate() {
+			propagateChange();
+		}
 	}
 
 	private PrivateInterface privateInterface = new PrivateInterface();
@@ -196,8 +212,9 @@ public abstract class ComputedList extends AbstractObservableList {
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-					privateInterface, privateInterface, null);
+			IObservable[] newDependencies = PropagationScheduler
+					.runAndMonitor(privateInterface, privateInterface,
+							privateInterface, null);
 
 			// If any dependencies are stale, a stale event will be fired here
 			// even if we were already stale before recomputing. This is in case
@@ -221,6 +238,7 @@ public abstract class ComputedList extends AbstractObservableList {
 			dirty = false;
 		}
 
+		PropagationScheduler.nodeRead(privateInterface);
 		return cachedList;
 	}
 
@@ -242,28 +260,51 @@ public abstract class ComputedList extends AbstractObservableList {
 		if (!dirty) {
 			dirty = true;
 
-			makeStale();
-
 			stopListening();
 
-			// copy the old list
-			final List oldList = new ArrayList(cachedList);
-			// Fire the "dirty" event. This implementation recomputes the new
-			// list lazily.
-			fireListChange(new ListDiff() {
-				ListDiffEntry[] differences;
-
-				@Override
-				public ListDiffEntry[] getDifferences() {
-					if (differences == null)
-						differences = Diffs.computeListDiff(oldList, getList())
-								.getDifferences();
-					return differences;
-				}
-			});
+			// copy the list from before the first change of this wave
+			if (!privateInterface.isScheduled()) {
+				scheduledOldList = new ArrayList(cachedList);
+			}
+			// The event is fired once the dependencies of this list have all
+			// been marked dirty.
+			PropagationScheduler.schedule(privateInterface);
 		}
 	}
 
+	private void propagateChange() {
+		final List oldList = scheduledOldList;
+		scheduledOldList = null;
+		if (isDisposed()) {
+			return;
+		}
+		if (!dirty) {
+			// already recomputed by a computed observable depending on this
+			// list
+			ListDiff diff = Diffs.computeListDiff(oldList, cachedList);
+			if (!diff.isEmpty()) {
+				fireListChange(diff);
+			}
+			return;
+		}
+
+		makeStale();
+
+		// Fire the "dirty" event. This implementation recomputes the new
+		// list lazily.
+		fireListChange(new ListDiff() {
+			ListDiffEntry[] differences;
+
+			@Override
+			public ListDiffEntry[] getDifferences() {
+				if (differences == null)
+					differences = Diffs.computeListDiff(oldList, getList())
+							.getDifferences();
+				return differences;
+			}
+		});
+	}
+
 	private void stopListening() {
 		if (dependencies != null) {
 			for (int i = 0; i < dependencies.length; i++) {
@@ -60,12 +60,28 @@ public abstract class AbstractObservableMap extends AbstractMap implements
 		protected boolean hasListeners() {
 			return super.hasListeners();
 		}
+
+		@Override
+		public String toString() {
+			// identifies the observable in listener statistics without
+			// reading its contents
+			Object observable = AbstractObservableMap.this;
+			return observable.getClass().getName() + '@'
+					+ Integer.toHexString(System.identityHashCode(observable));
+		}
 	}
 
 	private final Realm realm;
 	private PrivateChangeSupport changeSupport;
 	private volatile boolean disposed = false;
 
+	/*
+	 * Change and stale events carry nothing but their source, so they are
+	 * created once and shared by all notifications
+	 */
+	private ChangeEvent changeEvent;
+	private StaleEvent staleEvent;
+
 	private boolean stale;
 
 	/**
@@ -229,7 +245,9 @@ public abstract class AbstractObservableMap extends AbstractMap implements
 	 */
 	protected void fireStale() {
 		checkRealm();
-		changeSupport.fireEvent(new StaleEvent(this));
+		if (staleEvent == null)
+			staleEvent = new StaleEvent(this);
+		changeSupport.fireEvent(staleEvent);
 	}
 
 	/**
@@ -237,7 +255,9 @@ public abstract class AbstractObservableMap extends AbstractMap implements
 	 */
 	protected void fireChange() {
 		checkRealm();
-		changeSupport.fireEvent(new ChangeEvent(this));
+		if (changeEvent == null)
+			changeEvent = new ChangeEvent(this);
+		changeSupport.fireEvent(changeEvent);
 	}
 
 	/**
@@ -21,10 +21,10 @@ import org.eclipse.core.databinding.observable.Diffs;
 import org.eclipse.core.databinding.observable.IChangeListener;
 import org.eclipse.core.databinding.observable.IObservable;
 import org.eclipse.core.databinding.observable.IStaleListener;
-import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.StaleEvent;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.internal.databinding.observable.PropagationScheduler;
 
 /**
  * A lazily calculated set that automatically computes and registers listeners
@@ -72,6 +72,12 @@ import org.eclipse.core.databinding.observable.value.IObservableValue;
 public abstract class ComputedSet extends AbstractObservableSet {
 	private Set cachedSet = new HashSet();
 
+	/**
+	 * Copy of the set before the dependency changes that are waiting to be
+	 * propagated.
+	 */
+	private Set scheduledOldSet = null;
+
 	private boolean dirty = true;
 	private boolean stale = false;
 
@@ -144,9 +150,13 @@ public abstract class ComputedSet extends AbstractObservableSet {
 	 * The IChangeListener is attached to every dependency.
 	 * </p>
 	 *
+	 * <p>
+	 * The Node is scheduled for propagation when a dependency changes.
+	 * </p>
+	 *
 	 */
-	private class PrivateInterface implements Runnable, IChangeListener,
-			IStaleListener {
+	private class PrivateInterface extends PropagationScheduler.Node implements
+			Runnable, IChangeListener, IStaleListener {
 		@Override
 		public void run() {
 			cachedSet = calculate();
@@ -164,6 +174,11 @@ public abstract class ComputedSet extends AbstractObservableSet {
 		public void handleChange(ChangeEvent event) {
 			makeDirty();
 		}
+
+		@Override
+		protected void propagate() {
+			propagateChange();
+		}
 	}
 
 	private PrivateInterface privateInterface = new PrivateInterface();
@@ -190,8 +205,9 @@ public abstract class ComputedSet extends AbstractObservableSet {
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-					privateInterface, privateInterface, null);
+			IObservable[] newDependencies = PropagationScheduler
+					.runAndMonitor(privateInterface, privateInterface,
+							privateInterface, null);
 
 			// If any dependencies are stale, a stale event will be fired here
 			// even if we were already stale before recomputing. This is in case
@@ -215,6 +231,7 @@ public abstract class ComputedSet extends AbstractObservableSet {
 			dirty = false;
 		}
 
+		PropagationScheduler.nodeRead(privateInterface);
 		return cachedSet;
 	}
 
@@ -232,37 +249,57 @@ public abstract class ComputedSet extends AbstractObservableSet {
 		if (!dirty) {
 			dirty = true;
 
-			// copy the old set
-			// bug 414297: moved before makeStale(), as cachedSet may be
-			// overwritten
-			// in makeStale() if a listener calls isStale()
-			final Set oldSet = new HashSet(cachedSet);
-			makeStale();
-
 			stopListening();
 
-			// Fire the "dirty" event. This implementation recomputes the new
-			// set lazily.
-			fireSetChange(new SetDiff() {
-				SetDiff delegate;
+			// copy the set from before the first change of this wave
+			if (!privateInterface.isScheduled()) {
+				scheduledOldSet = new HashSet(cachedSet);
+			}
+			// The event is fired once the dependencies of this set have all
+			// been marked dirty.
+			PropagationScheduler.schedule(privateInterface);
+		}
+	}
 
-				private SetDiff getDelegate() {
-					if (delegate == null)
-						delegate = Diffs.computeSetDiff(oldSet, getSet());
-					return delegate;
-				}
+	private void propagateChange() {
+		final Set oldSet = scheduledOldSet;
+		scheduledOldSet = null;
+		if (isDisposed()) {
+			return;
+		}
+		if (!dirty) {
+			// already recomputed by a computed observable depending on this
+			// set
+			SetDiff diff = Diffs.computeSetDiff(oldSet, cachedSet);
+			if (!diff.isEmpty()) {
+				fireSetChange(diff);
+			}
+			return;
+		}
 
-				@Override
-				public Set getAdditions() {
-					return getDelegate().getAdditions();
-				}
+		makeStale();
 
-				@Override
-				public Set getRemovals() {
-					return getDelegate().getRemovals();
-				}
-			});
-		}
+		// Fire the "dirty" event. This implementation recomputes the new
+		// set lazily.
+		fireSetChange(new SetDiff() {
+			SetDiff delegate;
+
+			private SetDiff getDelegate() {
+				if (delegate == null)
+					delegate = Diffs.computeSetDiff(oldSet, getSet());
+				return delegate;
+			}
+
+			@Override
+			public Set getAdditions() {
+				return getDelegate().getAdditions();
+			}
+
+			@Override
+			public Set getRemovals() {
+				return getDelegate().getRemovals();
+			}
+		});
 	}
 
 	private void stopListening() {
@@ -13,13 +13,15 @@
 package org.eclipse.core.databinding.observable.value;
 
 import org.eclipse.core.databinding.observable.ChangeEvent;
+import org.eclipse.core.databinding.observable.Diffs;
 import org.eclipse.core.databinding.observable.IChangeListener;
 import org.eclipse.core.databinding.observable.IObservable;
 import org.eclipse.core.databinding.observable.IStaleListener;
-import org.eclipse.core.databinding.observable.ObservableTracker;
 import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.StaleEvent;
 import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.internal.databinding.observable.PropagationScheduler;
+import org.eclipse.core.internal.databinding.observable.Util;
 
 /**
  * A Lazily calculated value that automatically computes and registers listeners
@@ -27,6 +29,13 @@ import org.eclipse.core.databinding.observable.list.IObservableList;
  * {@link IObservable} objects. Any change to one of the observable dependencies
  * causes the value to be recomputed.
  * <p>
+ * Changes are propagated through computed observables in dependency order:
+ * when a change affects several dependencies of a computed value, the value is
+ * recomputed once, after all of them have been updated. While someone is
+ * listening, the value is recomputed as soon as a dependency changes, and no
+ * event is fired if the recomputed value is equal to the previous one.
+ * </p>
+ * <p>
  * This class is thread safe. All state accessing methods must be invoked from
  * the {@link Realm#isCurrent() current realm}. Methods for adding and removing
  * listeners may be invoked from any thread.
@@ -69,6 +78,12 @@ public abstract class ComputedValue extends AbstractObservableValue {
 
 	private Object cachedValue = null;
 
+	/**
+	 * The value before the dependency changes that are waiting to be
+	 * propagated.
+	 */
+	private Object scheduledOldValue = null;
+
 	/**
 	 * Array of observables this computed value depends on. This field has a
 	 * value of <code>null</code> if we are not currently listening.
@@ -127,9 +142,13 @@ public abstract class ComputedValue extends AbstractObservableValue {
 	 * The IChangeListener is attached to every dependency.
 	 * </p>
 	 *
+	 * <p>
+	 * The Node is scheduled for propagation when a dependency changes.
+	 * </p>
+	 *
 	 */
-	private class PrivateInterface implements Runnable, IChangeListener,
-			IStaleListener {
+	private class PrivateInterface extends PropagationScheduler.Node implements
+			Runnable, IChangeListener, IStaleListener {
 		@Override
 		public void run() {
 			cachedValue = calculate();
@@ -147,6 +166,11 @@ public abstract class ComputedValue extends AbstractObservableValue {
 		public void handleChange(ChangeEvent event) {
 			makeDirty();
 		}
+
+		@Override
+		protected void propagate() {
+			propagateChange();
+		}
 	}
 
 	private PrivateInterface privateInterface = new PrivateInterface();
@@ -160,8 +184,9 @@ public abstract class ComputedValue extends AbstractObservableValue {
 			// - Run the calculate method
 			// - While doing so, add any observable that is touched to the
 			// dependencies list
-			IObservable[] newDependencies = ObservableTracker.runAndMonitor(
-					privateInterface, privateInterface, null);
+			IObservable[] newDependencies = PropagationScheduler
+					.runAndMonitor(privateInterface, privateInterface,
+							privateInterface, null);
 
 			stale = false;
 			for (int i = 0; i < newDependencies.length; i++) {
@@ -179,6 +204,7 @@ public abstract class ComputedValue extends AbstractObservableValue {
 			dirty = false;
 		}
 
+		PropagationScheduler.nodeRead(privateInterface);
 		return cachedValue;
 	}
 
@@ -198,22 +224,26 @@ public abstract class ComputedValue extends AbstractObservableValue {
 
 			stopListening();
 
-			// copy the old value
-			final Object oldValue = cachedValue;
-			// Fire the "dirty" event. This implementation recomputes the new
-			// value lazily.
-			fireValueChange(new ValueDiff() {
-
-				@Override
-				public Object getOldValue() {
-					return oldValue;
-				}
+			// remember the value from before the first change of this wave
+			if (!privateInterface.isScheduled()) {
+				scheduledOldValue = cachedValue;
+			}
+			// The event is fired once the dependencies of this value have all
+			// been marked dirty.
+			PropagationScheduler.schedule(privateInterface);
+		}
+	}
 
-				@Override
-				public Object getNewValue() {
-					return getValue();
-				}
-			});
+	private void propagateChange() {
+		Object oldValue = scheduledOldValue;
+		scheduledOldValue = null;
+		if (isDisposed() || !hasListeners()) {
+			// Nobody is interested, the value is recomputed lazily.
+			return;
+		}
+		Object newValue = doGetValue();
+		if (!Util.equals(oldValue, newValue)) {
+			fireValueChange(Diffs.createValueDiff(oldValue, newValue));
 		}
 	}
 
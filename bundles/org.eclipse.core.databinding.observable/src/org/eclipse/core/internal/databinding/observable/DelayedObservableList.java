@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.IDiff;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.list.DecoratingObservableList;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+
+/**
+ * {@link IObservableList} implementation that wraps an {@link IObservableList}
+ * and fires the changes of the wrapped list in batches: the diffs received
+ * within <code>delay</code> milliseconds of the first one, or until
+ * <code>maxBatchSize</code> list entries have been received, are fired as one
+ * list change event. The list fires a stale event when a batch starts, and
+ * remains stale until the batch is fired. Reading the list fires the pending
+ * batch first, so that a reader never sees changes before their diff.
+ *
+ * @since 1.5
+ */
+public class DelayedObservableList extends DecoratingObservableList {
+	private final DiffThrottle throttle;
+
+	/**
+	 * @param delay
+	 *            the maximum time in milliseconds a change is held back
+	 * @param maxBatchSize
+	 *            the number of list diff entries at which a batch is fired
+	 *            right away, or 0 for no limit
+	 * @param decorated
+	 *            the list to wrap
+	 */
+	public DelayedObservableList(int delay, int maxBatchSize,
+			IObservableList decorated) {
+		super(decorated, true);
+		throttle = new DiffThrottle(decorated.getRealm(), delay, maxBatchSize) {
+			@Override
+			protected void fireStale() {
+				DelayedObservableList.this.fireStale();
+			}
+
+			@Override
+			protected void fireDiff(IDiff diff) {
+				fireListChange(diff == null ? Diffs
+						.createListDiff(new ListDiffEntry[0]) : (ListDiff) diff);
+			}
+		};
+	}
+
+	@Override
+	protected void handleListChange(ListChangeEvent event) {
+		throttle.add(event.diff);
+	}
+
+	@Override
+	public boolean isStale() {
+		// asking whether a batch is pending must not fire it
+		ObservableTracker.getterCalled(this);
+		return throttle.isPending() || getDecorated().isStale();
+	}
+
+	@Override
+	protected void getterCalled() {
+		if (throttle != null) {
+			throttle.flush();
+		}
+		super.getterCalled();
+	}
+
+	@Override
+	protected void lastListenerRemoved() {
+		throttle.cancel();
+		super.lastListenerRemoved();
+	}
+
+	@Override
+	public synchronized void dispose() {
+		if (throttle != null) {
+			throttle.cancel();
+		}
+		super.dispose();
+	}
+}
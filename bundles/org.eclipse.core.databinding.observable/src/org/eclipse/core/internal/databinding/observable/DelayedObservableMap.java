@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.Collections;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.IDiff;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.map.DecoratingObservableMap;
+import org.eclipse.core.databinding.observable.map.IObservableMap;
+import org.eclipse.core.databinding.observable.map.MapChangeEvent;
+import org.eclipse.core.databinding.observable.map.MapDiff;
+
+/**
+ * {@link IObservableMap} implementation that wraps an {@link IObservableMap}
+ * and fires the changes of the wrapped map in batches: the diffs received
+ * within <code>delay</code> milliseconds of the first one, or until
+ * <code>maxBatchSize</code> map keys have been received, are fired as one
+ * map change event. The map fires a stale event when a batch starts, and
+ * remains stale until the batch is fired. Reading the map fires the pending
+ * batch first, so that a reader never sees changes before their diff.
+ *
+ * @since 1.5
+ */
+public class DelayedObservableMap extends DecoratingObservableMap {
+	private final DiffThrottle throttle;
+
+	/**
+	 * @param delay
+	 *            the maximum time in milliseconds a change is held back
+	 * @param maxBatchSize
+	 *            the number of map keys changed at which a batch is fired
+	 *            right away, or 0 for no limit
+	 * @param decorated
+	 *            the map to wrap
+	 */
+	public DelayedObservableMap(int delay, int maxBatchSize,
+			IObservableMap decorated) {
+		super(decorated, true);
+		throttle = new DiffThrottle(decorated.getRealm(), delay, maxBatchSize) {
+			@Override
+			protected void fireStale() {
+				DelayedObservableMap.this.fireStale();
+			}
+
+			@Override
+			protected void fireDiff(IDiff diff) {
+				fireMapChange(diff == null ? Diffs.createMapDiff(
+						Collections.EMPTY_SET, Collections.EMPTY_SET,
+						Collections.EMPTY_SET, Collections.EMPTY_MAP,
+						Collections.EMPTY_MAP) : (MapDiff) diff);
+			}
+		};
+	}
+
+	@Override
+	protected void handleMapChange(MapChangeEvent event) {
+		throttle.add(event.diff);
+	}
+
+	@Override
+	public boolean isStale() {
+		// asking whether a batch is pending must not fire it
+		ObservableTracker.getterCalled(this);
+		return throttle.isPending() || getDecorated().isStale();
+	}
+
+	@Override
+	protected void getterCalled() {
+		if (throttle != null) {
+			throttle.flush();
+		}
+		super.getterCalled();
+	}
+
+	@Override
+	protected void lastListenerRemoved() {
+		throttle.cancel();
+		super.lastListenerRemoved();
+	}
+
+	@Override
+	public synchronized void dispose() {
+		if (throttle != null) {
+			throttle.cancel();
+		}
+		super.dispose();
+	}
+}
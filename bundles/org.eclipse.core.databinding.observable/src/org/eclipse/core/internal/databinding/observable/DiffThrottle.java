@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import org.eclipse.core.databinding.observable.IDiff;
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Buffers the diffs of a decorated collection and hands them on merged, at
+ * most <code>delay</code> milliseconds after the first of them was received.
+ * The buffered diffs are handed on earlier once they reach a maximum batch
+ * size.
+ *
+ * @since 1.5
+ */
+/* package */abstract class DiffThrottle {
+	private final Realm realm;
+	private final int delay;
+	private final int maxBatchSize;
+
+	private final PendingDiffs diffs = new PendingDiffs();
+
+	/*
+	 * The runnable scheduled to flush the buffered diffs, or null
+	 */
+	private Runnable scheduled;
+
+	/**
+	 * @param realm
+	 *            the realm of the decorated collection
+	 * @param delay
+	 *            the maximum time in milliseconds a diff is held back
+	 * @param maxBatchSize
+	 *            the number of buffered list entries, set elements or map
+	 *            keys at which the diffs are handed on right away, or 0 for no
+	 *            limit
+	 */
+	DiffThrottle(Realm realm, int delay, int maxBatchSize) {
+		this.realm = realm;
+		this.delay = delay;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * @return whether diffs are waiting to be handed on
+	 */
+	boolean isPending() {
+		return !diffs.isEmpty();
+	}
+
+	/**
+	 * Buffers the given diff.
+	 *
+	 * @param diff
+	 *            the diff received from the decorated collection
+	 */
+	void add(IDiff diff) {
+		boolean first = diffs.isEmpty();
+		diffs.add(diff);
+		if (first) {
+			fireStale();
+			schedule();
+		}
+		if (maxBatchSize > 0 && diffs.size() >= maxBatchSize) {
+			flush();
+		}
+	}
+
+	/**
+	 * Hands on the buffered diffs right away.
+	 */
+	void flush() {
+		scheduled = null;
+		if (diffs.isEmpty()) {
+			return;
+		}
+		IDiff diff = diffs.createDiff();
+		diffs.clear();
+		fireDiff(diff);
+	}
+
+	/**
+	 * Drops the buffered diffs.
+	 */
+	void cancel() {
+		scheduled = null;
+		diffs.clear();
+	}
+
+	private void schedule() {
+		Runnable runnable = new Runnable() {
+			@Override
+			public void run() {
+				if (scheduled == this) {
+					flush();
+				}
+			}
+		};
+		scheduled = runnable;
+		realm.timerExec(delay, runnable);
+	}
+
+	/**
+	 * Called when the first diff of a batch is buffered.
+	 */
+	protected abstract void fireStale();
+
+	/**
+	 * Called with the merged diff of a batch.
+	 *
+	 * @param diff
+	 *            the merged diff, or <code>null</code> if the buffered diffs
+	 *            cancelled each other out
+	 */
+	protected abstract void fireDiff(IDiff diff);
+}
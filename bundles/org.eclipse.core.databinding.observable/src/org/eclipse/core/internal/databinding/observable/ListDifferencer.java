@@ -0,0 +1,336 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.eclipse.core.databinding.observable.Diffs;
+
+/**
+ * Computes the differences between two lists in O(n log n) time.
+ * <p>
+ * The common prefix and suffix of the lists are skipped. In the remaining
+ * part, the k-th occurrence of an element in the new list is paired with the
+ * k-th occurrence of an equal element in the old list. The longest increasing
+ * run of paired old indices stays in place; the other paired elements are
+ * moved, unpaired old elements are removed, and unpaired new elements are
+ * added.
+ * </p>
+ * <p>
+ * A move is reported as a remove entry immediately followed by an add entry
+ * for the same element, which
+ * {@link org.eclipse.core.databinding.observable.list.ListDiff#accept(org.eclipse.core.databinding.observable.list.ListDiffVisitor)}
+ * reports as a move. Positions of the entries are tracked with a Fenwick tree
+ * over the slots the elements occupy, so every entry costs O(log n).
+ * </p>
+ *
+ * @since 1.5
+ */
+public class ListDifferencer {
+
+	private final List oldList;
+	private final List newList;
+	private final List listDiffs;
+
+	/*
+	 * Length of the common prefix, added to all positions
+	 */
+	private int offset;
+
+	/*
+	 * Old indices of the new elements, or -1 for added elements
+	 */
+	private int[] oldIndexOfNew;
+
+	/*
+	 * Whether each old element is paired with a new element
+	 */
+	private boolean[] paired;
+
+	/*
+	 * Whether each paired old element keeps its place
+	 */
+	private boolean[] kept;
+
+	/*
+	 * Whether each old element is still in the list
+	 */
+	private boolean[] present;
+
+	/*
+	 * Slot of each old element, and of each new element that is inserted
+	 */
+	private int[] oldSlots;
+	private int[] newSlots;
+
+	/*
+	 * Fenwick tree counting the occupied slots
+	 */
+	private int[] tree;
+
+	/**
+	 * Computes the differences between the given lists and appends them, as
+	 * {@link org.eclipse.core.databinding.observable.list.ListDiffEntry}
+	 * objects, to <code>listDiffs</code> in the order they are to be applied.
+	 *
+	 * @param oldList
+	 *            the old list state
+	 * @param newList
+	 *            the new list state
+	 * @param listDiffs
+	 *            the list to which the entries are added
+	 */
+	public static void computeDifferences(List oldList, List newList,
+			List listDiffs) {
+		new ListDifferencer(oldList, newList, listDiffs).compute();
+	}
+
+	private ListDifferencer(List oldList, List newList, List listDiffs) {
+		this.oldList = oldList instanceof RandomAccess ? oldList
+				: new ArrayList(oldList);
+		this.newList = newList instanceof RandomAccess ? newList
+				: new ArrayList(newList);
+		this.listDiffs = listDiffs;
+	}
+
+	private void compute() {
+		int oldEnd = oldList.size();
+		int newEnd = newList.size();
+		int start = 0;
+		while (start < oldEnd && start < newEnd
+				&& Util.equals(oldList.get(start), newList.get(start))) {
+			start++;
+		}
+		while (oldEnd > start && newEnd > start
+				&& Util.equals(oldList.get(oldEnd - 1), newList.get(newEnd - 1))) {
+			oldEnd--;
+			newEnd--;
+		}
+		offset = start;
+		int oldSize = oldEnd - start;
+		int newSize = newEnd - start;
+		if (oldSize == 0) {
+			for (int j = 0; j < newSize; j++) {
+				add(start + j, newList.get(start + j));
+			}
+			return;
+		}
+		if (newSize == 0) {
+			for (int i = oldSize; i > 0;) {
+				--i;
+				remove(start + i, oldList.get(start + i));
+			}
+			return;
+		}
+
+		pair(start, oldSize, newSize);
+		keepLongestIncreasingRun(newSize);
+		assignSlots(oldSize, newSize);
+		emit(start, oldSize, newSize);
+	}
+
+	/**
+	 * Pairs the k-th occurrence of each new element with the k-th occurrence
+	 * of an equal old element.
+	 */
+	private void pair(int start, int oldSize, int newSize) {
+		Map occurrences = new HashMap(oldSize * 4 / 3 + 1);
+		for (int i = oldSize; i > 0;) {
+			--i;
+			Object element = oldList.get(start + i);
+			// equal elements are chained in ascending order of their index
+			occurrences.put(element, new Occurrence(i,
+					(Occurrence) occurrences.get(element)));
+		}
+		oldIndexOfNew = new int[newSize];
+		paired = new boolean[oldSize];
+		for (int j = 0; j < newSize; j++) {
+			Object element = newList.get(start + j);
+			Occurrence occurrence = (Occurrence) occurrences.get(element);
+			if (occurrence == null) {
+				oldIndexOfNew[j] = -1;
+			} else {
+				oldIndexOfNew[j] = occurrence.index;
+				paired[occurrence.index] = true;
+				if (occurrence.next == null) {
+					occurrences.remove(element);
+				} else {
+					occurrences.put(element, occurrence.next);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks the paired old elements forming the longest increasing run of old
+	 * indices, in new list order, as kept. Uses patience sorting.
+	 */
+	private void keepLongestIncreasingRun(int newSize) {
+		// tails[k] is the new index ending the best run of length k + 1
+		int[] tails = new int[newSize];
+		int[] previous = new int[newSize];
+		int length = 0;
+		for (int j = 0; j < newSize; j++) {
+			int value = oldIndexOfNew[j];
+			if (value < 0) {
+				continue;
+			}
+			int low = 0;
+			int high = length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (oldIndexOfNew[tails[middle]] < value) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			previous[j] = low > 0 ? tails[low - 1] : -1;
+			tails[low] = j;
+			if (low == length) {
+				length++;
+			}
+		}
+		kept = new boolean[paired.length];
+		for (int j = length > 0 ? tails[length - 1] : -1; j >= 0; j = previous[j]) {
+			kept[oldIndexOfNew[j]] = true;
+		}
+	}
+
+	/**
+	 * Orders the old elements and the inserted new elements the way they are
+	 * laid out while the entries are applied: inserted elements follow the
+	 * nearest kept element before them in the new list.
+	 */
+	private void assignSlots(int oldSize, int newSize) {
+		oldSlots = new int[oldSize];
+		newSlots = new int[newSize];
+		int slot = 0;
+		int j = 0;
+		// inserted elements before the first kept element
+		while (j < newSize && !isKept(j)) {
+			newSlots[j++] = ++slot;
+		}
+		for (int i = 0; i < oldSize; i++) {
+			oldSlots[i] = ++slot;
+			if (kept[i]) {
+				// j is the new index of this kept element
+				j++;
+				while (j < newSize && !isKept(j)) {
+					newSlots[j++] = ++slot;
+				}
+			}
+		}
+		tree = new int[slot + 1];
+		present = new boolean[oldSize];
+		for (int i = 0; i < oldSize; i++) {
+			present[i] = true;
+			increment(oldSlots[i], 1);
+		}
+	}
+
+	private boolean isKept(int newIndex) {
+		int oldIndex = oldIndexOfNew[newIndex];
+		return oldIndex >= 0 && kept[oldIndex];
+	}
+
+	private void emit(int start, int oldSize, int newSize) {
+		// first old element that may still need to be removed
+		int cursor = 0;
+		for (int j = 0; j < newSize; j++) {
+			int oldIndex = oldIndexOfNew[j];
+			if (oldIndex < 0) {
+				insert(j, newList.get(start + j));
+				continue;
+			}
+			if (kept[oldIndex]) {
+				// remove everything that is in the way
+				for (; cursor < oldIndex; cursor++) {
+					if (present[cursor] && !paired[cursor]) {
+						removeOld(cursor, oldList.get(start + cursor));
+					}
+				}
+				cursor = oldIndex + 1;
+			} else {
+				// remove the unpaired elements in front of the list first
+				while (cursor < oldSize
+						&& (!paired[cursor] || !present[cursor])) {
+					if (present[cursor]) {
+						removeOld(cursor, oldList.get(start + cursor));
+					}
+					cursor++;
+				}
+				Object element = newList.get(start + j);
+				removeOld(oldIndex, element);
+				insert(j, element);
+			}
+		}
+		for (int i = oldSize; i > 0;) {
+			--i;
+			if (present[i] && !kept[i]) {
+				removeOld(i, oldList.get(start + i));
+			}
+		}
+	}
+
+	private void insert(int newIndex, Object element) {
+		int slot = newSlots[newIndex];
+		increment(slot, 1);
+		add(offset + count(slot - 1), element);
+	}
+
+	private void removeOld(int oldIndex, Object element) {
+		int slot = oldSlots[oldIndex];
+		present[oldIndex] = false;
+		increment(slot, -1);
+		remove(offset + count(slot - 1), element);
+	}
+
+	private void add(int position, Object element) {
+		listDiffs.add(Diffs.createListDiffEntry(position, true, element));
+	}
+
+	private void remove(int position, Object element) {
+		listDiffs.add(Diffs.createListDiffEntry(position, false, element));
+	}
+
+	private void increment(int slot, int delta) {
+		for (int i = slot; i < tree.length; i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+
+	/**
+	 * Returns the number of occupied slots up to and including the given one.
+	 */
+	private int count(int slot) {
+		int sum = 0;
+		for (int i = slot; i > 0; i -= i & -i) {
+			sum += tree[i];
+		}
+		return sum;
+	}
+
+	private static class Occurrence {
+		final int index;
+		final Occurrence next;
+
+		Occurrence(int index, Occurrence next) {
+			this.index = index;
+			this.next = next;
+		}
+	}
+}
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.IDiff;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+import org.eclipse.core.databinding.observable.map.MapDiff;
+import org.eclipse.core.databinding.observable.set.SetDiff;
+
+/**
+ * Merges the successive list, set or map diffs of one observable into a
+ * single diff of the same kind.
+ *
+ * @since 1.5
+ */
+public class PendingDiffs {
+
+	private List listEntries;
+
+	private Set setAdditions;
+	private Set setRemovals;
+
+	/*
+	 * Maps each key to a MapChange, in the order keys were first changed
+	 */
+	private Map mapChanges;
+
+	/*
+	 * Number of entries, elements or keys in the diffs added so far
+	 */
+	private int size;
+
+	/**
+	 * @return <code>true</code> if no diff was added since this object was
+	 *         created or last cleared
+	 */
+	public boolean isEmpty() {
+		return listEntries == null && setAdditions == null
+				&& mapChanges == null;
+	}
+
+	/**
+	 * @return the number of list entries, set elements and map keys in the
+	 *         diffs added so far, counting repeated changes again
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds the given diff, which must be of the same kind as the diffs added
+	 * before.
+	 *
+	 * @param diff
+	 *            a {@link ListDiff}, {@link SetDiff} or {@link MapDiff}
+	 */
+	public void add(IDiff diff) {
+		if (diff instanceof ListDiff) {
+			addListDiff((ListDiff) diff);
+		} else if (diff instanceof SetDiff) {
+			addSetDiff((SetDiff) diff);
+		} else if (diff instanceof MapDiff) {
+			addMapDiff((MapDiff) diff);
+		} else {
+			throw new IllegalArgumentException("Unsupported diff: " + diff); //$NON-NLS-1$
+		}
+	}
+
+	private void addListDiff(ListDiff diff) {
+		if (listEntries == null) {
+			listEntries = new ArrayList();
+		}
+		// list diff entries are applied in sequence, so the merged diff is
+		// simply the concatenation
+		ListDiffEntry[] entries = diff.getDifferences();
+		listEntries.addAll(Arrays.asList(entries));
+		size += entries.length;
+	}
+
+	private void addSetDiff(SetDiff diff) {
+		if (setAdditions == null) {
+			setAdditions = new HashSet();
+			setRemovals = new HashSet();
+		}
+		for (Iterator it = diff.getRemovals().iterator(); it.hasNext();) {
+			Object element = it.next();
+			// removing an element added earlier cancels out
+			if (!setAdditions.remove(element)) {
+				setRemovals.add(element);
+			}
+			size++;
+		}
+		for (Iterator it = diff.getAdditions().iterator(); it.hasNext();) {
+			Object element = it.next();
+			// adding back an element removed earlier cancels out
+			if (!setRemovals.remove(element)) {
+				setAdditions.add(element);
+			}
+			size++;
+		}
+	}
+
+	private void addMapDiff(MapDiff diff) {
+		if (mapChanges == null) {
+			mapChanges = new LinkedHashMap();
+		}
+		for (Iterator it = diff.getRemovedKeys().iterator(); it.hasNext();) {
+			Object key = it.next();
+			MapChange change = getMapChange(key, true, diff.getOldValue(key));
+			change.present = false;
+			change.newValue = null;
+			size++;
+		}
+		for (Iterator it = diff.getChangedKeys().iterator(); it.hasNext();) {
+			Object key = it.next();
+			MapChange change = getMapChange(key, true, diff.getOldValue(key));
+			change.present = true;
+			change.newValue = diff.getNewValue(key);
+			size++;
+		}
+		for (Iterator it = diff.getAddedKeys().iterator(); it.hasNext();) {
+			Object key = it.next();
+			MapChange change = getMapChange(key, false, null);
+			change.present = true;
+			change.newValue = diff.getNewValue(key);
+			size++;
+		}
+	}
+
+	private MapChange getMapChange(Object key, boolean existed, Object oldValue) {
+		MapChange change = (MapChange) mapChanges.get(key);
+		if (change == null) {
+			change = new MapChange(existed, oldValue);
+			mapChanges.put(key, change);
+		}
+		return change;
+	}
+
+	/**
+	 * Returns the merged diff, or <code>null</code> if the diffs added cancel
+	 * each other out.
+	 *
+	 * @return a {@link ListDiff}, {@link SetDiff} or {@link MapDiff} of the
+	 *         kind added, or <code>null</code>
+	 */
+	public IDiff createDiff() {
+		if (listEntries != null) {
+			if (listEntries.isEmpty()) {
+				return null;
+			}
+			return Diffs.createListDiff((ListDiffEntry[]) listEntries
+					.toArray(new ListDiffEntry[listEntries.size()]));
+		}
+		if (setAdditions != null) {
+			if (setAdditions.isEmpty() && setRemovals.isEmpty()) {
+				return null;
+			}
+			return Diffs.createSetDiff(setAdditions, setRemovals);
+		}
+		if (mapChanges != null) {
+			return createMapDiff();
+		}
+		return null;
+	}
+
+	private MapDiff createMapDiff() {
+		Set addedKeys = new HashSet();
+		Set removedKeys = new HashSet();
+		Set changedKeys = new HashSet();
+		Map oldValues = new HashMap();
+		Map newValues = new HashMap();
+		for (Iterator it = mapChanges.entrySet().iterator(); it.hasNext();) {
+			Map.Entry entry = (Map.Entry) it.next();
+			Object key = entry.getKey();
+			MapChange change = (MapChange) entry.getValue();
+			if (change.existed) {
+				if (!change.present) {
+					removedKeys.add(key);
+					oldValues.put(key, change.oldValue);
+				} else if (!Util.equals(change.oldValue, change.newValue)) {
+					changedKeys.add(key);
+					oldValues.put(key, change.oldValue);
+					newValues.put(key, change.newValue);
+				}
+			} else if (change.present) {
+				addedKeys.add(key);
+				newValues.put(key, change.newValue);
+			}
+		}
+		if (addedKeys.isEmpty() && removedKeys.isEmpty()
+				&& changedKeys.isEmpty()) {
+			return null;
+		}
+		return Diffs.createMapDiff(addedKeys, removedKeys, changedKeys,
+				oldValues, newValues);
+	}
+
+	/**
+	 * Forgets the diffs added so far.
+	 */
+	public void clear() {
+		listEntries = null;
+		setAdditions = null;
+		setRemovals = null;
+		mapChanges = null;
+		size = 0;
+	}
+
+	/**
+	 * The state of a map key before the first diff and after the diffs seen so
+	 * far.
+	 */
+	private static class MapChange {
+		final boolean existed;
+		final Object oldValue;
+		boolean present;
+		Object newValue;
+
+		MapChange(boolean existed, Object oldValue) {
+			this.existed = existed;
+			this.oldValue = oldValue;
+		}
+	}
+}
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.eclipse.core.databinding.observable.IChangeListener;
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.IStaleListener;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+
+/**
+ * Schedules the propagation of changes through computed observables, such as
+ * {@link org.eclipse.core.databinding.observable.value.ComputedValue}.
+ * <p>
+ * A computed observable whose dependency changes does not notify its own
+ * listeners right away. It marks itself dirty and is scheduled instead. Once
+ * the outermost event dispatch on the current thread has returned, the
+ * scheduled observables are propagated in order of their height in the
+ * dependency graph: an observable only depending on plain observables has
+ * height 0, and any other has a height one greater than the highest computed
+ * observable it read during its last calculation. Every dependency of an
+ * observable is therefore marked dirty before the observable itself is
+ * propagated, so it never reads an outdated value, and each observable is
+ * propagated at most once per change.
+ * </p>
+ * <p>
+ * The state is kept per thread, as a realm only runs code on one thread at a
+ * time.
+ * </p>
+ *
+ * @since 1.5
+ */
+public class PropagationScheduler {
+
+	/**
+	 * A computed observable taking part in change propagation.
+	 */
+	public static abstract class Node {
+		private int height;
+
+		/*
+		 * Height learned from the reads of the calculation in progress
+		 */
+		private int pendingHeight;
+
+		private boolean scheduled;
+
+		/**
+		 * @return whether this node is waiting to be propagated
+		 */
+		public final boolean isScheduled() {
+			return scheduled;
+		}
+
+		/**
+		 * Notifies the listeners of the observable of the changes made since it
+		 * was scheduled. Called at most once per schedule.
+		 */
+		protected abstract void propagate();
+	}
+
+	private static class Entry {
+		final Node node;
+		final int height;
+		final int sequence;
+
+		Entry(Node node, int height, int sequence) {
+			this.node = node;
+			this.height = height;
+			this.sequence = sequence;
+		}
+	}
+
+	private static final Comparator ENTRY_ORDER = new Comparator() {
+		@Override
+		public int compare(Object o1, Object o2) {
+			Entry e1 = (Entry) o1;
+			Entry e2 = (Entry) o2;
+			if (e1.height != e2.height) {
+				return e1.height < e2.height ? -1 : 1;
+			}
+			return e1.sequence < e2.sequence ? -1
+					: (e1.sequence == e2.sequence ? 0 : 1);
+		}
+	};
+
+	private static ThreadLocal current = new ThreadLocal();
+
+	private int dispatchDepth;
+
+	private boolean draining;
+
+	private int sequence;
+
+	/*
+	 * Height of the node being propagated, or -1
+	 */
+	private int propagatingHeight = -1;
+
+	private final PriorityQueue queue = new PriorityQueue(11, ENTRY_ORDER);
+
+	/*
+	 * Nodes whose calculation is in progress, innermost last
+	 */
+	private final List calculating = new ArrayList();
+
+	private static PropagationScheduler getCurrent() {
+		PropagationScheduler scheduler = (PropagationScheduler) current.get();
+		if (scheduler == null) {
+			scheduler = new PropagationScheduler();
+			current.set(scheduler);
+		}
+		return scheduler;
+	}
+
+	/**
+	 * Marks the start of an event dispatch on the current thread. Must be
+	 * balanced by a call to {@link #endDispatch()}.
+	 */
+	public static void beginDispatch() {
+		getCurrent().dispatchDepth++;
+	}
+
+	/**
+	 * Marks the end of an event dispatch on the current thread. When the
+	 * outermost dispatch ends, the scheduled nodes are propagated.
+	 */
+	public static void endDispatch() {
+		PropagationScheduler scheduler = getCurrent();
+		if (--scheduler.dispatchDepth == 0) {
+			scheduler.drain();
+		}
+	}
+
+	/**
+	 * Schedules the given node for propagation. If no event is being
+	 * dispatched on the current thread, the node is propagated before this
+	 * method returns.
+	 *
+	 * @param node
+	 *            the node whose dependencies changed
+	 */
+	public static void schedule(Node node) {
+		PropagationScheduler scheduler = getCurrent();
+		if (!node.scheduled) {
+			node.scheduled = true;
+			// a node notified by the node being propagated is downstream of
+			// it, even if no calculation has revealed that yet
+			int height = Math.max(node.height,
+					scheduler.propagatingHeight + 1);
+			scheduler.queue.add(new Entry(node, height, scheduler.sequence++));
+		}
+		if (scheduler.dispatchDepth == 0) {
+			scheduler.drain();
+		}
+	}
+
+	/**
+	 * Runs the calculation of the given node, and returns the observables
+	 * read by it. The height of the node is updated from the computed
+	 * observables it reads.
+	 *
+	 * @param node
+	 *            the node being calculated
+	 * @param runnable
+	 *            the calculation
+	 * @param changeListener
+	 *            listener added to every observable read
+	 * @param staleListener
+	 *            listener added to every observable read, or <code>null</code>
+	 * @return the observables read by the calculation
+	 * @see ObservableTracker#runAndMonitor(Runnable, IChangeListener,
+	 *      IStaleListener)
+	 */
+	public static IObservable[] runAndMonitor(Node node, Runnable runnable,
+			IChangeListener changeListener, IStaleListener staleListener) {
+		PropagationScheduler scheduler = getCurrent();
+		node.pendingHeight = 0;
+		scheduler.calculating.add(node);
+		try {
+			return ObservableTracker.runAndMonitor(runnable, changeListener,
+					staleListener);
+		} finally {
+			scheduler.calculating.remove(scheduler.calculating.size() - 1);
+			node.height = node.pendingHeight;
+		}
+	}
+
+	/**
+	 * Reports that the given node was read, making the node whose calculation
+	 * is in progress on the current thread depend on it.
+	 *
+	 * @param node
+	 *            the node that was read
+	 */
+	public static void nodeRead(Node node) {
+		List calculating = getCurrent().calculating;
+		if (!calculating.isEmpty()) {
+			Node reader = (Node) calculating.get(calculating.size() - 1);
+			if (reader != node) {
+				reader.pendingHeight = Math.max(reader.pendingHeight,
+						node.height + 1);
+			}
+		}
+	}
+
+	private void drain() {
+		if (draining) {
+			return;
+		}
+		draining = true;
+		RuntimeException failure = null;
+		try {
+			Entry entry;
+			while ((entry = (Entry) queue.poll()) != null) {
+				entry.node.scheduled = false;
+				propagatingHeight = entry.height;
+				try {
+					entry.node.propagate();
+				} catch (RuntimeException e) {
+					// propagate the remaining nodes anyway, so that they
+					// notify their listeners and listen to their dependencies
+					// again, and rethrow the first failure afterwards
+					if (failure == null) {
+						failure = e;
+					}
+				}
+			}
+		} finally {
+			// after an error, the remaining nodes stay dirty and are
+			// recomputed when next read
+			while (!queue.isEmpty()) {
+				((Entry) queue.poll()).node.scheduled = false;
+			}
+			propagatingHeight = -1;
+			draining = false;
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+}
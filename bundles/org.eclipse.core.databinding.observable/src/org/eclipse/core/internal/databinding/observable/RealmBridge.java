@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.databinding.observable.Realm;
+
+/**
+ * Hands the changes of an observable in one realm over to an observable in
+ * another realm. Changes are published from the source realm without locking,
+ * and at most one runnable is pending in the target realm at any time, which
+ * drains all the changes published until it runs.
+ *
+ * @since 1.5
+ */
+/* package */abstract class RealmBridge implements Runnable {
+	private final Realm targetRealm;
+
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	/**
+	 * @param targetRealm
+	 *            the realm in which the changes are drained
+	 */
+	RealmBridge(Realm targetRealm) {
+		this.targetRealm = targetRealm;
+	}
+
+	/**
+	 * Makes sure the published changes are drained in the target realm. May be
+	 * called from any thread, after the changes have been published.
+	 */
+	void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			targetRealm.asyncExec(this);
+		}
+	}
+
+	@Override
+	public void run() {
+		// changes published from now on need another run
+		scheduled.set(false);
+		drain();
+	}
+
+	/**
+	 * Applies the changes published so far. Called in the target realm.
+	 */
+	protected abstract void drain();
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.AbstractObservableList;
+import org.eclipse.core.databinding.observable.list.IListChangeListener;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiff;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
+
+/**
+ * An unmodifiable {@link IObservableList} that mirrors, in its own realm, the
+ * contents of an observable list belonging to another realm. The diffs of the
+ * source are published to a lock-free queue, and all the diffs published
+ * before the mirror is updated are merged and fired as one list change event.
+ * The list is stale until the initial contents of the source have arrived.
+ *
+ * @since 1.5
+ */
+public class RealmBridgedObservableList extends AbstractObservableList {
+	/*
+	 * Holds ListDiff objects, and List snapshots of the whole source
+	 */
+	private final Queue pending = new ConcurrentLinkedQueue();
+
+	private final RealmBridge bridge;
+
+	private final Object elementType;
+
+	private IObservableList source;
+
+	private IListChangeListener sourceListener;
+
+	private volatile boolean disposed;
+
+	private final List elements = new ArrayList();
+
+	private final PendingDiffs diffs = new PendingDiffs();
+
+	private boolean initialized;
+
+	/**
+	 * @param realm
+	 *            the realm of the mirror
+	 * @param source
+	 *            the observable list to mirror
+	 */
+	public RealmBridgedObservableList(Realm realm, final IObservableList source) {
+		super(realm);
+		this.source = source;
+		this.elementType = source.getElementType();
+		this.bridge = new RealmBridge(realm) {
+			@Override
+			protected void drain() {
+				RealmBridgedObservableList.this.drain();
+			}
+		};
+		sourceListener = new IListChangeListener() {
+			@Override
+			public void handleListChange(ListChangeEvent event) {
+				// diffs may be computed lazily from the source, so they must
+				// be resolved in the source realm
+				publish(Diffs.createListDiff(event.diff.getDifferences()));
+			}
+		};
+		source.getRealm().exec(new Runnable() {
+			@Override
+			public void run() {
+				if (!disposed && !source.isDisposed()) {
+					source.addListChangeListener(sourceListener);
+					publish(new ArrayList(source));
+				}
+			}
+		});
+	}
+
+	private void publish(Object change) {
+		pending.add(change);
+		bridge.schedule();
+	}
+
+	private void drain() {
+		if (disposed) {
+			pending.clear();
+			return;
+		}
+		boolean wasStale = !initialized;
+		// the contents before the merged diff
+		List base = null;
+		Object change;
+		while ((change = pending.poll()) != null) {
+			if (change instanceof ListDiff) {
+				diffs.add((ListDiff) change);
+			} else {
+				// a snapshot supersedes the diffs published before it
+				if (base == null) {
+					base = new ArrayList(elements);
+				}
+				diffs.clear();
+				diffs.add(Diffs.computeListDiff(base, (List) change));
+				initialized = true;
+			}
+		}
+		ListDiff diff = (ListDiff) diffs.createDiff();
+		diffs.clear();
+		if (diff == null) {
+			if (wasStale && initialized) {
+				fireListChange(Diffs.createListDiff(new ListDiffEntry[0]));
+			}
+			return;
+		}
+		diff.applyTo(elements);
+		fireListChange(diff);
+	}
+
+	@Override
+	protected int doGetSize() {
+		return elements.size();
+	}
+
+	@Override
+	public Object get(int index) {
+		ObservableTracker.getterCalled(this);
+		return elements.get(index);
+	}
+
+	@Override
+	public Object getElementType() {
+		return elementType;
+	}
+
+	@Override
+	public boolean isStale() {
+		ObservableTracker.getterCalled(this);
+		return !initialized;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		if (!disposed) {
+			disposed = true;
+			final IObservableList source = this.source;
+			final IListChangeListener sourceListener = this.sourceListener;
+			source.getRealm().exec(new Runnable() {
+				@Override
+				public void run() {
+					if (!source.isDisposed()) {
+						source.removeListChangeListener(sourceListener);
+					}
+				}
+			});
+			this.source = null;
+			this.sourceListener = null;
+		}
+		super.dispose();
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.internal.databinding.observable;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.AbstractObservableValue;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+
+/**
+ * An unmodifiable {@link IObservableValue} that mirrors, in its own realm, the
+ * value of an observable value belonging to another realm. Only the latest
+ * value published by the source is kept, so values superseded before the
+ * mirror is updated are never seen in its realm. The value is stale until the
+ * initial value of the source has arrived.
+ *
+ * @since 1.5
+ */
+public class RealmBridgedObservableValue extends AbstractObservableValue {
+	private static final Object NO_VALUE = new Object();
+
+	private final AtomicReference pending = new AtomicReference(NO_VALUE);
+
+	private final RealmBridge bridge;
+
+	private final Object valueType;
+
+	private IObservableValue source;
+
+	private IValueChangeListener sourceListener;
+
+	private volatile boolean disposed;
+
+	private Object value;
+
+	private boolean initialized;
+
+	/**
+	 * @param realm
+	 *            the realm of the mirror
+	 * @param source
+	 *            the observable value to mirror
+	 */
+	public RealmBridgedObservableValue(Realm realm,
+			final IObservableValue source) {
+		super(realm);
+		this.source = source;
+		this.valueType = source.getValueType();
+		this.bridge = new RealmBridge(realm) {
+			@Override
+			protected void drain() {
+				RealmBridgedObservableValue.this.drain();
+			}
+		};
+		sourceListener = new IValueChangeListener() {
+			@Override
+			public void handleValueChange(ValueChangeEvent event) {
+				publish(event.diff.getNewValue());
+			}
+		};
+		source.getRealm().exec(new Runnable() {
+			@Override
+			public void run() {
+				if (!disposed && !source.isDisposed()) {
+					source.addValueChangeListener(sourceListener);
+					publish(source.getValue());
+				}
+			}
+		});
+	}
+
+	private void publish(Object newValue) {
+		pending.set(newValue);
+		bridge.schedule();
+	}
+
+	private void drain() {
+		Object newValue = pending.getAndSet(NO_VALUE);
+		if (newValue == NO_VALUE || disposed) {
+			return;
+		}
+		Object oldValue = value;
+		value = newValue;
+		boolean wasStale = !initialized;
+		initialized = true;
+		if (wasStale || !Util.equals(oldValue, newValue)) {
+			fireValueChange(Diffs.createValueDiff(oldValue, newValue));
+		}
+	}
+
+	@Override
+	protected Object doGetValue() {
+		return value;
+	}
+
+	@Override
+	public Object getValueType() {
+		return valueType;
+	}
+
+	@Override
+	public boolean isStale() {
+		ObservableTracker.getterCalled(this);
+		return !initialized;
+	}
+
+	@Override
+	public synchronized void dispose() {
+		if (!disposed) {
+			disposed = true;
+			final IObservableValue source = this.source;
+			final IValueChangeListener sourceListener = this.sourceListener;
+			source.getRealm().exec(new Runnable() {
+				@Override
+				public void run() {
+					if (!source.isDisposed()) {
+						source.removeValueChangeListener(sourceListener);
+					}
+				}
+			});
+			this.source = null;
+			this.sourceListener = null;
+		}
+		super.dispose();
+	}
+}
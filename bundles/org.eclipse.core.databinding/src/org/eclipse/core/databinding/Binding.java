@@ -35,6 +35,7 @@ public abstract class Binding extends ValidationStatusProvider {
 	private IObservable target;
 	private IObservable model;
 	private IDisposeListener disposeListener;
+	private BindingMetrics metrics;
 
 	/**
 	 * Creates a new binding.
@@ -149,6 +150,28 @@ public abstract class Binding extends ValidationStatusProvider {
 		super.dispose();
 	}
 
+	/**
+	 * Returns the metrics recorded for this binding while
+	 * {@link BindingMetrics#setEnabled(boolean) enabled}.
+	 *
+	 * @return the metrics of this binding
+	 * @since 1.5
+	 */
+	public synchronized BindingMetrics getMetrics() {
+		if (metrics == null) {
+			metrics = new BindingMetrics();
+		}
+		return metrics;
+	}
+
+	/**
+	 * @return the metrics of this binding if recording is enabled, or
+	 *         <code>null</code>
+	 */
+	/* package */BindingMetrics getEnabledMetrics() {
+		return BindingMetrics.enabled ? getMetrics() : null;
+	}
+
 	/**
 	 * @param context
 	 */
@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.core.databinding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The number of updates of a {@link Binding} and the time spent in each stage
+ * of those updates.
+ * <p>
+ * Recording is disabled by default, and costs nothing but a check of a flag
+ * while disabled. Once enabled, each binding counts its updates in both
+ * directions, and measures the duration of the stages of each update. The
+ * durations of a stage are kept in a histogram with buckets of exponentially
+ * growing size: bucket <code>i</code> counts the durations of at least
+ * <code>2^i</code> and less than <code>2^(i+1)</code> nanoseconds, except that
+ * the first and last buckets also count the shorter and longer durations.
+ * </p>
+ * <p>
+ * Value bindings record every stage. List and set bindings convert and apply
+ * each change in one pass, which is recorded as the {@link #SET} stage.
+ * </p>
+ * <p>
+ * Together with
+ * {@link org.eclipse.core.databinding.observable.ListenerStatistics}, this is
+ * meant for finding the bindings and observables that are most expensive in
+ * an application.
+ * </p>
+ *
+ * @see Binding#getMetrics()
+ * @since 1.5
+ */
+public final class BindingMetrics {
+
+	/**
+	 * Stage reading the value of the source observable.
+	 */
+	public static final int GET = 0;
+
+	/**
+	 * Stage validating the value read from the source observable.
+	 */
+	public static final int VALIDATE_AFTER_GET = 1;
+
+	/**
+	 * Stage converting the value read from the source observable.
+	 */
+	public static final int CONVERT = 2;
+
+	/**
+	 * Stage validating the converted value.
+	 */
+	public static final int VALIDATE_AFTER_CONVERT = 3;
+
+	/**
+	 * Stage validating the converted value before it is set.
+	 */
+	public static final int VALIDATE_BEFORE_SET = 4;
+
+	/**
+	 * Stage applying the converted value to the destination observable.
+	 */
+	public static final int SET = 5;
+
+	/**
+	 * The number of stages.
+	 */
+	public static final int STAGE_COUNT = 6;
+
+	/**
+	 * The number of buckets of the histogram of each stage.
+	 */
+	public static final int BUCKET_COUNT = 32;
+
+	private static final String[] STAGE_NAMES = { "get", //$NON-NLS-1$
+			"validateAfterGet", //$NON-NLS-1$
+			"convert", //$NON-NLS-1$
+			"validateAfterConvert", //$NON-NLS-1$
+			"validateBeforeSet", //$NON-NLS-1$
+			"set" }; //$NON-NLS-1$
+
+	/* package */static volatile boolean enabled;
+
+	private volatile long startTime = System.nanoTime();
+
+	private final AtomicLong targetToModelCount = new AtomicLong();
+
+	private final AtomicLong modelToTargetCount = new AtomicLong();
+
+	private final AtomicLongArray stageCounts = new AtomicLongArray(
+			STAGE_COUNT);
+
+	private final AtomicLongArray stageTimes = new AtomicLongArray(
+			STAGE_COUNT);
+
+	private final AtomicLongArray histograms = new AtomicLongArray(
+			STAGE_COUNT * BUCKET_COUNT);
+
+	/* package */BindingMetrics() {
+	}
+
+	/**
+	 * Enables or disables the recording of binding metrics. The metrics
+	 * recorded so far are kept when disabled.
+	 *
+	 * @param enabled
+	 *            <code>true</code> to record metrics
+	 */
+	public static void setEnabled(boolean enabled) {
+		BindingMetrics.enabled = enabled;
+	}
+
+	/**
+	 * @return whether binding metrics are recorded
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/* package */void updateStarted(boolean targetToModel) {
+		(targetToModel ? targetToModelCount : modelToTargetCount)
+				.incrementAndGet();
+	}
+
+	/**
+	 * Records that the given stage, started at the given time, has just
+	 * ended.
+	 *
+	 * @return the end time, so that the next stage can start from it
+	 */
+	/* package */long record(int stage, long stageStartTime) {
+		long now = System.nanoTime();
+		long duration = now - stageStartTime;
+		stageCounts.incrementAndGet(stage);
+		stageTimes.addAndGet(stage, duration);
+		histograms.incrementAndGet(stage * BUCKET_COUNT + bucketOf(duration));
+		return now;
+	}
+
+	private static int bucketOf(long duration) {
+		if (duration <= 0)
+			return 0;
+		return Math.min(63 - Long.numberOfLeadingZeros(duration),
+				BUCKET_COUNT - 1);
+	}
+
+	/**
+	 * @return the number of updates from the target to the model
+	 */
+	public long getTargetToModelUpdateCount() {
+		return targetToModelCount.get();
+	}
+
+	/**
+	 * @return the number of updates from the model to the target
+	 */
+	public long getModelToTargetUpdateCount() {
+		return modelToTargetCount.get();
+	}
+
+	/**
+	 * @return the number of updates in both directions
+	 */
+	public long getUpdateCount() {
+		return targetToModelCount.get() + modelToTargetCount.get();
+	}
+
+	/**
+	 * @return the number of updates per second in both directions, since
+	 *         these metrics were created or last reset
+	 */
+	public double getUpdateRate() {
+		long elapsed = System.nanoTime() - startTime;
+		return elapsed <= 0 ? 0 : getUpdateCount() * 1e9 / elapsed;
+	}
+
+	/**
+	 * @param stage
+	 *            one of the stage constants of this class
+	 * @return the number of times the given stage ran
+	 */
+	public long getStageCount(int stage) {
+		return stageCounts.get(stage);
+	}
+
+	/**
+	 * @param stage
+	 *            one of the stage constants of this class
+	 * @return the total time spent in the given stage, in nanoseconds
+	 */
+	public long getStageTime(int stage) {
+		return stageTimes.get(stage);
+	}
+
+	/**
+	 * @return the total time spent in all stages, in nanoseconds
+	 */
+	public long getTotalTime() {
+		long total = 0;
+		for (int stage = 0; stage < STAGE_COUNT; stage++)
+			total += stageTimes.get(stage);
+		return total;
+	}
+
+	/**
+	 * @param stage
+	 *            one of the stage constants of this class
+	 * @return a copy of the histogram of the durations of the given stage,
+	 *         with {@link #BUCKET_COUNT} buckets
+	 */
+	public long[] getHistogram(int stage) {
+		long[] histogram = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++)
+			histogram[i] = histograms.get(stage * BUCKET_COUNT + i);
+		return histogram;
+	}
+
+	/**
+	 * Returns an upper bound of the given percentile of the durations of the
+	 * given stage, as precise as the histogram allows.
+	 *
+	 * @param stage
+	 *            one of the stage constants of this class
+	 * @param percentile
+	 *            the percentile, between 0 and 100
+	 * @return the upper bound in nanoseconds, or 0 if the stage never ran
+	 */
+	public long getPercentile(int stage, double percentile) {
+		long[] histogram = getHistogram(stage);
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+			count += histogram[i];
+		if (count == 0)
+			return 0;
+		long rank = (long) Math.ceil(count * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+			seen += histogram[i];
+			if (seen >= rank)
+				return 1L << (i + 1);
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Discards the metrics recorded so far.
+	 */
+	public void reset() {
+		targetToModelCount.set(0);
+		modelToTargetCount.set(0);
+		for (int i = 0; i < STAGE_COUNT; i++) {
+			stageCounts.set(i, 0);
+			stageTimes.set(i, 0);
+		}
+		for (int i = 0; i < histograms.length(); i++)
+			histograms.set(i, 0);
+		startTime = System.nanoTime();
+	}
+
+	/**
+	 * Returns a textual report of the metrics of the bindings of the given
+	 * context, the bindings that spent the most time updating first. Must be
+	 * called from the validation realm of the context.
+	 *
+	 * @param context
+	 *            the data binding context
+	 * @return the report
+	 */
+	public static String createReport(DataBindingContext context) {
+		List bindings = new ArrayList(context.getBindings());
+		final List metrics = new ArrayList();
+		for (Iterator it = bindings.iterator(); it.hasNext();)
+			metrics.add(((Binding) it.next()).getMetrics());
+		List order = new ArrayList();
+		for (int i = 0; i < bindings.size(); i++)
+			order.add(new Integer(i));
+		Collections.sort(order, new Comparator() {
+			@Override
+			public int compare(Object o1, Object o2) {
+				long time1 = ((BindingMetrics) metrics.get(((Integer) o1)
+						.intValue())).getTotalTime();
+				long time2 = ((BindingMetrics) metrics.get(((Integer) o2)
+						.intValue())).getTotalTime();
+				return time1 > time2 ? -1 : (time1 == time2 ? 0 : 1);
+			}
+		});
+
+		StringBuffer buffer = new StringBuffer();
+		for (Iterator it = order.iterator(); it.hasNext();) {
+			int index = ((Integer) it.next()).intValue();
+			Binding binding = (Binding) bindings.get(index);
+			BindingMetrics bindingMetrics = (BindingMetrics) metrics
+					.get(index);
+			buffer.append(describe(binding)).append(": target=") //$NON-NLS-1$
+					.append(describe(binding.getTarget()))
+					.append(" model=") //$NON-NLS-1$
+					.append(describe(binding.getModel())).append('\n');
+			buffer.append("  updates: ") //$NON-NLS-1$
+					.append(bindingMetrics.getTargetToModelUpdateCount())
+					.append(" target to model, ") //$NON-NLS-1$
+					.append(bindingMetrics.getModelToTargetUpdateCount())
+					.append(" model to target, ") //$NON-NLS-1$
+					.append(Math.round(bindingMetrics.getUpdateRate() * 10) / 10.0)
+					.append("/s\n"); //$NON-NLS-1$
+			for (int stage = 0; stage < STAGE_COUNT; stage++) {
+				long count = bindingMetrics.getStageCount(stage);
+				if (count == 0)
+					continue;
+				buffer.append("  ").append(STAGE_NAMES[stage]) //$NON-NLS-1$
+						.append(": ").append(count) //$NON-NLS-1$
+						.append(" times, mean ") //$NON-NLS-1$
+						.append(bindingMetrics.getStageTime(stage) / count / 1000)
+						.append("us, p90 <") //$NON-NLS-1$
+						.append(bindingMetrics.getPercentile(stage, 90) / 1000)
+						.append("us\n"); //$NON-NLS-1$
+			}
+		}
+		return buffer.toString();
+	}
+
+	private static String describe(Object object) {
+		if (object == null)
+			return "null"; //$NON-NLS-1$
+		return object.getClass().getName() + '@'
+				+ Integer.toHexString(System.identityHashCode(object));
+	}
+}
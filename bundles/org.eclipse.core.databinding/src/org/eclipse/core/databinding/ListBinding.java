@@ -169,6 +169,12 @@ public class ListBinding extends Binding {
 							updatingModel = true;
 						}
 						final MultiStatus multiStatus = BindingStatus.ok();
+						BindingMetrics metrics = getEnabledMetrics();
+						long time = 0;
+						if (metrics != null) {
+							metrics.updateStarted(destination == getModel());
+							time = System.nanoTime();
+						}
 
 						try {
 							if (clearDestination) {
@@ -231,6 +237,8 @@ public class ListBinding extends Binding {
 							// TODO - at this point, the two lists will be out
 							// of sync if an error occurred...
 						} finally {
+							if (metrics != null)
+								metrics.record(BindingMetrics.SET, time);
 							validationStatusObservable.setValue(multiStatus);
 
 							if (destination == getTarget()) {
@@ -173,6 +173,12 @@ public class SetBinding extends Binding {
 					updatingModel = true;
 				}
 				MultiStatus multiStatus = BindingStatus.ok();
+				BindingMetrics metrics = getEnabledMetrics();
+				long time = 0;
+				if (metrics != null) {
+					metrics.updateStarted(destination == getModel());
+					time = System.nanoTime();
+				}
 
 				try {
 					if (clearDestination) {
@@ -203,6 +209,8 @@ public class SetBinding extends Binding {
 						// occurred...
 					}
 				} finally {
+					if (metrics != null)
+						metrics.record(BindingMetrics.SET, time);
 					validationStatusObservable.setValue(multiStatus);
 
 					if (destination == getTarget()) {
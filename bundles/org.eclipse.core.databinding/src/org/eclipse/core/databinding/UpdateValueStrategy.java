@@ -16,6 +16,7 @@ package org.eclipse.core.databinding;
 
 import java.util.Date;
 import java.util.HashMap;
+import java.util.concurrent.Executor;
 
 import org.eclipse.core.databinding.conversion.IConverter;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
@@ -94,6 +95,18 @@ import org.eclipse.core.runtime.Status;
  * {@link #POLICY_NEVER}, {@link #POLICY_CONVERT}, {@link #POLICY_ON_REQUEST},
  * {@link #POLICY_UPDATE}).
  * </p>
+ * <p>
+ * Asynchronous processing:<br/>
+ * If an {@link #setExecutor(Executor) executor} is set, the validation and
+ * conversion phases run on the executor instead of in the realm of the source
+ * observable, so that expensive validators do not block the user interface.
+ * The source value is read in its realm, and the value is set and the
+ * validation status updated in the respective realms once the phases are
+ * done. While an update is in progress the binding's validation status is
+ * stale. An update that is superseded by a newer change of the source
+ * observable is cancelled, and with a {@link #setDelay(int) delay} rapid
+ * changes are debounced.
+ * </p>
  *
  * @see DataBindingContext#bindValue(IObservableValue, IObservableValue,
  *      UpdateValueStrategy, UpdateValueStrategy)
@@ -154,6 +167,10 @@ public class UpdateValueStrategy extends UpdateStrategy {
 
 	private int updatePolicy;
 
+	private Executor executor;
+
+	private int delay;
+
 	private static ValidatorRegistry validatorRegistry = new ValidatorRegistry();
 	private static HashMap validatorsByConverter = new HashMap();
 
@@ -426,6 +443,57 @@ public class UpdateValueStrategy extends UpdateStrategy {
 		return this;
 	}
 
+	/**
+	 * Sets the executor on which the validation and conversion phases of an
+	 * update run. The validators and the converter must then be safe to call
+	 * from the threads of the executor.
+	 *
+	 * @param executor
+	 *            the executor, or <code>null</code> to run the phases in the
+	 *            realm of the source observable
+	 * @return the receiver, to enable method call chaining
+	 * @since 1.5
+	 */
+	public UpdateValueStrategy setExecutor(Executor executor) {
+		this.executor = executor;
+		return this;
+	}
+
+	/**
+	 * @return the executor on which the validation and conversion phases run,
+	 *         or <code>null</code> if they run in the realm of the source
+	 *         observable
+	 * @since 1.5
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the time to wait after the source observable changed before an
+	 * asynchronous update is started. An update is only started if the source
+	 * did not change again in the meantime. Only used if an
+	 * {@link #setExecutor(Executor) executor} is set.
+	 *
+	 * @param milliseconds
+	 *            the delay in milliseconds, or 0 to start updates right away
+	 * @return the receiver, to enable method call chaining
+	 * @since 1.5
+	 */
+	public UpdateValueStrategy setDelay(int milliseconds) {
+		this.delay = milliseconds;
+		return this;
+	}
+
+	/**
+	 * @return the time to wait before an asynchronous update is started, in
+	 *         milliseconds
+	 * @since 1.5
+	 */
+	public int getDelay() {
+		return delay;
+	}
+
 	/**
 	 * Validates the value after it is converted.
 	 * <p>
@@ -12,7 +12,10 @@
 
 package org.eclipse.core.databinding;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.eclipse.core.databinding.observable.ObservableTracker;
+import org.eclipse.core.databinding.observable.Realm;
 import org.eclipse.core.databinding.observable.value.IObservableValue;
 import org.eclipse.core.databinding.observable.value.IValueChangeListener;
 import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
@@ -31,12 +34,20 @@ import org.eclipse.core.runtime.Status;
 class ValueBinding extends Binding {
 	private final UpdateValueStrategy targetToModel;
 	private final UpdateValueStrategy modelToTarget;
-	private WritableValue validationStatusObservable;
+	private ValidationStatusObservableValue validationStatusObservable;
 	private IObservableValue target;
 	private IObservableValue model;
 
 	private boolean updatingTarget;
 	private boolean updatingModel;
+
+	/*
+	 * Incremented for every asynchronous update, so that superseded updates
+	 * can be cancelled
+	 */
+	private final AtomicInteger targetToModelGeneration = new AtomicInteger();
+	private final AtomicInteger modelToTargetGeneration = new AtomicInteger();
+
 	private IValueChangeListener targetChangeListener = new IValueChangeListener() {
 		@Override
 		public void handleValueChange(ValueChangeEvent event) {
@@ -88,8 +99,8 @@ class ValueBinding extends Binding {
 	protected void preInit() {
 		ObservableTracker.setIgnore(true);
 		try {
-			validationStatusObservable = new WritableValue(context
-					.getValidationRealm(), Status.OK_STATUS, IStatus.class);
+			validationStatusObservable = new ValidationStatusObservableValue(
+					context.getValidationRealm());
 		} finally {
 			ObservableTracker.setIgnore(false);
 		}
@@ -154,29 +165,50 @@ class ValueBinding extends Binding {
 			return;
 		if (policy == UpdateValueStrategy.POLICY_ON_REQUEST && !explicit)
 			return;
+		if (updateValueStrategy.getExecutor() != null) {
+			doUpdateAsync(source, destination, updateValueStrategy, explicit,
+					validateOnly);
+			return;
+		}
 
 		source.getRealm().exec(new Runnable() {
 			@Override
 			public void run() {
 				boolean destinationRealmReached = false;
 				final MultiStatus multiStatus = BindingStatus.ok();
+				final BindingMetrics metrics = getEnabledMetrics();
+				long time = 0;
+				if (metrics != null) {
+					metrics.updateStarted(destination == model);
+					time = System.nanoTime();
+				}
 				try {
 					// Get value
 					Object value = source.getValue();
+					if (metrics != null)
+						time = metrics.record(BindingMetrics.GET, time);
 
 					// Validate after get
 					IStatus status = updateValueStrategy
 							.validateAfterGet(value);
+					if (metrics != null)
+						time = metrics.record(
+								BindingMetrics.VALIDATE_AFTER_GET, time);
 					if (!mergeStatus(multiStatus, status))
 						return;
 
 					// Convert value
 					final Object convertedValue = updateValueStrategy
 							.convert(value);
+					if (metrics != null)
+						time = metrics.record(BindingMetrics.CONVERT, time);
 
 					// Validate after convert
 					status = updateValueStrategy
 							.validateAfterConvert(convertedValue);
+					if (metrics != null)
+						time = metrics.record(
+								BindingMetrics.VALIDATE_AFTER_CONVERT, time);
 					if (!mergeStatus(multiStatus, status))
 						return;
 					if (policy == UpdateValueStrategy.POLICY_CONVERT
@@ -186,6 +218,9 @@ class ValueBinding extends Binding {
 					// Validate before set
 					status = updateValueStrategy
 							.validateBeforeSet(convertedValue);
+					if (metrics != null)
+						metrics.record(BindingMetrics.VALIDATE_BEFORE_SET,
+								time);
 					if (!mergeStatus(multiStatus, status))
 						return;
 					if (validateOnly)
@@ -201,12 +236,16 @@ class ValueBinding extends Binding {
 							} else {
 								updatingModel = true;
 							}
+							long setTime = metrics == null ? 0 : System
+									.nanoTime();
 							try {
 								IStatus setterStatus = updateValueStrategy
 										.doSet(destination, convertedValue);
 
 								mergeStatus(multiStatus, setterStatus);
 							} finally {
+								if (metrics != null)
+									metrics.record(BindingMetrics.SET, setTime);
 								if (destination == target) {
 									updatingTarget = false;
 								} else {
@@ -235,6 +274,153 @@ class ValueBinding extends Binding {
 		});
 	}
 
+	/*
+	 * Reads the source value in its realm, runs the validation and conversion
+	 * phases on the executor of the strategy, and applies the outcome in the
+	 * realm of the destination. An update is dropped as soon as a newer update
+	 * in the same direction has been started.
+	 */
+	private void doUpdateAsync(final IObservableValue source,
+			final IObservableValue destination,
+			final UpdateValueStrategy updateValueStrategy,
+			final boolean explicit, final boolean validateOnly) {
+		final int policy = updateValueStrategy.getUpdatePolicy();
+		final AtomicInteger generation = destination == target ? modelToTargetGeneration
+				: targetToModelGeneration;
+		final Realm sourceRealm = source.getRealm();
+		sourceRealm.exec(new Runnable() {
+			@Override
+			public void run() {
+				final BindingMetrics metrics = getEnabledMetrics();
+				long time = 0;
+				if (metrics != null) {
+					metrics.updateStarted(destination == model);
+					time = System.nanoTime();
+				}
+				final Object value = source.getValue();
+				if (metrics != null)
+					metrics.record(BindingMetrics.GET, time);
+				final int current = generation.incrementAndGet();
+				setValidationStatusStale();
+
+				final Runnable phases = new Runnable() {
+					@Override
+					public void run() {
+						if (generation.get() != current)
+							return;
+						final MultiStatus multiStatus = BindingStatus.ok();
+						boolean proceed = false;
+						Object convertedValue = null;
+						long time = metrics == null ? 0 : System.nanoTime();
+						try {
+							proceed = mergeStatus(multiStatus,
+									updateValueStrategy.validateAfterGet(value));
+							if (metrics != null)
+								time = metrics.record(
+										BindingMetrics.VALIDATE_AFTER_GET,
+										time);
+							if (proceed && generation.get() == current) {
+								convertedValue = updateValueStrategy
+										.convert(value);
+								if (metrics != null)
+									time = metrics.record(
+											BindingMetrics.CONVERT, time);
+								proceed = mergeStatus(multiStatus,
+										updateValueStrategy
+												.validateAfterConvert(convertedValue));
+								if (metrics != null)
+									time = metrics.record(
+											BindingMetrics.VALIDATE_AFTER_CONVERT,
+											time);
+							}
+							if (proceed
+									&& !(policy == UpdateValueStrategy.POLICY_CONVERT && !explicit)
+									&& generation.get() == current) {
+								proceed = mergeStatus(multiStatus,
+										updateValueStrategy
+												.validateBeforeSet(convertedValue));
+								if (metrics != null)
+									metrics.record(
+											BindingMetrics.VALIDATE_BEFORE_SET,
+											time);
+							} else {
+								proceed = false;
+							}
+						} catch (Exception ex) {
+							proceed = false;
+							mergeStatus(multiStatus, createErrorStatus(ex));
+						}
+						if (generation.get() != current)
+							return;
+						applyAsyncUpdate(destination, updateValueStrategy,
+								generation, current, proceed && !validateOnly,
+								convertedValue, multiStatus);
+					}
+				};
+
+				int delay = updateValueStrategy.getDelay();
+				if (delay > 0) {
+					sourceRealm.timerExec(delay, new Runnable() {
+						@Override
+						public void run() {
+							if (generation.get() == current)
+								updateValueStrategy.getExecutor().execute(
+										phases);
+						}
+					});
+				} else {
+					updateValueStrategy.getExecutor().execute(phases);
+				}
+			}
+		});
+	}
+
+	private void applyAsyncUpdate(final IObservableValue destination,
+			final UpdateValueStrategy updateValueStrategy,
+			final AtomicInteger generation, final int current,
+			final boolean set, final Object convertedValue,
+			final MultiStatus multiStatus) {
+		destination.getRealm().asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				if (generation.get() != current || isDisposed())
+					return;
+				if (set) {
+					if (destination == target) {
+						updatingTarget = true;
+					} else {
+						updatingModel = true;
+					}
+					BindingMetrics metrics = getEnabledMetrics();
+					long time = metrics == null ? 0 : System.nanoTime();
+					try {
+						mergeStatus(multiStatus, updateValueStrategy.doSet(
+								destination, convertedValue));
+					} catch (Exception ex) {
+						mergeStatus(multiStatus, createErrorStatus(ex));
+					} finally {
+						if (metrics != null)
+							metrics.record(BindingMetrics.SET, time);
+						if (destination == target) {
+							updatingTarget = false;
+						} else {
+							updatingModel = false;
+						}
+					}
+				}
+				setValidationStatus(multiStatus);
+			}
+		});
+	}
+
+	private static IStatus createErrorStatus(Exception ex) {
+		// This check is necessary as in 3.2.2 Status
+		// doesn't accept a null message (bug 177264).
+		String message = (ex.getMessage() != null) ? ex.getMessage() : ""; //$NON-NLS-1$
+		return new Status(IStatus.ERROR, Policy.JFACE_DATABINDING,
+				IStatus.ERROR, message, ex);
+	}
+
 	@Override
 	public void validateModelToTarget() {
 		doUpdate(model, target, modelToTarget, true, true);
@@ -245,6 +431,15 @@ class ValueBinding extends Binding {
 		doUpdate(target, model, targetToModel, true, true);
 	}
 
+	private void setValidationStatusStale() {
+		validationStatusObservable.getRealm().exec(new Runnable() {
+			@Override
+			public void run() {
+				validationStatusObservable.setStale(true);
+			}
+		});
+	}
+
 	private void setValidationStatus(final IStatus status) {
 		validationStatusObservable.getRealm().exec(new Runnable() {
 			@Override
@@ -256,6 +451,9 @@ class ValueBinding extends Binding {
 
 	@Override
 	public void dispose() {
+		// cancel pending asynchronous updates
+		targetToModelGeneration.incrementAndGet();
+		modelToTargetGeneration.incrementAndGet();
 		if (targetChangeListener != null) {
 			target.removeValueChangeListener(targetChangeListener);
 			targetChangeListener = null;
@@ -269,4 +467,37 @@ class ValueBinding extends Binding {
 		super.dispose();
 	}
 
+	/**
+	 * The validation status of the binding, which is stale while an
+	 * asynchronous update is in progress.
+	 */
+	private static class ValidationStatusObservableValue extends WritableValue {
+		private boolean stale;
+
+		ValidationStatusObservableValue(Realm realm) {
+			super(realm, Status.OK_STATUS, IStatus.class);
+		}
+
+		void setStale(boolean stale) {
+			if (this.stale != stale) {
+				this.stale = stale;
+				if (stale) {
+					fireStale();
+				}
+			}
+		}
+
+		@Override
+		public boolean isStale() {
+			ObservableTracker.getterCalled(this);
+			return stale;
+		}
+
+		@Override
+		public void doSetValue(Object value) {
+			// a new status ends the update in progress
+			stale = false;
+			super.doSetValue(value);
+		}
+	}
 }
@@ -66,6 +66,27 @@ public interface CSSEngine {
 	 */
 	public StyleSheet parseStyleSheet(InputSource source) throws IOException;
 
+	/**
+	 * Parse style sheet from InputSource source, and the style sheets it
+	 * imports, without adding it to the {@link DocumentCSS}. Unlike the other
+	 * methods of the engine, this method may be called from any thread, and
+	 * concurrently, so that style sheets can be parsed in the background and
+	 * added later with {@link #addStyleSheet(StyleSheet)}.
+	 *
+	 * @param source
+	 * @return
+	 * @throws IOException
+	 */
+	public StyleSheet loadStyleSheet(InputSource source) throws IOException;
+
+	/**
+	 * Add the style sheet returned by {@link #loadStyleSheet(InputSource)} to
+	 * the {@link DocumentCSS}.
+	 *
+	 * @param styleSheet
+	 */
+	public void addStyleSheet(StyleSheet styleSheet);
+
 	/*--------------- Parse style declaration -----------------*/
 
 	/**
@@ -221,6 +242,17 @@ public interface CSSEngine {
 	public void applyStyles(Object node, boolean applyStylesToChildNodes,
 			boolean computeDefaultStyle);
 
+	/**
+	 * Apply styles to the Object node after its CSS class or ID changed. Its
+	 * child nodes are only restyled when the styles of the style sheets depend
+	 * on the classes or IDs that changed on their ancestors, when their own
+	 * class or ID changed, or when they were never styled. The property values
+	 * which were applied when a node was last styled are not applied again.
+	 *
+	 * @param node
+	 */
+	public void applyStylesIncrementally(Object node);
+
 	/*--------------- Apply style declaration -----------------*/
 
 	/**
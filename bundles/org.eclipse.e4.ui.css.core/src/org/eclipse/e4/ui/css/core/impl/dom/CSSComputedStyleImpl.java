@@ -40,6 +40,7 @@ public class CSSComputedStyleImpl extends CSSStyleDeclarationImpl implements CSS
 			StyleWrapper styleWrapper = iterator.next();
 			addCSSPropertyList(((CSSStyleDeclarationImpl) styleWrapper.style).getCSSPropertyList());
 		}
+		setReadOnly(true);
 	}
 
 	private void addCSSPropertyList(CSSPropertyList properties) {
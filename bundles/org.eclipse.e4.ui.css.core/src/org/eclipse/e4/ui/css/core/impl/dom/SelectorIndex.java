@@ -0,0 +1,524 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.core.impl.dom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.e4.ui.css.core.dom.CSSStylableElement;
+import org.eclipse.e4.ui.css.core.dom.ExtendedCSSRule;
+import org.eclipse.e4.ui.css.core.impl.sac.AbstractDescendantSelector;
+import org.eclipse.e4.ui.css.core.impl.sac.AbstractSiblingSelector;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAndConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSAttributeConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSClassConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSConditionalSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSElementSelectorImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.CSSIdConditionImpl;
+import org.eclipse.e4.ui.css.core.impl.sac.ExtendedSelector;
+import org.w3c.css.sac.CombinatorCondition;
+import org.w3c.css.sac.Condition;
+import org.w3c.css.sac.ConditionalSelector;
+import org.w3c.css.sac.Selector;
+import org.w3c.css.sac.SelectorList;
+import org.w3c.dom.Element;
+import org.w3c.dom.css.CSSRule;
+import org.w3c.dom.css.CSSRuleList;
+import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.css.CSSStyleRule;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.css.CSSValue;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * An index of the selectors of a list of style sheets, used to find the few
+ * selectors that may match an element without testing all of them.
+ * <p>
+ * Each selector is filed under the part of its subject that is cheapest to
+ * look up: its ID, else one of its classes, else its element name, else it is
+ * universal. The selectors filed under the ID, classes and name of an element,
+ * plus the universal ones, are the candidates for that element, which still
+ * have to be matched. The candidates are cached per combination of name,
+ * classes and ID; whether they match also depends on the ancestors, pseudo
+ * classes and attributes of the element, so matching results are not cached.
+ * </p>
+ * <p>
+ * The style computed for an element only depends on the selectors it matches,
+ * so computed styles are cached per combination of matching selectors, and
+ * shared by all the elements matching the same selectors. Whatever the element
+ * depends on, such as its attributes or ancestors, is accounted for when
+ * matching, so these styles stay valid until the style sheets change, and
+ * the index with them.
+ * </p>
+ * <p>
+ * The classes and IDs tested on the ancestors or siblings of the elements
+ * selected are also recorded, as well as whether any rule declares a value
+ * <code>inherit</code>, to tell whether changing the classes or ID of an
+ * element may change the style of its descendants.
+ * </p>
+ */
+final class SelectorIndex {
+
+	/**
+	 * A selector of a style rule, with its position among all the selectors of
+	 * the style sheets.
+	 */
+	static final class Entry {
+		final ExtendedSelector selector;
+		final CSSStyleDeclaration style;
+		final int specificity;
+		final int position;
+
+		Entry(ExtendedSelector selector, CSSStyleDeclaration style, int position) {
+			this.selector = selector;
+			this.style = style;
+			this.specificity = selector.getSpecificity();
+			this.position = position;
+		}
+	}
+
+	private static final Comparator<Entry> POSITION_ORDER = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry entry1, Entry entry2) {
+			return entry1.position < entry2.position ? -1
+					: (entry1.position == entry2.position ? 0 : 1);
+		}
+	};
+
+	private static final Entry[] NO_ENTRIES = new Entry[0];
+
+	/*
+	 * Bounds the candidates cache, which grows with the number of distinct
+	 * IDs styled
+	 */
+	private static final int MAX_CACHED_SIGNATURES = 4096;
+
+	/*
+	 * Bounds the computed styles cache, which grows with the number of
+	 * distinct combinations of matching selectors
+	 */
+	private static final int MAX_CACHED_STYLES = 4096;
+
+	/*
+	 * The style sheets and rule lists indexed, with the length of each rule
+	 * list, to tell whether the style sheets changed since
+	 */
+	private final CSSStyleSheet[] styleSheets;
+	private final CSSRuleList[] ruleLists;
+	private final int[] ruleCounts;
+
+	private final Map<String, List<Entry>> idEntries = new HashMap<>();
+	private final Map<String, List<Entry>> classEntries = new HashMap<>();
+	private final Map<String, List<Entry>> nameEntries = new HashMap<>();
+	private final List<Entry> universalEntries = new ArrayList<>();
+
+	/*
+	 * The classes and IDs tested on the ancestors or siblings of the elements
+	 * selected, and whether the class or id attributes are tested there in
+	 * another way, such as [class^=...]
+	 */
+	private final Set<String> contextClasses = new HashSet<>();
+	private final Set<String> contextIds = new HashSet<>();
+	private boolean contextAttributes;
+
+	/*
+	 * Whether a rule declares a value inherit, which depends on the style of
+	 * the parent
+	 */
+	private boolean inheritedValues;
+
+	private final Map<Signature, Entry[]> candidates = new HashMap<>();
+
+	private final Map<List<Entry>, CSSStyleDeclaration> computedStyles = new HashMap<>();
+
+	SelectorIndex(StyleSheetList styleSheetList) {
+		int length = styleSheetList.getLength();
+		styleSheets = new CSSStyleSheet[length];
+		ruleLists = new CSSRuleList[length];
+		ruleCounts = new int[length];
+		int position = 0;
+		for (int i = 0; i < length; i++) {
+			CSSStyleSheet styleSheet = (CSSStyleSheet) styleSheetList.item(i);
+			CSSRuleList rules = styleSheet.getCssRules();
+			int rulesSize = rules.getLength();
+			styleSheets[i] = styleSheet;
+			ruleLists[i] = rules;
+			ruleCounts[i] = rulesSize;
+			for (int j = 0; j < rulesSize; j++) {
+				CSSRule rule = rules.item(j);
+				if (rule.getType() != CSSRule.STYLE_RULE
+						|| !(rule instanceof ExtendedCSSRule)) {
+					continue;
+				}
+				CSSStyleDeclaration style = ((CSSStyleRule) rule).getStyle();
+				if (!inheritedValues) {
+					inheritedValues = declaresInherit(style);
+				}
+				SelectorList selectorList = ((ExtendedCSSRule) rule)
+						.getSelectorList();
+				int l = selectorList.getLength();
+				for (int k = 0; k < l; k++) {
+					Selector selector = selectorList.item(k);
+					if (selector instanceof ExtendedSelector) {
+						add(new Entry((ExtendedSelector) selector, style,
+								position++));
+						addContextConditions(selector, false);
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean declaresInherit(CSSStyleDeclaration style) {
+		int length = style.getLength();
+		for (int i = 0; i < length; i++) {
+			CSSValue value = style.getPropertyCSSValue(style.item(i));
+			if (value != null && "inherit".equals(value.getCssText())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether this index still reflects the given style sheets, which
+	 * is the case unless style sheets or rules were added or removed.
+	 */
+	boolean isValid(StyleSheetList styleSheetList) {
+		int length = styleSheetList.getLength();
+		if (length != styleSheets.length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			CSSStyleSheet styleSheet = (CSSStyleSheet) styleSheetList.item(i);
+			if (styleSheet != styleSheets[i]) {
+				return false;
+			}
+			CSSRuleList rules = styleSheet.getCssRules();
+			if (rules != ruleLists[i] || rules.getLength() != ruleCounts[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void add(Entry entry) {
+		Selector subject = getSubject(entry.selector);
+		if (subject instanceof CSSConditionalSelectorImpl) {
+			CSSConditionalSelectorImpl conditionalSelector = (CSSConditionalSelectorImpl) subject;
+			Condition condition = conditionalSelector.getCondition();
+			String id = findIdCondition(condition);
+			if (id != null) {
+				addTo(idEntries, id, entry);
+				return;
+			}
+			String className = findClassCondition(condition);
+			if (className != null) {
+				addTo(classEntries, className, entry);
+				return;
+			}
+			subject = conditionalSelector.getSimpleSelector();
+		}
+		if (subject instanceof CSSElementSelectorImpl) {
+			String name = ((CSSElementSelectorImpl) subject).getLocalName();
+			if (name != null) {
+				addTo(nameEntries, name, entry);
+				return;
+			}
+		}
+		universalEntries.add(entry);
+	}
+
+	/*
+	 * Returns the part of the selector that has to match the element itself
+	 */
+	private static Selector getSubject(Selector selector) {
+		while (true) {
+			if (selector instanceof AbstractDescendantSelector) {
+				selector = ((AbstractDescendantSelector) selector)
+						.getSimpleSelector();
+			} else if (selector instanceof AbstractSiblingSelector) {
+				selector = ((AbstractSiblingSelector) selector)
+						.getSiblingSelector();
+			} else {
+				return selector;
+			}
+		}
+	}
+
+	/*
+	 * Records the classes and IDs tested by the parts of the selector that
+	 * match the ancestors or siblings of its subject
+	 */
+	private void addContextConditions(Selector selector, boolean context) {
+		if (selector instanceof AbstractDescendantSelector) {
+			AbstractDescendantSelector descendantSelector = (AbstractDescendantSelector) selector;
+			addContextConditions(descendantSelector.getAncestorSelector(), true);
+			addContextConditions(descendantSelector.getSimpleSelector(),
+					context);
+		} else if (selector instanceof AbstractSiblingSelector) {
+			AbstractSiblingSelector siblingSelector = (AbstractSiblingSelector) selector;
+			addContextConditions(siblingSelector.getSelector(), true);
+			addContextConditions(siblingSelector.getSiblingSelector(), context);
+		} else if (context && selector instanceof ConditionalSelector) {
+			addContextCondition(((ConditionalSelector) selector).getCondition());
+		}
+	}
+
+	private void addContextCondition(Condition condition) {
+		if (condition instanceof CSSIdConditionImpl) {
+			contextIds.add(((CSSIdConditionImpl) condition).getValue());
+		} else if (condition instanceof CSSClassConditionImpl) {
+			contextClasses.add(((CSSClassConditionImpl) condition).getValue());
+		} else if (condition instanceof CombinatorCondition) {
+			CombinatorCondition combinator = (CombinatorCondition) condition;
+			addContextCondition(combinator.getFirstCondition());
+			addContextCondition(combinator.getSecondCondition());
+		} else if (condition instanceof CSSAttributeConditionImpl) {
+			String name = ((CSSAttributeConditionImpl) condition)
+					.getLocalName();
+			if ("class".equals(name) || "id".equals(name)) {
+				contextAttributes = true;
+			}
+		}
+		// pseudo classes depend on the state of the element, not on its
+		// classes or ID
+	}
+
+	/**
+	 * Returns whether changing the classes or ID of an element from the given
+	 * old values to the given new ones may change the style of its
+	 * descendants, which is the case when a selector tests one of the classes
+	 * or IDs changed on the ancestors of the elements it selects, or when a
+	 * value declared <code>inherit</code> may take the changed style of the
+	 * element.
+	 */
+	boolean affectsDescendants(String oldClasses, String oldId,
+			String newClasses, String newId) {
+		boolean idChanged = oldId == null ? newId != null : !oldId
+				.equals(newId);
+		boolean classesChanged = oldClasses == null ? newClasses != null
+				: !oldClasses.equals(newClasses);
+		if (!idChanged && !classesChanged) {
+			return false;
+		}
+		if (contextAttributes || inheritedValues) {
+			return true;
+		}
+		if (idChanged
+				&& (contextIds.contains(oldId) || contextIds.contains(newId))) {
+			return true;
+		}
+		if (classesChanged && !contextClasses.isEmpty()) {
+			Set<String> oldSet = oldClasses == null ? Collections
+					.<String> emptySet() : splitClasses(oldClasses);
+			Set<String> newSet = newClasses == null ? Collections
+					.<String> emptySet() : splitClasses(newClasses);
+			for (String className : contextClasses) {
+				if (oldSet.contains(className) != newSet.contains(className)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static String findIdCondition(Condition condition) {
+		if (condition instanceof CSSIdConditionImpl) {
+			return ((CSSIdConditionImpl) condition).getValue();
+		}
+		if (condition instanceof CSSAndConditionImpl) {
+			CSSAndConditionImpl combinator = (CSSAndConditionImpl) condition;
+			String id = findIdCondition(combinator.getFirstCondition());
+			return id != null ? id : findIdCondition(combinator
+					.getSecondCondition());
+		}
+		return null;
+	}
+
+	private static String findClassCondition(Condition condition) {
+		if (condition instanceof CSSClassConditionImpl) {
+			String className = ((CSSClassConditionImpl) condition).getValue();
+			return className != null && className.length() > 0 ? className
+					: null;
+		}
+		if (condition instanceof CSSAndConditionImpl) {
+			CSSAndConditionImpl combinator = (CSSAndConditionImpl) condition;
+			String className = findClassCondition(combinator
+					.getFirstCondition());
+			return className != null ? className
+					: findClassCondition(combinator.getSecondCondition());
+		}
+		return null;
+	}
+
+	private static void addTo(Map<String, List<Entry>> map, String key,
+			Entry entry) {
+		List<Entry> entries = map.get(key);
+		if (entries == null) {
+			entries = new ArrayList<>();
+			map.put(key, entries);
+		}
+		entries.add(entry);
+	}
+
+	/**
+	 * Returns the selectors that may match the given element, in the order of
+	 * their positions.
+	 */
+	Entry[] getCandidates(Element element) {
+		String name = element.getPrefix() == null ? element.getNodeName()
+				: element.getLocalName();
+		String classes;
+		String id;
+		if (element instanceof CSSStylableElement) {
+			CSSStylableElement stylableElement = (CSSStylableElement) element;
+			classes = stylableElement.getCSSClass();
+			id = stylableElement.getCSSId();
+		} else {
+			classes = element.getAttribute("class");
+			id = element.getAttribute("id");
+		}
+
+		Signature signature = new Signature(name, classes, id);
+		Entry[] result = candidates.get(signature);
+		if (result == null) {
+			result = findCandidates(name, classes, id);
+			if (candidates.size() >= MAX_CACHED_SIGNATURES) {
+				candidates.clear();
+			}
+			candidates.put(signature, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the style computed from the given matching selectors, in the
+	 * order of their positions. The style is shared with the other elements
+	 * matching the same selectors, and must not be modified.
+	 */
+	CSSStyleDeclaration getComputedStyle(List<Entry> matches) {
+		int size = matches.size();
+		if (size == 0) {
+			return null;
+		}
+		if (size == 1) {
+			return matches.get(0).style;
+		}
+		CSSStyleDeclaration result = computedStyles.get(matches);
+		if (result == null) {
+			List<StyleWrapper> styleDeclarations = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				Entry entry = matches.get(i);
+				styleDeclarations.add(new StyleWrapper(entry.style,
+						entry.specificity, i));
+			}
+			result = new CSSComputedStyleImpl(styleDeclarations);
+			if (computedStyles.size() >= MAX_CACHED_STYLES) {
+				computedStyles.clear();
+			}
+			computedStyles.put(matches, result);
+		}
+		return result;
+	}
+
+	private Entry[] findCandidates(String name, String classes, String id) {
+		List<Entry> result = new ArrayList<>(universalEntries);
+		if (name != null) {
+			addAll(result, nameEntries.get(name));
+		}
+		if (id != null) {
+			addAll(result, idEntries.get(id));
+		}
+		if (classes != null && !classEntries.isEmpty()) {
+			for (String className : splitClasses(classes)) {
+				addAll(result, classEntries.get(className));
+			}
+		}
+		if (result.isEmpty()) {
+			return NO_ENTRIES;
+		}
+		Entry[] array = result.toArray(new Entry[result.size()]);
+		Arrays.sort(array, POSITION_ORDER);
+		return array;
+	}
+
+	private static void addAll(List<Entry> result, List<Entry> entries) {
+		if (entries != null) {
+			result.addAll(entries);
+		}
+	}
+
+	/*
+	 * Splits a class attribute the way CSSClassConditionImpl matches it, without
+	 * duplicates
+	 */
+	private static Set<String> splitClasses(String classes) {
+		Set<String> result = new LinkedHashSet<>();
+		int length = classes.length();
+		int start = -1;
+		for (int i = 0; i <= length; i++) {
+			if (i == length || Character.isSpaceChar(classes.charAt(i))) {
+				if (start != -1) {
+					result.add(classes.substring(start, i));
+					start = -1;
+				}
+			} else if (start == -1) {
+				start = i;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The name, classes and ID of an element, which determine its candidate
+	 * selectors.
+	 */
+	private static final class Signature {
+		private final String name;
+		private final String classes;
+		private final String id;
+
+		Signature(String name, String classes, String id) {
+			this.name = name;
+			this.classes = classes;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Signature)) {
+				return false;
+			}
+			Signature other = (Signature) obj;
+			return equals(name, other.name) && equals(classes, other.classes)
+					&& equals(id, other.id);
+		}
+
+		private static boolean equals(String s1, String s2) {
+			return s1 == null ? s2 == null : s1.equals(s2);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = name == null ? 0 : name.hashCode();
+			result = 31 * result + (classes == null ? 0 : classes.hashCode());
+			return 31 * result + (id == null ? 0 : id.hashCode());
+		}
+	}
+}
@@ -21,10 +21,8 @@ import org.w3c.css.sac.Selector;
 import org.w3c.css.sac.SelectorList;
 import org.w3c.dom.Element;
 import org.w3c.dom.css.CSSRule;
-import org.w3c.dom.css.CSSRuleList;
 import org.w3c.dom.css.CSSStyleDeclaration;
 import org.w3c.dom.css.CSSStyleRule;
-import org.w3c.dom.css.CSSStyleSheet;
 import org.w3c.dom.css.DocumentCSS;
 import org.w3c.dom.css.ViewCSS;
 import org.w3c.dom.stylesheets.StyleSheetList;
@@ -38,6 +36,12 @@ public class ViewCSSImpl implements ViewCSS {
 
 	protected DocumentCSS documentCSS;
 
+	/**
+	 * The selectors of the style sheets of the document, or <code>null</code>
+	 * until first needed.
+	 */
+	private SelectorIndex selectorIndex;
+
 	/**
 	 * Creates a new ViewCSS.
 	 */
@@ -55,27 +59,62 @@ public class ViewCSSImpl implements ViewCSS {
 	}
 
 	/**
-	 * Determines the relevant style declaration for an DOM element
+	 * Determines the relevant style declaration for an DOM element. The
+	 * declaration returned is shared with the elements matching the same
+	 * selectors, and is read only.
 	 */
 	@Override
 	public CSSStyleDeclaration getComputedStyle(Element elt, String pseudoElt) {
-		// Loop over the CSS styleSheet list
-		StyleSheetList styleSheetList = documentCSS.getStyleSheets();
-		int l = styleSheetList.getLength();
-
-		List<CSSRule> combinedRuleList = new ArrayList<CSSRule>();
-		for (int i = 0; i < l; i++) {
-			CSSStyleSheet styleSheet = (CSSStyleSheet) styleSheetList.item(i);
-
-			CSSRuleList styleSheetRules = styleSheet.getCssRules();
-			int rulesSize = styleSheetRules.getLength();
-			for (int j = 0; j < rulesSize; j++) {
-				combinedRuleList.add(styleSheetRules.item(j));
+		// Only test the selectors that may match the element, in the order
+		// of the style sheets
+		SelectorIndex index = getSelectorIndex();
+		SelectorIndex.Entry[] candidates = index.getCandidates(elt);
+		List<SelectorIndex.Entry> matches = new ArrayList<SelectorIndex.Entry>(4);
+		for (SelectorIndex.Entry candidate : candidates) {
+			if (candidate.selector.match(elt, pseudoElt)) {
+				matches.add(candidate);
 			}
 		}
+		return index.getComputedStyle(matches);
+	}
 
-		CSSStyleDeclaration styleDeclaration = getComputedStyle(combinedRuleList, elt, pseudoElt);
-		return styleDeclaration;
+	/**
+	 * Returns whether changing the CSS classes or ID of an element from the
+	 * given old values to the given new ones may change the style of its
+	 * descendants. This is the case when a selector of the style sheets tests
+	 * one of the classes or IDs that changed on the ancestors of the elements
+	 * it selects, like <code>.active Label</code> when the
+	 * <code>active</code> class is added or removed. It is also the case
+	 * whenever a rule declares a value <code>inherit</code>, which children
+	 * take from the changed element.
+	 *
+	 * @param oldClasses
+	 *            the CSS classes before the change, or <code>null</code>
+	 * @param oldId
+	 *            the CSS ID before the change, or <code>null</code>
+	 * @param newClasses
+	 *            the CSS classes after the change, or <code>null</code>
+	 * @param newId
+	 *            the CSS ID after the change, or <code>null</code>
+	 * @return <code>false</code> if the style of the descendants of the
+	 *         element does not depend on the change
+	 */
+	public boolean affectsDescendants(String oldClasses, String oldId,
+			String newClasses, String newId) {
+		return getSelectorIndex().affectsDescendants(oldClasses, oldId,
+				newClasses, newId);
+	}
+
+	/**
+	 * Returns the index of the selectors of the style sheets, which is rebuilt
+	 * once style sheets or rules have been added or removed.
+	 */
+	private SelectorIndex getSelectorIndex() {
+		StyleSheetList styleSheetList = documentCSS.getStyleSheets();
+		if (selectorIndex == null || !selectorIndex.isValid(styleSheetList)) {
+			selectorIndex = new SelectorIndex(styleSheetList);
+		}
+		return selectorIndex;
 	}
 
 	public CSSStyleDeclaration getComputedStyle(List<CSSRule> ruleList, Element elt, String pseudoElt) {
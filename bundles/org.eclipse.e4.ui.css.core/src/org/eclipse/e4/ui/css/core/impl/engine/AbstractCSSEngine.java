@@ -25,8 +25,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IPath;
@@ -130,16 +132,49 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	 */
 	protected List<ICSSPropertyHandlerProvider> propertyHandlerProviders = new ArrayList<ICSSPropertyHandlerProvider>();
 
+	/**
+	 * The handlers of the providers for each element class and property name,
+	 * in the order of the providers. Cleared when the providers or their
+	 * handlers change.
+	 */
+	private Map<Class<?>, Map<String, ICSSPropertyHandler[]>> propertyHandlers = new HashMap<>();
+
+	private static final ICSSPropertyHandler[] NO_HANDLERS = new ICSSPropertyHandler[0];
+
 	private Map<String, String> currentCSSPropertiesApplyed;
 
+	/**
+	 * The key of the {@link AppliedStyle} of an element in its
+	 * {@link CSSElementContext}.
+	 */
+	private static final String APPLIED_STYLE_KEY = "org.eclipse.e4.ui.css.core.appliedStyle"; //$NON-NLS-1$
+
+	/**
+	 * What is applied to the element being styled, or <code>null</code>.
+	 */
+	private AppliedStyle appliedStyle;
+
+	/**
+	 * Whether the property values already applied to the element being styled
+	 * are skipped, while styling incrementally.
+	 */
+	private boolean skipAppliedValues;
+
 	private boolean throwError;
 
 	private Map<Object, ICSSValueConverter> valueConverters = null;
 
-	private boolean parseImport;
-
 	private ResourceRegistryKeyFactory keyFactory;
 
+	/**
+	 * The resources registry key of each CSS value converted, by identity, so
+	 * that values of parsed style sheets are converted or looked up without
+	 * computing their key again. Cleared when the style sheets are reset.
+	 */
+	private Map<CSSValue, Object> resourceKeys = new IdentityHashMap<>();
+
+	private static final int MAX_RESOURCE_KEYS = 4096;
+
 	public AbstractCSSEngine() {
 		this(new DocumentCSSImpl());
 	}
@@ -168,6 +203,13 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	@Override
 	public StyleSheet parseStyleSheet(InputSource source) throws IOException {
+		StyleSheet styleSheet = loadStyleSheet(source);
+		addStyleSheet(styleSheet);
+		return styleSheet;
+	}
+
+	@Override
+	public StyleSheet loadStyleSheet(InputSource source) throws IOException {
 		// Check that CharacterStream or ByteStream is not null
 		checkInputSource(source);
 		CSSParser parser = makeCSSParser();
@@ -210,9 +252,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 				InputSource tempStream = new InputSource();
 				tempStream.setURI(url.toString());
 				tempStream.setByteStream(stream);
-				parseImport = true;
-				styleSheet = (CSSStyleSheet) this.parseStyleSheet(tempStream);
-				parseImport = false;
+				styleSheet = (CSSStyleSheet) loadStyleSheet(tempStream);
 				CSSRuleList tempRules = styleSheet.getCssRules();
 				for (int j = 0; j < tempRules.getLength(); j++) {
 					masterList.add(tempRules.item(j));
@@ -232,12 +272,14 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		// final stylesheet
 		CSSStyleSheetImpl s = new CSSStyleSheetImpl();
 		s.setRuleList(masterList);
-		if (!parseImport) {
-			documentCSS.addStyleSheet(s);
-		}
 		return s;
 	}
 
+	@Override
+	public void addStyleSheet(StyleSheet styleSheet) {
+		documentCSS.addStyleSheet(styleSheet);
+	}
+
 	/**
 	 * Return true if <code>source</code> is valid and false otherwise.
 	 *
@@ -363,60 +405,18 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 				return;
 			}
 
-			/*
-			 * Compute new Style to apply.
-			 */
-			CSSStyleDeclaration style = viewCSS.getComputedStyle(elt, null);
-			if (computeDefaultStyle) {
-				if (applyStylesToChildNodes) {
-					this.computeDefaultStyle = computeDefaultStyle;
-				}
-				/*
-				 * Apply default style.
-				 */
-				applyDefaultStyleDeclaration(element, false, style, null);
-			}
-
-			/*
-			 * Manage static pseudo instances
-			 */
-			String[] pseudoInstances = getStaticPseudoInstances(elt);
-			if (pseudoInstances != null) {
-				// there are static pseudo instances definied, loop for it and
-				// apply styles for each pseudo instance.
-				for (String pseudoInstance : pseudoInstances) {
-					CSSStyleDeclaration styleWithPseudoInstance = viewCSS
-							.getComputedStyle(elt, pseudoInstance);
-					if (computeDefaultStyle) {
-						/*
-						 * Apply default style for the current pseudo instance.
-						 */
-						applyDefaultStyleDeclaration(element, false,
-								styleWithPseudoInstance, pseudoInstance);
-					}
-
-					if (styleWithPseudoInstance != null) {
-						CSSRule parentRule = styleWithPseudoInstance.getParentRule();
-						if (parentRule instanceof ExtendedCSSRule) {
-							applyConditionalPseudoStyle((ExtendedCSSRule) parentRule, pseudoInstance, element, styleWithPseudoInstance);
-						} else {
-							//							applyStyleDeclaration(element, styleWithPseudoInstance,
-							//									pseudoInstance);
-							applyStyleDeclaration(elt, styleWithPseudoInstance, pseudoInstance);
-						}
-					}
-				}
+			if (computeDefaultStyle && applyStylesToChildNodes) {
+				this.computeDefaultStyle = computeDefaultStyle;
 			}
-
-			if (style != null) {
-				//applyStyleDeclaration(element, style, null);
-				applyStyleDeclaration(elt, style, null);
+			AppliedStyle previousAppliedStyle = appliedStyle;
+			appliedStyle = getAppliedStyle(elt, true);
+			if (appliedStyle != null) {
+				appliedStyle.setElement(elt);
 			}
 			try {
-				// Apply inline style
-				applyInlineStyle(elt, false);
-			} catch (Exception e) {
-				handleExceptions(e);
+				applyStylesToElement(element, elt, computeDefaultStyle);
+			} finally {
+				appliedStyle = previousAppliedStyle;
 			}
 
 			if (applyStylesToChildNodes) {
@@ -436,6 +436,138 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 
 	}
 
+	@Override
+	public void applyStylesIncrementally(Object element) {
+		boolean oldSkipAppliedValues = skipAppliedValues;
+		skipAppliedValues = true;
+		try {
+			applyStylesIncrementally(element, true, false);
+		} finally {
+			skipAppliedValues = oldSkipAppliedValues;
+		}
+	}
+
+	/*
+	 * Applies styles to the element if requested, if it was never styled or if
+	 * its classes or ID changed since it was last styled, then does the same
+	 * for its children, requesting their styling if the style of descendants
+	 * depends on a change of the element or of its ancestors
+	 */
+	private void applyStylesIncrementally(Object element, boolean restyle,
+			boolean ancestorChanged) {
+		Element elt = getElement(element);
+		if (elt == null || !isVisible(elt)) {
+			return;
+		}
+		AppliedStyle applied = getAppliedStyle(elt, false);
+		if (applied == null) {
+			// never styled
+			applyStyles(element, true);
+			return;
+		}
+		String cssClass = null;
+		String cssId = null;
+		if (elt instanceof CSSStylableElement) {
+			CSSStylableElement stylableElement = (CSSStylableElement) elt;
+			cssClass = stylableElement.getCSSClass();
+			cssId = stylableElement.getCSSId();
+		}
+		boolean changed = !Objects.equals(cssClass, applied.cssClass)
+				|| !Objects.equals(cssId, applied.cssId);
+		boolean descendantsChanged = ancestorChanged;
+		if (changed && !descendantsChanged) {
+			descendantsChanged = !(viewCSS instanceof ViewCSSImpl)
+					|| ((ViewCSSImpl) viewCSS).affectsDescendants(
+							applied.cssClass, applied.cssId, cssClass, cssId);
+		}
+		if (restyle || changed) {
+			applyStyles(element, false);
+		}
+
+		NodeList nodes = elt instanceof ChildVisibilityAwareElement ? ((ChildVisibilityAwareElement) elt)
+				.getVisibleChildNodes() : elt.getChildNodes();
+		if (nodes != null) {
+			for (int k = 0; k < nodes.getLength(); k++) {
+				applyStylesIncrementally(nodes.item(k), descendantsChanged,
+						descendantsChanged);
+			}
+			onStylesAppliedToChildNodes(elt, nodes);
+		}
+	}
+
+	private AppliedStyle getAppliedStyle(Element elt, boolean create) {
+		CSSElementContext context = getCSSElementContext(elt);
+		if (context == null) {
+			return null;
+		}
+		AppliedStyle result = (AppliedStyle) context
+				.getData(APPLIED_STYLE_KEY);
+		if (result == null && create) {
+			result = new AppliedStyle();
+			context.setData(APPLIED_STYLE_KEY, result);
+		}
+		return result;
+	}
+
+	/*
+	 * Applies styles to the element alone
+	 */
+	private void applyStylesToElement(Object element, Element elt,
+			boolean computeDefaultStyle) {
+		/*
+		 * Compute new Style to apply.
+		 */
+		CSSStyleDeclaration style = viewCSS.getComputedStyle(elt, null);
+		if (computeDefaultStyle) {
+			/*
+			 * Apply default style.
+			 */
+			applyDefaultStyleDeclaration(element, false, style, null);
+		}
+
+		/*
+		 * Manage static pseudo instances
+		 */
+		String[] pseudoInstances = getStaticPseudoInstances(elt);
+		if (pseudoInstances != null) {
+			// there are static pseudo instances definied, loop for it and
+			// apply styles for each pseudo instance.
+			for (String pseudoInstance : pseudoInstances) {
+				CSSStyleDeclaration styleWithPseudoInstance = viewCSS
+						.getComputedStyle(elt, pseudoInstance);
+				if (computeDefaultStyle) {
+					/*
+					 * Apply default style for the current pseudo instance.
+					 */
+					applyDefaultStyleDeclaration(element, false,
+							styleWithPseudoInstance, pseudoInstance);
+				}
+
+				if (styleWithPseudoInstance != null) {
+					CSSRule parentRule = styleWithPseudoInstance.getParentRule();
+					if (parentRule instanceof ExtendedCSSRule) {
+						applyConditionalPseudoStyle((ExtendedCSSRule) parentRule, pseudoInstance, element, styleWithPseudoInstance);
+					} else {
+						//							applyStyleDeclaration(element, styleWithPseudoInstance,
+						//									pseudoInstance);
+						applyStyleDeclaration(elt, styleWithPseudoInstance, pseudoInstance);
+					}
+				}
+			}
+		}
+
+		if (style != null) {
+			//applyStyleDeclaration(element, style, null);
+			applyStyleDeclaration(elt, style, null);
+		}
+		try {
+			// Apply inline style
+			applyInlineStyle(elt, false);
+		} catch (Exception e) {
+			handleExceptions(e);
+		}
+	}
+
 	/**
 	 * Allow the CSS engine to skip particular elements if they are not visible.
 	 * Elements need to be restyled when they become visible.
@@ -711,7 +843,19 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		}
 
 		element = getElement(element); // in case we're passed a node
+		String appliedKey = null;
+		CSSValue appliedValue = value;
+		if (appliedStyle != null && appliedStyle.element == element) {
+			appliedKey = pseudo == null ? property : pseudo + ':' + property;
+			if (skipAppliedValues && value != null
+					&& appliedStyle.values.get(appliedKey) == value) {
+				// The value was applied when the element was last styled
+				return null;
+			}
+		}
 		if ("inherit".equals(value.getCssText())) {
+			// the parent value may have changed since last applied
+			appliedValue = null;
 			// go to parent node
 			Element actualElement = (Element) element;
 			Node parentNode = actualElement.getParentNode();
@@ -723,30 +867,26 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 			value = parsePropertyValue(parentValueString);
 		}
 
-		for (ICSSPropertyHandlerProvider provider : propertyHandlerProviders) {
-			Collection<ICSSPropertyHandler> handlers = provider
-					.getCSSPropertyHandlers(element, property);
-			if (handlers == null) {
-				continue;
-			}
-			for (ICSSPropertyHandler handler : handlers) {
-				try {
-					boolean result = handler.applyCSSProperty(element,
-							property,
-							value, pseudo, this);
-					if (result) {
-						// Add CSS Property to flag that this CSS Property was
-						// applied.
-						if (currentCSSPropertiesApplyed != null) {
-							currentCSSPropertiesApplyed.put(property, property);
-						}
-						return handler;
+		for (ICSSPropertyHandler handler : getCSSPropertyHandlers(element,
+				property)) {
+			try {
+				boolean result = handler.applyCSSProperty(element, property,
+						value, pseudo, this);
+				if (result) {
+					// Add CSS Property to flag that this CSS Property was
+					// applied.
+					if (currentCSSPropertiesApplyed != null) {
+						currentCSSPropertiesApplyed.put(property, property);
 					}
-				} catch (Exception e) {
-					if (throwError
-							|| (!throwError && !(e instanceof UnsupportedPropertyException))) {
-						handleExceptions(e);
+					if (appliedKey != null) {
+						appliedStyle.values.put(appliedKey, appliedValue);
 					}
+					return handler;
+				}
+			} catch (Exception e) {
+				if (throwError
+						|| (!throwError && !(e instanceof UnsupportedPropertyException))) {
+					handleExceptions(e);
 				}
 			}
 		}
@@ -759,18 +899,12 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 			String pseudo) {
 		try {
 			element = getElement(element); // in case we're passed a node
-			for (ICSSPropertyHandlerProvider provider : propertyHandlerProviders) {
-				Collection<ICSSPropertyHandler> handlers = provider
-						.getCSSPropertyHandlers(element, property);
-				if (handlers == null) {
-					continue;
-				}
-				for (ICSSPropertyHandler handler : handlers) {
-					String value = handler.retrieveCSSProperty(element,
-							property, pseudo, this);
-					if (!StringUtils.isEmpty(value)) {
-						return value;
-					}
+			for (ICSSPropertyHandler handler : getCSSPropertyHandlers(element,
+					property)) {
+				String value = handler.retrieveCSSProperty(element, property,
+						pseudo, this);
+				if (!StringUtils.isEmpty(value)) {
+					return value;
 				}
 			}
 		} catch (Exception e) {
@@ -816,6 +950,51 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		return handlers;
 	}
 
+	/**
+	 * Return the handlers of all providers for the given element and property,
+	 * in the order of the providers. The handlers of the providers depend only
+	 * on the class of the element, so they are looked up once per element
+	 * class and property.
+	 *
+	 * @param element
+	 *            the DOM element
+	 * @param property
+	 * @return the handlers, possibly empty
+	 * @throws Exception
+	 */
+	protected ICSSPropertyHandler[] getCSSPropertyHandlers(Object element,
+			String property) throws Exception {
+		Map<String, ICSSPropertyHandler[]> handlersByProperty = propertyHandlers
+				.get(element.getClass());
+		if (handlersByProperty == null) {
+			handlersByProperty = new HashMap<>();
+			propertyHandlers.put(element.getClass(), handlersByProperty);
+		}
+		ICSSPropertyHandler[] result = handlersByProperty.get(property);
+		if (result == null) {
+			List<ICSSPropertyHandler> handlers = new ArrayList<>();
+			for (ICSSPropertyHandlerProvider provider : propertyHandlerProviders) {
+				Collection<ICSSPropertyHandler> h = provider
+						.getCSSPropertyHandlers(element, property);
+				if (h != null) {
+					handlers.addAll(h);
+				}
+			}
+			result = handlers.isEmpty() ? NO_HANDLERS : handlers
+					.toArray(new ICSSPropertyHandler[handlers.size()]);
+			handlersByProperty.put(property, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Forget the handlers looked up so far for each element class and
+	 * property. Must be called when the handlers of a provider change.
+	 */
+	protected void resetCSSPropertyHandlers() {
+		propertyHandlers.clear();
+	}
+
 	/**
 	 * Return the set of property names and handlers for the provided node.
 	 *
@@ -1027,6 +1206,15 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	public void reset() {
 		// Remove All Style Sheets
 		documentCSS.removeAllStyleSheets();
+		resourceKeys.clear();
+		// Elements are reset too, forget what was applied to them
+		if (elementsContext != null) {
+			for (CSSElementContext context : elementsContext.values()) {
+				if (context.getData(APPLIED_STYLE_KEY) != null) {
+					context.setData(APPLIED_STYLE_KEY, null);
+				}
+			}
+		}
 	}
 
 	/*--------------- Resources Registry -----------------*/
@@ -1044,11 +1232,13 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	public void registerCSSPropertyHandlerProvider(
 			ICSSPropertyHandlerProvider handlerProvider) {
 		propertyHandlerProviders.add(handlerProvider);
+		resetCSSPropertyHandlers();
 	}
 
 	public void unregisterCSSPropertyHandlerProvider(
 			ICSSPropertyHandlerProvider handlerProvider) {
 		propertyHandlerProviders.remove(handlerProvider);
+		resetCSSPropertyHandlers();
 	}
 
 	/*--------------- CSS Value Converter -----------------*/
@@ -1080,7 +1270,7 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	@Override
 	public Object convert(CSSValue value, Object toType, Object context)
 			throws Exception {
-		Object key = keyFactory.createKey(value);
+		Object key = getResourceKey(value);
 		Object newValue = getResource(toType, key);
 
 		if (newValue == null) {
@@ -1094,6 +1284,19 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 		return newValue;
 	}
 
+	private Object getResourceKey(CSSValue value) {
+		Object key = resourceKeys.get(value);
+		if (key == null && !resourceKeys.containsKey(value)) {
+			key = keyFactory.createKey(value);
+			if (resourceKeys.size() >= MAX_RESOURCE_KEYS) {
+				// values parsed on the fly are not shared, don't keep them all
+				resourceKeys.clear();
+			}
+			resourceKeys.put(value, key);
+		}
+		return key;
+	}
+
 	private Object getResource(Object toType, Object key) {
 		if (key != null && getResourcesRegistry() != null) {
 			return getResourcesRegistry().getResource(toType, key);
@@ -1130,5 +1333,36 @@ public abstract class AbstractCSSEngine implements CSSEngine {
 	protected void setResourceRegistryKeyFactory(
 			ResourceRegistryKeyFactory keyFactory) {
 		this.keyFactory = keyFactory;
+		resourceKeys.clear();
+	}
+
+	/**
+	 * What was applied to an element when it was last styled.
+	 */
+	private static final class AppliedStyle {
+
+		Element element;
+
+		String cssClass;
+
+		String cssId;
+
+		/*
+		 * The value last applied to each property, keyed by the property name
+		 * prefixed with the pseudo instance if any
+		 */
+		final Map<String, CSSValue> values = new HashMap<String, CSSValue>();
+
+		void setElement(Element element) {
+			this.element = element;
+			if (element instanceof CSSStylableElement) {
+				CSSStylableElement stylableElement = (CSSStylableElement) element;
+				cssClass = stylableElement.getCSSClass();
+				cssId = stylableElement.getCSSId();
+			} else {
+				cssClass = null;
+				cssId = null;
+			}
+		}
 	}
 }
@@ -63,6 +63,7 @@ public abstract class CSSEngineImpl extends AbstractCSSEngine {
 	public void registerCSSPropertyHandler(Class<?> cl, ICSSPropertyHandler handler) {
 		initHandlerProviderIfNeed();
 		handlerProvider.registerCSSPropertyHandler(cl, handler);
+		resetCSSPropertyHandlers();
 	}
 
 	private void initHandlerProviderIfNeed() {
@@ -75,6 +76,7 @@ public abstract class CSSEngineImpl extends AbstractCSSEngine {
 	public void registerCSSProperty(String propertyName, Class<? extends ICSSPropertyHandler> propertyHandlerClass) {
 		initHandlerProviderIfNeed();
 		handlerProvider.registerCSSProperty(propertyName, propertyHandlerClass);
+		resetCSSPropertyHandlers();
 	}
 
 	private void initLazyHandlerProviderIfNeed() {
@@ -87,6 +89,7 @@ public abstract class CSSEngineImpl extends AbstractCSSEngine {
 	public void registerPackage(String packageName) {
 		initLazyHandlerProviderIfNeed();
 		lazyHandlerProvider.registerPackage(packageName);
+		resetCSSPropertyHandlers();
 	}
 
 }
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.css.swt.internal.theme;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.osgi.framework.FrameworkUtil;
+import org.w3c.css.sac.InputSource;
+import org.w3c.dom.stylesheets.StyleSheet;
+
+/**
+ * Parses the style sheets of a theme for several CSS engines, concurrently in
+ * background threads.
+ * <p>
+ * The style sheets parsed are kept per engine and URL, with a digest of their
+ * content, so that a style sheet is parsed again only once its content has
+ * changed, for instance when the theme is reset or when a CSS engine is added.
+ * Style sheets importing other style sheets are not kept, as the imported
+ * style sheets may change too.
+ * </p>
+ */
+class StyleSheetLoader {
+
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "CSS Style Sheet Loader"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	private static final String BUNDLE_ID = "org.eclipse.e4.ui.css.swt.theme"; //$NON-NLS-1$
+
+	private static final byte[] IMPORT_KEYWORD = "@import".getBytes(StandardCharsets.US_ASCII); //$NON-NLS-1$
+
+	/*
+	 * The style sheets parsed for each engine, by URL
+	 */
+	private final Map<CSSEngine, Map<String, ParsedStyleSheet>> parsedStyleSheets = new HashMap<CSSEngine, Map<String, ParsedStyleSheet>>();
+
+	/**
+	 * Parses the given style sheets for each of the given engines. The style
+	 * sheets are parsed concurrently, but this method only returns once they
+	 * are all parsed.
+	 *
+	 * @param stylesheets
+	 *            the URLs of the style sheets
+	 * @param engines
+	 *            the CSS engines
+	 * @return for each style sheet, in order, the style sheet parsed for each
+	 *         engine, or <code>null</code> where it could not be parsed
+	 */
+	List<StyleSheet[]> load(List<String> stylesheets, final CSSEngine[] engines) {
+		List<StyleSheet[]> result = new ArrayList<StyleSheet[]>(stylesheets.size());
+		int threadCount = Math.min(stylesheets.size(), Runtime.getRuntime()
+				.availableProcessors());
+		if (threadCount <= 1 || engines.length == 0) {
+			for (String stylesheet : stylesheets) {
+				result.add(load(stylesheet, engines));
+			}
+			return result;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount,
+				THREAD_FACTORY);
+		try {
+			List<Future<StyleSheet[]>> futures = new ArrayList<Future<StyleSheet[]>>(
+					stylesheets.size());
+			for (final String stylesheet : stylesheets) {
+				futures.add(executor.submit(new Callable<StyleSheet[]>() {
+					@Override
+					public StyleSheet[] call() {
+						return load(stylesheet, engines);
+					}
+				}));
+			}
+			boolean interrupted = false;
+			for (int i = 0; i < futures.size(); i++) {
+				StyleSheet[] styleSheets = null;
+				while (styleSheets == null) {
+					try {
+						styleSheets = futures.get(i).get();
+					} catch (InterruptedException e) {
+						// the style sheets are needed anyway
+						interrupted = true;
+					} catch (ExecutionException e) {
+						logError("Could not load style sheet " //$NON-NLS-1$
+								+ stylesheets.get(i), e.getCause());
+						styleSheets = new StyleSheet[engines.length];
+					}
+				}
+				result.add(styleSheets);
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		return result;
+	}
+
+	/**
+	 * Forgets the style sheets parsed for the given engine.
+	 */
+	void forget(CSSEngine engine) {
+		synchronized (parsedStyleSheets) {
+			parsedStyleSheets.remove(engine);
+		}
+	}
+
+	private StyleSheet[] load(String stylesheet, CSSEngine[] engines) {
+		StyleSheet[] result = new StyleSheet[engines.length];
+		URL url;
+		byte[] content;
+		try {
+			url = FileLocator.resolve(new URL(stylesheet));
+			content = readContent(url);
+		} catch (IOException e) {
+			logError("Could not read style sheet " + stylesheet, e); //$NON-NLS-1$
+			return result;
+		} catch (RuntimeException e) {
+			logError("Could not read style sheet " + stylesheet, e); //$NON-NLS-1$
+			return result;
+		}
+		String key = url.toString();
+		String digest = indexOf(content, IMPORT_KEYWORD) == -1 ? digest(content)
+				: null;
+		for (int i = 0; i < engines.length; i++) {
+			result[i] = getParsedStyleSheet(engines[i], key, digest);
+			if (result[i] == null) {
+				InputSource source = new InputSource();
+				source.setByteStream(new ByteArrayInputStream(content));
+				source.setURI(key);
+				try {
+					result[i] = engines[i].loadStyleSheet(source);
+				} catch (IOException e) {
+					logError("Could not parse style sheet " + key, e); //$NON-NLS-1$
+					continue;
+				} catch (RuntimeException e) {
+					// skipped like a style sheet failing to parse in a
+					// background thread
+					logError("Could not parse style sheet " + key, e); //$NON-NLS-1$
+					continue;
+				}
+				if (digest != null) {
+					putParsedStyleSheet(engines[i], key, digest, result[i]);
+				}
+			}
+		}
+		return result;
+	}
+
+	private StyleSheet getParsedStyleSheet(CSSEngine engine, String key,
+			String digest) {
+		if (digest == null) {
+			return null;
+		}
+		synchronized (parsedStyleSheets) {
+			Map<String, ParsedStyleSheet> styleSheets = parsedStyleSheets
+					.get(engine);
+			ParsedStyleSheet parsed = styleSheets == null ? null : styleSheets
+					.get(key);
+			return parsed != null && parsed.digest.equals(digest) ? parsed.styleSheet
+					: null;
+		}
+	}
+
+	private void putParsedStyleSheet(CSSEngine engine, String key,
+			String digest, StyleSheet styleSheet) {
+		synchronized (parsedStyleSheets) {
+			Map<String, ParsedStyleSheet> styleSheets = parsedStyleSheets
+					.get(engine);
+			if (styleSheets == null) {
+				styleSheets = new HashMap<String, ParsedStyleSheet>();
+				parsedStyleSheets.put(engine, styleSheets);
+			}
+			styleSheets.put(key, new ParsedStyleSheet(digest, styleSheet));
+		}
+	}
+
+	private static void logError(String message, Throwable exception) {
+		Platform.getLog(FrameworkUtil.getBundle(StyleSheetLoader.class)).log(
+				new Status(IStatus.ERROR, BUNDLE_ID, message, exception));
+	}
+
+	private static byte[] readContent(URL url) throws IOException {
+		InputStream stream = url.openStream();
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = stream.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		} finally {
+			stream.close();
+		}
+	}
+
+	private static String digest(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(content); //$NON-NLS-1$
+			StringBuilder sb = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+				sb.append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// don't keep the style sheet
+			return null;
+		}
+	}
+
+	private static int indexOf(byte[] content, byte[] bytes) {
+		outer: for (int i = 0; i <= content.length - bytes.length; i++) {
+			for (int j = 0; j < bytes.length; j++) {
+				if (content[i + j] != bytes[j]) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	private static class ParsedStyleSheet {
+		final String digest;
+		final StyleSheet styleSheet;
+
+		ParsedStyleSheet(String digest, StyleSheet styleSheet) {
+			this.digest = digest;
+			this.styleSheet = styleSheet;
+		}
+	}
+}
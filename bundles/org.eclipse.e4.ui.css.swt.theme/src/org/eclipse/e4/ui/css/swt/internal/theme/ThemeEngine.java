@@ -18,8 +18,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -29,7 +27,6 @@ import java.util.List;
 import java.util.Map;
 
 import org.eclipse.core.runtime.Assert;
-import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IConfigurationElement;
 import org.eclipse.core.runtime.IExtension;
 import org.eclipse.core.runtime.IExtensionPoint;
@@ -56,9 +53,9 @@ import org.osgi.framework.ServiceReference;
 import org.osgi.service.event.Event;
 import org.osgi.service.event.EventAdmin;
 import org.osgi.service.prefs.BackingStoreException;
-import org.w3c.css.sac.InputSource;
 import org.w3c.dom.Element;
 import org.w3c.dom.css.CSSStyleDeclaration;
+import org.w3c.dom.stylesheets.StyleSheet;
 
 public class ThemeEngine implements IThemeEngine {
 	private List<Theme> themes = new ArrayList<Theme>();
@@ -76,6 +73,8 @@ public class ThemeEngine implements IThemeEngine {
 	private HashMap<String, List<String>> modifiedStylesheets = new HashMap<String, List<String>>();
 	private HashMap<String, List<IResourceLocator>> sourceLocators = new HashMap<String, List<IResourceLocator>>();
 
+	private final StyleSheetLoader styleSheetLoader = new StyleSheetLoader();
+
 	private static final String THEMEID_KEY = "themeid";
 
 	public static final String THEME_PLUGIN_ID = "org.eclipse.e4.ui.css.swt.theme";
@@ -414,38 +413,15 @@ public class ThemeEngine implements IThemeEngine {
 					.registerResourceLocator(l);
 				}
 			}
-			for (String stylesheet : getAllStyles(theme.getId())) {
-				URL url;
-				InputStream stream = null;
-				try {
-					url = FileLocator.resolve(new URL(stylesheet.toString()));
-					for (CSSEngine engine : cssEngines) {
-						try {
-							stream = url.openStream();
-							InputSource source = new InputSource();
-							source.setByteStream(stream);
-							source.setURI(url.toString());
-							engine.parseStyleSheet(source);
-						} catch (IOException e) {
-							// TODO Auto-generated catch block
-							e.printStackTrace();
-						} finally {
-							if (stream != null) {
-								try {
-									stream.close();
-								} catch (IOException e) {
-									// TODO Auto-generated catch block
-									e.printStackTrace();
-								}
-							}
-						}
+			// parse the style sheets in the background, but add them in order
+			CSSEngine[] engines = cssEngines
+					.toArray(new CSSEngine[cssEngines.size()]);
+			for (StyleSheet[] sheets : styleSheetLoader.load(
+					getAllStyles(theme.getId()), engines)) {
+				for (int i = 0; i < engines.length; i++) {
+					if (sheets[i] != null) {
+						engines[i].addStyleSheet(sheets[i]);
 					}
-				} catch (MalformedURLException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
-				} catch (IOException e) {
-					// TODO Auto-generated catch block
-					e.printStackTrace();
 				}
 			}
 		}
@@ -518,6 +494,16 @@ public class ThemeEngine implements IThemeEngine {
 		}
 	}
 
+	@Override
+	public void applyStylesIncrementally(Object widget) {
+		for (CSSEngine engine : cssEngines) {
+			Object element = engine.getElement(widget);
+			if (element != null) {
+				engine.applyStylesIncrementally(element);
+			}
+		}
+	}
+
 	private String getPreferenceThemeId() {
 		return getPreferences().get(THEMEID_KEY, null);
 	}
@@ -626,5 +612,6 @@ public class ThemeEngine implements IThemeEngine {
 	@Override
 	public void removeCSSEngine(CSSEngine cssEngine) {
 		cssEngines.remove(cssEngine);
+		styleSheetLoader.forget(cssEngine);
 	}
 }
@@ -152,6 +152,15 @@ public interface IThemeEngine {
 	 */
 	public void applyStyles(Object widget, boolean applyStylesToChildNodes);
 
+	/**
+	 * Reapply the style to the widget after its CSS class or ID changed. Its
+	 * children are only updated when their style depends on the change.
+	 *
+	 * @param widget
+	 *            the widget
+	 */
+	public void applyStylesIncrementally(Object widget);
+
 	/**
 	 * Get the style currently active for a widget
 	 *
@@ -1265,13 +1265,13 @@ public class PartRenderingEngine implements IPresentationEngine {
 				@Override
 				public void setClassname(Object widget, String classname) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					themeEngine.applyStyles(widget, true);
+					themeEngine.applyStylesIncrementally(widget);
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					themeEngine.applyStylesIncrementally(widget);
 				}
 
 				@Override
@@ -1288,7 +1288,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 				public void setClassnameAndId(Object widget, String classname, String id) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					themeEngine.applyStyles(widget, true);
+					themeEngine.applyStylesIncrementally(widget);
 				}
 			});
 
@@ -1308,13 +1308,13 @@ public class PartRenderingEngine implements IPresentationEngine {
 				@Override
 				public void setClassname(Object widget, String classname) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
-					cssEngine.applyStyles(widget, true);
+					cssEngine.applyStylesIncrementally(widget);
 				}
 
 				@Override
 				public void setId(Object widget, String id) {
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					cssEngine.applyStylesIncrementally(widget);
 				}
 
 				@Override
@@ -1335,7 +1335,7 @@ public class PartRenderingEngine implements IPresentationEngine {
 				public void setClassnameAndId(Object widget, String classname, String id) {
 					WidgetElement.setCSSClass((Widget) widget, classname);
 					WidgetElement.setID((Widget) widget, id);
-					cssEngine.applyStyles(widget, true);
+					cssEngine.applyStylesIncrementally(widget);
 				}
 			});
 
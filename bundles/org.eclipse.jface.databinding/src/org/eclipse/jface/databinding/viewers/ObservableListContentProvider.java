@@ -20,6 +20,7 @@ import org.eclipse.core.databinding.observable.IObservableCollection;
 import org.eclipse.core.databinding.observable.list.IListChangeListener;
 import org.eclipse.core.databinding.observable.list.IObservableList;
 import org.eclipse.core.databinding.observable.list.ListChangeEvent;
+import org.eclipse.core.databinding.observable.list.ListDiffEntry;
 import org.eclipse.core.databinding.observable.list.ListDiffVisitor;
 import org.eclipse.core.databinding.observable.set.IObservableSet;
 import org.eclipse.core.runtime.Assert;
@@ -86,7 +87,10 @@ public class ObservableListContentProvider implements
 					.withComparer(comparer);
 			final Set knownElementRemovals = ViewerElementSet
 					.withComparer(comparer);
-			final boolean[] suspendRedraw = new boolean[] { false };
+			// a diff merged from a batch of changes is applied in a single
+			// repaint
+			ListDiffEntry[] differences = event.diff.getDifferences();
+			final boolean[] suspendRedraw = new boolean[] { differences.length > 1 };
 			event.diff.accept(new ListDiffVisitor() {
 				@Override
 				public void handleAdd(int index, Object element) {
@@ -120,32 +124,20 @@ public class ObservableListContentProvider implements
 				realizedElements.removeAll(knownElementRemovals);
 			}
 
+			// with many differences, one refresh is cheaper than updating
+			// the viewer element by element
+			boolean refresh = differences.length > 1
+					&& differences.length >= event.getObservableList().size() / 2
+					&& isDefaultViewerUpdater();
+
 			if (suspendRedraw[0])
 				viewer.getControl().setRedraw(false);
 			try {
-				event.diff.accept(new ListDiffVisitor() {
-					@Override
-					public void handleAdd(int index, Object element) {
-						viewerUpdater.insert(element, index);
-					}
-
-					@Override
-					public void handleRemove(int index, Object element) {
-						viewerUpdater.remove(element, index);
-					}
-
-					@Override
-					public void handleReplace(int index, Object oldElement,
-							Object newElement) {
-						viewerUpdater.replace(oldElement, newElement, index);
-					}
-
-					@Override
-					public void handleMove(int oldIndex, int newIndex,
-							Object element) {
-						viewerUpdater.move(element, oldIndex, newIndex);
-					}
-				});
+				if (refresh) {
+					viewer.refresh();
+				} else {
+					applyDiff(event);
+				}
 			} finally {
 				if (suspendRedraw[0])
 					viewer.getControl().setRedraw(true);
@@ -156,6 +148,32 @@ public class ObservableListContentProvider implements
 			}
 			knownElements.removeAll(knownElementRemovals);
 		}
+
+		private void applyDiff(ListChangeEvent event) {
+			event.diff.accept(new ListDiffVisitor() {
+				@Override
+				public void handleAdd(int index, Object element) {
+					viewerUpdater.insert(element, index);
+				}
+
+				@Override
+				public void handleRemove(int index, Object element) {
+					viewerUpdater.remove(element, index);
+				}
+
+				@Override
+				public void handleReplace(int index, Object oldElement,
+						Object newElement) {
+					viewerUpdater.replace(oldElement, newElement, index);
+				}
+
+				@Override
+				public void handleMove(int oldIndex, int newIndex,
+						Object element) {
+					viewerUpdater.move(element, oldIndex, newIndex);
+				}
+			});
+		}
 	}
 
 	/**
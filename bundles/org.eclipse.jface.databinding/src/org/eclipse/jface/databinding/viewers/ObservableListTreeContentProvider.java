@@ -237,6 +237,29 @@ public class ObservableListTreeContentProvider implements ITreeContentProvider {
 		return impl.getParent(element);
 	}
 
+	/**
+	 * Sets whether the children of an element are forgotten when the element
+	 * is collapsed in the viewer. If <code>true</code>, the tree items of the
+	 * children are removed from the viewer, and the observable lists created
+	 * by the list factory for the children and their descendants are
+	 * disposed. The lists are created again when the element is next
+	 * expanded. This keeps the number of observed lists proportional to the
+	 * number of visible or expanded elements, which is recommended for large
+	 * trees. The default is <code>false</code>.
+	 * <p>
+	 * This has no effect with a
+	 * {@link org.eclipse.jface.viewers.CheckboxTreeViewer}, which keeps the
+	 * items of collapsed elements to preserve their check state.
+	 * </p>
+	 *
+	 * @param disposeCollapsedChildren
+	 *            whether to forget the children of collapsed elements
+	 * @since 1.7
+	 */
+	public void setDisposeCollapsedChildren(boolean disposeCollapsedChildren) {
+		impl.setDisposeCollapsedChildren(disposeCollapsedChildren);
+	}
+
 	/**
 	 * Disposes of this content provider. This is called by the viewer when a
 	 * content provider is replaced, or when the viewer itself is disposed.
@@ -244,6 +244,17 @@ public abstract class ObservableCollectionContentProvider implements
 				|| viewer.getControl().isDisposed();
 	}
 
+	/**
+	 * Returns whether updates are sent to a viewer updater chosen by this
+	 * content provider, rather than one given by the client. Only then may
+	 * subclasses refresh the viewer instead of sending individual updates.
+	 *
+	 * @return whether the default viewer updater is used.
+	 */
+	protected final boolean isDefaultViewerUpdater() {
+		return explicitViewerUpdater == null;
+	}
+
 	/**
 	 * Returns the set of elements known to this content provider. Label
 	 * providers may track this set if they need to be notified about additions
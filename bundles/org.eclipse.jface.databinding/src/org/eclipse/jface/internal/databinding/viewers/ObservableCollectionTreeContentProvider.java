@@ -13,6 +13,7 @@
 
 package org.eclipse.jface.internal.databinding.viewers;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -37,7 +38,9 @@ import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.CheckboxTreeViewer;
 import org.eclipse.jface.viewers.IElementComparer;
 import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.ITreeViewerListener;
 import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TreeExpansionEvent;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.widgets.Display;
 
@@ -93,6 +96,12 @@ public abstract class ObservableCollectionTreeContentProvider implements
 
 	private TreeStructureAdvisor structureAdvisor;
 
+	private boolean disposeCollapsedChildren;
+
+	private AbstractTreeViewer treeViewer;
+
+	private ITreeViewerListener treeViewerListener;
+
 	/**
 	 * Constructs an ObservableCollectionTreeContentProvider using the given
 	 * parent provider and collection factory.
@@ -149,7 +158,28 @@ public abstract class ObservableCollectionTreeContentProvider implements
 	}
 
 	private void setViewer(Viewer viewer) {
+		if (treeViewer != null) {
+			treeViewer.removeTreeListener(treeViewerListener);
+			treeViewer = null;
+		}
 		viewerUpdater = createViewerUpdater(viewer);
+		if (viewer instanceof AbstractTreeViewer) {
+			treeViewer = (AbstractTreeViewer) viewer;
+			if (treeViewerListener == null) {
+				treeViewerListener = new ITreeViewerListener() {
+					@Override
+					public void treeExpanded(TreeExpansionEvent event) {
+					}
+
+					@Override
+					public void treeCollapsed(TreeExpansionEvent event) {
+						if (disposeCollapsedChildren)
+							asyncDisposeCollapsedChildren(event.getElement());
+					}
+				};
+			}
+			treeViewer.addTreeListener(treeViewerListener);
+		}
 		comparer = getElementComparer(viewer);
 		elementNodes = ViewerElementMap.withComparer(comparer);
 		viewerObservable.setValue(viewer); // (clears knownElements)
@@ -198,7 +228,8 @@ public abstract class ObservableCollectionTreeContentProvider implements
 		TreeNode node = getOrCreateNode(element, input);
 		Object[] children = node.getChildren().toArray();
 		for (int i = 0; i < children.length; i++)
-			getOrCreateNode(children[i], false).addParent(element);
+			findOrCreateNode(children[i]).addParent(element);
+		// one set change for all children instead of one per child
 		knownElements.addAll(node.getChildren());
 		asyncUpdateRealizedElements();
 		return children;
@@ -212,7 +243,8 @@ public abstract class ObservableCollectionTreeContentProvider implements
 			return;
 		if (asyncUpdatePending)
 			return;
-		if (!realizedElements.equals(knownElements)) {
+		// realizedElements is a subset of knownElements
+		if (realizedElements.size() != knownElements.size()) {
 			if (asyncUpdateRunnable == null) {
 				asyncUpdateRunnable = new Runnable() {
 					@Override
@@ -245,14 +277,19 @@ public abstract class ObservableCollectionTreeContentProvider implements
 	}
 
 	private TreeNode getOrCreateNode(Object element, boolean input) {
+		TreeNode node = findOrCreateNode(element);
+		// In case the input element is also a visible node in the tree.
+		if (!input)
+			knownElements.add(element);
+		return node;
+	}
+
+	private TreeNode findOrCreateNode(Object element) {
 		TreeNode node = getExistingNode(element);
 		if (node == null) {
 			node = new TreeNode(element);
 			elementNodes.put(element, node);
 		}
-		// In case the input element is also a visible node in the tree.
-		if (!input)
-			knownElements.add(element);
 		return node;
 	}
 
@@ -267,8 +304,69 @@ public abstract class ObservableCollectionTreeContentProvider implements
 				|| viewer.getControl().isDisposed();
 	}
 
+	/**
+	 * Sets whether the children of an element are forgotten when the element
+	 * is collapsed in the viewer. If <code>true</code>, the tree items of the
+	 * children are removed from the viewer, and the observable collections
+	 * obtained for the children (and their descendants) are disposed, so that
+	 * only the elements that are visible or expanded are observed. The
+	 * children are obtained again when the element is next expanded.
+	 * <p>
+	 * This has no effect with a {@link CheckboxTreeViewer}, which keeps the
+	 * items of collapsed elements to preserve their check state.
+	 * </p>
+	 *
+	 * @param disposeCollapsedChildren
+	 *            whether to forget the children of collapsed elements
+	 */
+	public void setDisposeCollapsedChildren(boolean disposeCollapsedChildren) {
+		this.disposeCollapsedChildren = disposeCollapsedChildren;
+	}
+
+	private void asyncDisposeCollapsedChildren(final Object element) {
+		if (treeViewer instanceof CheckboxTreeViewer)
+			return;
+		// the collapse event is sent before the item is collapsed
+		display.asyncExec(new Runnable() {
+			@Override
+			public void run() {
+				if (disposeCollapsedChildren && !isViewerDisposed()
+						&& !treeViewer.getExpandedState(element))
+					disposeCollapsedChildren(element);
+			}
+		});
+	}
+
+	private void disposeCollapsedChildren(Object element) {
+		TreeNode node = getExistingNode(element);
+		if (node == null || !node.isChildrenInitialized())
+			return;
+		Object[] children = node.getChildren().toArray();
+		if (children.length == 0)
+			return;
+
+		Set removals = findPendingRemovals(element, Arrays.asList(children));
+		removals.retainAll(knownElements);
+
+		if (realizedElements != null)
+			realizedElements.removeAll(removals);
+		// prunes the items of the collapsed element
+		treeViewer.refresh(element, false);
+		for (int i = 0; i < children.length; i++) {
+			TreeNode child = getExistingNode(children[i]);
+			if (child != null)
+				child.removeParent(element);
+		}
+		knownElements.removeAll(removals);
+	}
+
 	@Override
 	public void dispose() {
+		if (treeViewer != null) {
+			treeViewer.removeTreeListener(treeViewerListener);
+			treeViewer = null;
+		}
+		treeViewerListener = null;
 		if (elementNodes != null) {
 			if (!elementNodes.isEmpty()) {
 				TreeNode[] nodes = new TreeNode[elementNodes.size()];
@@ -484,6 +582,10 @@ public abstract class ObservableCollectionTreeContentProvider implements
 			}
 		}
 
+		boolean isChildrenInitialized() {
+			return children != null;
+		}
+
 		boolean hasChildren() {
 			initChildren();
 			return !children.isEmpty();
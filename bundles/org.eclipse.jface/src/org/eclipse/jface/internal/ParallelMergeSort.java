@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.internal;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A stable merge sort whose halves are sorted on a fork-join pool shared by
+ * all of JFace. The calling thread waits for the result.
+ *
+ * @since 3.11
+ */
+public final class ParallelMergeSort {
+
+	/**
+	 * Tells a sort whether to stop early.
+	 */
+	public interface CancelCheck {
+
+		/**
+		 * Returns whether the sort is to be stopped. Called from several
+		 * threads.
+		 *
+		 * @return <code>true</code> to stop the sort
+		 */
+		boolean isCanceled();
+	}
+
+	/**
+	 * The smallest number of elements worth handing to a worker thread.
+	 */
+	private static final int MIN_CHUNK_SIZE = 1024;
+
+	private static ForkJoinPool pool;
+
+	private ParallelMergeSort() {
+		// not instantiated
+	}
+
+	/**
+	 * Returns the pool which JFace uses to process elements in parallel.
+	 *
+	 * @return the shared pool
+	 */
+	public static synchronized ForkJoinPool getPool() {
+		if (pool == null) {
+			pool = new ForkJoinPool();
+		}
+		return pool;
+	}
+
+	/**
+	 * Returns how many of the given number of elements each task should
+	 * process, so that each worker thread of the pool gets several tasks.
+	 *
+	 * @param length
+	 *            the number of elements
+	 * @return the number of elements per task
+	 */
+	public static int getChunkSize(int length) {
+		return Math.max(MIN_CHUNK_SIZE, length
+				/ (getPool().getParallelism() * 4));
+	}
+
+	/**
+	 * Sorts the first <code>length</code> elements of the array in place. The
+	 * sort is stable, like {@link Arrays#sort(Object[], Comparator)}.
+	 *
+	 * @param elements
+	 *            the array to sort
+	 * @param length
+	 *            the number of elements to sort
+	 * @param comparator
+	 *            the comparator, which must be safe to call from several
+	 *            threads
+	 * @param cancelCheck
+	 *            checked before each chunk is sorted or merged, or
+	 *            <code>null</code> if the sort cannot be canceled
+	 * @throws CancellationException
+	 *             if the sort was canceled. The elements are partially sorted
+	 *             in that case.
+	 */
+	public static void sort(Object[] elements, int length,
+			Comparator comparator, CancelCheck cancelCheck) {
+		getPool().invoke(
+				new SortTask(comparator, cancelCheck, elements,
+						new Object[length], 0, length, getChunkSize(length)));
+	}
+
+	private static class SortTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Comparator comparator;
+
+		private final CancelCheck cancelCheck;
+
+		private final Object[] elements;
+
+		private final Object[] buffer;
+
+		private final int from;
+
+		private final int to;
+
+		private final int chunkSize;
+
+		SortTask(Comparator comparator, CancelCheck cancelCheck,
+				Object[] elements, Object[] buffer, int from, int to,
+				int chunkSize) {
+			this.comparator = comparator;
+			this.cancelCheck = cancelCheck;
+			this.elements = elements;
+			this.buffer = buffer;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (cancelCheck != null && cancelCheck.isCanceled()) {
+				throw new CancellationException();
+			}
+			if (to - from <= chunkSize) {
+				Arrays.sort(elements, from, to, comparator);
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new SortTask(comparator, cancelCheck, elements, buffer,
+					from, mid, chunkSize), new SortTask(comparator,
+					cancelCheck, elements, buffer, mid, to, chunkSize));
+			merge(mid);
+		}
+
+		private void merge(int mid) {
+			if (comparator.compare(elements[mid - 1], elements[mid]) <= 0) {
+				// already in order
+				return;
+			}
+			System.arraycopy(elements, from, buffer, from, to - from);
+			int i = from;
+			int j = mid;
+			int k = from;
+			while (i < mid && j < to) {
+				// take from the left run on ties to keep the sort stable
+				if (comparator.compare(buffer[j], buffer[i]) < 0) {
+					elements[k++] = buffer[j++];
+				} else {
+					elements[k++] = buffer[i++];
+				}
+			}
+			while (i < mid) {
+				elements[k++] = buffer[i++];
+			}
+			while (j < to) {
+				elements[k++] = buffer[j++];
+			}
+		}
+	}
+}
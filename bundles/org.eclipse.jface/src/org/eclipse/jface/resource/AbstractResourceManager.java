@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2013 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,9 +10,11 @@
  *******************************************************************************/
 package org.eclipse.jface.resource;
 
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map.Entry;
 
 /**
@@ -20,15 +22,43 @@ import java.util.Map.Entry;
  * allocated SWT resources. Delegates to the abstract method allocate(...) the first time a resource
  * is referenced and delegates to the abstract method deallocate(...) the last time a reference is
  * removed.
+ * <p>
+ * The reference counts are kept in a number of independently locked stripes, so that the
+ * manager can be used from several threads. Allocation and deallocation happen outside of
+ * any lock. If two threads allocate the same resource at the same time, the resource
+ * allocated last is deallocated again and the first one is shared.
+ * </p>
+ * <p>
+ * Optionally, the manager keeps a bounded number of unreferenced resources around and
+ * hands them out again when they are requested before being evicted. See
+ * {@link #setCacheSize(int)}.
+ * </p>
  *
  * @since 3.1
  */
 abstract class AbstractResourceManager extends ResourceManager {
 
     /**
-     * Map of ResourceDescriptor onto RefCount. (null when empty)
+     * Number of stripes; must be a power of two.
      */
-    private HashMap<DeviceResourceDescriptor, RefCount> map = null;
+    private static final int STRIPE_COUNT = 8;
+
+    /**
+     * The stripes, each holding the reference counts of the descriptors that hash to it.
+     */
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+
+    /**
+     * Resources whose reference count dropped to zero but which have not been
+     * deallocated yet, least recently released first. Guarded by itself. Entries are only
+     * added or removed while also holding the lock of the descriptor's stripe.
+     */
+    private final LinkedHashMap<DeviceResourceDescriptor, RefCount> unreferenced = new LinkedHashMap<DeviceResourceDescriptor, RefCount>();
+
+    /**
+     * Maximum number of unreferenced resources to keep.
+     */
+    private volatile int cacheSize = 0;
 
     /**
      * Holds a reference count for a previously-allocated resource
@@ -42,9 +72,35 @@ abstract class AbstractResourceManager extends ResourceManager {
         }
     }
 
+    /**
+     * Map of ResourceDescriptor onto RefCount for one stripe. Guarded by the stripe.
+     */
+    private static class Stripe {
+        /**
+         * (null when empty)
+         */
+        HashMap<DeviceResourceDescriptor, RefCount> map = null;
+    }
+
+    AbstractResourceManager() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private Stripe getStripe(DeviceResourceDescriptor descriptor) {
+        int hash = descriptor.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[(hash ^ (hash >>> 8)) & (STRIPE_COUNT - 1)];
+    }
+
     /**
      * Called the first time a resource is requested. Should allocate and return a resource
      * of the correct type.
+     * <p>
+     * May be called from any thread that uses the manager; no lock of the manager is held
+     * during the call.
+     * </p>
      *
      * @since 3.1
      *
@@ -57,6 +113,10 @@ abstract class AbstractResourceManager extends ResourceManager {
     /**
      * Called the last time a resource is dereferenced. Should release any resources reserved by
      * allocate(...).
+     * <p>
+     * May be called from any thread that uses the manager; no lock of the manager is held
+     * during the call.
+     * </p>
      *
      * @since 3.1
      *
@@ -67,52 +127,154 @@ abstract class AbstractResourceManager extends ResourceManager {
 
     @Override
 	public final Object create(DeviceResourceDescriptor descriptor) throws DeviceResourceException {
-
-        // Lazily allocate the map
-        if (map == null) {
-            map = new HashMap<DeviceResourceDescriptor, RefCount>();
-        }
-
-        // Get the current reference count
-        RefCount count = map.get(descriptor);
-        if (count != null) {
-            // If this resource already exists, increment the reference count and return
-            // the existing resource.
-            count.count++;
-            return count.resource;
+        Stripe stripe = getStripe(descriptor);
+        synchronized (stripe) {
+            Object resource = reference(stripe, descriptor);
+            if (resource != null) {
+                return resource;
+            }
         }
 
-        // Allocate and return a new resource (with ref count = 1)
+        // Allocate outside of the lock. Allocation may have to wait for the UI thread, which
+        // could itself be waiting for this stripe.
         Object resource = allocate(descriptor);
 
-        count = new RefCount(resource);
-        map.put(descriptor, count);
+        Object existing;
+        synchronized (stripe) {
+            existing = reference(stripe, descriptor);
+            if (existing == null) {
+                // Remember the new resource (with ref count = 1)
+                if (stripe.map == null) {
+                    stripe.map = new HashMap<DeviceResourceDescriptor, RefCount>();
+                }
+                stripe.map.put(descriptor, new RefCount(resource));
+                return resource;
+            }
+        }
+
+        // Another thread allocated the same resource in the meantime
+        deallocate(resource, descriptor);
+        return existing;
+    }
 
-        return resource;
+    /**
+     * If the resource exists, increments its reference count and returns it. Must be called
+     * while holding the lock of the stripe.
+     */
+    private Object reference(Stripe stripe, DeviceResourceDescriptor descriptor) {
+        if (stripe.map == null) {
+            return null;
+        }
+        RefCount count = stripe.map.get(descriptor);
+        if (count == null) {
+            return null;
+        }
+        if (count.count++ == 0) {
+            // The resource was kept although it was unreferenced
+            synchronized (unreferenced) {
+                unreferenced.remove(descriptor);
+            }
+        }
+        return count.resource;
     }
 
     @Override
 	public final void destroy(DeviceResourceDescriptor descriptor) {
-        // If the map is empty (null) then there are no resources to dispose
-        if (map == null) {
-            return;
-        }
+        Stripe stripe = getStripe(descriptor);
+        RefCount count;
+        synchronized (stripe) {
+            // If the map is empty (null) then there are no resources to dispose
+            if (stripe.map == null) {
+                return;
+            }
+
+            // Find the existing resource
+            count = stripe.map.get(descriptor);
+            if (count == null || count.count == 0) {
+                return;
+            }
 
-        // Find the existing resource
-        RefCount count = map.get(descriptor);
-        if (count != null) {
             // If the resource exists, decrement the reference count.
             count.count--;
-            if (count.count == 0) {
-                // If this was the last reference, deallocate it.
-                deallocate(count.resource, descriptor);
-                map.remove(descriptor);
+            if (count.count > 0) {
+                return;
+            }
+
+            if (cacheSize > 0) {
+                // Keep the resource around for a while
+                synchronized (unreferenced) {
+                    unreferenced.put(descriptor, count);
+                }
+                count = null;
+            } else {
+                stripe.map.remove(descriptor);
+
+                // Null out the map when empty to save a small amount of memory
+                if (stripe.map.isEmpty()) {
+                    stripe.map = null;
+                }
             }
         }
 
-        // Null out the map when empty to save a small amount of memory
-        if (map.isEmpty()) {
-            map = null;
+        if (count != null) {
+            // If this was the last reference, deallocate it.
+            deallocate(count.resource, descriptor);
+        } else {
+            evict();
+        }
+    }
+
+    /**
+     * Sets the maximum number of resources that are kept after their last reference has
+     * been destroyed. If such a resource is created again before it is evicted, it is
+     * reused instead of being allocated again. The least recently released resources are
+     * evicted first. The default is 0, which deallocates resources as soon as they are no
+     * longer referenced.
+     *
+     * @param size the maximum number of unreferenced resources to keep
+     */
+    void setCacheSize(int size) {
+        cacheSize = Math.max(0, size);
+        evict();
+    }
+
+    /**
+     * Deallocates the least recently released unreferenced resources until no more than
+     * the cache size are left.
+     */
+    private void evict() {
+        while (true) {
+            DeviceResourceDescriptor descriptor;
+            RefCount count;
+            synchronized (unreferenced) {
+                if (unreferenced.size() <= cacheSize) {
+                    return;
+                }
+                Entry<DeviceResourceDescriptor, RefCount> eldest = unreferenced.entrySet().iterator().next();
+                descriptor = eldest.getKey();
+                count = eldest.getValue();
+            }
+
+            // Take the stripe lock before removing the entry, as another thread may just be
+            // referencing the resource again
+            Stripe stripe = getStripe(descriptor);
+            boolean evicted = false;
+            synchronized (stripe) {
+                if (stripe.map != null && stripe.map.get(descriptor) == count && count.count == 0) {
+                    stripe.map.remove(descriptor);
+                    if (stripe.map.isEmpty()) {
+                        stripe.map = null;
+                    }
+                    synchronized (unreferenced) {
+                        unreferenced.remove(descriptor);
+                    }
+                    evicted = true;
+                }
+            }
+
+            if (evicted) {
+                deallocate(count.resource, descriptor);
+            }
         }
     }
 
@@ -126,32 +288,43 @@ abstract class AbstractResourceManager extends ResourceManager {
 	public void dispose() {
         super.dispose();
 
-        if (map == null) {
-            return;
+        List<DeviceResourceDescriptor> descriptors = new ArrayList<DeviceResourceDescriptor>();
+        List<Object> resources = new ArrayList<Object>();
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            Stripe stripe = stripes[i];
+            synchronized (stripe) {
+                if (stripe.map == null) {
+                    continue;
+                }
+                for (Iterator<Entry<DeviceResourceDescriptor, RefCount>> iter = stripe.map.entrySet().iterator(); iter.hasNext();) {
+                    Entry<DeviceResourceDescriptor, RefCount> next = iter.next();
+                    descriptors.add(next.getKey());
+                    resources.add(next.getValue().resource);
+                }
+                stripe.map = null;
+            }
         }
-
-        Collection<Entry<DeviceResourceDescriptor, RefCount>> entries = map.entrySet();
-
-        for (Iterator<Entry<DeviceResourceDescriptor, RefCount>> iter = entries.iterator(); iter.hasNext();) {
-            Entry<DeviceResourceDescriptor, RefCount> next = iter.next();
-
-            Object key = next.getKey();
-            RefCount val = next.getValue();
-
-            deallocate(val.resource, (DeviceResourceDescriptor)key);
+        synchronized (unreferenced) {
+            unreferenced.clear();
         }
 
-        map = null;
+        for (int i = 0; i < descriptors.size(); i++) {
+            deallocate(resources.get(i), descriptors.get(i));
+        }
     }
 
     @Override
 	public Object find(DeviceResourceDescriptor descriptor) {
-        if (map == null) {
-            return null;
+        Stripe stripe = getStripe(descriptor);
+        synchronized (stripe) {
+            if (stripe.map == null) {
+                return null;
+            }
+            RefCount refCount = stripe.map.get(descriptor);
+            // Unreferenced resources may be evicted at any time
+            if (refCount == null || refCount.count == 0)
+            	return null;
+            return refCount.resource;
         }
-        RefCount refCount = map.get(descriptor);
-        if (refCount == null)
-        	return null;
-		return refCount.resource;
     }
 }
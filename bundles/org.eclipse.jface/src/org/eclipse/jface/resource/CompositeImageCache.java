@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.resource;
+
+import java.lang.ref.SoftReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.swt.graphics.ImageData;
+
+/**
+ * The global cache of the image data synthesized by
+ * {@link CompositeImageDescriptor}s, keyed by the descriptors themselves.
+ * Equal descriptors share one copy of the image data, so that creating an
+ * image for a new descriptor that is equal to a previous one does not redraw
+ * it pixel by pixel.
+ * <p>
+ * The cache holds at most {@link #MAX_SIZE} entries and evicts the least
+ * recently used one first. The image data is only softly referenced, so that
+ * it can be reclaimed under memory pressure.
+ * </p>
+ *
+ * @see CompositeImageDescriptor#isImageDataCacheable()
+ * @since 3.11
+ */
+final class CompositeImageCache {
+
+	/**
+	 * The maximum number of cached descriptors.
+	 */
+	static final int MAX_SIZE = 512;
+
+	private static final Map<CompositeImageDescriptor, SoftReference<ImageData>> cache = new LinkedHashMap<CompositeImageDescriptor, SoftReference<ImageData>>(
+			64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<CompositeImageDescriptor, SoftReference<ImageData>> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	private static long hits;
+
+	private static long misses;
+
+	private CompositeImageCache() {
+		// not instantiated
+	}
+
+	/**
+	 * Returns a copy of the image data cached for a descriptor equal to the
+	 * given one.
+	 *
+	 * @param descriptor
+	 *            the descriptor
+	 * @return a new copy of the image data, or <code>null</code> if there is
+	 *         none
+	 */
+	static ImageData get(CompositeImageDescriptor descriptor) {
+		ImageData data;
+		synchronized (cache) {
+			SoftReference<ImageData> reference = cache.get(descriptor);
+			data = reference == null ? null : reference.get();
+			if (data == null) {
+				if (reference != null) {
+					cache.remove(descriptor);
+				}
+				misses++;
+				return null;
+			}
+			hits++;
+		}
+		// callers own the returned image data
+		return (ImageData) data.clone();
+	}
+
+	/**
+	 * Caches a copy of the image data synthesized for the given descriptor.
+	 *
+	 * @param descriptor
+	 *            the descriptor
+	 * @param data
+	 *            the image data
+	 */
+	static void put(CompositeImageDescriptor descriptor, ImageData data) {
+		SoftReference<ImageData> reference = new SoftReference<ImageData>(
+				(ImageData) data.clone());
+		synchronized (cache) {
+			cache.put(descriptor, reference);
+		}
+	}
+
+	static long getHits() {
+		synchronized (cache) {
+			return hits;
+		}
+	}
+
+	static long getMisses() {
+		synchronized (cache) {
+			return misses;
+		}
+	}
+
+	static void clear() {
+		synchronized (cache) {
+			cache.clear();
+			hits = 0;
+			misses = 0;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -161,6 +161,21 @@ public abstract class CompositeImageDescriptor extends ImageDescriptor {
 
 	@Override
 	public ImageData getImageData() {
+		boolean cacheable = isImageDataCacheable();
+		if (cacheable) {
+			ImageData cached = CompositeImageCache.get(this);
+			if (cached != null) {
+				return cached;
+			}
+		}
+		ImageData result = drawImageData();
+		if (cacheable) {
+			CompositeImageCache.put(this, result);
+		}
+		return result;
+	}
+
+	private ImageData drawImageData() {
 		Point size = getSize();
 
 		/* Create a 24 bit image data with alpha channel */
@@ -197,6 +212,60 @@ public abstract class CompositeImageDescriptor extends ImageDescriptor {
 	}
 
 
+	/**
+	 * Returns whether the image data of this descriptor may be shared with
+	 * equal descriptors. If so, {@link #getImageData()} answers a copy of the
+	 * image data drawn for an equal descriptor from a global cache, if there is
+	 * one, instead of drawing it again.
+	 * <p>
+	 * The default implementation returns <code>false</code>. Subclasses that
+	 * return <code>true</code> must implement <code>equals</code> and
+	 * <code>hashCode</code> such that equal descriptors draw the same image,
+	 * and must not change in a way that affects equality.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the image data may be cached
+	 * @since 3.11
+	 */
+	protected boolean isImageDataCacheable() {
+		return false;
+	}
+
+	/**
+	 * Returns the number of times the image data of a cacheable composite
+	 * image descriptor was taken from the global cache.
+	 *
+	 * @return the number of cache hits
+	 * @see #isImageDataCacheable()
+	 * @since 3.11
+	 */
+	public static long getCacheHitCount() {
+		return CompositeImageCache.getHits();
+	}
+
+	/**
+	 * Returns the number of times the image data of a cacheable composite
+	 * image descriptor had to be drawn because it was not in the global cache.
+	 *
+	 * @return the number of cache misses
+	 * @see #isImageDataCacheable()
+	 * @since 3.11
+	 */
+	public static long getCacheMissCount() {
+		return CompositeImageCache.getMisses();
+	}
+
+	/**
+	 * Removes all image data from the global cache of composite image
+	 * descriptors and resets the hit and miss counts.
+	 *
+	 * @see #isImageDataCacheable()
+	 * @since 3.11
+	 */
+	public static void clearCache() {
+		CompositeImageCache.clear();
+	}
+
 	/**
 	 * Return the transparent pixel for the receiver.
 	 * <strong>NOTE</strong> This value is not currently in use in the
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2013 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,8 +10,15 @@
  *******************************************************************************/
 package org.eclipse.jface.resource;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
 import org.eclipse.swt.graphics.Device;
 import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.widgets.Display;
 
 /**
  * Manages SWT resources for a particular device.
@@ -23,6 +30,15 @@ import org.eclipse.swt.graphics.Image;
  * <code>DeviceResourceManager</code> should only be used directly when managing
  * resources for a device other than a Display (such as a printer).
  * </p>
+ * <p>
+ * Resources may be created and destroyed from any thread. When a resource for a display
+ * is created from another thread, the expensive part of image descriptors, loading the
+ * {@link ImageDescriptor#getImageData() image data}, happens on the calling thread. Only
+ * the allocation of the SWT resource is run on the display thread, batched with the
+ * allocations requested by other threads in the meantime. The calling thread waits for
+ * the allocation. Resources released from another thread are disposed on the display
+ * thread too, without waiting.
+ * </p>
  *
  * @see LocalResourceManager
  *
@@ -31,7 +47,156 @@ import org.eclipse.swt.graphics.Image;
 public final class DeviceResourceManager extends AbstractResourceManager {
 
     private Device device;
-    private Image missingImage;
+    private volatile Image missingImage;
+
+    /**
+     * Allocations requested from other threads which are waiting for the display thread.
+     * Guarded by itself.
+     */
+    private final List<PendingAllocation> pendingAllocations = new ArrayList<PendingAllocation>();
+
+    /**
+     * Runs the pending allocations on the display thread.
+     */
+    private final Runnable allocator = new Runnable() {
+        @Override
+		public void run() {
+            PendingAllocation[] batch;
+            synchronized (pendingAllocations) {
+                batch = pendingAllocations.toArray(new PendingAllocation[pendingAllocations.size()]);
+                pendingAllocations.clear();
+            }
+            for (int i = 0; i < batch.length; i++) {
+                batch[i].allocate(device);
+            }
+        }
+    };
+
+    /**
+     * Resources released from other threads which are waiting to be destroyed on the
+     * display thread. Guarded by itself.
+     */
+    private final List<PendingDeallocation> pendingDeallocations = new ArrayList<PendingDeallocation>();
+
+    /**
+     * Destroys the pending deallocations on the display thread.
+     */
+    private final Runnable deallocator = new Runnable() {
+        @Override
+		public void run() {
+            PendingDeallocation[] batch;
+            synchronized (pendingDeallocations) {
+                batch = pendingDeallocations.toArray(new PendingDeallocation[pendingDeallocations.size()]);
+                pendingDeallocations.clear();
+            }
+            for (int i = 0; i < batch.length; i++) {
+                batch[i].descriptor.destroyResource(batch[i].resource);
+            }
+        }
+    };
+
+    /**
+     * A resource released from a thread other than the display thread.
+     */
+    private static final class PendingDeallocation {
+        final Object resource;
+        final DeviceResourceDescriptor descriptor;
+
+        PendingDeallocation(Object resource, DeviceResourceDescriptor descriptor) {
+            this.resource = resource;
+            this.descriptor = descriptor;
+        }
+    }
+
+    /**
+     * A resource allocation requested from a thread other than the display thread.
+     */
+    private static final class PendingAllocation {
+        private final DeviceResourceDescriptor descriptor;
+
+        /**
+         * The image data loaded by the requesting thread, or null if the descriptor
+         * is not an image descriptor that can be created from its image data
+         */
+        private final ImageData imageData;
+
+        private Object resource;
+        private RuntimeException exception;
+        private boolean done;
+        private boolean abandoned;
+
+        PendingAllocation(DeviceResourceDescriptor descriptor) throws DeviceResourceException {
+            this.descriptor = descriptor;
+            if (descriptor instanceof ImageDescriptor && ((ImageDescriptor) descriptor).isCreatedFromImageData()) {
+                imageData = ((ImageDescriptor) descriptor).getImageData();
+                if (imageData == null) {
+                    throw new DeviceResourceException(descriptor);
+                }
+            } else {
+                imageData = null;
+            }
+        }
+
+        /**
+         * Runs on the display thread.
+         */
+        void allocate(Device device) {
+            Object result = null;
+            RuntimeException failure = null;
+            try {
+                if (imageData != null) {
+                    result = ImageDescriptor.createImage(imageData, false, device);
+                    if (result == null) {
+                        throw new DeviceResourceException(descriptor);
+                    }
+                } else {
+                    result = descriptor.createResource(device);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            synchronized (this) {
+                if (!abandoned) {
+                    resource = result;
+                    exception = failure;
+                    done = true;
+                    notifyAll();
+                    return;
+                }
+            }
+            // Nobody is waiting for the resource any more
+            if (result != null) {
+                descriptor.destroyResource(result);
+            }
+        }
+
+        /**
+         * Fails the allocation if it has not been run yet.
+         */
+        synchronized void fail(RuntimeException e) {
+            if (!done) {
+                exception = e;
+                done = true;
+                notifyAll();
+            }
+        }
+
+        synchronized Object await() throws DeviceResourceException {
+            while (!done) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    abandoned = true;
+                    Thread.currentThread().interrupt();
+                    throw new DeviceResourceException(descriptor, e);
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+            return resource;
+        }
+    }
 
     @Override
 	public Device getDevice() {
@@ -47,30 +212,125 @@ public final class DeviceResourceManager extends AbstractResourceManager {
         this.device = device;
     }
 
+    /**
+     * Sets the maximum number of resources that are kept after their last reference has
+     * been destroyed. If such a resource is created again before it is evicted, it is
+     * reused instead of being allocated again. The least recently released resources are
+     * evicted first. The default is 0, which deallocates resources as soon as they are no
+     * longer referenced.
+     *
+     * @param size the maximum number of unreferenced resources to keep
+     * @since 3.11
+     */
+    @Override
+	public void setCacheSize(int size) {
+        super.setCacheSize(size);
+    }
+
     @Override
 	protected Object allocate(DeviceResourceDescriptor descriptor) throws DeviceResourceException {
+        Display display = getOtherThreadDisplay();
+        if (display != null) {
+            return allocateOnDisplayThread(display, descriptor);
+        }
         return descriptor.createResource(device);
     }
 
+    private Object allocateOnDisplayThread(Display display, DeviceResourceDescriptor descriptor) throws DeviceResourceException {
+        PendingAllocation pending = new PendingAllocation(descriptor);
+        boolean schedule;
+        synchronized (pendingAllocations) {
+            pendingAllocations.add(pending);
+            // The first request of a batch schedules the allocator
+            schedule = pendingAllocations.size() == 1;
+        }
+        if (schedule) {
+            try {
+                display.asyncExec(allocator);
+            } catch (SWTException e) {
+                failPendingAllocations(e);
+            }
+        }
+        return pending.await();
+    }
+
+    private void failPendingAllocations(RuntimeException e) {
+        PendingAllocation[] batch;
+        synchronized (pendingAllocations) {
+            batch = pendingAllocations.toArray(new PendingAllocation[pendingAllocations.size()]);
+            pendingAllocations.clear();
+        }
+        for (int i = 0; i < batch.length; i++) {
+            batch[i].fail(e);
+        }
+    }
+
     @Override
 	protected void deallocate(Object resource, DeviceResourceDescriptor descriptor) {
-        descriptor.destroyResource(resource);
+        Display display = getOtherThreadDisplay();
+        if (display == null) {
+            descriptor.destroyResource(resource);
+            return;
+        }
+        boolean schedule;
+        synchronized (pendingDeallocations) {
+            pendingDeallocations.add(new PendingDeallocation(resource, descriptor));
+            // The first request of a batch schedules the deallocator
+            schedule = pendingDeallocations.size() == 1;
+        }
+        if (schedule) {
+            try {
+                display.asyncExec(deallocator);
+            } catch (SWTException e) {
+                // The display has been disposed, and its resources with it
+                synchronized (pendingDeallocations) {
+                    pendingDeallocations.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the display of this manager if it is not disposed and the calling thread
+     * is not its thread, or null.
+     */
+    private Display getOtherThreadDisplay() {
+        if (device instanceof Display) {
+            Display display = (Display) device;
+            if (!display.isDisposed() && display.getThread() != Thread.currentThread()) {
+                return display;
+            }
+        }
+        return null;
     }
 
     @Override
 	protected Image getDefaultImage() {
-        if (missingImage == null) {
-            missingImage = ImageDescriptor.getMissingImageDescriptor().createImage();
+        Image result = missingImage;
+        if (result == null) {
+            // Allocate without holding a lock, as this may wait for the display thread
+            result = (Image) allocate(ImageDescriptor.getMissingImageDescriptor());
+            synchronized (this) {
+                if (missingImage == null) {
+                    missingImage = result;
+                    return result;
+                }
+            }
+            deallocate(result, ImageDescriptor.getMissingImageDescriptor());
+            result = missingImage;
         }
-        return missingImage;
+        return result;
     }
 
     @Override
 	public void dispose() {
         super.dispose();
-        if (missingImage != null) {
-            missingImage.dispose();
-            missingImage = null;
+        failPendingAllocations(new SWTException(SWT.ERROR_DEVICE_DISPOSED));
+        synchronized (this) {
+            if (missingImage != null) {
+                deallocate(missingImage, ImageDescriptor.getMissingImageDescriptor());
+                missingImage = null;
+            }
         }
     }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -275,6 +275,56 @@ public abstract class ImageDescriptor extends DeviceResourceDescriptor {
             data = DEFAULT_IMAGE_DATA;
         }
 
+        return createImage(data, returnMissingImageOnError, device);
+    }
+
+    /**
+     * Returns whether the image created by this descriptor is the image created from
+     * its {@link #getImageData() image data}, in which case the image data can be
+     * loaded on another thread than the one creating the image. This is the case
+     * unless a subclass overrides {@link #createImage(boolean, Device)}. The URL and
+     * file image descriptors only override it to let SWT read the same file directly.
+     *
+     * @return whether the image can be created from the image data
+     */
+    boolean isCreatedFromImageData() {
+        return CREATED_FROM_IMAGE_DATA.get(getClass()).booleanValue();
+    }
+
+    /**
+     * Whether the instances of an image descriptor class create their image from
+     * their image data, computed once per class.
+     */
+    private static final ClassValue<Boolean> CREATED_FROM_IMAGE_DATA = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            Class<?> declaringClass;
+            try {
+                declaringClass = type.getMethod("createImage", boolean.class, Device.class).getDeclaringClass(); //$NON-NLS-1$
+            } catch (NoSuchMethodException e) {
+                return Boolean.FALSE;
+            }
+            return Boolean.valueOf(declaringClass == ImageDescriptor.class
+                    || declaringClass == URLImageDescriptor.class
+                    || declaringClass == FileImageDescriptor.class);
+        }
+    };
+
+    /**
+     * Creates an image from image data that was obtained from
+     * {@link #getImageData()}, possibly on another thread.
+     *
+     * @param data
+     *            the image data, not <code>null</code>
+     * @param returnMissingImageOnError
+     *            flag that determines if a default image is returned on error
+     * @param device
+     *            the device on which to create the image
+     * @return a new image or <code>null</code> if the image could not be
+     *         created
+     */
+    static Image createImage(ImageData data, boolean returnMissingImageOnError,
+            Device device) {
         /*
          * Try to create the supplied image. If there is an SWT Exception try and create
          * the default image if that was requested. Return null if this fails.
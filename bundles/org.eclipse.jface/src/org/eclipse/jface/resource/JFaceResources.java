@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -191,7 +191,8 @@ public class JFaceResources {
 	}
 
 	/**
-	 * Returns the global resource manager for the given display
+	 * Returns the global resource manager for the given display. May be called
+	 * from any thread.
 	 *
 	 * @since 3.1
 	 *
@@ -200,22 +201,41 @@ public class JFaceResources {
 	 * @return the global resource manager for the given display
 	 */
 	public static ResourceManager getResources(final Display toQuery) {
-		ResourceManager reg = registries.get(toQuery);
+		synchronized (registries) {
+			ResourceManager reg = registries.get(toQuery);
+			if (reg != null) {
+				return reg;
+			}
+		}
 
-		if (reg == null) {
-			final DeviceResourceManager mgr = new DeviceResourceManager(toQuery);
-			reg = mgr;
-			registries.put(toQuery, mgr);
-			toQuery.disposeExec(new Runnable() {
+		if (toQuery.getThread() != Thread.currentThread()) {
+			// The manager is created on the display thread, which is the only
+			// thread that may register the dispose runnable
+			final ResourceManager[] result = new ResourceManager[1];
+			toQuery.syncExec(new Runnable() {
 				@Override
 				public void run() {
-					mgr.dispose();
-					registries.remove(toQuery);
+					result[0] = getResources(toQuery);
 				}
 			});
+			return result[0];
+		}
+
+		final DeviceResourceManager mgr = new DeviceResourceManager(toQuery);
+		synchronized (registries) {
+			registries.put(toQuery, mgr);
 		}
+		toQuery.disposeExec(new Runnable() {
+			@Override
+			public void run() {
+				mgr.dispose();
+				synchronized (registries) {
+					registries.remove(toQuery);
+				}
+			}
+		});
 
-		return reg;
+		return mgr;
 	}
 
 	/**
@@ -47,6 +47,15 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		 */
 		private Object[] cachedElements = new Object[0];
 
+		/**
+		 * The rows that an IPrefetchingLazyContentProvider has been asked to
+		 * prefetch, from <code>prefetchStart</code> (inclusive) to
+		 * <code>prefetchEnd</code> (exclusive).
+		 */
+		private int prefetchStart;
+
+		private int prefetchEnd;
+
 		/**
 		 * Create a new instance of the receiver.
 		 *
@@ -81,6 +90,9 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 						if (contentProvider instanceof ILazyContentProvider) {
 							((ILazyContentProvider) contentProvider)
 									.updateElement(index);
+							if (contentProvider instanceof IPrefetchingLazyContentProvider) {
+								prefetch((IPrefetchingLazyContentProvider) contentProvider, index);
+							}
 							return;
 						}
 					}
@@ -92,6 +104,41 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 			});
 		}
 
+		/**
+		 * Keep a page of rows ahead of the requested row prefetched. A new
+		 * page is requested once the row is in the second half of the
+		 * current page, or outside of it after a jump.
+		 *
+		 * @param provider
+		 * @param index
+		 *            the row SWT asked for
+		 */
+		private void prefetch(IPrefetchingLazyContentProvider provider, int index) {
+			int start;
+			if (index < prefetchStart || index >= prefetchEnd) {
+				start = index + 1;
+			} else if (index + PREFETCH_PAGE_SIZE / 2 >= prefetchEnd) {
+				start = prefetchEnd;
+			} else {
+				return;
+			}
+			int end = Math.min(index + 1 + PREFETCH_PAGE_SIZE, doGetItemCount());
+			if (start >= end) {
+				return;
+			}
+			prefetchStart = index;
+			prefetchEnd = end;
+			provider.prefetch(start, end - start);
+		}
+
+		/**
+		 * Forget the prefetched rows, the next request starts a new page.
+		 */
+		public void resetPrefetch() {
+			prefetchStart = 0;
+			prefetchEnd = 0;
+		}
+
 		/**
 		 * Get the element at index.Resolve it lazily if this is available.
 		 *
@@ -202,8 +249,25 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 
 	}
 
+	/**
+	 * The number of rows an {@link IPrefetchingLazyContentProvider} is asked
+	 * to prefetch ahead of the last requested row.
+	 */
+	private static final int PREFETCH_PAGE_SIZE = 64;
+
 	private VirtualManager virtualManager;
 
+	/**
+	 * Row and cell used to update items of a virtual table, so that no
+	 * objects are allocated per row. They are only used by the outermost
+	 * update; nested updates (see bug 188663) use fresh copies.
+	 */
+	private ViewerRow virtualRow;
+
+	private ViewerCell virtualCell;
+
+	private int virtualUpdateDepth;
+
 	/**
 	 * Create the new viewer for table like widgets
 	 */
@@ -361,15 +425,14 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 				if (columnCount == 0)
 					columnCount = 1;// If there are no columns do the first one
 
-				ViewerRow viewerRowFromItem = getViewerRowFromItem(item);
-
 				boolean isVirtual = (getControl().getStyle() & SWT.VIRTUAL) != 0;
-
-				// If the control is virtual, we cannot use the cached viewer row object. See bug 188663.
 				if (isVirtual) {
-					viewerRowFromItem = (ViewerRow) viewerRowFromItem.clone();
+					doUpdateVirtualItem(item, element, columnCount);
+					return;
 				}
 
+				ViewerRow viewerRowFromItem = getViewerRowFromItem(item);
+
 				// Also enter loop if no columns added. See 1G9WWGZ: JFUIF:WINNT -
 				// TableViewer with 0 columns does not work
 				for (int column = 0; column < columnCount || column == 0; column++) {
@@ -377,11 +440,6 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 					ViewerCell cellToUpdate = updateCell(viewerRowFromItem,
 							column, element);
 
-					// If the control is virtual, we cannot use the cached cell object. See bug 188663.
-					if (isVirtual) {
-						cellToUpdate = new ViewerCell(cellToUpdate.getViewerRow(), cellToUpdate.getColumnIndex(), element);
-					}
-
 					columnViewer.refresh(cellToUpdate);
 
 					// clear cell (see bug 201280)
@@ -402,6 +460,74 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Updates the columns of an item of a virtual table.
+	 * <p>
+	 * The cached viewer row and cell objects cannot be used here, as label
+	 * providers may cause SetData callbacks for other items while an item is
+	 * updated (see bug 188663). Instead of copying them for every row, the
+	 * outermost update reuses a row and a cell owned by this method, and only
+	 * nested updates allocate their own copies.
+	 * </p>
+	 *
+	 * @param item
+	 * @param element
+	 * @param columnCount
+	 */
+	private void doUpdateVirtualItem(Item item, Object element, int columnCount) {
+		ViewerRow row;
+		ViewerCell cell;
+		if (virtualUpdateDepth == 0) {
+			row = getVirtualViewerRow(item, virtualRow);
+			virtualRow = row;
+			if (virtualCell == null) {
+				virtualCell = new ViewerCell(null, 0, null);
+			}
+			cell = virtualCell;
+		} else {
+			row = (ViewerRow) getViewerRowFromItem(item).clone();
+			cell = new ViewerCell(null, 0, null);
+		}
+
+		virtualUpdateDepth++;
+		try {
+			// Also enter loop if no columns added. See 1G9WWGZ: JFUIF:WINNT -
+			// TableViewer with 0 columns does not work
+			for (int column = 0; column < columnCount || column == 0; column++) {
+				ViewerColumn columnViewer = getViewerColumn(column);
+				cell.update(row, column, element);
+				columnViewer.refresh(cell);
+
+				// As it is possible for user code to run the event
+				// loop check here.
+				if (item.isDisposed()) {
+					unmapElement(element, item);
+					return;
+				}
+			}
+		} finally {
+			virtualUpdateDepth--;
+			// do not keep the element and item reachable
+			cell.update(null, 0, null);
+		}
+	}
+
+	/**
+	 * Returns a viewer row for the given item that is not shared with the rest
+	 * of the viewer. The default implementation returns a copy of the cached
+	 * viewer row; subclasses that can re-target a row to another item should
+	 * reuse the given row instead.
+	 *
+	 * @param item
+	 *            the item to return a row for
+	 * @param reusableRow
+	 *            the row returned by the previous call, or <code>null</code>
+	 * @return a row for the item
+	 */
+	ViewerRow getVirtualViewerRow(Item item, ViewerRow reusableRow) {
+		return (ViewerRow) getViewerRowFromItem(item).clone();
+	}
+
 	@Override
 	protected Widget getColumnViewerOwner(int columnIndex) {
 		int columnCount = doGetColumnCount();
@@ -633,6 +759,7 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 
 		Object root = getRoot();
 		IContentProvider contentProvider = getContentProvider();
+		virtualManager.resetPrefetch();
 
 		// Invalidate for lazy
 		if (!(contentProvider instanceof ILazyContentProvider)
@@ -997,6 +1124,7 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		doSetItemCount(count);
 		if (virtualManager != null) {
 			virtualManager.adjustCacheSize(count);
+			virtualManager.resetPrefetch();
 		}
 		getControl().redraw();
 	}
@@ -20,6 +20,7 @@ package org.eclipse.jface.viewers;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -730,7 +731,8 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 
 	/**
 	 * Collapses the subtree rooted at the given element or tree path to the
-	 * given level.
+	 * given level. Redrawing of the tree control is suspended while the items
+	 * are collapsed.
 	 *
 	 * @param elementOrTreePath
 	 *            the element or tree path
@@ -742,7 +744,14 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		Assert.isNotNull(elementOrTreePath);
 		Widget w = internalGetWidgetToSelect(elementOrTreePath);
 		if (w != null) {
-			internalCollapseToLevel(w, level);
+			Control control = getControl();
+			// collapse all items in a single repaint
+			control.setRedraw(false);
+			try {
+				internalCollapseToLevel(w, level);
+			} finally {
+				control.setRedraw(true);
+			}
 		}
 	}
 
@@ -1042,20 +1051,37 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	}
 
 	/**
-	 * Expands the root of the viewer's tree to the given level.
+	 * Expands the root of the viewer's tree to the given level. Redrawing of
+	 * the tree control is suspended while the items are expanded.
 	 *
 	 * @param level
 	 *            non-negative level, or <code>ALL_LEVELS</code> to expand all
 	 *            levels of the tree
 	 */
 	public void expandToLevel(int level) {
-		expandToLevel(getRoot(), level);
+		expandToLevel(level, true);
+	}
+
+	/**
+	 * Expands the root of the viewer's tree to the given level.
+	 *
+	 * @param level
+	 *            non-negative level, or <code>ALL_LEVELS</code> to expand all
+	 *            levels of the tree
+	 * @param disableRedraw
+	 *            <code>true</code> to suspend redrawing of the tree control
+	 *            until all items are expanded
+	 * @since 3.11
+	 */
+	public void expandToLevel(int level, boolean disableRedraw) {
+		expandToLevel(getRoot(), level, disableRedraw);
 	}
 
 	/**
 	 * Expands all ancestors of the given element or tree path so that the given
 	 * element becomes visible in this viewer's tree control, and then expands
-	 * the subtree rooted at the given element to the given level.
+	 * the subtree rooted at the given element to the given level. Redrawing of
+	 * the tree control is suspended while the items are expanded.
 	 *
 	 * @param elementOrTreePath
 	 *            the element
@@ -1064,11 +1090,47 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 	 *            levels of the tree
 	 */
 	public void expandToLevel(Object elementOrTreePath, int level) {
+		expandToLevel(elementOrTreePath, level, true);
+	}
+
+	/**
+	 * Expands all ancestors of the given element or tree path so that the given
+	 * element becomes visible in this viewer's tree control, and then expands
+	 * the subtree rooted at the given element to the given level.
+	 * <p>
+	 * Expanding many items one at a time makes the tree control repaint and
+	 * recompute its scroll bars for every item. Suspending redraw lets the
+	 * control do this only once, after all items have been created and
+	 * expanded.
+	 * </p>
+	 *
+	 * @param elementOrTreePath
+	 *            the element
+	 * @param level
+	 *            non-negative level, or <code>ALL_LEVELS</code> to expand all
+	 *            levels of the tree
+	 * @param disableRedraw
+	 *            <code>true</code> to suspend redrawing of the tree control
+	 *            until all items are expanded
+	 * @since 3.11
+	 */
+	public void expandToLevel(Object elementOrTreePath, int level,
+			boolean disableRedraw) {
 		if (checkBusy())
 			return;
-		Widget w = internalExpand(elementOrTreePath, true);
-		if (w != null) {
-			internalExpandToLevel(w, level);
+		Control control = getControl();
+		if (disableRedraw) {
+			control.setRedraw(false);
+		}
+		try {
+			Widget w = internalExpand(elementOrTreePath, true);
+			if (w != null) {
+				internalExpandToLevel(w, level);
+			}
+		} finally {
+			if (disableRedraw) {
+				control.setRedraw(true);
+			}
 		}
 	}
 
@@ -2413,20 +2475,27 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 			return;
 		}
 		CustomHashtable expandedElements = newHashtable(elements.length * 2 + 1);
-		for (int i = 0; i < elements.length; ++i) {
-			Object element = elements[i];
-			// Ensure item exists for element. This will materialize items for
-			// each element and their parents, if possible. This is important
-			// to support expanding of inner tree nodes without necessarily
-			// expanding their parents.
-			internalExpand(element, false);
-			expandedElements.put(element, element);
+		Control control = getControl();
+		// expand all items in a single repaint
+		control.setRedraw(false);
+		try {
+			for (int i = 0; i < elements.length; ++i) {
+				Object element = elements[i];
+				// Ensure item exists for element. This will materialize items for
+				// each element and their parents, if possible. This is important
+				// to support expanding of inner tree nodes without necessarily
+				// expanding their parents.
+				internalExpand(element, false);
+				expandedElements.put(element, element);
+			}
+			// this will traverse all existing items, and create children for
+			// elements that need to be expanded. If the tree contains multiple
+			// equal elements, and those are in the set of elements to be expanded,
+			// only the first item found for each element will be expanded.
+			internalSetExpanded(expandedElements, control);
+		} finally {
+			control.setRedraw(true);
 		}
-		// this will traverse all existing items, and create children for
-		// elements that need to be expanded. If the tree contains multiple
-		// equal elements, and those are in the set of elements to be expanded,
-		// only the first item found for each element will be expanded.
-		internalSetExpanded(expandedElements, getControl());
 	}
 
 	/**
@@ -2463,21 +2532,28 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		};
 		CustomHashtable expandedTreePaths = new CustomHashtable(
 				treePaths.length * 2 + 1, treePathComparer);
-		for (int i = 0; i < treePaths.length; ++i) {
-			TreePath treePath = treePaths[i];
-			// Ensure item exists for element. This will materialize items for
-			// each element and their parents, if possible. This is important
-			// to support expanding of inner tree nodes without necessarily
-			// expanding their parents.
-			internalExpand(treePath, false);
-			expandedTreePaths.put(treePath, treePath);
+		Control control = getControl();
+		// expand all items in a single repaint
+		control.setRedraw(false);
+		try {
+			for (int i = 0; i < treePaths.length; ++i) {
+				TreePath treePath = treePaths[i];
+				// Ensure item exists for element. This will materialize items for
+				// each element and their parents, if possible. This is important
+				// to support expanding of inner tree nodes without necessarily
+				// expanding their parents.
+				internalExpand(treePath, false);
+				expandedTreePaths.put(treePath, treePath);
+			}
+			// this will traverse all existing items, and create children for
+			// elements that need to be expanded. If the tree contains multiple
+			// equal elements, and those are in the set of elements to be expanded,
+			// only the first item found for each element will be expanded.
+			internalSetExpandedTreePaths(expandedTreePaths, control,
+					new TreePath(new Object[0]));
+		} finally {
+			control.setRedraw(true);
 		}
-		// this will traverse all existing items, and create children for
-		// elements that need to be expanded. If the tree contains multiple
-		// equal elements, and those are in the set of elements to be expanded,
-		// only the first item found for each element will be expanded.
-		internalSetExpandedTreePaths(expandedTreePaths, getControl(),
-				new TreePath(new Object[0]));
 	}
 
 	/**
@@ -3107,6 +3183,207 @@ public abstract class AbstractTreeViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Applies the given delta to the children of the delta's parent element.
+	 * Unlike {@link #refresh(Object)}, this does not ask the content provider
+	 * for all children of the parent and does not match them against the
+	 * existing items; only the items of the added, removed, moved and changed
+	 * children are touched. Child items are looked up through an index over
+	 * the parent's items, so the cost is linear in the number of items of the
+	 * parent plus the size of the delta.
+	 * <p>
+	 * This method should be called (by the content provider) when the
+	 * children of an element have changed in the model and the exact change
+	 * is known. This method only affects the viewer, not the model. If the
+	 * parent is collapsed, its children are discarded and fetched again when
+	 * it gets expanded.
+	 * </p>
+	 *
+	 * @param delta
+	 *            the delta describing the changed children
+	 *
+	 * @since 3.11
+	 */
+	public void applyDelta(final TreeContentDelta delta) {
+		Assert.isNotNull(delta);
+		if (delta.isEmpty() || checkBusy())
+			return;
+		Object parentElementOrTreePath = delta.getParentElementOrTreePath();
+		final Widget[] widgets;
+		if (internalIsInputOrEmptyPath(parentElementOrTreePath)) {
+			widgets = new Widget[] { getControl() };
+		} else {
+			widgets = internalFindItems(parentElementOrTreePath);
+		}
+		// If parent hasn't been realized yet, just ignore the delta.
+		if (widgets.length == 0) {
+			return;
+		}
+		preservingSelection(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < widgets.length; i++) {
+					if (!widgets[i].isDisposed()) {
+						internalApplyDelta(widgets[i], delta);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Applies the given delta to the children of the given parent widget.
+	 *
+	 * @param widget
+	 *            the parent item, or the control if the parent is the input
+	 * @param delta
+	 *            the delta to apply
+	 */
+	/* package */void internalApplyDelta(Widget widget, TreeContentDelta delta) {
+		Object parent = widget instanceof Item ? widget.getData() : getRoot();
+		if (widget instanceof Item && !getExpanded((Item) widget)) {
+			// optimization! children of collapsed items are re-created on
+			// expand, so only the dummy node needs to be maintained
+			internalRefresh(widget, parent, true, false);
+			return;
+		}
+
+		// index the existing child items once, so that each child of the
+		// delta is found in constant time
+		Item[] items = getChildren(widget);
+		CustomHashtable index = newHashtable(items.length * 2 + 1);
+		for (int i = 0; i < items.length; i++) {
+			Object data = items[i].getData();
+			if (data != null) {
+				index.put(data, items[i]);
+			}
+		}
+
+		Object[] removed = delta.getRemovedElements();
+		for (int i = 0; i < removed.length; i++) {
+			Item item = (Item) index.remove(removed[i]);
+			if (item != null) {
+				disassociate(item);
+				item.dispose();
+			}
+		}
+
+		Object[] changed = delta.getChangedElements();
+		for (int i = 0; i < changed.length; i++) {
+			Item item = (Item) index.get(changed[i]);
+			if (item != null) {
+				updatePlus(item, changed[i]);
+				updateItem(item, changed[i]);
+			}
+		}
+
+		// SWT items cannot be moved, moved children are re-created at their
+		// new position. Remember the expanded elements of their subtrees.
+		Object[] moved = delta.getMovedElements();
+		CustomHashtable movedExpanded = null;
+		CustomHashtable expanded = null;
+		for (int i = 0; i < moved.length; i++) {
+			Item item = (Item) index.remove(moved[i]);
+			if (item == null) {
+				continue;
+			}
+			if (getExpanded(item)) {
+				if (movedExpanded == null) {
+					movedExpanded = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+					expanded = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+				}
+				movedExpanded.put(moved[i], moved[i]);
+				List expandedItems = new ArrayList();
+				internalCollectExpandedItems(expandedItems, item);
+				for (Iterator it = expandedItems.iterator(); it.hasNext();) {
+					Object data = ((Item) it.next()).getData();
+					expanded.put(data, data);
+				}
+			}
+			disassociate(item);
+			item.dispose();
+		}
+
+		Object[] added = delta.getAddedElements();
+		if (getComparator() != null || hasFilters()) {
+			// positions are meaningless, place the elements like add() does
+			Object[] elements = new Object[added.length + moved.length];
+			System.arraycopy(added, 0, elements, 0, added.length);
+			System.arraycopy(moved, 0, elements, added.length, moved.length);
+			if (elements.length > 0) {
+				internalAdd(widget, delta.getParentElementOrTreePath(),
+						elements);
+			}
+		} else {
+			insertAtPositions(widget, added, delta.getAddedPositions(), moved,
+					delta.getMovedPositions());
+		}
+
+		if (movedExpanded != null) {
+			Item[] children = getChildren(widget);
+			for (int i = 0; i < children.length; i++) {
+				Object data = children[i].getData();
+				if (data != null && movedExpanded.containsKey(data)) {
+					createChildren(children[i]);
+					setExpanded(children[i], true);
+					expanded.remove(data);
+					internalSetExpanded(expanded, children[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates items for the given added and moved elements at the given
+	 * positions. The positions are relative to the final list of children, so
+	 * the items are created in ascending order of position; elements with a
+	 * negative or out of range position are appended in the order given.
+	 */
+	private void insertAtPositions(Widget widget, Object[] added,
+			int[] addedPositions, Object[] moved, int[] movedPositions) {
+		int count = added.length + moved.length;
+		if (count == 0) {
+			return;
+		}
+		final Object[] elements = new Object[count];
+		final int[] positions = new int[count];
+		System.arraycopy(added, 0, elements, 0, added.length);
+		System.arraycopy(addedPositions, 0, positions, 0, added.length);
+		System.arraycopy(moved, 0, elements, added.length, moved.length);
+		System.arraycopy(movedPositions, 0, positions, added.length,
+				moved.length);
+		Integer[] order = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = new Integer(i);
+		}
+		// stable sort, appended elements last
+		Arrays.sort(order, new Comparator() {
+			@Override
+			public int compare(Object o1, Object o2) {
+				int p1 = positions[((Integer) o1).intValue()];
+				int p2 = positions[((Integer) o2).intValue()];
+				if (p1 < 0) {
+					return p2 < 0 ? 0 : 1;
+				}
+				if (p2 < 0) {
+					return -1;
+				}
+				return p1 - p2;
+			}
+		});
+		int itemCount = widget instanceof Item ? getItemCount((Item) widget)
+				: getItemCount((Control) widget);
+		for (int i = 0; i < count; i++) {
+			int k = order[i].intValue();
+			int position = positions[k];
+			if (position < 0 || position > itemCount) {
+				position = -1;
+			}
+			createTreeItem(widget, elements[k], position);
+			itemCount++;
+		}
+	}
+
 	@Override
 	protected Widget getColumnViewerOwner(int columnIndex) {
 		// Return null by default
@@ -0,0 +1,418 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.jface.util.Policy;
+import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Item;
+import org.eclipse.swt.widgets.Scrollable;
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * A {@link DelegatingStyledCellLabelProvider} that asks its
+ * {@link DelegatingStyledCellLabelProvider.IStyledLabelProvider} for the
+ * styled text and the image of elements on worker threads, so that slow label
+ * providers do not block the UI thread.
+ * <p>
+ * When a cell is updated for an element whose label has not been computed
+ * yet, the cell shows a placeholder (see {@link #getPlaceholderText(Object)}
+ * and {@link #getPlaceholderImage(Object)}) and the label is requested. The
+ * requests made while the UI thread is busy are collected, and only those for
+ * elements that are still visible are passed to the workers. Requests for
+ * elements that scroll out of view before a worker gets to them are dropped;
+ * with owner draw enabled, they are requested again when the element is
+ * painted. Computed labels are applied in batches, by firing a single
+ * {@link LabelProviderChangedEvent} for all elements whose labels arrived in
+ * the meantime.
+ * </p>
+ * <p>
+ * The styled label provider's <code>getStyledText</code> and
+ * <code>getImage</code> methods must be safe to call from any thread. Images
+ * must be owned by the label provider, for example obtained from an
+ * {@link org.eclipse.jface.resource.ImageRegistry} or a resource manager.
+ * Colors, fonts and tool tips are still requested on the UI thread.
+ * </p>
+ * <p>
+ * When the styled label provider fires a {@link LabelProviderChangedEvent},
+ * the labels of the affected elements are computed again.
+ * </p>
+ *
+ * @since 3.11
+ */
+public class BackgroundStyledCellLabelProvider extends
+		DelegatingStyledCellLabelProvider {
+
+	/**
+	 * The maximum number of computed labels that are kept.
+	 */
+	private static final int CACHE_SIZE = 4096;
+
+	/**
+	 * A computed label, or a request to compute one.
+	 */
+	private class LabelTask implements Runnable {
+
+		final Object element;
+
+		volatile boolean canceled;
+
+		StyledString text;
+
+		Image image;
+
+		LabelTask(Object element) {
+			this.element = element;
+		}
+
+		@Override
+		public void run() {
+			if (canceled) {
+				return;
+			}
+			IStyledLabelProvider provider = getStyledStringProvider();
+			try {
+				text = provider.getStyledText(element);
+				image = provider.getImage(element);
+			} catch (RuntimeException e) {
+				Policy.logException(e);
+			}
+			if (text == null) {
+				text = new StyledString();
+			}
+			completed.add(this);
+			scheduleResults();
+		}
+	}
+
+	private final ExecutorService executor;
+
+	private final boolean ownsExecutor;
+
+	/**
+	 * Computed labels, least recently used first. Only accessed in the UI
+	 * thread.
+	 */
+	private final Map<Object, LabelTask> labels = new LinkedHashMap<Object, LabelTask>(
+			64, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, LabelTask> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	/**
+	 * Elements whose labels were requested since the last batch was passed to
+	 * the workers. Only accessed in the UI thread.
+	 */
+	private final Set<Object> requested = new LinkedHashSet<Object>();
+
+	/**
+	 * Requests passed to the workers whose labels have not been applied yet.
+	 * Only accessed in the UI thread.
+	 */
+	private final Map<Object, LabelTask> running = new HashMap<Object, LabelTask>();
+
+	/**
+	 * Labels computed by the workers which have not been applied yet.
+	 */
+	private final ConcurrentLinkedQueue<LabelTask> completed = new ConcurrentLinkedQueue<LabelTask>();
+
+	private boolean requestsScheduled;
+
+	private final AtomicBoolean resultsScheduled = new AtomicBoolean();
+
+	private volatile boolean disposed;
+
+	private final Runnable requestRunnable = new Runnable() {
+		@Override
+		public void run() {
+			requestsScheduled = false;
+			if (!disposed) {
+				submitRequests();
+			}
+		}
+	};
+
+	private final Runnable resultRunnable = new Runnable() {
+		@Override
+		public void run() {
+			resultsScheduled.set(false);
+			if (!disposed) {
+				applyResults();
+			}
+		}
+	};
+
+	/**
+	 * Creates a {@link BackgroundStyledCellLabelProvider} that computes the
+	 * labels on its own worker threads.
+	 *
+	 * @param labelProvider
+	 *            the label provider that provides the styled labels and the
+	 *            images, which must be safe to call from any thread
+	 */
+	public BackgroundStyledCellLabelProvider(IStyledLabelProvider labelProvider) {
+		this(labelProvider, null);
+	}
+
+	/**
+	 * Creates a {@link BackgroundStyledCellLabelProvider} that computes the
+	 * labels using the given executor.
+	 *
+	 * @param labelProvider
+	 *            the label provider that provides the styled labels and the
+	 *            images, which must be safe to call from any thread
+	 * @param executor
+	 *            the executor that runs the label computations, or
+	 *            <code>null</code> to use worker threads owned by this label
+	 *            provider
+	 */
+	public BackgroundStyledCellLabelProvider(
+			IStyledLabelProvider labelProvider, ExecutorService executor) {
+		super(labelProvider);
+		if (executor == null) {
+			int threads = Math.max(1, Math.min(4, Runtime.getRuntime()
+					.availableProcessors()));
+			this.executor = Executors.newFixedThreadPool(threads,
+					new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread thread = new Thread(runnable,
+									"Label Provider Worker"); //$NON-NLS-1$
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			this.ownsExecutor = true;
+		} else {
+			this.executor = executor;
+			this.ownsExecutor = false;
+		}
+
+		// Registered before any viewer listens to the label provider, so that
+		// stale labels are discarded before the viewer updates its items.
+		labelProvider.addListener(new ILabelProviderListener() {
+			@Override
+			public void labelProviderChanged(LabelProviderChangedEvent event) {
+				discardLabels(event.getElements());
+			}
+		});
+	}
+
+	/**
+	 * Returns the text shown while the label of the given element is being
+	 * computed. Called in the UI thread; must be fast.
+	 *
+	 * @param element
+	 *            the element
+	 * @return the placeholder text, not <code>null</code>
+	 */
+	protected StyledString getPlaceholderText(Object element) {
+		return new StyledString();
+	}
+
+	/**
+	 * Returns the image shown while the label of the given element is being
+	 * computed. Called in the UI thread; must be fast.
+	 *
+	 * @param element
+	 *            the element
+	 * @return the placeholder image, or <code>null</code>
+	 */
+	protected Image getPlaceholderImage(Object element) {
+		return null;
+	}
+
+	@Override
+	protected StyledString getStyledText(Object element) {
+		LabelTask label = labels.get(element);
+		if (label == null) {
+			request(element);
+			return getPlaceholderText(element);
+		}
+		return label.text;
+	}
+
+	@Override
+	public Image getImage(Object element) {
+		LabelTask label = labels.get(element);
+		if (label == null) {
+			return getPlaceholderImage(element);
+		}
+		return label.image;
+	}
+
+	@Override
+	protected void paint(Event event, Object element) {
+		// re-request labels that were dropped while the element was not visible
+		if (!disposed && labels.get(element) == null) {
+			request(element);
+		}
+		super.paint(event, element);
+	}
+
+	private void request(Object element) {
+		if (disposed || running.containsKey(element)
+				|| !requested.add(element)) {
+			return;
+		}
+		Display display = getDisplay();
+		if (!requestsScheduled && display != null) {
+			requestsScheduled = true;
+			display.asyncExec(requestRunnable);
+		}
+	}
+
+	/**
+	 * Passes the requested labels of visible elements to the workers, and
+	 * cancels the running requests of elements that are no longer visible.
+	 */
+	private void submitRequests() {
+		// dropped requests are only requested again when painted
+		boolean dropInvisible = isOwnerDrawEnabled();
+		if (dropInvisible) {
+			for (Iterator<LabelTask> iterator = running.values().iterator(); iterator
+					.hasNext();) {
+				LabelTask task = iterator.next();
+				if (!isVisible(task.element)) {
+					task.canceled = true;
+					iterator.remove();
+				}
+			}
+		}
+		Object[] elements = requested.toArray();
+		requested.clear();
+		for (int i = 0; i < elements.length; i++) {
+			Object element = elements[i];
+			if (dropInvisible && !isVisible(element)) {
+				continue;
+			}
+			LabelTask task = new LabelTask(element);
+			running.put(element, task);
+			executor.execute(task);
+		}
+	}
+
+	private void scheduleResults() {
+		if (disposed || !resultsScheduled.compareAndSet(false, true)) {
+			return;
+		}
+		Display display = getDisplay();
+		try {
+			if (display != null) {
+				display.asyncExec(resultRunnable);
+			}
+		} catch (SWTException e) {
+			// the display has been disposed
+		}
+	}
+
+	/**
+	 * Remembers the computed labels and updates their elements in one go.
+	 */
+	private void applyResults() {
+		List<Object> elements = new ArrayList<Object>();
+		LabelTask task;
+		while ((task = completed.poll()) != null) {
+			if (task.canceled || running.get(task.element) != task) {
+				continue;
+			}
+			running.remove(task.element);
+			labels.put(task.element, task);
+			elements.add(task.element);
+		}
+		if (!elements.isEmpty()) {
+			fireLabelProviderChanged(new LabelProviderChangedEvent(this,
+					elements.toArray()));
+		}
+	}
+
+	private void discardLabels(Object[] elements) {
+		if (elements == null) {
+			labels.clear();
+			for (Iterator<LabelTask> iterator = running.values().iterator(); iterator
+					.hasNext();) {
+				iterator.next().canceled = true;
+			}
+			running.clear();
+			return;
+		}
+		for (int i = 0; i < elements.length; i++) {
+			labels.remove(elements[i]);
+			LabelTask task = running.remove(elements[i]);
+			if (task != null) {
+				task.canceled = true;
+			}
+		}
+	}
+
+	private boolean isVisible(Object element) {
+		ColumnViewer viewer = getViewer();
+		if (viewer == null) {
+			return false;
+		}
+		Widget item = viewer.testFindItem(element);
+		if (!(item instanceof Item)) {
+			return false;
+		}
+		ViewerRow row = viewer.getViewerRowFromItem(item);
+		if (row == null) {
+			return false;
+		}
+		Control control = viewer.getControl();
+		if (!(control instanceof Scrollable)) {
+			return true;
+		}
+		return row.getBounds().intersects(
+				((Scrollable) control).getClientArea());
+	}
+
+	private Display getDisplay() {
+		ColumnViewer viewer = getViewer();
+		if (viewer == null) {
+			return Display.getCurrent();
+		}
+		Control control = viewer.getControl();
+		return control.isDisposed() ? null : control.getDisplay();
+	}
+
+	@Override
+	public void dispose() {
+		disposed = true;
+		discardLabels(null);
+		requested.clear();
+		completed.clear();
+		if (ownsExecutor) {
+			executor.shutdownNow();
+		}
+		super.dispose();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2013 IBM Corporation and others.
+ * Copyright (c) 2006, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -54,7 +54,8 @@ public class DecorationOverlayIcon extends CompositeImageDescriptor {
     public DecorationOverlayIcon(Image baseImage,
             ImageDescriptor[] overlaysArray, Point sizeValue) {
         this.base = baseImage;
-        this.overlays = overlaysArray;
+        // copy the overlays, as the image data of equal icons is shared
+        this.overlays = overlaysArray.clone();
         this.size = sizeValue;
     }
 
@@ -142,7 +143,8 @@ public class DecorationOverlayIcon extends CompositeImageDescriptor {
 		}
         DecorationOverlayIcon other = (DecorationOverlayIcon) o;
         return base.equals(other.base)
-                && Arrays.equals(overlays, other.overlays);
+                && Arrays.equals(overlays, other.overlays)
+                && size.equals(other.size);
     }
 
     @Override
@@ -172,6 +174,17 @@ public class DecorationOverlayIcon extends CompositeImageDescriptor {
         drawOverlays(overlays);
     }
 
+    /**
+     * Decoration overlay icons for the same base image, overlays and size
+     * share their image data.
+     *
+     * @since 3.11
+     */
+    @Override
+	protected boolean isImageDataCacheable() {
+        return true;
+    }
+
     @Override
 	protected Point getSize() {
         return size;
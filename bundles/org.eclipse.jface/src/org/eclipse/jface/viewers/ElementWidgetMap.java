@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+/**
+ * The map from model elements to widgets used by {@link StructuredViewer}.
+ * <p>
+ * Unlike {@link CustomHashtable}, this map uses open addressing with linear
+ * probing: keys and values are stored in two parallel arrays, and no entry
+ * object is allocated per mapping. The value of a mapping is either a single
+ * widget or an array of widgets, as maintained by the viewer. Keys are
+ * compared and hashed using the viewer's {@link IElementComparer}, if any.
+ * </p>
+ * <p>
+ * Like {@link CustomHashtable}, <code>put</code> replaces the key of an
+ * existing mapping, so that the map does not hang onto keys that are equal
+ * but "old" (see bug 30607).
+ * </p>
+ *
+ * @since 3.11
+ */
+/* package */final class ElementWidgetMap {
+
+	private static final int MIN_CAPACITY = 16;
+
+	private final IElementComparer comparer;
+
+	private Object[] keys;
+
+	private Object[] values;
+
+	private int size;
+
+	/**
+	 * The number of mappings from which on the arrays are grown; keeps the
+	 * load factor at or below 2/3.
+	 */
+	private int threshold;
+
+	/**
+	 * Creates a map with room for the given number of mappings.
+	 *
+	 * @param expectedSize
+	 *            the expected number of mappings
+	 * @param comparer
+	 *            the element comparer, or <code>null</code> to use the
+	 *            elements' <code>equals</code> and <code>hashCode</code>
+	 *            methods
+	 */
+	ElementWidgetMap(int expectedSize, IElementComparer comparer) {
+		this.comparer = comparer;
+		allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * Creates a map containing all mappings of the given map, using the given
+	 * element comparer.
+	 *
+	 * @param map
+	 *            the map to copy
+	 * @param comparer
+	 *            the element comparer, or <code>null</code>
+	 */
+	ElementWidgetMap(ElementWidgetMap map, IElementComparer comparer) {
+		this(map.size, comparer);
+		Object[] oldKeys = map.keys;
+		Object[] oldValues = map.values;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != null) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private static int capacityFor(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity * 2 < expectedSize * 3 && capacity < (1 << 30)) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private void allocate(int capacity) {
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		threshold = capacity * 2 / 3;
+	}
+
+	private int hash(Object key) {
+		int h = comparer == null ? key.hashCode() : comparer.hashCode(key);
+		// spread the bits, as many hash codes differ only in the upper bits
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private boolean keyEquals(Object a, Object b) {
+		if (comparer == null) {
+			return a.equals(b);
+		}
+		return comparer.equals(a, b);
+	}
+
+	/**
+	 * Returns the slot of the given key, or <code>-1</code> if it is not
+	 * mapped.
+	 */
+	private int indexOf(Object key) {
+		int mask = keys.length - 1;
+		int index = hash(key) & mask;
+		Object candidate;
+		while ((candidate = keys[index]) != null) {
+			if (candidate == key || keyEquals(key, candidate)) {
+				return index;
+			}
+			index = (index + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the widget or widgets mapped to the given element.
+	 *
+	 * @param key
+	 *            the element
+	 * @return a <code>Widget</code>, a <code>Widget[]</code>, or
+	 *         <code>null</code> if the element is not mapped
+	 */
+	Object get(Object key) {
+		int index = indexOf(key);
+		return index < 0 ? null : values[index];
+	}
+
+	/**
+	 * Returns whether the given element is mapped.
+	 *
+	 * @param key
+	 *            the element
+	 * @return <code>true</code> if the element is mapped
+	 */
+	boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * Maps the given element to the given widget or widgets, replacing both
+	 * key and value of an existing mapping.
+	 *
+	 * @param key
+	 *            the element, not <code>null</code>
+	 * @param value
+	 *            a <code>Widget</code> or <code>Widget[]</code>, not
+	 *            <code>null</code>
+	 * @return the previous value, or <code>null</code>
+	 */
+	Object put(Object key, Object value) {
+		if (key == null || value == null) {
+			throw new NullPointerException();
+		}
+		int mask = keys.length - 1;
+		int index = hash(key) & mask;
+		Object candidate;
+		while ((candidate = keys[index]) != null) {
+			if (candidate == key || keyEquals(key, candidate)) {
+				Object result = values[index];
+				keys[index] = key;
+				values[index] = value;
+				return result;
+			}
+			index = (index + 1) & mask;
+		}
+		keys[index] = key;
+		values[index] = value;
+		if (++size > threshold) {
+			grow();
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the mapping for the given element.
+	 *
+	 * @param key
+	 *            the element
+	 * @return the removed value, or <code>null</code> if the element was not
+	 *         mapped
+	 */
+	Object remove(Object key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		Object result = values[index];
+		size--;
+		// shift back following entries of the probe sequence instead of
+		// leaving a tombstone
+		int mask = keys.length - 1;
+		int gap = index;
+		int next = (gap + 1) & mask;
+		Object candidate;
+		while ((candidate = keys[next]) != null) {
+			int home = hash(candidate) & mask;
+			// move the entry into the gap unless its home slot lies
+			// cyclically in (gap, next]
+			if (gap <= next ? (home <= gap || home > next)
+					: (home <= gap && home > next)) {
+				keys[gap] = candidate;
+				values[gap] = values[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		keys[gap] = null;
+		values[gap] = null;
+		return result;
+	}
+
+	/**
+	 * Returns the number of mapped elements.
+	 *
+	 * @return the number of mappings
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the element comparer of this map.
+	 *
+	 * @return the element comparer, or <code>null</code>
+	 */
+	IElementComparer getComparer() {
+		return comparer;
+	}
+
+	private void grow() {
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(oldKeys.length << 1);
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			Object key = oldKeys[i];
+			if (key != null) {
+				int index = hash(key) & mask;
+				while (keys[index] != null) {
+					index = (index + 1) & mask;
+				}
+				keys[index] = key;
+				values[index] = oldValues[i];
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer buffer = new StringBuffer();
+		buffer.append('{');
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null) {
+				if (buffer.length() > 1) {
+					buffer.append(", "); //$NON-NLS-1$
+				}
+				buffer.append(keys[i]);
+				buffer.append('=');
+				buffer.append(values[i]);
+			}
+		}
+		buffer.append('}');
+		return buffer.toString();
+	}
+}
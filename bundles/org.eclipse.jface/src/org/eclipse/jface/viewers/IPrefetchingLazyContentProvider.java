@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+/**
+ * Adds read-ahead support to ILazyContentProvider. While the user scrolls a
+ * virtual table, the viewer tells the content provider which rows are likely
+ * to be requested next, so that the provider can start loading them (for
+ * example in a background job) before SWT asks for them through
+ * {@link #updateElement(int)}.
+ *
+ * @since 3.11
+ */
+public interface IPrefetchingLazyContentProvider extends ILazyContentProvider {
+
+	/**
+	 * Called on the UI thread when the rows starting at
+	 * <code>startIndex</code> are about to become visible. Implementors must
+	 * not block and must not call back into the viewer from a background
+	 * thread; {@link #updateElement(int)} is still called for every row that
+	 * becomes visible and should answer from the prefetched data if it is
+	 * available.
+	 *
+	 * @param startIndex
+	 *            the index of the first row to prefetch
+	 * @param count
+	 *            the number of rows to prefetch
+	 */
+	public void prefetch(int startIndex, int count);
+}
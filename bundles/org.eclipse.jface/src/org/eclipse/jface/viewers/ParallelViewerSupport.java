@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+import org.eclipse.jface.internal.ParallelMergeSort;
+
+/**
+ * Filters large element arrays of a {@link StructuredViewer} on the fork-join
+ * pool shared by JFace. The calling thread waits for the result, so callers see
+ * the same behavior as with sequential processing. Large element arrays are
+ * sorted with {@link ParallelMergeSort}.
+ *
+ * @see StructuredViewer#setParallelThreshold(int)
+ * @since 3.11
+ */
+final class ParallelViewerSupport {
+
+	private ParallelViewerSupport() {
+		// not instantiated
+	}
+
+	/**
+	 * Applies the filter to the elements in parallel chunks, keeping their
+	 * order.
+	 *
+	 * @param viewer
+	 *            the viewer
+	 * @param parent
+	 *            the parent element or tree path
+	 * @param elements
+	 *            the elements to filter
+	 * @param filter
+	 *            the filter, which must be safe to call from several threads
+	 * @return the filtered elements
+	 */
+	static Object[] filter(StructuredViewer viewer, Object parent,
+			Object[] elements, ViewerFilter filter) {
+		return ParallelMergeSort.getPool().invoke(
+				new FilterTask(viewer, parent, filter, elements, 0,
+						elements.length,
+						ParallelMergeSort.getChunkSize(elements.length)));
+	}
+
+	private static class FilterTask extends RecursiveTask<Object[]> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final StructuredViewer viewer;
+
+		private final Object parent;
+
+		private final ViewerFilter filter;
+
+		private final Object[] elements;
+
+		private final int from;
+
+		private final int to;
+
+		private final int chunkSize;
+
+		FilterTask(StructuredViewer viewer, Object parent, ViewerFilter filter,
+				Object[] elements, int from, int to, int chunkSize) {
+			this.viewer = viewer;
+			this.parent = parent;
+			this.filter = filter;
+			this.elements = elements;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+		}
+
+		@Override
+		protected Object[] compute() {
+			if (to - from <= chunkSize) {
+				return filter.filter(viewer, parent,
+						Arrays.copyOfRange(elements, from, to));
+			}
+			int mid = (from + to) >>> 1;
+			FilterTask right = new FilterTask(viewer, parent, filter, elements,
+					mid, to, chunkSize);
+			right.fork();
+			Object[] leftResult = new FilterTask(viewer, parent, filter,
+					elements, from, mid, chunkSize).compute();
+			Object[] rightResult = right.join();
+			Object[] result = new Object[leftResult.length + rightResult.length];
+			System.arraycopy(leftResult, 0, result, 0, leftResult.length);
+			System.arraycopy(rightResult, 0, result, leftResult.length,
+					rightResult.length);
+			return result;
+		}
+	}
+}
@@ -64,7 +64,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * <code>Object</code>, value type: <code>Widget</code>, or <code>Widget[]</code>).
 	 * <code>null</code> means that the element map is disabled.
 	 */
-	private CustomHashtable elementMap;
+	private ElementWidgetMap elementMap;
 
 	/**
 	 * The comparer to use for comparing elements, or <code>null</code> to use
@@ -84,6 +84,14 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	private List filters;
 
+	/**
+	 * The number of children from which on filtering and sorting is done in
+	 * parallel, or <code>0</code> if parallel processing is disabled.
+	 *
+	 * @see #setParallelThreshold(int)
+	 */
+	private int parallelThreshold = 0;
+
 	/**
 	 * Indicates whether the viewer should attempt to preserve the selection
 	 * across update operations.
@@ -907,7 +915,12 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		if (filters != null) {
 			for (Iterator iter = filters.iterator(); iter.hasNext();) {
 				ViewerFilter f = (ViewerFilter) iter.next();
-				Object[] filteredResult = f.filter(this, parent, result);
+				Object[] filteredResult;
+				if (isParallel(result.length)) {
+					filteredResult = ParallelViewerSupport.filter(this, parent, result, f);
+				} else {
+					filteredResult = f.filter(this, parent, result);
+				}
 				if (associateListener != null && filteredResult.length != result.length) {
 					notifyFilteredOut(result, filteredResult);
 				}
@@ -1285,6 +1298,52 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		return filters != null && filters.size() > 0;
 	}
 
+	/**
+	 * Sets the number of children from which on this viewer filters and sorts
+	 * the children of an element in parallel on a shared pool of worker
+	 * threads. The calling thread waits for the result.
+	 * <p>
+	 * Parallel processing is disabled by default. Only enable it if the
+	 * viewer's filters, its comparator and (when the comparator uses labels)
+	 * its label provider may be called from threads other than the UI thread.
+	 * </p>
+	 *
+	 * @param threshold
+	 *            the minimum number of children to process in parallel, or
+	 *            <code>0</code> to disable parallel processing
+	 * @since 3.11
+	 */
+	public void setParallelThreshold(int threshold) {
+		Assert.isTrue(threshold >= 0);
+		this.parallelThreshold = threshold;
+	}
+
+	/**
+	 * Returns the number of children from which on this viewer filters and
+	 * sorts in parallel.
+	 *
+	 * @return the threshold, or <code>0</code> if parallel processing is
+	 *         disabled
+	 * @see #setParallelThreshold(int)
+	 * @since 3.11
+	 */
+	public int getParallelThreshold() {
+		return parallelThreshold;
+	}
+
+	/**
+	 * Returns whether the given number of elements is to be filtered and
+	 * sorted in parallel.
+	 *
+	 * @param count
+	 *            the number of elements
+	 * @return <code>true</code> if the elements should be processed in
+	 *         parallel
+	 */
+	boolean isParallel(int count) {
+		return parallelThreshold > 0 && count >= parallelThreshold;
+	}
+
 	/**
 	 * Refreshes this viewer starting at the given element.
 	 *
@@ -1830,7 +1889,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		Assert.isTrue(getInput() == null,
 				"Can only enable the hash look up before input has been set");//$NON-NLS-1$
 		if (enable) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = new ElementWidgetMap(0, getComparer());
 		} else {
 			elementMap = null;
 		}
@@ -1848,7 +1907,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	public void setComparer(IElementComparer comparer) {
 		this.comparer = comparer;
 		if (elementMap != null) {
-			elementMap = new CustomHashtable(elementMap, comparer);
+			elementMap = new ElementWidgetMap(elementMap, comparer);
 		}
 	}
 
@@ -1917,7 +1976,8 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	protected void unmapAllElements() {
 		if (elementMap != null) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			// the new input is likely to have as many elements as the old one
+			elementMap = new ElementWidgetMap(elementMap.size(), getComparer());
 		}
 	}
 
@@ -2338,7 +2398,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		comparer = null;
 		if (filters != null)
 			filters.clear();
-		elementMap = newHashtable(1);
+		elementMap = new ElementWidgetMap(0, null);
 		openListeners.clear();
 		doubleClickListeners.clear();
 		colorAndFontCollector.clear();
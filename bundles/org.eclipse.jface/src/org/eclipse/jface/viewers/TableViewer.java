@@ -173,6 +173,15 @@ public class TableViewer extends AbstractTableViewer {
 		return cachedRow;
 	}
 
+	@Override
+	ViewerRow getVirtualViewerRow(Item item, ViewerRow reusableRow) {
+		if (reusableRow instanceof TableViewerRow) {
+			((TableViewerRow) reusableRow).setItem((TableItem) item);
+			return reusableRow;
+		}
+		return new TableViewerRow((TableItem) item);
+	}
+
 	/**
 	 * Create a new row with style at index
 	 *
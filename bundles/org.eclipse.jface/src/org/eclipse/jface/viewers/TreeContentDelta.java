@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.viewers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * A structural delta describing how the children of a single parent element
+ * changed. Content providers create deltas from their model change
+ * notifications and pass them to
+ * {@link AbstractTreeViewer#applyDelta(TreeContentDelta)}, which updates only
+ * the affected items instead of re-fetching and re-matching all children of
+ * the parent.
+ * <p>
+ * Positions of added and moved children are 0-based and relative to the
+ * parent's children <em>after</em> the delta has been applied. Positions are
+ * ignored if the viewer has a comparator or filters; the element is then
+ * placed the same way as by {@link AbstractTreeViewer#add(Object, Object[])}.
+ * </p>
+ * <p>
+ * This class is not intended to be subclassed by clients.
+ * </p>
+ *
+ * @since 3.11
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class TreeContentDelta {
+
+	private final Object parentElementOrTreePath;
+
+	private final List added = new ArrayList();
+
+	private final List addedPositions = new ArrayList();
+
+	private final List removed = new ArrayList();
+
+	private final List moved = new ArrayList();
+
+	private final List movedPositions = new ArrayList();
+
+	private final List changed = new ArrayList();
+
+	/**
+	 * Creates an empty delta for the children of the given parent.
+	 *
+	 * @param parentElementOrTreePath
+	 *            the parent element or the tree path to the parent, may be the
+	 *            viewer's input
+	 */
+	public TreeContentDelta(Object parentElementOrTreePath) {
+		Assert.isNotNull(parentElementOrTreePath);
+		this.parentElementOrTreePath = parentElementOrTreePath;
+	}
+
+	/**
+	 * Records a child that was added at the given position.
+	 *
+	 * @param element
+	 *            the added child
+	 * @param position
+	 *            the position of the child after the change, or -1 to append
+	 *            it
+	 */
+	public void addAdded(Object element, int position) {
+		Assert.isNotNull(element);
+		added.add(element);
+		addedPositions.add(new Integer(position));
+	}
+
+	/**
+	 * Records a child that was removed.
+	 *
+	 * @param element
+	 *            the removed child
+	 */
+	public void addRemoved(Object element) {
+		Assert.isNotNull(element);
+		removed.add(element);
+	}
+
+	/**
+	 * Records a child that was moved to the given position. The subtree of a
+	 * moved child keeps its expanded state.
+	 *
+	 * @param element
+	 *            the moved child
+	 * @param position
+	 *            the position of the child after the change, or -1 to move it
+	 *            to the end
+	 */
+	public void addMoved(Object element, int position) {
+		Assert.isNotNull(element);
+		moved.add(element);
+		movedPositions.add(new Integer(position));
+	}
+
+	/**
+	 * Records a child whose label or expandability changed, but which stayed
+	 * at its position.
+	 *
+	 * @param element
+	 *            the changed child
+	 */
+	public void addChanged(Object element) {
+		Assert.isNotNull(element);
+		changed.add(element);
+	}
+
+	/**
+	 * Returns the parent element or tree path this delta applies to.
+	 *
+	 * @return the parent element or tree path
+	 */
+	public Object getParentElementOrTreePath() {
+		return parentElementOrTreePath;
+	}
+
+	/**
+	 * Returns the added children, in the order they were recorded.
+	 *
+	 * @return the added children
+	 */
+	public Object[] getAddedElements() {
+		return added.toArray();
+	}
+
+	/**
+	 * Returns the positions of the added children, parallel to
+	 * {@link #getAddedElements()}.
+	 *
+	 * @return the positions of the added children
+	 */
+	public int[] getAddedPositions() {
+		return toIntArray(addedPositions);
+	}
+
+	/**
+	 * Returns the removed children.
+	 *
+	 * @return the removed children
+	 */
+	public Object[] getRemovedElements() {
+		return removed.toArray();
+	}
+
+	/**
+	 * Returns the moved children, in the order they were recorded.
+	 *
+	 * @return the moved children
+	 */
+	public Object[] getMovedElements() {
+		return moved.toArray();
+	}
+
+	/**
+	 * Returns the new positions of the moved children, parallel to
+	 * {@link #getMovedElements()}.
+	 *
+	 * @return the positions of the moved children
+	 */
+	public int[] getMovedPositions() {
+		return toIntArray(movedPositions);
+	}
+
+	/**
+	 * Returns the changed children.
+	 *
+	 * @return the changed children
+	 */
+	public Object[] getChangedElements() {
+		return changed.toArray();
+	}
+
+	/**
+	 * Returns whether this delta records no change at all.
+	 *
+	 * @return <code>true</code> if the delta is empty
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && moved.isEmpty()
+				&& changed.isEmpty();
+	}
+
+	private static int[] toIntArray(List positions) {
+		int[] result = new int[positions.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = ((Integer) positions.get(i)).intValue();
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "TreeContentDelta [parent=" + parentElementOrTreePath //$NON-NLS-1$
+				+ ", added=" + added + ", removed=" + removed //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", moved=" + moved + ", changed=" + changed + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
@@ -72,6 +72,9 @@ public class TreeViewer extends AbstractTreeViewer {
 	private static final String VIRTUAL_DISPOSE_KEY = Policy.JFACE
 			+ ".DISPOSE_LISTENER"; //$NON-NLS-1$
 
+	private static final String VIRTUAL_EXPAND_LEVEL_KEY = Policy.JFACE
+			+ ".EXPAND_LEVEL"; //$NON-NLS-1$
+
 	/**
 	 * This viewer's control.
 	 */
@@ -461,6 +464,7 @@ public class TreeViewer extends AbstractTreeViewer {
 				if (!TreeViewer.this.equals(oldData, element)) {
 					item.clearAll(true);
 				}
+				virtualExpandPendingLevel(item);
 			}
 		} else {
 			Widget[] parentItems = internalFindItems(parentElementOrTreePath);
@@ -488,6 +492,7 @@ public class TreeViewer extends AbstractTreeViewer {
 					if (!TreeViewer.this.equals(oldData, element)) {
 						item.clearAll(true);
 					}
+					virtualExpandPendingLevel(item);
 				}
 			}
 		}
@@ -630,6 +635,52 @@ public class TreeViewer extends AbstractTreeViewer {
 		super.internalAdd(widget, parentElement, childElements);
 	}
 
+	@Override
+	void internalApplyDelta(Widget widget, TreeContentDelta delta) {
+		if (contentProviderIsLazy) {
+			// lazy content providers only report child counts, so the delta
+			// cannot be mapped onto items; refresh the parent instead
+			internalRefreshStruct(widget,
+					widget instanceof Item ? widget.getData() : getRoot(), false);
+			return;
+		}
+		super.internalApplyDelta(widget, delta);
+	}
+
+	/**
+	 * For a lazy content provider, items that have not been materialized yet
+	 * are not expanded right away. Instead, the remaining level is remembered
+	 * on the item and applied once the content provider supplies the element
+	 * through {@link #replace(Object, int, Object)}. This way only the items
+	 * that the tree actually shows are created.
+	 */
+	@Override
+	protected void internalExpandToLevel(Widget widget, int level) {
+		if (contentProviderIsLazy && widget instanceof TreeItem
+				&& widget.getData() == null) {
+			if (level == ALL_LEVELS || level > 0) {
+				widget.setData(VIRTUAL_EXPAND_LEVEL_KEY, Integer.valueOf(level));
+			}
+			return;
+		}
+		super.internalExpandToLevel(widget, level);
+	}
+
+	/**
+	 * Expands the given item to the level that was remembered for it while it
+	 * was not materialized.
+	 *
+	 * @param item
+	 *            the item that was just updated
+	 */
+	private void virtualExpandPendingLevel(TreeItem item) {
+		Object level = item.getData(VIRTUAL_EXPAND_LEVEL_KEY);
+		if (level != null && item.getData() != null) {
+			item.setData(VIRTUAL_EXPAND_LEVEL_KEY, null);
+			internalExpandToLevel(item, ((Integer) level).intValue());
+		}
+	}
+
 	private void virtualMaterializeItem(TreeItem treeItem) {
 		if (treeItem.getData() != null) {
 			// already materialized
@@ -1065,6 +1116,7 @@ public class TreeViewer extends AbstractTreeViewer {
 		if (contentProviderIsLazy) {
 			// avoid causing a callback:
 			item.setText(" "); //$NON-NLS-1$
+			item.setData(VIRTUAL_EXPAND_LEVEL_KEY, null);
 		}
 		super.disassociate(item);
 	}
@@ -12,11 +12,17 @@
 
 package org.eclipse.jface.viewers;
 
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.jface.internal.ParallelMergeSort;
 import org.eclipse.jface.util.Policy;
 
 /**
@@ -48,6 +54,37 @@ public class ViewerComparator {
 	 */
 	private Comparator comparator;
 
+	/**
+	 * The number of elements from which on {@link #sort(Viewer, Object[])}
+	 * caches the sort key of each element.
+	 */
+	private static final int SORT_KEY_THRESHOLD = 32;
+
+	/**
+	 * The sort keys of the sort the current thread compares elements for, or
+	 * <code>null</code>. A thread only sees the keys of a sort while it works
+	 * for that sort, so concurrent sorts never share their keys.
+	 */
+	private final ThreadLocal<SortKeys> sortKeys = new ThreadLocal<SortKeys>();
+
+	/**
+	 * Sort keys computed during one sort: either the label of an element, or
+	 * its collation key if strings are compared with a {@link Collator}. Each
+	 * label is obtained from the label provider at most once per sort.
+	 */
+	private static final class SortKeys {
+
+		final Viewer viewer;
+
+		final Map<Object, Object> keys;
+
+		SortKeys(Viewer viewer, boolean concurrent) {
+			this.viewer = viewer;
+			Map<Object, Object> map = new IdentityHashMap<Object, Object>();
+			this.keys = concurrent ? Collections.synchronizedMap(map) : map;
+		}
+	}
+
 	/**
      * Creates a new {@link ViewerComparator}, which uses the default comparator
      * to sort strings.
@@ -126,6 +163,15 @@ public class ViewerComparator {
 			return cat1 - cat2;
 		}
 
+        SortKeys currentKeys = sortKeys.get();
+        if (currentKeys != null && currentKeys.viewer == viewer) {
+            Object key1 = getSortKey(currentKeys, viewer, e1);
+            Object key2 = getSortKey(currentKeys, viewer, e2);
+            if (key1 instanceof CollationKey && key2 instanceof CollationKey) {
+                return ((CollationKey) key1).compareTo((CollationKey) key2);
+            }
+            return getComparator().compare(key1, key2);
+        }
         String name1 = getLabel(viewer, e1);
         String name2 = getLabel(viewer, e2);
 
@@ -133,6 +179,21 @@ public class ViewerComparator {
         return getComparator().compare(name1, name2);
     }
 
+	private Object getSortKey(SortKeys currentKeys, Viewer viewer, Object element) {
+		Object key = currentKeys.keys.get(element);
+		if (key == null) {
+			String label = getLabel(viewer, element);
+			Comparator stringComparator = getComparator();
+			if (stringComparator instanceof Collator) {
+				key = ((Collator) stringComparator).getCollationKey(label);
+			} else {
+				key = label;
+			}
+			currentKeys.keys.put(element, key);
+		}
+		return key;
+	}
+
 	private String getLabel(Viewer viewer, Object e1) {
 		String name1;
 		if (viewer == null || !(viewer instanceof ContentViewer)) {
@@ -175,7 +236,11 @@ public class ViewerComparator {
      * <p>
      * The default implementation of this method uses the
      * java.util.Arrays#sort algorithm on the given array,
-     * calling <code>compare</code> to compare elements.
+     * calling <code>compare</code> to compare elements. While sorting, the
+     * default <code>compare</code> implementation obtains the label of each
+     * element only once. If the viewer is a {@link StructuredViewer} with
+     * parallel processing enabled for this number of elements, the elements
+     * are sorted in parallel.
      * </p>
      * <p>
      * Subclasses may reimplement this method to provide a more optimized implementation.
@@ -185,13 +250,36 @@ public class ViewerComparator {
      * @param elements the elements to sort
      */
 	public void sort(final Viewer viewer, Object[] elements) {
+		boolean parallel = viewer instanceof StructuredViewer
+				&& ((StructuredViewer) viewer).isParallel(elements.length);
+		final SortKeys ownKeys = elements.length >= SORT_KEY_THRESHOLD ? new SortKeys(
+				viewer, parallel) : null;
+		SortKeys callerKeys = sortKeys.get();
+		setSortKeys(ownKeys);
 		try {
-			Arrays.sort(elements, new Comparator() {
+			Comparator elementComparator = new Comparator() {
 				@Override
 				public int compare(Object a, Object b) {
-					return ViewerComparator.this.compare(viewer, a, b);
+					SortKeys previous = sortKeys.get();
+					if (previous == ownKeys) {
+						return ViewerComparator.this.compare(viewer, a, b);
+					}
+					// a worker thread of a parallel sort, which may also work
+					// for other sorts in between
+					setSortKeys(ownKeys);
+					try {
+						return ViewerComparator.this.compare(viewer, a, b);
+					} finally {
+						setSortKeys(previous);
+					}
 				}
-			});
+			};
+			if (parallel) {
+				ParallelMergeSort.sort(elements, elements.length,
+						elementComparator, null);
+			} else {
+				Arrays.sort(elements, elementComparator);
+			}
 		} catch (IllegalArgumentException e) {
 			String msg = "Workaround for comparator violation:\n\t- set system property java.util.Arrays.useLegacyMergeSort=true\n\t- use a 1.6 JRE "  //$NON-NLS-1$
 					+ "\nmessage: " + e.getLocalizedMessage() //$NON-NLS-1$
@@ -203,6 +291,16 @@ public class ViewerComparator {
 			}
 			Policy.getLog().log(new Status(IStatus.ERROR, "org.eclipse.jface", msg)); //$NON-NLS-1$
 			throw e;
+		} finally {
+			setSortKeys(callerKeys);
+		}
+	}
+
+	private void setSortKeys(SortKeys keys) {
+		if (keys == null) {
+			sortKeys.remove();
+		} else {
+			sortKeys.set(keys);
 		}
 	}
 }
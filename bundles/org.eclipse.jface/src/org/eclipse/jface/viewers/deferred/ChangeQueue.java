@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2010 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,12 +10,16 @@
  *******************************************************************************/
 package org.eclipse.jface.viewers.deferred;
 
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Holds a queue of additions, removals, updates, and SET calls for a
- * BackgroundContentProvider
+ * BackgroundContentProvider. Changes may be enqueued from any number of
+ * threads without locking; a SET makes the preceding additions, removals and
+ * SETs redundant once the consumer gets to it.
  */
 final class ChangeQueue {
 	/**
@@ -81,7 +85,17 @@ final class ChangeQueue {
 		}
 	}
 
-	private LinkedList queue = new LinkedList();
+	/**
+	 * Changes enqueued by the producers. Producers never block each other or
+	 * the consumer.
+	 */
+	private final ConcurrentLinkedQueue<Change> incoming = new ConcurrentLinkedQueue<Change>();
+
+	/**
+	 * Changes taken from <code>incoming</code> but not dequeued yet. Only
+	 * accessed by the consumer, while holding the lock of this queue.
+	 */
+	private final ArrayDeque<Change> pending = new ArrayDeque<Change>();
 
 	/**
 	 * Create a change of the given type and elements and enqueue it.
@@ -89,7 +103,7 @@ final class ChangeQueue {
 	 * @param type the type of change to be created
 	 * @param elements the elements affected by the change
 	 */
-	public synchronized void enqueue(int type, Object[] elements) {
+	public void enqueue(int type, Object[] elements) {
 		enqueue(new Change(type, elements));
 	}
 
@@ -97,24 +111,43 @@ final class ChangeQueue {
 	 * Add the specified change to the queue
 	 * @param toQueue the change to be added
 	 */
-	public synchronized void enqueue(Change toQueue) {
-		// A SET event makes all previous adds, removes, and sets redundant... so remove
-		// them from the queue
-		if (toQueue.type == SET) {
-			LinkedList newQueue = new LinkedList();
-			for (Iterator iter = queue.iterator(); iter.hasNext();) {
-				Change next = (Change) iter.next();
+	public void enqueue(Change toQueue) {
+		incoming.add(toQueue);
+	}
 
-				if (next.getType() == ADD || next.getType() == REMOVE || next.getType() == SET) {
-					continue;
+	/**
+	 * Moves the changes enqueued so far to the pending changes, in order.
+	 */
+	private void drain() {
+		if (incoming.isEmpty()) {
+			return;
+		}
+		List<Change> batch = new ArrayList<Change>();
+		int lastSet = -1;
+		Change next;
+		while ((next = incoming.poll()) != null) {
+			if (next.type == SET) {
+				lastSet = batch.size();
+			}
+			batch.add(next);
+		}
+		if (lastSet >= 0) {
+			// A SET event makes all previous adds, removes, and sets redundant... so only
+			// the updates before the last SET are kept
+			for (int i = pending.size(); i > 0; i--) {
+				Change change = pending.removeFirst();
+				if (change.type == UPDATE) {
+					pending.addLast(change);
+				}
+			}
+			for (int i = 0; i < lastSet; i++) {
+				Change change = batch.get(i);
+				if (change.type == UPDATE) {
+					pending.addLast(change);
 				}
-
-				newQueue.add(next);
 			}
-			queue = newQueue;
 		}
-
-		queue.add(toQueue);
+		pending.addAll(batch.subList(Math.max(lastSet, 0), batch.size()));
 	}
 
 	/**
@@ -122,7 +155,8 @@ final class ChangeQueue {
 	 * @return the first change
 	 */
 	public synchronized Change dequeue() {
-		Change result = (Change)queue.removeFirst();
+		drain();
+		Change result = pending.removeFirst();
 		return result;
 	}
 
@@ -131,6 +165,6 @@ final class ChangeQueue {
 	 * @return <code>true</code> if empty, <code>false</code> otherwise
 	 */
 	public synchronized boolean isEmpty() {
-		return queue.isEmpty();
+		return pending.isEmpty() && incoming.isEmpty();
 	}
 }
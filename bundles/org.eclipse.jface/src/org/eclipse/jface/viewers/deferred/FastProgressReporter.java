@@ -11,6 +11,7 @@
 package org.eclipse.jface.viewers.deferred;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jface.internal.ParallelMergeSort;
 
 /**
  * A more efficient alternative to an IProgressMonitor. In particular, the implementation
@@ -19,7 +20,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
  *
  * @since 3.1
  */
-final class FastProgressReporter {
+final class FastProgressReporter implements ParallelMergeSort.CancelCheck {
     private IProgressMonitor monitor;
     private volatile boolean canceled = false;
     private int cancelCheck = 0;
@@ -119,7 +120,8 @@ final class FastProgressReporter {
      *
      * @return <code>true</code> if the monitor has been cancelled, <code>false</code> otherwise.
      */
-    public boolean isCanceled() {
+    @Override
+	public boolean isCanceled() {
         if (monitor == null) {
             return canceled;
         }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2006 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,39 +10,105 @@
  *******************************************************************************/
 package org.eclipse.jface.viewers.deferred;
 
-import java.util.HashMap;
-
 /**
- * Represents a map of objects onto ints. This is intended for future optimization:
- * using int primitives would allow for an implementation that doesn't require
- * additional object allocations for Integers. However, the current implementation
- * simply delegates to the Java HashMap class.
+ * Represents a map of objects onto ints. The keys and the int values are kept
+ * in two parallel arrays using open addressing with linear probing, so no
+ * objects are allocated per mapping and values are never boxed.
  *
  * @since 3.1
  */
 /* package */ class IntHashMap {
-    private HashMap map;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private Object[] keys;
+
+    private int[] values;
+
+    private int size;
+
+    private final float loadFactor;
+
+    /**
+     * The number of mappings from which on the arrays are grown
+     */
+    private int threshold;
 
     /**
      * @param size
      * @param loadFactor
      */
     public IntHashMap(int size, float loadFactor) {
-        map = new HashMap(size, loadFactor);
+        // more than 3/4 full tables make linear probing slow
+        this.loadFactor = Math.min(loadFactor, 0.75f);
+        int capacity = MIN_CAPACITY;
+        while (capacity < size && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
     }
 
     /**
      *
      */
     public IntHashMap() {
-        map = new HashMap();
+        this(MIN_CAPACITY, 0.75f);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        threshold = (int) (capacity * loadFactor);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indexOf(Object key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        Object candidate;
+        while ((candidate = keys[index]) != null) {
+            if (candidate == key || candidate.equals(key)) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
     }
 
     /**
      * @param key
      */
     public void remove(Object key) {
-        map.remove(key);
+        int index = indexOf(key);
+        if (index < 0) {
+            return;
+        }
+        size--;
+        clearSlot(index);
+    }
+
+    /**
+     * Empties the given slot. As lookups stop at the first empty slot, each key
+     * that follows in the same run of occupied slots and is at least as far from
+     * its hash slot as from the emptied slot moves into it, emptying its own slot.
+     *
+     * @param slot the slot to empty
+     */
+    private void clearSlot(int slot) {
+        int mask = keys.length - 1;
+        for (int index = (slot + 1) & mask; keys[index] != null; index = (index + 1) & mask) {
+            int displacement = (index - (hash(keys[index]) & mask)) & mask;
+            if (displacement >= ((index - slot) & mask)) {
+                keys[slot] = keys[index];
+                values[slot] = values[index];
+                slot = index;
+            }
+        }
+        keys[slot] = null;
     }
 
     /**
@@ -50,7 +116,39 @@ import java.util.HashMap;
      * @param value
      */
     public void put(Object key, int value) {
-        map.put(key, new Integer(value));
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        Object candidate;
+        while ((candidate = keys[index]) != null) {
+            if (candidate == key || candidate.equals(key)) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > threshold) {
+            grow();
+        }
+    }
+
+    private void grow() {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int index = hash(key) & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
     }
 
     /**
@@ -67,12 +165,10 @@ import java.util.HashMap;
      * @return the int value at the given key, or the default value if this map does not contain the given key
      */
     public int get(Object key, int defaultValue) {
-        Integer result = (Integer)map.get(key);
-
-        if (result != null) {
-            return result.intValue();
+        int index = indexOf(key);
+        if (index >= 0) {
+            return values[index];
         }
-
         return defaultValue;
     }
 
@@ -81,13 +177,13 @@ import java.util.HashMap;
      * @return <code>true</code> if this map contains the given key, <code>false</code> otherwise
      */
     public boolean containsKey(Object key) {
-        return map.containsKey(key);
+        return indexOf(key) >= 0;
     }
 
     /**
      * @return the number of key/value pairs
      */
     public int size() {
-    	return map.size();
+    	return size;
     }
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2004, 2013 IBM Corporation and others.
+ * Copyright (c) 2004, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -13,8 +13,10 @@ package org.eclipse.jface.viewers.deferred;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.concurrent.CancellationException;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.jface.internal.ParallelMergeSort;
 
 /**
  * This object maintains a collection of elements, sorted by a comparator
@@ -54,6 +56,14 @@ public class LazySortedCollection {
 
     private IntHashMap objectIndices;
     private Comparator comparator;
+
+    /**
+     * The number of elements from which on sorted ranges are sorted in parallel, or
+     * <code>0</code> if parallel sorting is disabled.
+     *
+     * @see #setParallelThreshold(int)
+     */
+    private int parallelThreshold = 0;
     private static int counter = 0;
 
     /**
@@ -166,6 +176,36 @@ public class LazySortedCollection {
         this.comparator = c;
     }
 
+    /**
+     * Sets the number of elements from which on sorted ranges are computed by
+     * selecting the elements of the range first, and then sorting them in parallel
+     * on a shared pool of worker threads. The calling thread waits for the result.
+     * <p>
+     * Parallel sorting is disabled by default. Only enable it if the comparator may
+     * be called from several threads at once.
+     * </p>
+     *
+     * @param threshold the minimum number of elements to sort in parallel, or
+     * <code>0</code> to disable parallel sorting
+     * @since 3.11
+     */
+    public void setParallelThreshold(int threshold) {
+        Assert.isTrue(threshold >= 0);
+        this.parallelThreshold = threshold;
+    }
+
+    /**
+     * Returns the number of elements from which on sorted ranges are sorted in
+     * parallel.
+     *
+     * @return the threshold, or <code>0</code> if parallel sorting is disabled
+     * @see #setParallelThreshold(int)
+     * @since 3.11
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
     /**
      * Tests if this object's internal state is valid. Throws a runtime
      * exception if the state is invalid, indicating a programming error
@@ -1256,6 +1296,17 @@ public class LazySortedCollection {
      * @throws InterruptedException if the progress monitor was cancelled in another thread
      */
     /* package */ final int getRange(Object[] result, int rangeStart, boolean sorted, FastProgressReporter mon) throws InterruptedException {
+        if (sorted && parallelThreshold > 0 && Math.min(result.length, size()) >= parallelThreshold) {
+            // Partitioning the tree is inherently sequential. For large ranges, select the
+            // elements without sorting them and sort the result on all cores instead.
+            int inserted = getRange(result, 0, rangeStart, root, false, mon);
+            try {
+                ParallelMergeSort.sort(result, inserted, comparator, mon);
+            } catch (CancellationException e) {
+                throw new InterruptedException();
+            }
+            return inserted;
+        }
         return getRange(result, 0, rangeStart, root, sorted, mon);
     }
 
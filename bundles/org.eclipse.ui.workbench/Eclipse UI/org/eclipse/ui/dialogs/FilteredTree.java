@@ -134,6 +134,12 @@ public class FilteredTree extends Composite {
 	 */
 	private Job refreshJob;
 
+	/**
+	 * Whether the refresh job is refreshing the tree for a new filter text, in
+	 * which case the content of the tree has not changed.
+	 */
+	private boolean refreshingFilter;
+
 	/**
 	 * The parent composite of the filtered tree.
 	 *
@@ -520,7 +526,12 @@ public class FilteredTree extends Composite {
 							}
 						}
 					}
-					treeViewer.refresh(true);
+					refreshingFilter = true;
+					try {
+						treeViewer.refresh(true);
+					} finally {
+						refreshingFilter = false;
+					}
 
 					if (text.length() > 0 && !initial) {
 						/*
@@ -1199,96 +1210,106 @@ public class FilteredTree extends Composite {
 
 		@Override
 		public void add(Object parentElementOrTreePath, Object childElement) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.add(parentElementOrTreePath, childElement);
 		}
 
 		@Override
 		public void add(Object parentElementOrTreePath, Object[] childElements) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.add(parentElementOrTreePath, childElements);
 		}
 
 		@Override
 		protected void inputChanged(Object input, Object oldInput) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.inputChanged(input, oldInput);
 		}
 
 		@Override
 		public void insert(Object parentElementOrTreePath, Object element,
 				int position) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.insert(parentElementOrTreePath, element, position);
 		}
 
 		@Override
 		public void refresh() {
-			getPatternFilter().clearCaches();
+			refreshContentChanged();
 			super.refresh();
 		}
 
 		@Override
 		public void refresh(boolean updateLabels) {
-			getPatternFilter().clearCaches();
+			refreshContentChanged();
 			super.refresh(updateLabels);
 		}
 
 		@Override
 		public void refresh(Object element) {
-			getPatternFilter().clearCaches();
+			refreshContentChanged();
 			super.refresh(element);
 		}
 
 		@Override
 		public void refresh(Object element, boolean updateLabels) {
-			getPatternFilter().clearCaches();
+			refreshContentChanged();
 			super.refresh(element, updateLabels);
 		}
 
 		@Override
 		public void remove(Object elementsOrTreePaths) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.remove(elementsOrTreePaths);
 		}
 
 		@Override
 		public void remove(Object parent, Object[] elements) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.remove(parent, elements);
 		}
 
 		@Override
 		public void remove(Object[] elementsOrTreePaths) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.remove(elementsOrTreePaths);
 		}
 
 		@Override
 		public void replace(Object parentElementOrTreePath, int index,
 				Object element) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.replace(parentElementOrTreePath, index, element);
 		}
 
 		@Override
 		public void setChildCount(Object elementOrTreePath, int count) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.setChildCount(elementOrTreePath, count);
 		}
 
 		@Override
 		public void setContentProvider(IContentProvider provider) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.setContentProvider(provider);
 		}
 
 		@Override
 		public void setHasChildren(Object elementOrTreePath, boolean hasChildren) {
-			getPatternFilter().clearCaches();
+			getPatternFilter().contentChanged();
 			super.setHasChildren(elementOrTreePath, hasChildren);
 		}
 
+		/**
+		 * Tells the pattern filter that the content may have changed, unless
+		 * the refresh job only refreshes the tree for a new filter text.
+		 */
+		private void refreshContentChanged() {
+			if (!refreshingFilter) {
+				getPatternFilter().contentChanged();
+			}
+		}
+
 	}
 
 }
@@ -0,0 +1,525 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.dialogs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jface.viewers.ILabelProvider;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.Viewer;
+
+/**
+ * A pattern filter that matches against an index of the element labels
+ * instead of walking the tree for every pattern.
+ * <p>
+ * The first time the filter is asked about an element, it walks the tree once
+ * using the viewer's content and label providers and records the label and
+ * parent of every element. Matching elements are then looked up in a sorted
+ * index of the labels and their words. When the pattern is extended, only the
+ * elements that matched the previous pattern are checked again. Elements that
+ * have a matching descendant are found by following the recorded parents of
+ * the matches, so the tree is not walked again.
+ * </p>
+ * <p>
+ * In fuzzy mode, an element matches if the characters of the pattern appear in
+ * its label in the same order, and {@link #getMatchScore(Object)} tells how
+ * well it matched.
+ * </p>
+ * <p>
+ * Like {@link PatternFilter}, this filter requires an
+ * <code>ITreeContentProvider</code> and an <code>ILabelProvider</code>. The
+ * index is discarded whenever a {@link FilteredTree} reports a content change
+ * or the viewer's input changes. Clients using this filter on other viewers
+ * must call {@link #invalidateIndex()} when the content changes.
+ * </p>
+ *
+ * @see FilteredTree
+ * @since 3.107
+ */
+public class IndexedPatternFilter extends PatternFilter {
+
+	/**
+	 * Score reported for elements that do not match the pattern.
+	 */
+	public static final int NO_MATCH = -1;
+
+	private boolean fuzzy = false;
+
+	private LabelIndex index;
+
+	private Viewer indexedViewer;
+
+	private Object indexedInput;
+
+	/*
+	 * The pattern as given to setPattern, or null if there is none
+	 */
+	private String pattern;
+
+	/*
+	 * The pattern the current result was computed for
+	 */
+	private String matchedPattern;
+
+	/*
+	 * Whether matchedPattern was matched with a leading wildcard
+	 */
+	private boolean matchedLeadingWildcard;
+
+	/*
+	 * Indices of the entries matching matchedPattern, in ascending order
+	 */
+	private int[] matches;
+
+	/*
+	 * Scores of the matching entries in fuzzy mode, parallel to matches
+	 */
+	private int[] scores;
+
+	/*
+	 * Matching elements and their ancestors
+	 */
+	private Set visibleElements;
+
+	/*
+	 * Maps matching elements to their Integer score
+	 */
+	private Map elementScores;
+
+	/**
+	 * Sets whether the pattern is matched fuzzily. A fuzzy pattern matches any
+	 * label that contains its characters in the same order, ignoring case.
+	 * Wildcards have no special meaning in fuzzy mode.
+	 *
+	 * @param fuzzy
+	 *            <code>true</code> for fuzzy matching
+	 */
+	public void setFuzzy(boolean fuzzy) {
+		if (this.fuzzy != fuzzy) {
+			this.fuzzy = fuzzy;
+			clearMatches();
+		}
+	}
+
+	/**
+	 * Returns whether the pattern is matched fuzzily.
+	 *
+	 * @return <code>true</code> for fuzzy matching
+	 */
+	public boolean isFuzzy() {
+		return fuzzy;
+	}
+
+	@Override
+	public void setPattern(String patternString) {
+		super.setPattern(patternString);
+		if ("org.eclipse.ui.keys.optimization.true".equals(patternString) //$NON-NLS-1$
+				|| "org.eclipse.ui.keys.optimization.false".equals(patternString)) { //$NON-NLS-1$
+			return;
+		}
+		if (patternString == null || patternString.length() == 0) {
+			pattern = null;
+		} else {
+			pattern = patternString;
+		}
+	}
+
+	/**
+	 * Discards the label index. It is rebuilt the next time an element is
+	 * checked. Must be called whenever the content of the viewer changes.
+	 */
+	public void invalidateIndex() {
+		index = null;
+		indexedViewer = null;
+		indexedInput = null;
+		clearMatches();
+	}
+
+	@Override
+	void contentChanged() {
+		super.contentChanged();
+		invalidateIndex();
+	}
+
+	/**
+	 * Returns how well the given element matches the current pattern. Higher
+	 * scores are better matches. Without fuzzy matching, all matching elements
+	 * have the same score. Elements that are only shown because one of their
+	 * descendants matches report {@link #NO_MATCH}.
+	 * <p>
+	 * The score is only available after the filter has been applied to the
+	 * viewer for the current pattern.
+	 * </p>
+	 *
+	 * @param element
+	 *            the element
+	 * @return the score, or {@link #NO_MATCH}
+	 */
+	public int getMatchScore(Object element) {
+		if (elementScores == null) {
+			return NO_MATCH;
+		}
+		Integer score = (Integer) elementScores.get(element);
+		return score == null ? NO_MATCH : score.intValue();
+	}
+
+	@Override
+	public boolean isElementVisible(Viewer viewer, Object element) {
+		if (pattern == null) {
+			return true;
+		}
+		if (!updateMatches(viewer)) {
+			return super.isElementVisible(viewer, element);
+		}
+		return visibleElements.contains(element);
+	}
+
+	private void clearMatches() {
+		matchedPattern = null;
+		matches = null;
+		scores = null;
+		visibleElements = null;
+		elementScores = null;
+	}
+
+	/**
+	 * Makes sure the index and the matches are up to date.
+	 *
+	 * @param viewer
+	 *            the viewer being filtered
+	 * @return <code>false</code> if the viewer cannot be indexed
+	 */
+	private boolean updateMatches(Viewer viewer) {
+		if (!(viewer instanceof StructuredViewer)) {
+			return false;
+		}
+		StructuredViewer structuredViewer = (StructuredViewer) viewer;
+		if (!(structuredViewer.getContentProvider() instanceof ITreeContentProvider)
+				|| !(structuredViewer.getLabelProvider() instanceof ILabelProvider)) {
+			return false;
+		}
+		if (index == null || indexedViewer != viewer
+				|| indexedInput != viewer.getInput()) {
+			invalidateIndex();
+			index = new LabelIndex(structuredViewer);
+			indexedViewer = viewer;
+			indexedInput = viewer.getInput();
+		}
+		if (pattern.equals(matchedPattern)) {
+			return true;
+		}
+
+		int[] candidates = null;
+		if (matchedPattern != null
+				&& matchedLeadingWildcard == isIncludeLeadingWildcard()
+				&& isNarrowing(matchedPattern, pattern)) {
+			candidates = matches;
+		} else if (!fuzzy && !isIncludeLeadingWildcard()
+				&& isPlainPrefix(pattern)) {
+			candidates = index.findPrefix(pattern);
+		}
+		computeMatches(candidates);
+		matchedPattern = pattern;
+		matchedLeadingWildcard = isIncludeLeadingWildcard();
+		return true;
+	}
+
+	/**
+	 * Returns whether every label matching the new pattern also matched the
+	 * old one, so that only the old matches need to be checked.
+	 */
+	private static boolean isNarrowing(String oldPattern, String newPattern) {
+		// a trailing escape character changes the meaning of what follows
+		return newPattern.startsWith(oldPattern) && !oldPattern.endsWith("\\"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns whether the pattern has no wildcards or escapes, so that it can
+	 * be looked up in the prefix index.
+	 */
+	private static boolean isPlainPrefix(String pattern) {
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c == '*' || c == '?' || c == '\\') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Matches the given entries, or all entries if <code>null</code>, against
+	 * the current pattern and collects the matching elements and their
+	 * ancestors.
+	 */
+	private void computeMatches(int[] candidates) {
+		int count = candidates == null ? index.size() : candidates.length;
+		int[] newMatches = new int[count];
+		int[] newScores = new int[count];
+		int matchCount = 0;
+		char[] fuzzyPattern = fuzzy ? foldCase(pattern) : null;
+		for (int i = 0; i < count; i++) {
+			int entry = candidates == null ? i : candidates[i];
+			String label = index.labels[entry];
+			int score;
+			if (fuzzy) {
+				score = fuzzyScore(fuzzyPattern, label);
+			} else {
+				score = wordMatches(label) ? 0 : NO_MATCH;
+			}
+			if (score != NO_MATCH) {
+				newMatches[matchCount] = entry;
+				newScores[matchCount] = score;
+				matchCount++;
+			}
+		}
+		matches = Arrays.copyOf(newMatches, matchCount);
+		scores = Arrays.copyOf(newScores, matchCount);
+
+		BitSet visible = new BitSet(index.size());
+		visibleElements = new HashSet(matchCount * 2);
+		elementScores = new HashMap(matchCount * 2);
+		for (int i = 0; i < matchCount; i++) {
+			int entry = matches[i];
+			Object element = index.elements[entry];
+			Integer previous = (Integer) elementScores.get(element);
+			if (previous == null || previous.intValue() < scores[i]) {
+				elementScores.put(element, Integer.valueOf(scores[i]));
+			}
+			// mark the match and its ancestors, stopping at the first
+			// ancestor that is already known to be visible
+			while (entry >= 0 && !visible.get(entry)) {
+				visible.set(entry);
+				visibleElements.add(index.elements[entry]);
+				entry = index.parents[entry];
+			}
+		}
+	}
+
+	/**
+	 * Scores how well the label matches the given case folded pattern in
+	 * fuzzy mode. Characters matched right after the previous match, and
+	 * characters at the start of a word, score higher.
+	 *
+	 * @return the score, or {@link #NO_MATCH} if the characters of the
+	 *         pattern do not appear in the label in order
+	 */
+	private static int fuzzyScore(char[] pattern, String label) {
+		if (label == null) {
+			return NO_MATCH;
+		}
+		int score = 0;
+		int p = 0;
+		int lastMatch = -2;
+		for (int i = 0; i < label.length() && p < pattern.length; i++) {
+			char c = label.charAt(i);
+			if (Character.isWhitespace(pattern[p])) {
+				// whitespace in the pattern matches anything
+				p++;
+				continue;
+			}
+			if (foldCase(c) != pattern[p]) {
+				continue;
+			}
+			score++;
+			if (lastMatch == i - 1) {
+				score += 2;
+			}
+			if (i == 0 || !Character.isLetterOrDigit(label.charAt(i - 1))
+					|| (Character.isUpperCase(c) && Character
+							.isLowerCase(label.charAt(i - 1)))) {
+				score += 3;
+			}
+			lastMatch = i;
+			p++;
+		}
+		while (p < pattern.length && Character.isWhitespace(pattern[p])) {
+			p++;
+		}
+		return p == pattern.length ? score : NO_MATCH;
+	}
+
+	private static char foldCase(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	private static char[] foldCase(String text) {
+		char[] chars = new char[text.length()];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = foldCase(text.charAt(i));
+		}
+		return chars;
+	}
+
+	/**
+	 * The labels and parents of all elements of a tree, along with a sorted
+	 * array of the case folded labels and label words for prefix lookups.
+	 */
+	private class LabelIndex {
+
+		Object[] elements;
+
+		String[] labels;
+
+		/*
+		 * Index of the parent entry, or -1 for root elements
+		 */
+		int[] parents;
+
+		/*
+		 * Case folded labels and words, sorted
+		 */
+		private String[] keys;
+
+		/*
+		 * The entry each key belongs to, parallel to keys
+		 */
+		private int[] keyEntries;
+
+		LabelIndex(StructuredViewer viewer) {
+			ITreeContentProvider contentProvider = (ITreeContentProvider) viewer
+					.getContentProvider();
+			ILabelProvider labelProvider = (ILabelProvider) viewer
+					.getLabelProvider();
+			List elementList = new ArrayList();
+			List labelList = new ArrayList();
+			int[] parentArray = new int[16];
+
+			// breadth first, so that the list itself serves as the queue
+			addChildren(contentProvider.getElements(viewer.getInput()),
+					elementList);
+			parentArray = fillParents(parentArray, 0, elementList.size(), -1);
+			for (int entry = 0; entry < elementList.size(); entry++) {
+				Object element = elementList.get(entry);
+				labelList.add(labelProvider.getText(element));
+				int start = elementList.size();
+				if (!isAncestor(element, parentArray[entry], elementList,
+						parentArray)) {
+					addChildren(contentProvider.getChildren(element),
+							elementList);
+				}
+				parentArray = fillParents(parentArray, start,
+						elementList.size(), entry);
+			}
+
+			elements = elementList.toArray();
+			labels = (String[]) labelList.toArray(new String[labelList.size()]);
+			parents = Arrays.copyOf(parentArray, elements.length);
+			buildKeys();
+		}
+
+		int size() {
+			return elements.length;
+		}
+
+		private void addChildren(Object[] children, List elementList) {
+			if (children != null) {
+				elementList.addAll(Arrays.asList(children));
+			}
+		}
+
+		/**
+		 * Returns whether the element also appears on the path from the given
+		 * entry to the root, in which case the content provider returned a
+		 * cycle and its children must not be indexed again.
+		 */
+		private boolean isAncestor(Object element, int entry, List elementList,
+				int[] parentArray) {
+			for (int i = entry; i >= 0; i = parentArray[i]) {
+				if (element.equals(elementList.get(i))) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private int[] fillParents(int[] parentArray, int start, int end,
+				int parent) {
+			int[] result = parentArray;
+			if (end > result.length) {
+				result = Arrays.copyOf(result, Math.max(end,
+						result.length * 2));
+			}
+			Arrays.fill(result, start, end, parent);
+			return result;
+		}
+
+		private void buildKeys() {
+			List keyList = new ArrayList();
+			for (int entry = 0; entry < labels.length; entry++) {
+				String label = labels[entry];
+				if (label == null) {
+					continue;
+				}
+				keyList.add(new Key(new String(foldCase(label)), entry));
+				String[] words = getWords(label);
+				for (int i = 0; i < words.length; i++) {
+					keyList.add(new Key(new String(foldCase(words[i])), entry));
+				}
+			}
+			Key[] sorted = (Key[]) keyList.toArray(new Key[keyList.size()]);
+			Arrays.sort(sorted);
+			keys = new String[sorted.length];
+			keyEntries = new int[sorted.length];
+			for (int i = 0; i < sorted.length; i++) {
+				keys[i] = sorted[i].text;
+				keyEntries[i] = sorted[i].entry;
+			}
+		}
+
+		/**
+		 * Returns the entries whose label or one of its words starts with the
+		 * given prefix, ignoring case, in ascending order.
+		 */
+		int[] findPrefix(String prefix) {
+			String folded = new String(foldCase(prefix));
+			int start = Arrays.binarySearch(keys, folded);
+			if (start < 0) {
+				start = -start - 1;
+			}
+			BitSet found = new BitSet(elements.length);
+			for (int i = start; i < keys.length && keys[i].startsWith(folded); i++) {
+				found.set(keyEntries[i]);
+			}
+			int[] result = new int[found.cardinality()];
+			int r = 0;
+			for (int entry = found.nextSetBit(0); entry >= 0; entry = found
+					.nextSetBit(entry + 1)) {
+				result[r++] = entry;
+			}
+			return result;
+		}
+	}
+
+	private static class Key implements Comparable {
+
+		final String text;
+
+		final int entry;
+
+		Key(String text, int entry) {
+			this.text = text;
+			this.entry = entry;
+		}
+
+		@Override
+		public int compareTo(Object o) {
+			return text.compareTo(((Key) o).text);
+		}
+	}
+}
@@ -190,6 +190,22 @@ public class PatternFilter extends ViewerFilter {
         foundAnyCache.clear();
 	}
 
+	/**
+	 * Called by the filtered tree whenever the tree content changes.
+	 */
+	/* package */ void contentChanged() {
+		clearCaches();
+	}
+
+	/**
+	 * Returns whether a leading wildcard is attached to each pattern string.
+	 *
+	 * @return <code>true</code> if a leading wildcard is added
+	 */
+	/* package */ boolean isIncludeLeadingWildcard() {
+		return includeLeadingWildcard;
+	}
+
     /**
      * Answers whether the given String matches the pattern.
      *
@@ -283,7 +299,7 @@ public class PatternFilter extends ViewerFilter {
      * @param text
      * @return an array of words
      */
-    private String[] getWords(String text){
+    /* package */ String[] getWords(String text){
     	List words = new ArrayList();
 		// Break the text up into words, separating based on whitespace and
 		// common punctuation.
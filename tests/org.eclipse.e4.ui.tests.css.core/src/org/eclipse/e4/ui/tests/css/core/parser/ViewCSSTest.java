@@ -13,7 +13,9 @@ package org.eclipse.e4.ui.tests.css.core.parser;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.io.IOException;
 
@@ -25,6 +27,7 @@ import org.eclipse.e4.ui.tests.css.core.util.TestElement;
 import org.eclipse.swt.widgets.Display;
 import org.junit.Before;
 import org.junit.Test;
+import org.w3c.dom.DOMException;
 import org.w3c.dom.css.CSSStyleDeclaration;
 import org.w3c.dom.css.CSSStyleSheet;
 import org.w3c.dom.css.ViewCSS;
@@ -108,6 +111,83 @@ public class ViewCSSTest {
 		assertEquals("color: blue;", buttonStyle.getCssText());
 	}
 
+	@Test
+	public void testGetComputedStyle_ClassAndIdSelectors() throws Exception {
+		String css = ".active { color: red; }\n" + "Button.active { font-weight: bold; }\n"
+				+ "#ok { color: green; }\n" + "* { font-style: italic; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		TestElement button = new TestElement("Button", engine);
+		button.setClass("primary active");
+		button.setId("ok");
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals(3, buttonStyle.getLength());
+		assertEquals("green", buttonStyle.getPropertyCSSValue("color").getCssText());
+
+		TestElement label = new TestElement("Label", engine);
+		label.setClass("active");
+		CSSStyleDeclaration labelStyle = viewCSS.getComputedStyle(label, null);
+		assertNotNull(labelStyle);
+		assertEquals(2, labelStyle.getLength());
+		assertEquals("red", labelStyle.getPropertyCSSValue("color").getCssText());
+
+		// the same element is restyled once its class changed
+		label.setClass("inactive");
+		labelStyle = viewCSS.getComputedStyle(label, null);
+		assertNotNull(labelStyle);
+		assertEquals(1, labelStyle.getLength());
+	}
+
+	@Test
+	public void testGetComputedStyle_StyleSheetAdded() throws Exception {
+		DocumentCSSImpl docCss = new DocumentCSSImpl();
+		docCss.addStyleSheet(ParserTestUtil.parseCss("Label { color: black; }"));
+		ViewCSS viewCSS = new ViewCSSImpl(docCss);
+
+		TestElement button = new TestElement("Button", engine);
+		assertNull(viewCSS.getComputedStyle(button, null));
+
+		docCss.addStyleSheet(ParserTestUtil.parseCss("Button { color: blue; }"));
+		CSSStyleDeclaration buttonStyle = viewCSS.getComputedStyle(button, null);
+		assertNotNull(buttonStyle);
+		assertEquals("color: blue;", buttonStyle.getCssText());
+
+		docCss.removeAllStyleSheets();
+		assertNull(viewCSS.getComputedStyle(button, null));
+	}
+
+	@Test
+	public void testGetComputedStyle_SharedBetweenMatchingElements() throws Exception {
+		String css = "Button { color: blue; font-weight: bold; }\n"
+				+ "Button.primary { color: red; }\n";
+		ViewCSS viewCSS = createViewCss(css);
+
+		TestElement button1 = new TestElement("Button", engine);
+		button1.setClass("primary");
+		TestElement button2 = new TestElement("Button", engine);
+		button2.setClass("primary");
+		TestElement button3 = new TestElement("Button", engine);
+
+		CSSStyleDeclaration style1 = viewCSS.getComputedStyle(button1, null);
+		assertEquals("font-weight: bold;\ncolor: red;", style1.getCssText());
+		assertSame(style1, viewCSS.getComputedStyle(button2, null));
+		assertNotSame(style1, viewCSS.getComputedStyle(button3, null));
+
+		button2.setClass(null);
+		assertEquals("color: blue;\nfont-weight: bold;",
+				viewCSS.getComputedStyle(button2, null).getCssText());
+	}
+
+	@Test(expected = DOMException.class)
+	public void testGetComputedStyle_ReadOnly() throws Exception {
+		ViewCSS viewCSS = createViewCss("Button { color: blue; }\n"
+				+ "Button.primary { color: red; }\n");
+		TestElement button = new TestElement("Button", engine);
+		button.setClass("primary");
+		viewCSS.getComputedStyle(button, null).removeProperty("color");
+	}
+
 	private static ViewCSS createViewCss(String css) throws IOException {
 		CSSStyleSheet styleSheet = ParserTestUtil.parseCss(css);
 		DocumentCSSImpl docCss = new DocumentCSSImpl();
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.e4.ui.css.core.dom.properties.ICSSPropertyHandler;
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+import org.junit.Test;
+import org.w3c.dom.css.CSSValue;
+
+/**
+ * Tests the caches of the CSS engine: the property handlers looked up per
+ * element class and property, and the resources converted from values.
+ */
+public class CSSEngineCachesTest extends CSSSWTTestCase {
+
+	static final RGB RED = new RGB(255, 0, 0);
+
+	private static final String TEST_PROPERTY = "x-cache-test";
+
+	/**
+	 * The kind of handler registered for the test property.
+	 */
+	public interface ICSSPropertyCacheTestHandler extends ICSSPropertyHandler {
+	}
+
+	static class RecordingHandler implements ICSSPropertyCacheTestHandler {
+		final List<String> applied = new ArrayList<String>();
+
+		@Override
+		public boolean applyCSSProperty(Object element, String property,
+				CSSValue value, String pseudo, CSSEngine engine)
+				throws Exception {
+			applied.add(value.getCssText());
+			return true;
+		}
+
+		@Override
+		public String retrieveCSSProperty(Object element, String property,
+				String pseudo, CSSEngine engine) throws Exception {
+			return null;
+		}
+	}
+
+	@Test
+	public void testConvertedResourcesReused() throws Exception {
+		engine = createEngine("Label { color: #FF0000 }", display);
+
+		CSSValue value = engine.parsePropertyValue("#FF0000");
+		Color color = (Color) engine.convert(value, Color.class, display);
+		assertEquals(RED, color.getRGB());
+		assertSame(color, engine.convert(value, Color.class, display));
+		assertSame(color, engine.convert(
+				engine.parsePropertyValue("#FF0000"), Color.class, display));
+	}
+
+	@Test
+	public void testRegisterCSSPropertyHandlerAfterLookup() {
+		CSSSWTEngineImpl swtEngine = (CSSSWTEngineImpl) createEngine("Label { "
+				+ TEST_PROPERTY + ": first }", display);
+		swtEngine.registerCSSProperty(TEST_PROPERTY,
+				ICSSPropertyCacheTestHandler.class);
+		Label label = new Label(new Shell(display, SWT.SHELL_TRIM), SWT.NONE);
+
+		// looks up the handlers of the property, finding none
+		swtEngine.applyStyles(label, false);
+
+		RecordingHandler handler = new RecordingHandler();
+		swtEngine.registerCSSPropertyHandler(
+				ICSSPropertyCacheTestHandler.class, handler);
+		swtEngine.applyStyles(label, false);
+		assertEquals(1, handler.applied.size());
+		assertEquals("first", handler.applied.get(0));
+	}
+
+	@Test
+	public void testRegisterCSSPropertyAfterLookup() {
+		CSSSWTEngineImpl swtEngine = (CSSSWTEngineImpl) createEngine("Label { "
+				+ TEST_PROPERTY + ": first }", display);
+		RecordingHandler handler = new RecordingHandler();
+		swtEngine.registerCSSPropertyHandler(
+				ICSSPropertyCacheTestHandler.class, handler);
+		Label label = new Label(new Shell(display, SWT.SHELL_TRIM), SWT.NONE);
+
+		// looks up the handlers of the property, which is not registered yet
+		swtEngine.applyStyles(label, false);
+		assertEquals(0, handler.applied.size());
+
+		swtEngine.registerCSSProperty(TEST_PROPERTY,
+				ICSSPropertyCacheTestHandler.class);
+		swtEngine.applyStyles(label, false);
+		assertEquals(1, handler.applied.size());
+		assertEquals("first", handler.applied.get(0));
+	}
+}
@@ -56,7 +56,9 @@ import org.junit.runners.Suite;
 	Bug459961Test.class,
 	Bug419482Test.class,
 	ShellActiveTest.class,
-	InheritTest.class })
+	InheritTest.class,
+	CSSEngineCachesTest.class,
+	StyleSheetLoaderTest.class })
 public class CssSwtTestSuite {
 
 }
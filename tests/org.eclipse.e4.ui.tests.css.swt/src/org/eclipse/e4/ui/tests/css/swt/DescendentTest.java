@@ -78,4 +78,55 @@ public class DescendentTest extends CSSSWTTestCase {
 		assertEquals(WHITE, buttonA.getBackground().getRGB());
 		assertEquals(BLACK, buttonB.getBackground().getRGB());
 	}
+
+	@Test
+	public void testIncrementalRestyling() {
+		Button[] buttons = createTestWidgets(
+				"Composite.special Button { background: #FF0000}\n"
+						+ "Composite.other { background: #00FF00}\n"
+						+ "Button { background: #0000FF}");
+
+		Button buttonA = buttons[0];
+		Composite panelA = buttonA.getParent();
+		assertEquals(BLUE, buttonA.getBackground().getRGB());
+
+		WidgetElement.setCSSClass(panelA, "special");
+		engine.applyStylesIncrementally(panelA);
+		assertEquals(RED, buttonA.getBackground().getRGB());
+
+		// the style of descendants does not depend on the other class, so
+		// they are not restyled
+		buttonA.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+		WidgetElement.setCSSClass(panelA, "special other");
+		engine.applyStylesIncrementally(panelA);
+		assertEquals(GREEN, panelA.getBackground().getRGB());
+		assertEquals(WHITE, buttonA.getBackground().getRGB());
+
+		WidgetElement.setCSSClass(panelA, null);
+		engine.applyStylesIncrementally(panelA);
+		assertEquals(BLUE, buttonA.getBackground().getRGB());
+	}
+
+	@Test
+	public void testIncrementalRestyling_InheritedValue() {
+		Button[] buttons = createTestWidgets(
+				"Composite.special { background-color: #FF0000}\n"
+						+ "Composite { background-color: #00FF00}\n"
+						+ "Button { background-color: inherit}");
+
+		Button buttonA = buttons[0];
+		Composite panelA = buttonA.getParent();
+		assertEquals(GREEN, buttonA.getBackground().getRGB());
+
+		// no selector tests the class on an ancestor, but the button takes
+		// the background of its parent
+		WidgetElement.setCSSClass(panelA, "special");
+		engine.applyStylesIncrementally(panelA);
+		assertEquals(RED, panelA.getBackground().getRGB());
+		assertEquals(RED, buttonA.getBackground().getRGB());
+
+		WidgetElement.setCSSClass(panelA, null);
+		engine.applyStylesIncrementally(panelA);
+		assertEquals(GREEN, buttonA.getBackground().getRGB());
+	}
 }
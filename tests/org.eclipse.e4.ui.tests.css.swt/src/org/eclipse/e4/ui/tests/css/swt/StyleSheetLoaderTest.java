@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.e4.ui.tests.css.swt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
+import org.eclipse.e4.ui.css.swt.internal.theme.ThemeEngine;
+import org.eclipse.e4.ui.css.swt.theme.ITheme;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.css.CSSStyleRule;
+import org.w3c.dom.css.CSSStyleSheet;
+import org.w3c.dom.stylesheets.StyleSheet;
+import org.w3c.dom.stylesheets.StyleSheetList;
+
+/**
+ * Tests the loading of the style sheets of a theme: the style sheets are
+ * added in order, and parsed again only when their content has changed.
+ */
+public class StyleSheetLoaderTest extends CSSSWTTestCase {
+
+	private static final String THEME_ID = "org.eclipse.e4.ui.tests.css.swt.loader";
+
+	private File folder;
+
+	private ThemeEngine themeEngine;
+
+	@Override
+	@Before
+	public void setUp() {
+		super.setUp();
+		try {
+			folder = Files.createTempDirectory("stylesheets").toFile();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		engine = new CSSSWTEngineImpl(display);
+		themeEngine = new ThemeEngine(display);
+		themeEngine.addCSSEngine(engine);
+	}
+
+	@Override
+	@After
+	public void tearDown() {
+		themeEngine.removeCSSEngine(engine);
+		engine.dispose();
+		for (File file : folder.listFiles()) {
+			file.delete();
+		}
+		folder.delete();
+		super.tearDown();
+	}
+
+	@Test
+	public void testStyleSheetsAddedInOrder() throws Exception {
+		// the first style sheet takes longest to parse
+		StringBuilder first = new StringBuilder(sheet("sheet0"));
+		for (int i = 0; i < 2000; i++) {
+			first.append("Label.class").append(i)
+					.append(" { color: #FF0000 }\n");
+		}
+		List<String> ids = new ArrayList<String>();
+		ITheme theme = themeEngine.registerTheme(THEME_ID, "Loader",
+				write("sheet0.css", first.toString()));
+		ids.add("sheet0");
+		for (int i = 1; i < 8; i++) {
+			themeEngine.registerStylesheet(
+					write("sheet" + i + ".css", sheet("sheet" + i)), THEME_ID);
+			ids.add("sheet" + i);
+		}
+
+		themeEngine.setTheme(theme, false);
+
+		assertEquals(ids, idsOf(styleSheets()));
+	}
+
+	@Test
+	public void testUnchangedStyleSheetReused() throws Exception {
+		ITheme theme = themeEngine.registerTheme(THEME_ID, "Loader",
+				write("a.css", sheet("a")));
+		themeEngine.registerStylesheet(write("b.css", sheet("b")), THEME_ID);
+		themeEngine.setTheme(theme, false);
+		List<StyleSheet> parsed = styleSheets();
+
+		themeEngine.resetCurrentTheme();
+
+		List<StyleSheet> reloaded = styleSheets();
+		assertEquals(2, reloaded.size());
+		assertSame(parsed.get(0), reloaded.get(0));
+		assertSame(parsed.get(1), reloaded.get(1));
+	}
+
+	@Test
+	public void testChangedStyleSheetParsedAgain() throws Exception {
+		ITheme theme = themeEngine.registerTheme(THEME_ID, "Loader",
+				write("a.css", sheet("a")));
+		themeEngine.registerStylesheet(write("b.css", sheet("b")), THEME_ID);
+		themeEngine.setTheme(theme, false);
+		List<StyleSheet> parsed = styleSheets();
+
+		write("b.css", sheet("changed"));
+		themeEngine.resetCurrentTheme();
+
+		List<StyleSheet> reloaded = styleSheets();
+		assertSame(parsed.get(0), reloaded.get(0));
+		assertNotSame(parsed.get(1), reloaded.get(1));
+		assertEquals(Arrays.asList("a", "changed"), idsOf(reloaded));
+	}
+
+	@Test
+	public void testStyleSheetWithImportNotKept() throws Exception {
+		write("imported.css", sheet("imported"));
+		ITheme theme = themeEngine.registerTheme(THEME_ID, "Loader",
+				write("main.css", "@import url(\"imported.css\");\n"
+						+ sheet("main")));
+		themeEngine.setTheme(theme, false);
+		List<StyleSheet> parsed = styleSheets();
+		assertEquals(Arrays.asList("imported"), idsOf(parsed));
+
+		// only the imported style sheet changes
+		write("imported.css", sheet("changed"));
+		themeEngine.resetCurrentTheme();
+
+		List<StyleSheet> reloaded = styleSheets();
+		assertNotSame(parsed.get(0), reloaded.get(0));
+		assertEquals(Arrays.asList("changed"), idsOf(reloaded));
+	}
+
+	private static String sheet(String id) {
+		return "Label { x-sheet: " + id + " }\n";
+	}
+
+	private String write(String name, String content) throws IOException {
+		File file = new File(folder, name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file.toURI().toURL().toString();
+	}
+
+	private List<StyleSheet> styleSheets() {
+		StyleSheetList list = engine.getDocumentCSS().getStyleSheets();
+		List<StyleSheet> result = new ArrayList<StyleSheet>();
+		for (int i = 0; i < list.getLength(); i++) {
+			result.add(list.item(i));
+		}
+		return result;
+	}
+
+	/*
+	 * The id declared by the first rule of each style sheet
+	 */
+	private static List<String> idsOf(List<StyleSheet> styleSheets) {
+		List<String> ids = new ArrayList<String>();
+		for (StyleSheet styleSheet : styleSheets) {
+			CSSStyleRule rule = (CSSStyleRule) ((CSSStyleSheet) styleSheet)
+					.getCssRules().item(0);
+			ids.add(rule.getStyle().getPropertyCSSValue("x-sheet")
+					.getCssText());
+		}
+		return ids;
+	}
+}
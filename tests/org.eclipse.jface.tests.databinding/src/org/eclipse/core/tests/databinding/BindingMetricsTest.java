@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding;
+
+import org.eclipse.core.databinding.Binding;
+import org.eclipse.core.databinding.BindingMetrics;
+import org.eclipse.core.databinding.DataBindingContext;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+
+/**
+ * @since 1.5
+ */
+public class BindingMetricsTest extends AbstractDefaultRealmTestCase {
+	private DataBindingContext dbc;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		dbc = new DataBindingContext();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		BindingMetrics.setEnabled(false);
+		dbc.dispose();
+		super.tearDown();
+	}
+
+	public void testDisabled_RecordsNothing() throws Exception {
+		WritableValue target = WritableValue.withValueType(String.class);
+		WritableValue model = WritableValue.withValueType(String.class);
+		Binding binding = dbc.bindValue(target, model);
+
+		target.setValue("value");
+
+		assertEquals(0, binding.getMetrics().getUpdateCount());
+		assertEquals(0, binding.getMetrics().getTotalTime());
+	}
+
+	public void testValueBinding_CountsUpdatesAndStages() throws Exception {
+		BindingMetrics.setEnabled(true);
+		WritableValue target = WritableValue.withValueType(String.class);
+		WritableValue model = WritableValue.withValueType(String.class);
+		Binding binding = dbc.bindValue(target, model);
+		BindingMetrics metrics = binding.getMetrics();
+		metrics.reset();
+
+		target.setValue("1");
+		target.setValue("2");
+		model.setValue("3");
+
+		assertEquals(2, metrics.getTargetToModelUpdateCount());
+		assertEquals(1, metrics.getModelToTargetUpdateCount());
+		assertEquals(3, metrics.getUpdateCount());
+		for (int stage = 0; stage < BindingMetrics.STAGE_COUNT; stage++) {
+			assertEquals(3, metrics.getStageCount(stage));
+			assertEquals(3, sum(metrics.getHistogram(stage)));
+		}
+		assertTrue(metrics.getPercentile(BindingMetrics.CONVERT, 90) > 0);
+	}
+
+	public void testListBinding_RecordsSetStage() throws Exception {
+		BindingMetrics.setEnabled(true);
+		WritableList target = new WritableList();
+		WritableList model = new WritableList();
+		Binding binding = dbc.bindList(target, model);
+		BindingMetrics metrics = binding.getMetrics();
+		metrics.reset();
+
+		target.add("element");
+
+		assertEquals(1, metrics.getTargetToModelUpdateCount());
+		assertEquals(1, metrics.getStageCount(BindingMetrics.SET));
+		assertEquals(0, metrics.getStageCount(BindingMetrics.CONVERT));
+	}
+
+	public void testReset() throws Exception {
+		BindingMetrics.setEnabled(true);
+		WritableValue target = WritableValue.withValueType(String.class);
+		WritableValue model = WritableValue.withValueType(String.class);
+		Binding binding = dbc.bindValue(target, model);
+
+		target.setValue("value");
+		binding.getMetrics().reset();
+
+		assertEquals(0, binding.getMetrics().getUpdateCount());
+		assertEquals(0, binding.getMetrics().getTotalTime());
+		assertEquals(0, sum(binding.getMetrics().getHistogram(
+				BindingMetrics.GET)));
+	}
+
+	public void testCreateReport_ListsBindings() throws Exception {
+		BindingMetrics.setEnabled(true);
+		Binding binding = dbc.bindValue(
+				WritableValue.withValueType(String.class),
+				WritableValue.withValueType(String.class));
+
+		String report = BindingMetrics.createReport(dbc);
+
+		assertTrue(report.indexOf(binding.getClass().getName()) != -1);
+	}
+
+	private static long sum(long[] histogram) {
+		long sum = 0;
+		for (int i = 0; i < histogram.length; i++)
+			sum += histogram[i];
+		return sum;
+	}
+}
@@ -17,6 +17,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.eclipse.core.databinding.Binding;
 import org.eclipse.core.databinding.DataBindingContext;
@@ -36,6 +37,7 @@ import org.eclipse.core.internal.databinding.BindingStatus;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+import org.eclipse.swt.widgets.Display;
 
 /**
  * @since 1.1
@@ -109,6 +111,69 @@ public class ValueBindingTest extends AbstractDefaultRealmTestCase {
 		assertTrue(((IStatus) binding.getValidationStatus().getValue()).isOK());
 	}
 
+	public void testExecutor_ValidatesOffRealmAndCancelsSupersededUpdates()
+			throws Exception {
+		final List executed = new ArrayList();
+		Executor executor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				executed.add(command);
+			}
+		};
+		final List validated = new ArrayList();
+		Binding binding = dbc.bindValue(target, model,
+				new UpdateValueStrategy().setExecutor(executor)
+						.setAfterGetValidator(new IValidator() {
+							@Override
+							public IStatus validate(Object value) {
+								validated.add(value);
+								return ValidationStatus.ok();
+							}
+						}), null);
+		runAsyncUpdates(executed);
+		validated.clear();
+
+		target.setValue("a");
+		target.setValue("ab");
+		assertNull(model.getValue());
+		assertTrue(binding.getValidationStatus().isStale());
+
+		runAsyncUpdates(executed);
+
+		assertEquals(Collections.singletonList("ab"), validated);
+		assertEquals("ab", model.getValue());
+		assertFalse(binding.getValidationStatus().isStale());
+		assertTrue(((IStatus) binding.getValidationStatus().getValue()).isOK());
+	}
+
+	public void testExecutor_ErrorStatusDoesNotUpdateModel() throws Exception {
+		final List executed = new ArrayList();
+		Executor executor = new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				executed.add(command);
+			}
+		};
+		Binding binding = dbc.bindValue(target, model,
+				new UpdateValueStrategy().setExecutor(executor)
+						.setAfterGetValidator(errorValidator()), null);
+
+		target.setValue("value");
+		runAsyncUpdates(executed);
+
+		assertNull(model.getValue());
+		assertEquals(IStatus.ERROR, ((IStatus) binding.getValidationStatus()
+				.getValue()).getSeverity());
+	}
+
+	private void runAsyncUpdates(List executed) {
+		while (!executed.isEmpty()) {
+			((Runnable) executed.remove(0)).run();
+		}
+		while (Display.getCurrent().readAndDispatch()) {
+		}
+	}
+
 	public void testWarningStatusInValidationUpdatesModel() throws Exception {
 		Binding binding = dbc.bindValue(target, model,
 				new UpdateValueStrategy()
@@ -69,6 +69,61 @@ public class ChangeSupportTest extends AbstractDefaultRealmTestCase {
 		assertEquals(Arrays.asList(new Object[] { ADD_FIRST, REMOVE_LAST }), changeSupport.log);
 	}
 
+	public void testConcurrentAddAndRemove_NoListenerLost() throws Exception {
+		final int threadCount = 4;
+		final IStaleListener[] kept = new IStaleListener[threadCount];
+		Thread[] threads = new Thread[threadCount];
+		final Throwable[] failure = new Throwable[1];
+		for (int i = 0; i < threadCount; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						IStaleListener listener = new IStaleListener() {
+							@Override
+							public void handleStale(StaleEvent staleEvent) {
+							}
+						};
+						for (int j = 0; j < 2000; j++) {
+							changeSupport.addStaleListener(listener);
+							changeSupport.removeStaleListener(listener);
+						}
+						kept[index] = new IStaleListener() {
+							@Override
+							public void handleStale(StaleEvent staleEvent) {
+							}
+						};
+						changeSupport.addStaleListener(kept[index]);
+					} catch (Throwable t) {
+						failure[0] = t;
+					}
+				}
+			};
+		}
+		for (int i = 0; i < threadCount; i++) {
+			threads[i].start();
+		}
+		for (int i = 0; i < threadCount; i++) {
+			threads[i].join();
+		}
+		assertNull(failure[0]);
+
+		// every kept listener is still registered
+		for (int i = 0; i < threadCount; i++) {
+			assertTrue(changeSupport.hasListeners());
+			changeSupport.removeStaleListener(kept[i]);
+		}
+		assertFalse(changeSupport.hasListeners());
+
+		// the hooks alternated, once per transition
+		List<String> log = changeSupport.log;
+		assertEquals(0, log.size() % 2);
+		for (int i = 0; i < log.size(); i++) {
+			assertEquals(i % 2 == 0 ? ADD_FIRST : REMOVE_LAST, log.get(i));
+		}
+	}
+
 	private static final String ADD_FIRST = "firstListenerAdded";
 	private static final String REMOVE_LAST = "lastListenerRemoved";
 
@@ -14,7 +14,9 @@ package org.eclipse.core.tests.databinding.observable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import junit.framework.TestCase;
 
@@ -253,6 +255,65 @@ public class Diffs_ListDiffTests extends TestCase {
 				Arrays.asList(new Object[] { "c", "a", "b" }));
 	}
 
+	public void testComputeListDiff_MoveIsReportedAsMove() {
+		ListDiff diff = Diffs.computeListDiff(Arrays.asList(new Object[] { "a", "b", "c", "d" }),
+				Arrays.asList(new Object[] { "d", "a", "b", "c" }));
+		final int[] moves = new int[1];
+		diff.accept(new ListDiffVisitor() {
+			@Override
+			public void handleAdd(int index, Object element) {
+				fail("unexpected add");
+			}
+
+			@Override
+			public void handleRemove(int index, Object element) {
+				fail("unexpected remove");
+			}
+
+			@Override
+			public void handleMove(int oldIndex, int newIndex, Object element) {
+				assertEquals(3, oldIndex);
+				assertEquals(0, newIndex);
+				assertEquals("d", element);
+				moves[0]++;
+			}
+		});
+		assertEquals(1, moves[0]);
+	}
+
+	public void testComputeListDiff_Duplicates() {
+		checkComputedListDiff(Arrays.asList(new Object[] { "a", null, "a", "b", null }),
+				Arrays.asList(new Object[] { null, "b", "a", "a", null, "a" }));
+		checkComputedListDiff(Arrays.asList(new Object[] { "a", "a", "a" }), Arrays.asList(new Object[] { "a" }));
+	}
+
+	public void testComputeListDiff_Random() {
+		Random random = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			List<Object> oldList = new ArrayList<Object>();
+			List<Object> newList = new ArrayList<Object>();
+			int oldSize = random.nextInt(12);
+			int newSize = random.nextInt(12);
+			for (int j = 0; j < oldSize; j++) {
+				oldList.add(Integer.valueOf(random.nextInt(6)));
+			}
+			for (int j = 0; j < newSize; j++) {
+				newList.add(Integer.valueOf(random.nextInt(6)));
+			}
+			checkComputedListDiff(oldList, newList);
+		}
+	}
+
+	public void testComputeListDiff_LargeShuffle() {
+		List<Object> oldList = new ArrayList<Object>();
+		for (int i = 0; i < 10000; i++) {
+			oldList.add(Integer.valueOf(i));
+		}
+		List<Object> newList = new ArrayList<Object>(oldList);
+		Collections.shuffle(newList, new Random(42));
+		checkComputedListDiff(oldList, newList);
+	}
+
 	private static void checkComputedListDiff(List<Object> oldList, List<Object> newList) {
 		ListDiff diff = Diffs.computeListDiff(oldList, newList);
 
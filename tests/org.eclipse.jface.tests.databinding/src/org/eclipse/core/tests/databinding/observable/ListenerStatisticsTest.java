@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable;
+
+import java.util.Map;
+
+import org.eclipse.core.databinding.observable.ChangeEvent;
+import org.eclipse.core.databinding.observable.IChangeListener;
+import org.eclipse.core.databinding.observable.IStaleListener;
+import org.eclipse.core.databinding.observable.ListenerStatistics;
+import org.eclipse.core.databinding.observable.StaleEvent;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+
+/**
+ * @since 1.5
+ */
+public class ListenerStatisticsTest extends AbstractDefaultRealmTestCase {
+	private IChangeListener listener;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		ListenerStatistics.reset();
+		listener = new IChangeListener() {
+			@Override
+			public void handleChange(ChangeEvent event) {
+			}
+		};
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		ListenerStatistics.setEnabled(false);
+		ListenerStatistics.reset();
+		super.tearDown();
+	}
+
+	public void testDisabled_TracksNothing() throws Exception {
+		WritableValue value = new WritableValue();
+		value.addChangeListener(listener);
+
+		assertFalse(ListenerStatistics.getListenerCounts().containsKey(value));
+	}
+
+	public void testGetListenerCounts_CountsCurrentListeners()
+			throws Exception {
+		ListenerStatistics.setEnabled(true);
+		WritableValue value = new WritableValue();
+		value.addChangeListener(listener);
+		value.addStaleListener(new IStaleListener() {
+			@Override
+			public void handleStale(StaleEvent staleEvent) {
+			}
+		});
+
+		Map counts = ListenerStatistics.getListenerCounts();
+		assertEquals(new Integer(2), counts.get(value));
+
+		value.removeChangeListener(listener);
+		counts = ListenerStatistics.getListenerCounts();
+		assertEquals(new Integer(1), counts.get(value));
+	}
+
+	public void testGetListenerCounts_OmitsObservablesWithoutListeners()
+			throws Exception {
+		ListenerStatistics.setEnabled(true);
+		WritableValue value = new WritableValue();
+		value.addChangeListener(listener);
+		value.removeChangeListener(listener);
+
+		assertFalse(ListenerStatistics.getListenerCounts().containsKey(value));
+	}
+
+	public void testCreateReport_DoesNotReadContents() throws Exception {
+		ListenerStatistics.setEnabled(true);
+		WritableList list = new WritableList();
+		list.add("element");
+		list.addChangeListener(listener);
+
+		String report = ListenerStatistics.createReport(10);
+
+		assertTrue(report.indexOf(WritableList.class.getName()) != -1);
+		assertEquals(-1, report.indexOf("element"));
+	}
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.IObservablesListener;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.map.WritableMap;
+import org.eclipse.core.databinding.observable.set.WritableSet;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.ChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.MapChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.SetChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+
+/**
+ * Tests for {@link Realm#beginBatch()} and {@link Realm#commitBatch()}.
+ */
+public class RealmBatchTest extends AbstractDefaultRealmTestCase {
+	private Realm realm;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		realm = Realm.getDefault();
+	}
+
+	public void testList_OneEventOnCommit() {
+		WritableList list = new WritableList();
+		list.add("a");
+		ChangeEventTracker changes = ChangeEventTracker.observe(list);
+		ListChangeEventTracker listChanges = ListChangeEventTracker.observe(list);
+
+		realm.beginBatch();
+		for (int i = 0; i < 100; i++) {
+			list.add("element " + i);
+		}
+		list.remove("a");
+		assertEquals(0, changes.count);
+		assertEquals(0, listChanges.count);
+		realm.commitBatch();
+
+		assertEquals(1, changes.count);
+		assertEquals(1, listChanges.count);
+		List<Object> applied = new ArrayList<Object>(Collections.singletonList("a"));
+		listChanges.event.diff.applyTo(applied);
+		assertEquals(list, applied);
+	}
+
+	public void testSet_ChangesCancelOut() {
+		WritableSet set = new WritableSet();
+		set.add("a");
+		SetChangeEventTracker setChanges = SetChangeEventTracker.observe(set);
+
+		realm.beginBatch();
+		set.add("b");
+		set.remove("a");
+		set.remove("b");
+		set.add("a");
+		set.add("c");
+		realm.commitBatch();
+
+		assertEquals(1, setChanges.count);
+		assertEquals(Collections.singleton("c"), setChanges.event.diff.getAdditions());
+		assertEquals(Collections.EMPTY_SET, setChanges.event.diff.getRemovals());
+	}
+
+	public void testMap_MergedDiff() {
+		WritableMap map = new WritableMap();
+		map.put("changed", "old");
+		map.put("removed", "value");
+		map.put("unchanged", "value");
+		MapChangeEventTracker mapChanges = MapChangeEventTracker.observe(map);
+
+		realm.beginBatch();
+		map.put("changed", "intermediate");
+		map.put("changed", "new");
+		map.remove("removed");
+		map.put("added", "value");
+		map.put("unchanged", "other");
+		map.put("unchanged", "value");
+		realm.commitBatch();
+
+		assertEquals(1, mapChanges.count);
+		assertEquals(Collections.singleton("added"), mapChanges.event.diff.getAddedKeys());
+		assertEquals(Collections.singleton("removed"), mapChanges.event.diff.getRemovedKeys());
+		assertEquals(Collections.singleton("changed"), mapChanges.event.diff.getChangedKeys());
+		assertEquals("old", mapChanges.event.diff.getOldValue("changed"));
+		assertEquals("new", mapChanges.event.diff.getNewValue("changed"));
+	}
+
+	public void testValue_NoEventIfValueIsRestored() {
+		WritableValue value = new WritableValue("a", String.class);
+		ValueChangeEventTracker valueChanges = ValueChangeEventTracker.observe(value);
+		ChangeEventTracker changes = ChangeEventTracker.observe(value);
+
+		realm.beginBatch();
+		value.setValue("b");
+		value.setValue("a");
+		realm.commitBatch();
+
+		assertEquals(0, valueChanges.count);
+		assertEquals(0, changes.count);
+	}
+
+	public void testNestedBatches() {
+		WritableList list = new WritableList();
+		ListChangeEventTracker listChanges = ListChangeEventTracker.observe(list);
+
+		realm.beginBatch();
+		list.add("a");
+		realm.beginBatch();
+		list.add("b");
+		realm.commitBatch();
+		assertEquals(0, listChanges.count);
+		realm.commitBatch();
+
+		assertEquals(1, listChanges.count);
+		assertEquals(2, listChanges.event.diff.getDifferences().length);
+	}
+
+	public void testEventsAreFiredInOrderOfFirstChange() {
+		WritableList first = new WritableList();
+		WritableList second = new WritableList();
+		List<IObservablesListener> order = new ArrayList<IObservablesListener>();
+		first.addListChangeListener(new ListChangeEventTracker(order));
+		second.addListChangeListener(new ListChangeEventTracker(order));
+
+		realm.beginBatch();
+		second.add("a");
+		first.add("a");
+		second.add("b");
+		realm.commitBatch();
+
+		assertEquals(2, order.size());
+		assertSame(second, ((ListChangeEventTracker) order.get(0)).event.getObservable());
+		assertSame(first, ((ListChangeEventTracker) order.get(1)).event.getObservable());
+	}
+
+	public void testCommitWithoutBegin() {
+		try {
+			realm.commitBatch();
+			fail("expected an exception");
+		} catch (RuntimeException e) {
+			// expected
+		}
+	}
+
+	public void testChangesAfterCommitAreNotBatched() {
+		WritableList list = new WritableList();
+		ListChangeEventTracker listChanges = ListChangeEventTracker.observe(list);
+
+		realm.beginBatch();
+		list.add("a");
+		realm.commitBatch();
+		list.addAll(Arrays.asList(new Object[] { "b", "c" }));
+
+		assertEquals(2, listChanges.count);
+	}
+}
@@ -78,6 +78,13 @@ public class ListDiffTest extends TestCase {
 		assertEquals("replace(0,element0,element1)", visitor.log);
 	}
 
+	public void testAccept_Replace_AddBeforeRemove_AfterRemovedElement() {
+		// Add at index 1 then remove at index 0 leaves the new element at 0
+		createListDiff(add(1, "element1"), remove(0, "element0")).accept(
+				visitor);
+		assertEquals("replace(0,element0,element1)", visitor.log);
+	}
+
 	public void testAccept_AllPatterns() {
 		createListDiff(new ListDiffEntry[] {
 		// Replace (remove before add)
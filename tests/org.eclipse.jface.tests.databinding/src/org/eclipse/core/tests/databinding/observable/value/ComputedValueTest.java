@@ -14,11 +14,15 @@
 package org.eclipse.core.tests.databinding.observable.value;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
 import org.eclipse.core.databinding.observable.value.ComputedValue;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
 import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
 import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
 
 /**
@@ -138,4 +142,103 @@ public class ComputedValueTest extends AbstractDefaultRealmTestCase {
         } catch (UnsupportedOperationException e) {
         }
     }
+
+    public void testDiamondDependency_RecomputedOncePerChange() throws Exception {
+        final WritableValue source = new WritableValue(new Integer(1), Integer.TYPE);
+        final ComputedValue doubled = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                return new Integer(((Integer) source.getValue()).intValue() * 2);
+            }
+        };
+        final ComputedValue tripled = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                return new Integer(((Integer) source.getValue()).intValue() * 3);
+            }
+        };
+        final int[] calculations = new int[1];
+        final List inconsistentStates = new ArrayList();
+        ComputedValue sum = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                calculations[0]++;
+                int left = ((Integer) doubled.getValue()).intValue();
+                int right = ((Integer) tripled.getValue()).intValue();
+                if (left * 3 != right * 2) {
+                    inconsistentStates.add(left + "/" + right);
+                }
+                return new Integer(left + right);
+            }
+        };
+        ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(sum);
+        calculations[0] = 0;
+
+        source.setValue(new Integer(2));
+
+        assertEquals(1, calculations[0]);
+        assertEquals(1, tracker.count);
+        assertEquals(new Integer(5), tracker.event.diff.getOldValue());
+        assertEquals(new Integer(10), tracker.event.diff.getNewValue());
+        assertEquals(Collections.EMPTY_LIST, inconsistentStates);
+    }
+
+    public void testEqualValue_NoValueChangeEvent() throws Exception {
+        final WritableValue value = new WritableValue(new Integer(1), Integer.TYPE);
+        ComputedValue parity = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                return new Integer(((Integer) value.getValue()).intValue() % 2);
+            }
+        };
+        ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(parity);
+
+        value.setValue(new Integer(3));
+        assertEquals(0, tracker.count);
+
+        value.setValue(new Integer(4));
+        assertEquals(1, tracker.count);
+        assertEquals(new Integer(0), parity.getValue());
+    }
+
+    public void testThrowingListener_OtherValuesStillPropagated() throws Exception {
+        final WritableValue source = new WritableValue(new Integer(1), Integer.TYPE);
+        ComputedValue failing = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                return source.getValue();
+            }
+        };
+        ComputedValue doubled = new ComputedValue() {
+            @Override
+			protected Object calculate() {
+                return new Integer(((Integer) source.getValue()).intValue() * 2);
+            }
+        };
+        // added first, so that the failing value is propagated first
+        failing.addValueChangeListener(new IValueChangeListener() {
+            @Override
+			public void handleValueChange(ValueChangeEvent event) {
+                throw new IllegalStateException();
+            }
+        });
+        ValueChangeEventTracker tracker = ValueChangeEventTracker.observe(doubled);
+
+        try {
+            source.setValue(new Integer(2));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+        }
+        assertEquals(1, tracker.count);
+        assertEquals(new Integer(4), tracker.event.diff.getNewValue());
+
+        // both values still listen to their dependency
+        try {
+            source.setValue(new Integer(3));
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+        }
+        assertEquals(2, tracker.count);
+        assertEquals(new Integer(6), tracker.event.diff.getNewValue());
+    }
 }
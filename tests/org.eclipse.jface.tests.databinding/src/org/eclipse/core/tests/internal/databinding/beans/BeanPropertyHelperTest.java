@@ -53,4 +53,29 @@ public class BeanPropertyHelperTest extends TestCase {
 				pd.getWriteMethod());
 	}
 
+	public void testReadProperty_ManyBeansOfSameClass() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(
+				Bean.class, "value");
+		for (int i = 0; i < 10; i++) {
+			assertEquals(String.valueOf(i), BeanPropertyHelper.readProperty(
+					new Bean(String.valueOf(i)), pd));
+		}
+	}
+
+	public void testReadProperty_GetterExceptionIsWrapped() {
+		PropertyDescriptor pd = BeanPropertyHelper.getPropertyDescriptor(
+				ThrowingBean.class, "value");
+		try {
+			BeanPropertyHelper.readProperty(new ThrowingBean(), pd);
+			fail("expected RuntimeException");
+		} catch (RuntimeException expected) {
+			assertTrue(expected.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	public static class ThrowingBean {
+		public String getValue() {
+			throw new IllegalStateException();
+		}
+	}
 }
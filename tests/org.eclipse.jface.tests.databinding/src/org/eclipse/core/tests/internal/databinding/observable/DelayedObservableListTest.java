@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.Observables;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.map.IObservableMap;
+import org.eclipse.core.databinding.observable.map.MapDiff;
+import org.eclipse.core.databinding.observable.map.WritableMap;
+import org.eclipse.core.databinding.observable.set.IObservableSet;
+import org.eclipse.core.databinding.observable.set.WritableSet;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.MapChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.SetChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.StaleEventTracker;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Tests for DelayedObservableList, DelayedObservableSet and
+ * DelayedObservableMap
+ *
+ * @since 1.5
+ */
+public class DelayedObservableListTest extends AbstractDefaultRealmTestCase {
+	private WritableList target;
+	private IObservableList delayed;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		target = new WritableList();
+		delayed = Observables.observeDelayedList(1, 0, target);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		delayed.dispose();
+		delayed = null;
+		target = null;
+		super.tearDown();
+	}
+
+	public void testIsStale_DuringDelay() {
+		StaleEventTracker staleTracker = StaleEventTracker.observe(delayed);
+		ListChangeEventTracker tracker = ListChangeEventTracker
+				.observe(delayed);
+
+		target.add("a");
+		target.add("b");
+
+		assertFalse(target.isStale());
+		assertTrue(delayed.isStale());
+		assertEquals(1, staleTracker.count);
+		assertEquals(0, tracker.count);
+	}
+
+	public void testWait_FiresMergedListChange() {
+		ListChangeEventTracker tracker = ListChangeEventTracker
+				.observe(delayed);
+		List mirror = new ArrayList();
+
+		target.add("a");
+		target.add("b");
+		target.remove("a");
+		target.add(0, "c");
+
+		waitWhileStale(delayed);
+
+		assertEquals(1, tracker.count);
+		tracker.event.diff.applyTo(mirror);
+		assertEquals(target, mirror);
+	}
+
+	public void testMaxBatchSize_FiresFullBatchRightAway() {
+		// disposing the delayed list disposes its target too
+		delayed.dispose();
+		target = new WritableList();
+		delayed = Observables.observeDelayedList(60000, 2, target);
+		ListChangeEventTracker tracker = ListChangeEventTracker
+				.observe(delayed);
+
+		target.add("a");
+		assertEquals(0, tracker.count);
+		target.add("b");
+		assertEquals(1, tracker.count);
+		assertEquals(2, tracker.event.diff.getDifferences().length);
+		assertFalse(delayed.isStale());
+	}
+
+	public void testRead_FiresPendingDiffFirst() {
+		target.add("a");
+		waitWhileStale(delayed);
+		ListChangeEventTracker tracker = ListChangeEventTracker
+				.observe(delayed);
+		List mirror = new ArrayList(delayed);
+
+		target.add("b");
+		target.add(0, "c");
+		assertEquals(0, tracker.count);
+
+		List read = new ArrayList(delayed);
+
+		assertEquals(1, tracker.count);
+		assertFalse(delayed.isStale());
+		tracker.event.diff.applyTo(mirror);
+		assertEquals(read, mirror);
+
+		// nothing is left to fire once the delay has passed
+		processDisplayEvents();
+		assertEquals(1, tracker.count);
+	}
+
+	public void testSet_ChangesCancellingOutAreLeftOut() {
+		WritableSet targetSet = new WritableSet();
+		targetSet.add("a");
+		IObservableSet delayedSet = Observables.observeDelayedSet(1, 0,
+				targetSet);
+		SetChangeEventTracker tracker = SetChangeEventTracker
+				.observe(delayedSet);
+
+		targetSet.remove("a");
+		targetSet.add("b");
+		targetSet.add("a");
+
+		waitWhileStale(delayedSet);
+
+		assertEquals(1, tracker.count);
+		assertEquals(1, tracker.event.diff.getAdditions().size());
+		assertTrue(tracker.event.diff.getAdditions().contains("b"));
+		assertTrue(tracker.event.diff.getRemovals().isEmpty());
+		delayedSet.dispose();
+	}
+
+	public void testMap_FiresMergedMapChange() {
+		WritableMap targetMap = new WritableMap();
+		targetMap.put("changed", "1");
+		targetMap.put("removed", "2");
+		IObservableMap delayedMap = Observables.observeDelayedMap(1, 0,
+				targetMap);
+		MapChangeEventTracker tracker = MapChangeEventTracker
+				.observe(delayedMap);
+
+		targetMap.put("changed", "3");
+		targetMap.put("changed", "4");
+		targetMap.remove("removed");
+		targetMap.put("added", "5");
+
+		waitWhileStale(delayedMap);
+
+		assertEquals(1, tracker.count);
+		MapDiff diff = tracker.event.diff;
+		assertEquals(1, diff.getChangedKeys().size());
+		assertEquals("1", diff.getOldValue("changed"));
+		assertEquals("4", diff.getNewValue("changed"));
+		assertEquals(1, diff.getRemovedKeys().size());
+		assertEquals("2", diff.getOldValue("removed"));
+		assertEquals(1, diff.getAddedKeys().size());
+		assertEquals("5", diff.getNewValue("added"));
+		delayedMap.dispose();
+	}
+
+	public void testMap_ChangesCancellingOutAreLeftOut() {
+		WritableMap targetMap = new WritableMap();
+		targetMap.put("a", "1");
+		IObservableMap delayedMap = Observables.observeDelayedMap(1, 0,
+				targetMap);
+		MapChangeEventTracker tracker = MapChangeEventTracker
+				.observe(delayedMap);
+
+		// changed back to the original value
+		targetMap.put("a", "2");
+		targetMap.put("a", "1");
+		// added, then removed again
+		targetMap.put("b", "3");
+		targetMap.remove("b");
+
+		waitWhileStale(delayedMap);
+
+		assertEquals(1, tracker.count);
+		MapDiff diff = tracker.event.diff;
+		assertTrue(diff.getAddedKeys().isEmpty());
+		assertTrue(diff.getRemovedKeys().isEmpty());
+		assertTrue(diff.getChangedKeys().isEmpty());
+		delayedMap.dispose();
+	}
+
+	public void testMap_RemovedAndAddedAgainIsChanged() {
+		WritableMap targetMap = new WritableMap();
+		targetMap.put("a", "1");
+		targetMap.put("b", "2");
+		IObservableMap delayedMap = Observables.observeDelayedMap(1, 0,
+				targetMap);
+		MapChangeEventTracker tracker = MapChangeEventTracker
+				.observe(delayedMap);
+
+		targetMap.remove("a");
+		targetMap.put("a", "3");
+		// added back with its original value
+		targetMap.remove("b");
+		targetMap.put("b", "2");
+
+		waitWhileStale(delayedMap);
+
+		assertEquals(1, tracker.count);
+		MapDiff diff = tracker.event.diff;
+		assertTrue(diff.getAddedKeys().isEmpty());
+		assertTrue(diff.getRemovedKeys().isEmpty());
+		assertEquals(1, diff.getChangedKeys().size());
+		assertEquals("1", diff.getOldValue("a"));
+		assertEquals("3", diff.getNewValue("a"));
+		delayedMap.dispose();
+	}
+
+	public void testMap_ReadFiresPendingDiffFirst() {
+		WritableMap targetMap = new WritableMap();
+		targetMap.put("a", "1");
+		IObservableMap delayedMap = Observables.observeDelayedMap(1, 0,
+				targetMap);
+		MapChangeEventTracker tracker = MapChangeEventTracker
+				.observe(delayedMap);
+
+		targetMap.put("a", "2");
+		assertEquals(0, tracker.count);
+
+		assertEquals("2", delayedMap.get("a"));
+
+		assertEquals(1, tracker.count);
+		assertEquals("1", tracker.event.diff.getOldValue("a"));
+		assertEquals("2", tracker.event.diff.getNewValue("a"));
+		assertFalse(delayedMap.isStale());
+		processDisplayEvents();
+		assertEquals(1, tracker.count);
+		delayedMap.dispose();
+	}
+
+	public void testMap_MaxBatchSizeCountsRepeatedChanges() {
+		WritableMap targetMap = new WritableMap();
+		IObservableMap delayedMap = Observables.observeDelayedMap(60000, 2,
+				targetMap);
+		MapChangeEventTracker tracker = MapChangeEventTracker
+				.observe(delayedMap);
+
+		targetMap.put("a", "1");
+		assertEquals(0, tracker.count);
+		targetMap.put("a", "2");
+		assertEquals(1, tracker.count);
+		assertEquals(1, tracker.event.diff.getAddedKeys().size());
+		assertEquals("2", tracker.event.diff.getNewValue("a"));
+		assertFalse(delayedMap.isStale());
+		delayedMap.dispose();
+	}
+
+	private void waitWhileStale(IObservable observable) {
+		// Give plenty of time for display to run timer task
+		long timeout = System.currentTimeMillis() + 5000;
+		while (observable.isStale() && System.currentTimeMillis() < timeout) {
+			processDisplayEvents();
+		}
+	}
+
+	private void processDisplayEvents() {
+		try {
+			Thread.sleep(10);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		Display display = Display.getCurrent();
+		while (display.readAndDispatch()) {
+		}
+	}
+}
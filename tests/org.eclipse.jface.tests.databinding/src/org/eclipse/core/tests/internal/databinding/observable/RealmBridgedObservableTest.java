@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.core.tests.internal.databinding.observable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.databinding.observable.Observables;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.value.IObservableValue;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.jface.databinding.conformance.util.ListChangeEventTracker;
+import org.eclipse.jface.databinding.conformance.util.ValueChangeEventTracker;
+import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Tests for RealmBridgedObservableValue and RealmBridgedObservableList
+ *
+ * @since 1.5
+ */
+public class RealmBridgedObservableTest extends AbstractDefaultRealmTestCase {
+	private Realm modelRealm;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		modelRealm = new ModelRealm();
+	}
+
+	public void testValue_StaleUntilInitialValueArrives() {
+		WritableValue source = new WritableValue(modelRealm, "a", String.class);
+		IObservableValue bridged = Observables.bridgedObservableValue(
+				Realm.getDefault(), source);
+
+		assertTrue(bridged.isStale());
+		processDisplayEvents();
+		assertFalse(bridged.isStale());
+		assertEquals("a", bridged.getValue());
+		bridged.dispose();
+	}
+
+	public void testValue_SupersededValuesAreSkipped() {
+		WritableValue source = new WritableValue(modelRealm, "a", String.class);
+		IObservableValue bridged = Observables.bridgedObservableValue(
+				Realm.getDefault(), source);
+		processDisplayEvents();
+		ValueChangeEventTracker tracker = ValueChangeEventTracker
+				.observe(bridged);
+
+		for (int i = 0; i < 100; i++) {
+			source.setValue(String.valueOf(i));
+		}
+		assertEquals(0, tracker.count);
+
+		processDisplayEvents();
+		assertEquals(1, tracker.count);
+		assertEquals("a", tracker.event.diff.getOldValue());
+		assertEquals("99", tracker.event.diff.getNewValue());
+		assertEquals("99", bridged.getValue());
+		bridged.dispose();
+	}
+
+	public void testList_DiffsAreMerged() {
+		WritableList source = new WritableList(modelRealm);
+		source.add("a");
+		IObservableList bridged = Observables.bridgedObservableList(
+				Realm.getDefault(), source);
+		processDisplayEvents();
+		ListChangeEventTracker tracker = ListChangeEventTracker
+				.observe(bridged);
+		List mirror = new ArrayList(bridged);
+
+		for (int i = 0; i < 100; i++) {
+			source.add(new Integer(i));
+			if (i % 3 == 0)
+				source.remove(0);
+		}
+		assertEquals(0, tracker.count);
+
+		processDisplayEvents();
+		assertEquals(1, tracker.count);
+		tracker.event.diff.applyTo(mirror);
+		assertEquals(source, mirror);
+		assertEquals(source, new ArrayList(bridged));
+		bridged.dispose();
+	}
+
+	public void testDispose_RemovesSourceListener() {
+		WritableListStub source = new WritableListStub(modelRealm);
+		IObservableList bridged = Observables.bridgedObservableList(
+				Realm.getDefault(), source);
+		assertTrue(source.hasListeners());
+
+		bridged.dispose();
+		assertFalse(source.hasListeners());
+		assertFalse(source.isDisposed());
+	}
+
+	private void processDisplayEvents() {
+		Display display = Display.getCurrent();
+		while (display.readAndDispatch()) {
+		}
+	}
+
+	private static class WritableListStub extends WritableList {
+		WritableListStub(Realm realm) {
+			super(realm);
+		}
+
+		@Override
+		protected boolean hasListeners() {
+			return super.hasListeners();
+		}
+	}
+
+	/**
+	 * A realm, distinct from the display realm, whose runnables run right
+	 * away on the current thread.
+	 */
+	private static class ModelRealm extends Realm {
+		@Override
+		public boolean isCurrent() {
+			return true;
+		}
+
+		@Override
+		public void asyncExec(Runnable runnable) {
+			runnable.run();
+		}
+	}
+}
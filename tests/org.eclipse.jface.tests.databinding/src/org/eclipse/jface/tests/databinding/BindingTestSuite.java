@@ -23,6 +23,7 @@
 package org.eclipse.jface.tests.databinding;
 
 import org.eclipse.core.tests.databinding.AggregateValidationStatusTest;
+import org.eclipse.core.tests.databinding.BindingMetricsTest;
 import org.eclipse.core.tests.databinding.BindingTest;
 import org.eclipse.core.tests.databinding.DatabindingContextTest;
 import org.eclipse.core.tests.databinding.ListBindingTest;
@@ -46,8 +47,10 @@ import org.eclipse.core.tests.databinding.observable.ChangeSupportTest;
 import org.eclipse.core.tests.databinding.observable.DecoratingObservableTest;
 import org.eclipse.core.tests.databinding.observable.DiffsTest;
 import org.eclipse.core.tests.databinding.observable.Diffs_ListDiffTests;
+import org.eclipse.core.tests.databinding.observable.ListenerStatisticsTest;
 import org.eclipse.core.tests.databinding.observable.ObservableTrackerTest;
 import org.eclipse.core.tests.databinding.observable.ObservablesTest;
+import org.eclipse.core.tests.databinding.observable.RealmBatchTest;
 import org.eclipse.core.tests.databinding.observable.RealmTest;
 import org.eclipse.core.tests.databinding.observable.list.AbstractObservableListTest;
 import org.eclipse.core.tests.databinding.observable.list.ComputedListTest;
@@ -125,11 +128,13 @@ import org.eclipse.core.tests.internal.databinding.conversion.StringToNumberPars
 import org.eclipse.core.tests.internal.databinding.conversion.StringToNumberParserTest;
 import org.eclipse.core.tests.internal.databinding.conversion.StringToShortConverterTest;
 import org.eclipse.core.tests.internal.databinding.observable.ConstantObservableValueTest;
+import org.eclipse.core.tests.internal.databinding.observable.DelayedObservableListTest;
 import org.eclipse.core.tests.internal.databinding.observable.DelayedObservableValueTest;
 import org.eclipse.core.tests.internal.databinding.observable.EmptyObservableListTest;
 import org.eclipse.core.tests.internal.databinding.observable.EmptyObservableSetTest;
 import org.eclipse.core.tests.internal.databinding.observable.IdentityObservableSetTest;
 import org.eclipse.core.tests.internal.databinding.observable.MapEntryObservableValueTest;
+import org.eclipse.core.tests.internal.databinding.observable.RealmBridgedObservableTest;
 import org.eclipse.core.tests.internal.databinding.observable.StalenessObservableValueTest;
 import org.eclipse.core.tests.internal.databinding.observable.UnmodifiableObservableListTest;
 import org.eclipse.core.tests.internal.databinding.observable.UnmodifiableObservableSetTest;
@@ -245,6 +250,7 @@ public class BindingTestSuite extends TestSuite {
 
 		// org.eclipse.core.tests.databinding
 		addTestSuite(AggregateValidationStatusTest.class);
+		addTestSuite(BindingMetricsTest.class);
 		addTestSuite(BindingTest.class);
 		addTestSuite(DatabindingContextTest.class);
 		addTestSuite(ListBindingTest.class);
@@ -277,9 +283,11 @@ public class BindingTestSuite extends TestSuite {
 		addTestSuite(DecoratingObservableTest.class);
 		addTestSuite(Diffs_ListDiffTests.class);
 		addTestSuite(DiffsTest.class);
+		addTestSuite(ListenerStatisticsTest.class);
 		addTestSuite(ObservablesTest.class);
 		addTestSuite(ObservableTrackerTest.class);
 		addTestSuite(RealmTest.class);
+		addTestSuite(RealmBatchTest.class);
 
 		// org.eclipse.core.tests.databinding.observable.list
 		addTest(AbstractObservableListTest.suite());
@@ -375,6 +383,8 @@ public class BindingTestSuite extends TestSuite {
 		// org.eclipse.core.tests.internal.databinding.observable
 		addTest(ConstantObservableValueTest.suite());
 		addTest(DelayedObservableValueTest.suite());
+		addTestSuite(DelayedObservableListTest.class);
+		addTestSuite(RealmBridgedObservableTest.class);
 		addTest(EmptyObservableListTest.suite());
 		addTest(EmptyObservableSetTest.suite());
 		addTest(IdentityObservableSetTest.suite());
@@ -12,8 +12,10 @@
 
 package org.eclipse.jface.tests.databinding.viewers;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import org.eclipse.core.databinding.observable.IObservable;
 import org.eclipse.core.databinding.observable.list.IObservableList;
@@ -25,6 +27,8 @@ import org.eclipse.jface.databinding.viewers.ObservableListTreeContentProvider;
 import org.eclipse.jface.tests.databinding.AbstractDefaultRealmTestCase;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.swt.widgets.Tree;
 
@@ -167,6 +171,48 @@ public class ObservableListTreeContentProviderTest extends
 		assertEquals(Collections.EMPTY_SET, realizedElements);
 	}
 
+	public void testDisposeCollapsedChildren_DisposesChildListsOnCollapse() {
+		final Object parent = new Object();
+		final Object child = new Object();
+		final IObservableList roots = new WritableList();
+		roots.add(parent);
+		final IObservableList parentChildren = new WritableList();
+		parentChildren.add(child);
+		final List childLists = new ArrayList();
+		initContentProvider(new IObservableFactory() {
+			@Override
+			public IObservable createObservable(Object target) {
+				if (target == input)
+					return roots;
+				if (target == parent)
+					return parentChildren;
+				IObservableList list = new WritableList();
+				childLists.add(list);
+				return list;
+			}
+		});
+		contentProvider.setDisposeCollapsedChildren(true);
+		IObservableSet knownElements = contentProvider.getKnownElements();
+
+		viewer.setExpandedState(parent, true);
+		assertEquals(1, childLists.size());
+		assertTrue(knownElements.contains(child));
+
+		viewer.setExpandedState(parent, false);
+		Event event = new Event();
+		event.item = tree.getItem(0);
+		tree.notifyListeners(SWT.Collapse, event);
+		while (Display.getCurrent().readAndDispatch()) {
+		}
+
+		assertTrue(((IObservableList) childLists.get(0)).isDisposed());
+		assertFalse(knownElements.contains(child));
+
+		viewer.setExpandedState(parent, true);
+		assertEquals(2, childLists.size());
+		assertTrue(knownElements.contains(child));
+	}
+
 	static class Mutable {
 		private int id;
 
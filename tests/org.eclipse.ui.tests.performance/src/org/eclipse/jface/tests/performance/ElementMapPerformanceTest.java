@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Widget;
+import org.eclipse.ui.tests.performance.TestRunnable;
+
+/**
+ * The ElementMapPerformanceTest measures the element map of a
+ * {@link StructuredViewer} with hash lookup enabled. All elements are mapped
+ * to the same item, so that the test measures the map and not the creation of
+ * widgets. The number of elements is part of the test name, so that each size
+ * is measured as a scenario of its own.
+ */
+public class ElementMapPerformanceTest extends ViewerTest {
+
+	class TestTableViewer extends TableViewer {
+
+		public TestTableViewer(Composite parent) {
+			super(parent);
+		}
+
+		public void testMapElement(Object element, Widget item) {
+			mapElement(element, item);
+		}
+
+		public void testUnmapElement(Object element, Widget item) {
+			unmapElement(element, item);
+		}
+	}
+
+	TestTableViewer viewer;
+
+	private TestElement[] elements;
+
+	private final String methodName;
+
+	private final int elementCount;
+
+	/**
+	 * Create a new instance of the receiver.
+	 *
+	 * @param methodName
+	 *            the test method to run
+	 * @param elementCount
+	 *            the number of elements to map
+	 */
+	public ElementMapPerformanceTest(String methodName, int elementCount) {
+		super(methodName + " " + elementCount);
+		this.methodName = methodName;
+		this.elementCount = elementCount;
+	}
+
+	protected void runTest() throws Throwable {
+		if ("testMapLookupUnmap".equals(methodName)) {
+			testMapLookupUnmap();
+		} else if ("testLookup".equals(methodName)) {
+			testLookup();
+		} else {
+			fail("Unknown test method " + methodName);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.eclipse.jface.tests.performance.ViewerTest#createViewer(org.eclipse.swt.widgets.Shell)
+	 */
+	protected StructuredViewer createViewer(Shell shell) {
+		viewer = new TestTableViewer(shell);
+		viewer.setContentProvider(ArrayContentProvider.getInstance());
+		viewer.setLabelProvider(getLabelProvider());
+		return viewer;
+	}
+
+	protected Object getInitialInput() {
+		return new Object[0];
+	}
+
+	protected void doSetUp() throws Exception {
+		super.doSetUp();
+		elements = new TestElement[elementCount];
+		for (int i = 0; i < elementCount; i++) {
+			elements[i] = new TestElement(i);
+		}
+	}
+
+	protected void doTearDown() throws Exception {
+		elements = null;
+		super.doTearDown();
+	}
+
+	/**
+	 * Test the time for mapping, looking up and unmapping all elements.
+	 *
+	 * @throws Throwable
+	 */
+	public void testMapLookupUnmap() throws Throwable {
+		openBrowser();
+		final TableItem item = new TableItem(viewer.getTable(), SWT.NONE);
+
+		exercise(new TestRunnable() {
+			public void run() {
+				startMeasuring();
+				for (int i = 0; i < elements.length; i++) {
+					viewer.testMapElement(elements[i], item);
+				}
+				for (int i = 0; i < elements.length; i++) {
+					if (viewer.testFindItem(elements[i]) != item) {
+						fail("Element " + i + " is not mapped");
+					}
+				}
+				for (int i = 0; i < elements.length; i++) {
+					viewer.testUnmapElement(elements[i], item);
+				}
+				stopMeasuring();
+			}
+		}, MIN_ITERATIONS, ITERATIONS, JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Test the time for looking up mapped and unmapped elements.
+	 *
+	 * @throws Throwable
+	 */
+	public void testLookup() throws Throwable {
+		openBrowser();
+		final TableItem item = new TableItem(viewer.getTable(), SWT.NONE);
+		// map every other element so that half of the lookups miss
+		for (int i = 0; i < elements.length; i += 2) {
+			viewer.testMapElement(elements[i], item);
+		}
+
+		exercise(new TestRunnable() {
+			public void run() {
+				startMeasuring();
+				for (int i = 0; i < elements.length; i++) {
+					viewer.testFindItem(elements[i]);
+				}
+				stopMeasuring();
+			}
+		}, MIN_ITERATIONS, ITERATIONS, JFacePerformanceSuite.MAX_TIME);
+
+		commitMeasurements();
+		assertPerformance();
+	}
+}
@@ -48,6 +48,23 @@ public class JFacePerformanceSuite extends FilteredTestSuite {
 		addTest(new ProgressMonitorDialogPerformanceTest("testLongNames"));
 		addTest(new ShrinkingTreeTest("testTreeViewerRefresh"));
 		addTest(new CollatorPerformanceTest("testCollator"));
+		addTest(new ElementMapPerformanceTest("testMapLookupUnmap", 10000));
+		addTest(new ElementMapPerformanceTest("testMapLookupUnmap", 100000));
+		addTest(new ElementMapPerformanceTest("testMapLookupUnmap", 1000000));
+		addTest(new ElementMapPerformanceTest("testLookup", 10000));
+		addTest(new ElementMapPerformanceTest("testLookup", 100000));
+		addTest(new ElementMapPerformanceTest("testLookup", 1000000));
+		addTest(new LazySortedCollectionPerformanceTest("testInsertRate"));
+		addTest(new LazySortedCollectionPerformanceTest("testVisibleWindow"));
+		addTest(new LazySortedCollectionPerformanceTest("testSortAll"));
+		addTest(new ListDiffPerformanceTest("testAppend"));
+		addTest(new ListDiffPerformanceTest("testShuffle"));
+		addTest(new ListDiffPerformanceTest("testReplaceAll"));
+		addTest(new ObservableEventPerformanceTest("testNoListeners"));
+		addTest(new ObservableEventPerformanceTest("testOneListener"));
+		addTest(new ObservableEventPerformanceTest("testTenListeners"));
+		addTest(new ObservableTreeContentProviderPerformanceTest("testExpandCollapse"));
+		addTest(new ObservableTreeContentProviderPerformanceTest("testExpandCollapseDisposingCollapsedChildren"));
 
 	}
 }
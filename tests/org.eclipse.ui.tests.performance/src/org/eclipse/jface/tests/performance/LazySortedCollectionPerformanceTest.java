@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import org.eclipse.jface.viewers.deferred.LazySortedCollection;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures the {@link LazySortedCollection} that backs deferred tables, fed
+ * with a stream of log-like entries.
+ *
+ * @since 3.11
+ */
+public class LazySortedCollectionPerformanceTest extends BasicPerformanceTest {
+
+	private static final int ELEMENT_COUNT = 1000000;
+
+	private static final int BATCH_SIZE = 10000;
+
+	private static final int WINDOW_SIZE = 50;
+
+	private static String[] fEntries;
+
+	private static final Comparator<Object> COMPARATOR = new Comparator<Object>() {
+		public int compare(Object o1, Object o2) {
+			return ((String) o1).compareTo((String) o2);
+		}
+	};
+
+	/**
+	 * @param testName
+	 */
+	public LazySortedCollectionPerformanceTest(String testName) {
+		super(testName);
+		generateEntries();
+	}
+
+	/**
+	 * Test the sustained insert rate: entries arrive in batches, and after
+	 * every batch the first rows of the table are computed, as
+	 * BackgroundContentProvider does.
+	 */
+	public void testInsertRate() {
+		Object[] window = new Object[WINDOW_SIZE];
+		for (int i = 0; i < 5; i++) {
+			LazySortedCollection collection = new LazySortedCollection(
+					COMPARATOR);
+			startMeasuring();
+			for (int start = 0; start < fEntries.length; start += BATCH_SIZE) {
+				Object[] batch = new Object[Math.min(BATCH_SIZE,
+						fEntries.length - start)];
+				System.arraycopy(fEntries, start, batch, 0, batch.length);
+				collection.addAll(batch);
+				collection.getFirst(window, true);
+			}
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Test the latency of computing a window of rows in the middle of the
+	 * table after all entries have been added.
+	 */
+	public void testVisibleWindow() {
+		Object[] window = new Object[WINDOW_SIZE];
+		for (int i = 0; i < 10; i++) {
+			LazySortedCollection collection = new LazySortedCollection(
+					COMPARATOR);
+			collection.addAll(fEntries);
+			startMeasuring();
+			collection.getRange(window, fEntries.length / 2, true);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Test sorting all entries, which is done in parallel.
+	 */
+	public void testSortAll() {
+		for (int i = 0; i < 5; i++) {
+			LazySortedCollection collection = new LazySortedCollection(
+					COMPARATOR);
+			collection.setParallelThreshold(8192);
+			collection.addAll(fEntries);
+			Object[] all = new Object[fEntries.length];
+			startMeasuring();
+			collection.getFirst(all, true);
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static void generateEntries() {
+		if (fEntries == null) {
+			Random random = new Random(17);
+			fEntries = new String[ELEMENT_COUNT];
+			for (int i = 0; i < ELEMENT_COUNT; i++) {
+				fEntries[i] = "2015-06-" + (10 + random.nextInt(20)) + " "
+						+ random.nextInt(100000) + " entry " + i;
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.core.databinding.observable.Diffs;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures {@link Diffs#computeListDiff(List, List)} on the kinds of changes
+ * a <code>WritableList</code> sees when its contents are replaced.
+ *
+ * @since 3.11
+ */
+public class ListDiffPerformanceTest extends BasicPerformanceTest {
+
+	private static final int ELEMENT_COUNT = 50000;
+
+	private List<Object> fElements;
+
+	/**
+	 * @param testName
+	 */
+	public ListDiffPerformanceTest(String testName) {
+		super(testName);
+		fElements = new ArrayList<Object>(ELEMENT_COUNT);
+		for (int i = 0; i < ELEMENT_COUNT; i++) {
+			fElements.add("element " + i);
+		}
+	}
+
+	/**
+	 * Test a list that grows at the end, with a few elements inserted
+	 * elsewhere.
+	 */
+	public void testAppend() {
+		List<Object> newList = new ArrayList<Object>(fElements);
+		for (int i = 0; i < ELEMENT_COUNT / 10; i++) {
+			newList.add("appended " + i);
+		}
+		newList.add(ELEMENT_COUNT / 2, "inserted");
+		measure(newList);
+	}
+
+	/**
+	 * Test a list whose elements are all kept but reordered.
+	 */
+	public void testShuffle() {
+		List<Object> newList = new ArrayList<Object>(fElements);
+		Collections.shuffle(newList, new Random(17));
+		measure(newList);
+	}
+
+	/**
+	 * Test a list whose elements are all replaced by new ones.
+	 */
+	public void testReplaceAll() {
+		List<Object> newList = new ArrayList<Object>(ELEMENT_COUNT);
+		for (int i = 0; i < ELEMENT_COUNT; i++) {
+			newList.add("replacement " + i);
+		}
+		measure(newList);
+	}
+
+	private void measure(List<Object> newList) {
+		for (int i = 0; i < 10; i++) {
+			startMeasuring();
+			// getDifferences forces the computation of the diff
+			Diffs.computeListDiff(fElements, newList).getDifferences();
+			stopMeasuring();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
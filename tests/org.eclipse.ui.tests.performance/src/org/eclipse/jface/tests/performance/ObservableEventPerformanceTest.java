@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import org.eclipse.core.databinding.observable.ChangeEvent;
+import org.eclipse.core.databinding.observable.IChangeListener;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.value.IValueChangeListener;
+import org.eclipse.core.databinding.observable.value.ValueChangeEvent;
+import org.eclipse.core.databinding.observable.value.WritableValue;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures the throughput of observable change notifications for different
+ * numbers of listeners.
+ *
+ * @since 3.11
+ */
+public class ObservableEventPerformanceTest extends BasicPerformanceTest {
+
+	private static final int FIRE_COUNT = 1000000;
+
+	private int notifications;
+
+	/**
+	 * @param testName
+	 */
+	public ObservableEventPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Test firing without listeners.
+	 */
+	public void testNoListeners() {
+		measure(0);
+	}
+
+	/**
+	 * Test firing to a single listener of each type.
+	 */
+	public void testOneListener() {
+		measure(1);
+	}
+
+	/**
+	 * Test firing to many listeners of each type.
+	 */
+	public void testTenListeners() {
+		measure(10);
+	}
+
+	private void measure(final int listenerCount) {
+		Realm.runWithDefault(new CurrentThreadRealm(), new Runnable() {
+			@Override
+			public void run() {
+				WritableValue value = new WritableValue(new Integer(-1),
+						Integer.class);
+				for (int i = 0; i < listenerCount; i++) {
+					value.addChangeListener(new IChangeListener() {
+						@Override
+						public void handleChange(ChangeEvent event) {
+							notifications++;
+						}
+					});
+					value.addValueChangeListener(new IValueChangeListener() {
+						@Override
+						public void handleValueChange(ValueChangeEvent event) {
+							notifications++;
+						}
+					});
+				}
+				Integer[] values = new Integer[FIRE_COUNT];
+				for (int i = 0; i < FIRE_COUNT; i++) {
+					values[i] = new Integer(i);
+				}
+				for (int j = 0; j < 10; j++) {
+					startMeasuring();
+					for (int i = 0; i < FIRE_COUNT; i++) {
+						value.setValue(values[i]);
+					}
+					stopMeasuring();
+				}
+			}
+		});
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	private static class CurrentThreadRealm extends Realm {
+		@Override
+		public boolean isCurrent() {
+			return true;
+		}
+	}
+}
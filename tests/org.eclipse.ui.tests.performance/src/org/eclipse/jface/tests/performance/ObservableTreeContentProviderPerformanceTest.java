@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ ******************************************************************************/
+
+package org.eclipse.jface.tests.performance;
+
+import org.eclipse.core.databinding.observable.IObservable;
+import org.eclipse.core.databinding.observable.Realm;
+import org.eclipse.core.databinding.observable.list.IObservableList;
+import org.eclipse.core.databinding.observable.list.WritableList;
+import org.eclipse.core.databinding.observable.masterdetail.IObservableFactory;
+import org.eclipse.jface.databinding.swt.DisplayRealm;
+import org.eclipse.jface.databinding.viewers.ObservableListTreeContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.ui.tests.performance.BasicPerformanceTest;
+
+/**
+ * Measures browsing a tree of about 100,000 elements bound with an
+ * {@link ObservableListTreeContentProvider}: every group is expanded, has a
+ * child added through its observable list, and is collapsed again.
+ *
+ * @since 3.11
+ */
+public class ObservableTreeContentProviderPerformanceTest extends
+		BasicPerformanceTest {
+
+	private static final int GROUP_COUNT = 100;
+
+	private static final int GROUP_SIZE = 1000;
+
+	private Shell shell;
+
+	/**
+	 * @param testName
+	 */
+	public ObservableTreeContentProviderPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Test with the child lists of collapsed groups kept.
+	 */
+	public void testExpandCollapse() {
+		measure(false);
+	}
+
+	/**
+	 * Test with the child lists of collapsed groups disposed.
+	 */
+	public void testExpandCollapseDisposingCollapsedChildren() {
+		measure(true);
+	}
+
+	private void measure(final boolean disposeCollapsedChildren) {
+		final Display display = Display.getCurrent();
+		Realm.runWithDefault(DisplayRealm.getRealm(display), new Runnable() {
+			@Override
+			public void run() {
+				for (int j = 0; j < 5; j++) {
+					shell = new Shell(display);
+					shell.setLayout(new FillLayout());
+					TreeViewer viewer = new TreeViewer(shell);
+					viewer.setUseHashlookup(true);
+					ObservableListTreeContentProvider contentProvider = new ObservableListTreeContentProvider(
+							new TreeFactory(), null);
+					contentProvider
+							.setDisposeCollapsedChildren(disposeCollapsedChildren);
+					viewer.setContentProvider(contentProvider);
+					viewer.setLabelProvider(new LabelProvider());
+					viewer.setInput(new Node(-1, null));
+					shell.open();
+					processEvents();
+
+					startMeasuring();
+					TreeItem[] items = viewer.getTree().getItems();
+					for (int i = 0; i < items.length; i++) {
+						Node group = (Node) items[i].getData();
+						viewer.setExpandedState(group, true);
+						group.children.add(new Node(GROUP_SIZE, group));
+						viewer.setExpandedState(group, false);
+						Event event = new Event();
+						event.item = items[i];
+						viewer.getTree().notifyListeners(SWT.Collapse, event);
+						processEvents();
+					}
+					stopMeasuring();
+
+					shell.dispose();
+					shell = null;
+				}
+			}
+		});
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		if (shell != null) {
+			shell.dispose();
+			shell = null;
+		}
+		super.doTearDown();
+	}
+
+	private static class Node {
+		final int index;
+		final Node parent;
+		IObservableList children;
+
+		Node(int index, Node parent) {
+			this.index = index;
+			this.parent = parent;
+		}
+
+		@Override
+		public String toString() {
+			return parent == null ? String.valueOf(index) : parent + "."
+					+ index;
+		}
+	}
+
+	private static class TreeFactory implements IObservableFactory {
+		@Override
+		public IObservable createObservable(Object target) {
+			Node node = (Node) target;
+			int size;
+			if (node.parent == null) {
+				size = node.index < 0 ? GROUP_COUNT : GROUP_SIZE;
+			} else {
+				size = 0;
+			}
+			IObservableList children = new WritableList();
+			for (int i = 0; i < size; i++) {
+				children.add(new Node(i, node.index < 0 ? null : node));
+			}
+			node.children = children;
+			return children;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ui.tests.performance;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.eclipse.e4.ui.css.core.engine.CSSEngine;
+import org.eclipse.e4.ui.css.swt.dom.WidgetElement;
+import org.eclipse.e4.ui.css.swt.engine.CSSSWTEngineImpl;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Label;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * Measures styling a shell of 5000 labels and buttons with the CSS engine,
+ * with a new engine each time and with one engine styling the shell again.
+ *
+ * @since 3.11
+ */
+public class CSSStylingPerformanceTest extends BasicPerformanceTest {
+
+	private static final int PANELS = 50;
+
+	private static final int WIDGETS_PER_PANEL = 100;
+
+	private static final int ITERATIONS = 10;
+
+	private static final String STYLE_SHEET = "Label { color: #FF0000; background-color: #0000FF }\n"
+			+ "Button { color: #0000FF }\n"
+			+ ".odd { background-color: #00FF00 }\n"
+			+ "Composite Label.odd { font-weight: bold }";
+
+	private Shell shell;
+
+	/**
+	 * @param testName
+	 */
+	public CSSStylingPerformanceTest(String testName) {
+		super(testName);
+	}
+
+	/**
+	 * Test styling the shell with a new engine, which has to look up the
+	 * property handlers and convert the values first.
+	 */
+	public void testStyleWithNewEngine() throws IOException {
+		createLargeShell();
+		for (int i = 0; i < ITERATIONS; i++) {
+			CSSEngine engine = createEngine();
+			processEvents();
+			startMeasuring();
+			engine.applyStyles(shell, true);
+			stopMeasuring();
+			engine.dispose();
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	/**
+	 * Test styling the shell again with the same engine.
+	 */
+	public void testStyleAgain() throws IOException {
+		createLargeShell();
+		CSSEngine engine = createEngine();
+		engine.applyStyles(shell, true);
+		for (int i = 0; i < ITERATIONS; i++) {
+			processEvents();
+			startMeasuring();
+			engine.applyStyles(shell, true);
+			stopMeasuring();
+		}
+		engine.dispose();
+		commitMeasurements();
+		assertPerformance();
+	}
+
+	@Override
+	protected void doTearDown() throws Exception {
+		if (shell != null) {
+			shell.dispose();
+			shell = null;
+		}
+		super.doTearDown();
+	}
+
+	private CSSEngine createEngine() throws IOException {
+		CSSEngine engine = new CSSSWTEngineImpl(Display.getCurrent());
+		engine.parseStyleSheet(new StringReader(STYLE_SHEET));
+		return engine;
+	}
+
+	private void createLargeShell() {
+		shell = new Shell(Display.getCurrent(), SWT.SHELL_TRIM);
+		shell.setLayout(new FillLayout());
+		for (int i = 0; i < PANELS; i++) {
+			Composite panel = new Composite(shell, SWT.NONE);
+			panel.setLayout(new FillLayout());
+			for (int j = 0; j < WIDGETS_PER_PANEL; j++) {
+				Control control = j % 2 == 0 ? new Label(panel, SWT.NONE)
+						: new Button(panel, SWT.NONE);
+				if (j % 4 < 2) {
+					WidgetElement.setCSSClass(control, "odd");
+				}
+			}
+		}
+	}
+}
@@ -36,5 +36,6 @@ public class UIPerformanceTestSuite extends FilteredTestSuite {
         addTest(new EditorPerformanceSuite());
         addTest(new TestSuite(CommandsPerformanceTest.class));
 		addTest(new LabelProviderTestSuite());
+		addTest(new TestSuite(CSSStylingPerformanceTest.class));
     }
 }
@@ -27,5 +27,6 @@ public class AllTests extends TestSuite {
         addTestSuite(ImageRegistryTest.class);
         addTestSuite(ResourceManagerTest.class);
         addTestSuite(FileImageDescriptorTest.class);
+        addTestSuite(DecorationOverlayIconTest.class);
     }
 }
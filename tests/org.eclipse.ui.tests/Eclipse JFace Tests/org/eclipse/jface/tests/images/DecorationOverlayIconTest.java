@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.images;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.resource.CompositeImageDescriptor;
+import org.eclipse.jface.resource.ImageDescriptor;
+import org.eclipse.jface.viewers.DecorationOverlayIcon;
+import org.eclipse.jface.viewers.IDecoration;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Tests that equal {@link DecorationOverlayIcon}s share their image data.
+ */
+public class DecorationOverlayIconTest extends TestCase {
+
+	private Image base;
+
+	private ImageDescriptor overlay;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		CompositeImageDescriptor.clearCache();
+		base = new Image(Display.getCurrent(), createImageData(16, new RGB(0,
+				0, 255)));
+		overlay = ImageDescriptor.createFromImageData(createImageData(7,
+				new RGB(255, 0, 0)));
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		base.dispose();
+		CompositeImageDescriptor.clearCache();
+		super.tearDown();
+	}
+
+	private static ImageData createImageData(int size, RGB color) {
+		return new ImageData(size, size, 1, new PaletteData(
+				new RGB[] { color }));
+	}
+
+	public void testEqualIconsShareImageData() {
+		ImageData first = new DecorationOverlayIcon(base, overlay,
+				IDecoration.TOP_LEFT).getImageData();
+		assertEquals(0, CompositeImageDescriptor.getCacheHitCount());
+		assertEquals(1, CompositeImageDescriptor.getCacheMissCount());
+
+		ImageData second = new DecorationOverlayIcon(base, overlay,
+				IDecoration.TOP_LEFT).getImageData();
+		assertEquals(1, CompositeImageDescriptor.getCacheHitCount());
+		assertEquals(1, CompositeImageDescriptor.getCacheMissCount());
+
+		// every caller owns its copy of the image data
+		assertNotSame(first, second);
+		assertTrue(Arrays.equals(first.data, second.data));
+	}
+
+	public void testDifferentIconsDoNotShareImageData() {
+		new DecorationOverlayIcon(base, overlay, IDecoration.TOP_LEFT)
+				.getImageData();
+		new DecorationOverlayIcon(base, overlay, IDecoration.BOTTOM_RIGHT)
+				.getImageData();
+		ImageDescriptor[] overlays = new ImageDescriptor[] { overlay, null,
+				null, null, null };
+		new DecorationOverlayIcon(base, overlays, new Point(20, 20))
+				.getImageData();
+
+		assertEquals(0, CompositeImageDescriptor.getCacheHitCount());
+		assertEquals(3, CompositeImageDescriptor.getCacheMissCount());
+	}
+}
@@ -286,4 +286,85 @@ public class ResourceManagerTest extends TestCase {
     	// Destroy the resource we created
     	globalResourceManager.destroy(descriptor);
     }
+
+    public void testUnreferencedResourcesAreCached() throws Exception {
+        globalResourceManager.setCacheSize(2);
+
+        allocateResources(globalResourceManager, new int[] {0, 2, 4, 5});
+        deallocateResources(globalResourceManager, new int[] {0, 2, 4, 5});
+
+        // Only the two most recently released resources are kept
+        Assert.assertEquals(2, TestDescriptor.refCount);
+        assertNull("Unreferenced resources should not be found",
+                globalResourceManager.find(descriptors[5]));
+
+        // Creating a kept resource again does not allocate it
+        allocateResources(globalResourceManager, new int[] {5});
+        Assert.assertEquals(2, TestDescriptor.refCount);
+        deallocateResources(globalResourceManager, new int[] {5});
+
+        globalResourceManager.setCacheSize(0);
+        Assert.assertEquals(0, TestDescriptor.refCount);
+    }
+
+    public void testCreateFromBackgroundThread() throws Exception {
+        final Display display = Display.getCurrent();
+        final Object[] result = new Object[2];
+        Thread thread = new Thread() {
+            @Override
+			public void run() {
+                try {
+                    result[0] = globalResourceManager.create(descriptors[0]);
+                    result[1] = globalResourceManager.create(descriptors[12]);
+                } catch (RuntimeException e) {
+                    result[0] = e;
+                }
+                display.wake();
+            }
+        };
+        thread.start();
+
+        // The allocations run on the display thread
+        long end = System.currentTimeMillis() + 10000;
+        while (thread.isAlive() && System.currentTimeMillis() < end) {
+            if (!display.readAndDispatch()) {
+                display.sleep();
+            }
+        }
+        thread.join(1000);
+
+        validateResource(result[0]);
+        Assert.assertTrue(result[0] instanceof Image);
+        Assert.assertTrue(result[1] instanceof Color);
+        Assert.assertSame(result[0], globalResourceManager.find(descriptors[0]));
+        Assert.assertEquals(2, TestDescriptor.refCount);
+
+        deallocateResources(globalResourceManager, new int[] {0, 12});
+        Assert.assertEquals(0, TestDescriptor.refCount);
+    }
+    public void testDestroyFromBackgroundThread() throws Exception {
+        Display display = Display.getCurrent();
+        final Image image = (Image) globalResourceManager.create(descriptors[0]);
+        Thread thread = new Thread() {
+            @Override
+			public void run() {
+                globalResourceManager.destroy(descriptors[0]);
+            }
+        };
+        thread.start();
+        thread.join(10000);
+
+        // The image is disposed on the display thread
+        Assert.assertFalse(thread.isAlive());
+        Assert.assertFalse(image.isDisposed());
+        Assert.assertEquals(1, TestDescriptor.refCount);
+        long end = System.currentTimeMillis() + 10000;
+        while (!image.isDisposed() && System.currentTimeMillis() < end) {
+            if (!display.readAndDispatch()) {
+                display.sleep();
+            }
+        }
+        Assert.assertTrue(image.isDisposed());
+        Assert.assertEquals(0, TestDescriptor.refCount);
+    }
 }
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.labelProviders;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.BackgroundStyledCellLabelProvider;
+import org.eclipse.jface.viewers.DelegatingStyledCellLabelProvider.IStyledLabelProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.LabelProviderChangedEvent;
+import org.eclipse.jface.viewers.StyledString;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+
+/**
+ * Tests that a {@link BackgroundStyledCellLabelProvider} first shows its
+ * placeholder and then the labels computed on a worker thread.
+ */
+public class BackgroundStyledCellLabelProviderTest extends TestCase {
+
+	private static final String[] INPUT = { "one", "two", "three" };
+
+	private class SlowLabelProvider extends LabelProvider implements
+			IStyledLabelProvider {
+
+		volatile String suffix = "";
+
+		volatile Thread thread;
+
+		@Override
+		public StyledString getStyledText(Object element) {
+			thread = Thread.currentThread();
+			return new StyledString(element + suffix);
+		}
+
+		void changeSuffix(String newSuffix) {
+			suffix = newSuffix;
+			fireLabelProviderChanged(new LabelProviderChangedEvent(this));
+		}
+	}
+
+	private Shell shell;
+
+	private TableViewer viewer;
+
+	private SlowLabelProvider labelProvider;
+
+	@Override
+	protected void setUp() throws Exception {
+		shell = new Shell();
+		shell.setLayout(new FillLayout());
+		shell.setSize(300, 300);
+		viewer = new TableViewer(shell, SWT.NONE);
+		viewer.setContentProvider(ArrayContentProvider.getInstance());
+		labelProvider = new SlowLabelProvider();
+		viewer.setLabelProvider(new BackgroundStyledCellLabelProvider(
+				labelProvider) {
+			@Override
+			protected StyledString getPlaceholderText(Object element) {
+				return new StyledString("...");
+			}
+		});
+		shell.open();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		shell.close();
+	}
+
+	public void testPlaceholderThenLabel() {
+		viewer.setInput(INPUT);
+		assertEquals("...", viewer.getTable().getItem(0).getText());
+
+		waitForText(0, "one");
+		waitForText(2, "three");
+		assertNotSame(Display.getCurrent().getThread(), labelProvider.thread);
+	}
+
+	public void testLabelProviderChange() {
+		viewer.setInput(INPUT);
+		waitForText(1, "two");
+
+		labelProvider.changeSuffix("!");
+		waitForText(1, "two!");
+	}
+
+	private void waitForText(int index, String expected) {
+		Table table = viewer.getTable();
+		Display display = table.getDisplay();
+		long end = System.currentTimeMillis() + 5000;
+		while (!expected.equals(table.getItem(index).getText())
+				&& System.currentTimeMillis() < end) {
+			if (!display.readAndDispatch()) {
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					// keep waiting
+				}
+			}
+		}
+		assertEquals(expected, table.getItem(index).getText());
+	}
+}
@@ -31,5 +31,6 @@ public class DecoratingLabelProviderTests extends TestSuite {
         addTestSuite(ColorAndFontViewerLabelProviderTest.class);
         addTestSuite(DecoratingStyledCellLabelProviderTest.class);
         addTestSuite(IDecorationContextTest.class);
+        addTestSuite(BackgroundStyledCellLabelProviderTest.class);
     }
 }
@@ -37,6 +37,7 @@ public class AllTests extends TestSuite {
 		addTestSuite(TreeViewerColumnTest.class);
 		addTestSuite(VirtualTableViewerTest.class);
 		addTestSuite(VirtualLazyTableViewerTest.class);
+		addTestSuite(VirtualPrefetchTableViewerTest.class);
 		addTestSuite(TableTreeViewerTest.class);
 		addTestSuite(TableColorProviderTest.class);
 		addTestSuite(TableFontProviderTest.class);
@@ -67,5 +68,8 @@ public class AllTests extends TestSuite {
 		addTestSuite(Bug242231Test.class);
 		addTestSuite(StyledStringBuilderTest.class);
 		addTestSuite(TreeManagerTest.class);
+		addTestSuite(TreeViewerDeltaTest.class);
+		addTestSuite(ParallelSortAndFilterTest.class);
+		addTestSuite(ElementMapTest.class);
 	}
 }
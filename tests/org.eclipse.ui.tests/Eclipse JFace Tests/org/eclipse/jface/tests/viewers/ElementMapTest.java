@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.IElementComparer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * Tests the element map of a {@link TableViewer} with hash lookup enabled,
+ * through the viewer's methods mapping elements to items.
+ */
+public class ElementMapTest extends TestCase {
+
+	private static final int ITEM_COUNT = 64;
+
+	static class MappingTableViewer extends TableViewer {
+
+		MappingTableViewer(Composite parent) {
+			super(parent);
+		}
+
+		void map(Object element, Widget item) {
+			mapElement(element, item);
+		}
+
+		void unmap(Object element) {
+			unmapElement(element);
+		}
+
+		void unmap(Object element, Widget item) {
+			unmapElement(element, item);
+		}
+
+		Widget[] find(Object element) {
+			return findItems(element);
+		}
+	}
+
+	/**
+	 * An element whose hash code collides with those of many other elements.
+	 */
+	static class CollidingElement {
+
+		final int id;
+
+		CollidingElement(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id % 7;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof CollidingElement
+					&& ((CollidingElement) obj).id == id;
+		}
+
+		@Override
+		public String toString() {
+			return "Element " + id; //$NON-NLS-1$
+		}
+	}
+
+	private Shell shell;
+
+	private MappingTableViewer viewer;
+
+	private TableItem[] items;
+
+	@Override
+	protected void setUp() throws Exception {
+		shell = new Shell();
+		viewer = new MappingTableViewer(shell);
+		viewer.setContentProvider(ArrayContentProvider.getInstance());
+		viewer.setUseHashlookup(true);
+		items = new TableItem[ITEM_COUNT];
+		for (int i = 0; i < items.length; i++) {
+			items[i] = new TableItem(viewer.getTable(), SWT.NONE);
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		shell.close();
+	}
+
+	public void testCollidingHashes() {
+		Map<Object, Widget> expected = new HashMap<Object, Widget>();
+		Random random = new Random(4711);
+		// enough elements for the map to grow several times
+		for (int round = 0; round < 20000; round++) {
+			CollidingElement element = new CollidingElement(random.nextInt(500));
+			if (random.nextInt(3) == 0) {
+				viewer.unmap(element);
+				expected.remove(element);
+			} else {
+				TableItem item = items[random.nextInt(items.length)];
+				// replace rather than add an item
+				viewer.unmap(element);
+				viewer.map(element, item);
+				expected.put(element, item);
+			}
+			if (round % 1000 == 0) {
+				assertMapping(expected, 500);
+			}
+		}
+		assertMapping(expected, 500);
+	}
+
+	public void testRemoveShiftsCollidingElementsBack() {
+		CollidingElement[] elements = new CollidingElement[200];
+		for (int i = 0; i < elements.length; i++) {
+			// all elements have the same hash code
+			elements[i] = new CollidingElement(i * 7);
+			viewer.map(elements[i], items[i % items.length]);
+		}
+		// remove from the start, the middle and the end of the probe sequence
+		for (int i = 0; i < elements.length; i += 3) {
+			viewer.unmap(elements[i]);
+		}
+		for (int i = 0; i < elements.length; i++) {
+			Widget[] found = viewer.find(new CollidingElement(i * 7));
+			if (i % 3 == 0) {
+				assertEquals(0, found.length);
+			} else {
+				assertEquals(1, found.length);
+				assertSame(items[i % items.length], found[0]);
+			}
+		}
+	}
+
+	public void testMultipleItems() {
+		CollidingElement element = new CollidingElement(1);
+		viewer.map(element, items[0]);
+		viewer.map(element, items[1]);
+		viewer.map(element, items[2]);
+		assertEquals(3, viewer.find(element).length);
+
+		viewer.unmap(element, items[1]);
+		Widget[] found = viewer.find(element);
+		assertEquals(2, found.length);
+		assertSame(items[0], found[0]);
+		assertSame(items[2], found[1]);
+
+		viewer.unmap(element, items[0]);
+		viewer.unmap(element, items[2]);
+		assertEquals(0, viewer.find(element).length);
+	}
+
+	public void testComparer() {
+		viewer.map("Element", items[0]); //$NON-NLS-1$
+		assertEquals(0, viewer.find("ELEMENT").length); //$NON-NLS-1$
+
+		// the existing mappings are kept when the comparer changes
+		viewer.setComparer(new IElementComparer() {
+			@Override
+			public boolean equals(Object a, Object b) {
+				return ((String) a).equalsIgnoreCase((String) b);
+			}
+
+			@Override
+			public int hashCode(Object element) {
+				return ((String) element).toLowerCase().hashCode();
+			}
+		});
+		Widget[] found = viewer.find("ELEMENT"); //$NON-NLS-1$
+		assertEquals(1, found.length);
+		assertSame(items[0], found[0]);
+
+		viewer.map("eLeMeNt", items[1]); //$NON-NLS-1$
+		assertEquals(2, viewer.find("element").length); //$NON-NLS-1$
+
+		viewer.unmap("ELEMENT"); //$NON-NLS-1$
+		assertEquals(0, viewer.find("Element").length); //$NON-NLS-1$
+	}
+
+	private void assertMapping(Map<Object, Widget> expected, int maxId) {
+		for (int id = 0; id < maxId; id++) {
+			CollidingElement element = new CollidingElement(id);
+			Widget[] found = viewer.find(element);
+			Widget item = expected.get(element);
+			if (item == null) {
+				assertEquals(element.toString(), 0, found.length);
+			} else {
+				assertEquals(element.toString(), 1, found.length);
+				assertSame(element.toString(), item, found[0]);
+			}
+		}
+	}
+}
@@ -11,7 +11,9 @@
 package org.eclipse.jface.tests.viewers;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Random;
 import java.util.TreeSet;
 
 import junit.framework.Assert;
@@ -295,6 +297,67 @@ public class LazySortedCollectionTest extends TestCase {
                 comparisons, comparator.comparisons);
     }
 
+    /**
+     * Ensure that large sorted ranges, which are sorted in parallel, are correct
+     */
+    public void testSortLargeRange() {
+        Comparator naturalOrder = new Comparator() {
+            @Override
+			public int compare(Object o1, Object o2) {
+                return ((String) o1).compareTo((String) o2);
+            }
+        };
+        LazySortedCollection large = new LazySortedCollection(naturalOrder);
+        large.setParallelThreshold(8192);
+        Random random = new Random(4711);
+        String[] expected = new String[50000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = "e" + random.nextInt() + " " + i;
+        }
+        large.addAll(expected);
+        Arrays.sort(expected, naturalOrder);
+
+        Object[] result = new Object[expected.length];
+        Assert.assertEquals(expected.length, large.getFirst(result, true));
+        Assert.assertTrue(Arrays.equals(expected, result));
+
+        large.remove(expected[0]);
+        result = new Object[20000];
+        Assert.assertEquals(result.length, large.getRange(result, 10000, true));
+        Object[] expectedRange = new Object[result.length];
+        System.arraycopy(expected, 10001, expectedRange, 0, result.length);
+        Assert.assertTrue(Arrays.equals(expectedRange, result));
+    }
+
+    /**
+     * Ensure that the comparator is only called from the calling thread unless
+     * parallel sorting is enabled
+     */
+    public void testParallelSortIsOptIn() {
+        final Thread caller = Thread.currentThread();
+        final boolean[] otherThread = new boolean[1];
+        Comparator naturalOrder = new Comparator() {
+            @Override
+			public int compare(Object o1, Object o2) {
+                if (Thread.currentThread() != caller) {
+                    otherThread[0] = true;
+                }
+                return ((String) o1).compareTo((String) o2);
+            }
+        };
+        LazySortedCollection large = new LazySortedCollection(naturalOrder);
+        Assert.assertEquals(0, large.getParallelThreshold());
+        String[] elements = new String[50000];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = "e" + (i * 7919 % elements.length);
+        }
+        large.addAll(elements);
+
+        Object[] result = new Object[elements.length];
+        Assert.assertEquals(elements.length, large.getFirst(result, true));
+        Assert.assertFalse(otherThread[0]);
+    }
+
     /**
      * Tests LazySortedCollection.removeNode(int) when removing a leaf node
      */
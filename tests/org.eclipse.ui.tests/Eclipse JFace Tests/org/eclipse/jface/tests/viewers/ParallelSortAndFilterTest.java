@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.viewers.ArrayContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Table;
+
+/**
+ * Tests that parallel filtering and sorting of a {@link TableViewer} yields
+ * the same items as sequential processing.
+ */
+public class ParallelSortAndFilterTest extends TestCase {
+
+	private static final int COUNT = 5000;
+
+	private Shell shell;
+
+	private TableViewer viewer;
+
+	private List input;
+
+	@Override
+	protected void setUp() throws Exception {
+		shell = new Shell();
+		viewer = new TableViewer(shell, SWT.MULTI);
+		viewer.setContentProvider(ArrayContentProvider.getInstance());
+		viewer.setLabelProvider(new LabelProvider());
+
+		input = new ArrayList(COUNT);
+		Random random = new Random(4711);
+		for (int i = 0; i < COUNT; i++) {
+			input.add("Element " + random.nextInt(COUNT * 10) + " " + i);
+		}
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		shell.close();
+	}
+
+	public void testParallelSortMatchesSequentialSort() {
+		viewer.setComparator(new ViewerComparator());
+		viewer.setInput(input);
+		String[] sequential = getItemTexts();
+
+		viewer.setParallelThreshold(100);
+		Collections.shuffle(input, new Random(42));
+		viewer.refresh();
+
+		assertEquals(COUNT, viewer.getTable().getItemCount());
+		assertTrue(Arrays.equals(sequential, getItemTexts()));
+	}
+
+	public void testParallelFilterKeepsOrder() {
+		viewer.addFilter(new ViewerFilter() {
+			@Override
+			public boolean select(Viewer v, Object parentElement,
+					Object element) {
+				return ((String) element).hashCode() % 3 != 0;
+			}
+		});
+		viewer.setInput(input);
+		String[] sequential = getItemTexts();
+
+		viewer.setParallelThreshold(100);
+		viewer.refresh();
+
+		assertTrue(Arrays.equals(sequential, getItemTexts()));
+	}
+
+	public void testConcurrentSortsKeepTheirOwnSortKeys() throws Exception {
+		final Integer[] elements = new Integer[100];
+		for (int i = 0; i < elements.length; i++) {
+			elements[i] = Integer.valueOf(i);
+		}
+		final Object[] otherElements = elements.clone();
+		final Thread[] other = new Thread[1];
+		final boolean[] started = new boolean[1];
+		// the other thread labels the elements in reverse order
+		viewer.setLabelProvider(new LabelProvider() {
+			@Override
+			public String getText(Object element) {
+				int value = ((Integer) element).intValue();
+				if (Thread.currentThread() == other[0]) {
+					value = elements.length - 1 - value;
+				}
+				return String.format("%03d", Integer.valueOf(value)); //$NON-NLS-1$
+			}
+		});
+		final ViewerComparator comparator = new ViewerComparator() {
+			@Override
+			public int compare(Viewer v, Object e1, Object e2) {
+				if (!started[0]) {
+					// sort the same elements in another thread while this
+					// sort is in progress
+					started[0] = true;
+					other[0].start();
+					try {
+						other[0].join();
+					} catch (InterruptedException e) {
+						fail(e.getMessage());
+					}
+				}
+				return super.compare(v, e1, e2);
+			}
+		};
+		other[0] = new Thread() {
+			@Override
+			public void run() {
+				comparator.sort(viewer, otherElements);
+			}
+		};
+		Object[] sorted = elements.clone();
+		Collections.shuffle(Arrays.asList(sorted), new Random(42));
+
+		comparator.sort(viewer, sorted);
+
+		for (int i = 0; i < elements.length; i++) {
+			assertSame(elements[i], sorted[i]);
+			assertSame(elements[elements.length - 1 - i], otherElements[i]);
+		}
+	}
+
+	private String[] getItemTexts() {
+		Table table = viewer.getTable();
+		String[] texts = new String[table.getItemCount()];
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = table.getItem(i).getText();
+		}
+		return texts;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2014 IBM Corporation and others.
+ * Copyright (c) 2005, 2015 IBM Corporation and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.jface.tests.viewers;
 
+import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ILazyTreeContentProvider;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.StructuredSelection;
@@ -167,6 +168,26 @@ public class SimpleVirtualLazyTreeViewerTest extends ViewerTestCase {
 		// interact();
 	}
 
+	public void testExpandToLevelAllLevels() {
+		if (disableTestsBug347491) {
+			System.out.println(getName() + " disabled due to Bug 347491");
+			return;
+		}
+		assertTrue("SWT.SetData not received", setDataCalled);
+		processEvents();
+		Tree tree = getTreeViewer().getTree();
+		updateElementCallCount = 0;
+		// the model is infinitely deep, so this only terminates if items are
+		// expanded as they become visible
+		getTreeViewer().expandToLevel(AbstractTreeViewer.ALL_LEVELS);
+		processEvents();
+		assertTrue(tree.getItem(0).getExpanded());
+		assertEquals(NUM_CHILDREN, tree.getItem(0).getItemCount());
+		assertTrue("expected less than " + (NUM_ROOTS * NUM_CHILDREN)
+				+ " but got " + updateElementCallCount,
+				updateElementCallCount < NUM_ROOTS * NUM_CHILDREN);
+	}
+
 	private void expandAndNotify(TreeItem treeItem) {
 		// callbacksEnabled = false;
 		Tree tree = treeItem.getParent();
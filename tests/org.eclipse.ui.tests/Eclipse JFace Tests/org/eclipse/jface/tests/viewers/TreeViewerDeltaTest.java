@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TreeContentDelta;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerSorter;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
+
+/**
+ * Tests for {@link TreeViewer#applyDelta(TreeContentDelta)}.
+ */
+public class TreeViewerDeltaTest extends TestCase {
+
+	private Shell shell;
+
+	private TreeViewer viewer;
+
+	private TreeNode rootNode;
+
+	private TreeNode a;
+
+	private TreeNode b;
+
+	private TreeNode c;
+
+	@Override
+	protected void setUp() throws Exception {
+		shell = new Shell();
+		viewer = new TreeViewer(shell, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL);
+		viewer.setContentProvider(new InternalContentProvider());
+		viewer.setLabelProvider(new InternalLabelProvider());
+
+		rootNode = new TreeNode("Root");
+		a = rootNode.add(new TreeNode("A"));
+		b = rootNode.add(new TreeNode("B"));
+		c = rootNode.add(new TreeNode("C"));
+		a.add(new TreeNode("A1"));
+		a.add(new TreeNode("A2"));
+
+		viewer.setInput(rootNode);
+		shell.open();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		shell.close();
+	}
+
+	public void testAddAtPositions() {
+		TreeNode x = rootNode.add(0, new TreeNode("X"));
+		TreeNode y = rootNode.add(3, new TreeNode("Y"));
+
+		TreeContentDelta delta = new TreeContentDelta(rootNode);
+		delta.addAdded(y, 3);
+		delta.addAdded(x, 0);
+		viewer.applyDelta(delta);
+
+		assertItemNames(new String[] { "X", "A", "B", "Y", "C" });
+	}
+
+	public void testRemove() {
+		rootNode.remove(b);
+
+		TreeContentDelta delta = new TreeContentDelta(rootNode);
+		delta.addRemoved(b);
+		viewer.applyDelta(delta);
+
+		assertItemNames(new String[] { "A", "C" });
+		assertNull(viewer.testFindItem(b));
+	}
+
+	public void testChanged() {
+		b.setName("B'");
+
+		TreeContentDelta delta = new TreeContentDelta(rootNode);
+		delta.addChanged(b);
+		viewer.applyDelta(delta);
+
+		assertItemNames(new String[] { "A", "B'", "C" });
+	}
+
+	public void testMoveKeepsExpandedState() {
+		viewer.setExpandedState(a, true);
+		rootNode.remove(a);
+		rootNode.add(2, a);
+
+		TreeContentDelta delta = new TreeContentDelta(rootNode);
+		delta.addMoved(a, 2);
+		viewer.applyDelta(delta);
+
+		assertItemNames(new String[] { "B", "C", "A" });
+		TreeItem moved = viewer.getTree().getItem(2);
+		assertTrue(moved.getExpanded());
+		assertEquals(2, moved.getItemCount());
+		assertEquals("A1", moved.getItem(0).getText());
+	}
+
+	public void testAddToCollapsedParent() {
+		b.add(new TreeNode("B1"));
+
+		TreeContentDelta delta = new TreeContentDelta(b);
+		delta.addAdded(b.getChildren().get(0), 0);
+		viewer.applyDelta(delta);
+
+		assertFalse(viewer.getExpandedState(b));
+		viewer.setExpandedState(b, true);
+		assertEquals(1, viewer.getTree().getItem(1).getItemCount());
+	}
+
+	public void testAddWithSorterIgnoresPositions() {
+		viewer.setSorter(new ViewerSorter());
+		TreeNode x = rootNode.add(0, new TreeNode("BB"));
+
+		TreeContentDelta delta = new TreeContentDelta(rootNode);
+		delta.addAdded(x, 0);
+		viewer.applyDelta(delta);
+
+		assertItemNames(new String[] { "A", "B", "BB", "C" });
+	}
+
+	private void assertItemNames(String[] names) {
+		assertEquals(names.length, viewer.getTree().getItemCount());
+		for (int i = 0; i < names.length; i++) {
+			assertEquals("at " + i, names[i], viewer.getTree().getItem(i)
+					.getText());
+		}
+	}
+
+	private static class TreeNode {
+
+		private String name;
+
+		private final List children = new ArrayList();
+
+		public TreeNode(String name) {
+			this.name = name;
+		}
+
+		public TreeNode add(TreeNode newChild) {
+			children.add(newChild);
+			return newChild;
+		}
+
+		public TreeNode add(int index, TreeNode newChild) {
+			children.add(index, newChild);
+			return newChild;
+		}
+
+		public void remove(TreeNode child) {
+			children.remove(child);
+		}
+
+		public List getChildren() {
+			return children;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String toString() {
+			return getName();
+		}
+	}
+
+	private static class InternalLabelProvider extends LabelProvider {
+		@Override
+		public String getText(Object element) {
+			return ((TreeNode) element).getName();
+		}
+	}
+
+	private static class InternalContentProvider implements
+			ITreeContentProvider {
+		@Override
+		public Object[] getChildren(Object parentElement) {
+			return ((TreeNode) parentElement).getChildren().toArray();
+		}
+
+		@Override
+		public Object getParent(Object element) {
+			return null;
+		}
+
+		@Override
+		public boolean hasChildren(Object element) {
+			return !((TreeNode) element).getChildren().isEmpty();
+		}
+
+		@Override
+		public Object[] getElements(Object inputElement) {
+			return getChildren(inputElement);
+		}
+
+		@Override
+		public void dispose() {
+			// nothing
+		}
+
+		@Override
+		public void inputChanged(Viewer viewer, Object oldInput,
+				Object newInput) {
+			// nothing
+		}
+	}
+
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.jface.viewers.IPrefetchingLazyContentProvider;
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+/**
+ * Tests that a virtual {@link TableViewer} asks an
+ * {@link IPrefetchingLazyContentProvider} to prefetch the rows ahead of the
+ * ones SWT requests.
+ */
+public class VirtualPrefetchTableViewerTest extends TestCase {
+
+	private static final int ROW_COUNT = 1000;
+
+	private Shell shell;
+
+	private TableViewer viewer;
+
+	private PrefetchingContentProvider contentProvider;
+
+	@Override
+	protected void setUp() throws Exception {
+		shell = new Shell();
+		shell.setSize(300, 200);
+		viewer = new TableViewer(shell, SWT.VIRTUAL | SWT.MULTI);
+		viewer.getTable().setSize(300, 200);
+		contentProvider = new PrefetchingContentProvider();
+		viewer.setContentProvider(contentProvider);
+		viewer.setLabelProvider(new LabelProvider());
+		viewer.setUseHashlookup(true);
+		viewer.setInput(new Object());
+		shell.open();
+		processEvents();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		shell.close();
+	}
+
+	public void testPrefetchAheadOfVisibleRows() {
+		assertFalse("Expected a prefetch request",
+				contentProvider.prefetched.isEmpty());
+		int[] first = (int[]) contentProvider.prefetched.get(0);
+		assertEquals(1, first[0]);
+		assertTrue(first[1] > 0);
+		assertTrue(first[0] + first[1] <= ROW_COUNT);
+		assertEquals("Row 0", viewer.getTable().getItem(0).getText());
+	}
+
+	public void testPrefetchAfterJump() {
+		contentProvider.prefetched.clear();
+		viewer.getTable().setTopIndex(500);
+		processEvents();
+		viewer.getTable().getItem(500).getText();
+
+		boolean found = false;
+		for (int i = 0; i < contentProvider.prefetched.size(); i++) {
+			int[] range = (int[]) contentProvider.prefetched.get(i);
+			if (range[0] > 500 && range[0] + range[1] <= ROW_COUNT) {
+				found = true;
+			}
+		}
+		assertTrue("Expected a prefetch request after row 500", found);
+	}
+
+	private void processEvents() {
+		Display display = shell.getDisplay();
+		while (display.readAndDispatch()) {
+			// process all pending events
+		}
+	}
+
+	private class PrefetchingContentProvider implements
+			IPrefetchingLazyContentProvider {
+
+		final List prefetched = new ArrayList();
+
+		@Override
+		public void updateElement(int index) {
+			viewer.replace("Row " + index, index);
+		}
+
+		@Override
+		public void prefetch(int startIndex, int count) {
+			prefetched.add(new int[] { startIndex, count });
+		}
+
+		@Override
+		public void dispose() {
+			// nothing
+		}
+
+		@Override
+		public void inputChanged(Viewer v, Object oldInput, Object newInput) {
+			((TableViewer) v).setItemCount(newInput == null ? 0 : ROW_COUNT);
+		}
+	}
+}
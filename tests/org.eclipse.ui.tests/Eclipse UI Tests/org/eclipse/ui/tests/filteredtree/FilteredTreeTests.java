@@ -12,10 +12,12 @@
 package org.eclipse.ui.tests.filteredtree;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.tests.viewers.TestElement;
 import org.eclipse.jface.tests.viewers.TestModelContentProvider;
 import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
@@ -23,7 +25,9 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Shell;
 import org.eclipse.ui.dialogs.FilteredTree;
+import org.eclipse.ui.dialogs.IndexedPatternFilter;
 import org.eclipse.ui.dialogs.PatternFilter;
+import org.eclipse.ui.progress.WorkbenchJob;
 import org.eclipse.ui.tests.harness.util.UITestCase;
 
 public class FilteredTreeTests extends UITestCase {
@@ -106,6 +110,113 @@ public class FilteredTreeTests extends UITestCase {
 		dialog.close();
 	}
 
+	public void testIndexedPatternFilter() {
+		fRootElement = TestElement.createModel(DEPTH, NUM_ITEMS);
+		final IndexedPatternFilter filter = new IndexedPatternFilter();
+		final int treeStyle = SWT.SINGLE | SWT.H_SCROLL | SWT.V_SCROLL
+				| SWT.BORDER;
+
+		Dialog dialog = new FilteredTreeDialog((Shell) null, treeStyle) {
+			@Override
+			protected FilteredTree doCreateFilteredTree(Composite comp,
+					int style) {
+				return createFilteredTree(comp, style, filter);
+			}
+		};
+
+		dialog.create();
+		TreeViewer viewer = fTreeViewer.getViewer();
+		TestElement match = fRootElement.getChildAt(3).getChildAt(12);
+
+		filter.setPattern(match.getID());
+		viewer.refresh();
+		assertEquals(1, viewer.getTree().getItemCount());
+		assertEquals(fRootElement.getChildAt(3), viewer.getTree().getItem(0)
+				.getData());
+		assertTrue(filter.getMatchScore(match) != IndexedPatternFilter.NO_MATCH);
+		assertEquals(IndexedPatternFilter.NO_MATCH,
+				filter.getMatchScore(fRootElement.getChildAt(3)));
+
+		// widening the pattern again must not reuse the narrowed matches
+		filter.setPattern(fRootElement.getChildAt(4).getID());
+		viewer.refresh();
+		assertEquals(1, viewer.getTree().getItemCount());
+		assertEquals(fRootElement.getChildAt(4), viewer.getTree().getItem(0)
+				.getData());
+
+		filter.setFuzzy(true);
+		filter.setPattern("nm19");
+		viewer.refresh();
+		assertEquals(NUM_ITEMS, viewer.getTree().getItemCount());
+		assertTrue(filter.getMatchScore(fRootElement.getChildAt(19)) > filter
+				.getMatchScore(fRootElement.getChildAt(1)));
+
+		filter.setPattern(null);
+		viewer.refresh();
+		assertEquals(NUM_ITEMS, viewer.getTree().getItemCount());
+		dialog.close();
+	}
+
+	public void testIndexedPatternFilterKeepsIndexWhileTyping() {
+		fRootElement = TestElement.createModel(DEPTH, NUM_ITEMS);
+		final IndexedPatternFilter filter = new IndexedPatternFilter();
+		final WorkbenchJob[] refreshJob = new WorkbenchJob[1];
+		// labels of elements that the typed patterns never show, so that only
+		// indexing the tree asks for them
+		final int[] hiddenLabelCount = new int[1];
+		final String hiddenPrefix = fRootElement.getChildAt(7).getID() + "-";
+		final int treeStyle = SWT.SINGLE | SWT.H_SCROLL | SWT.V_SCROLL
+				| SWT.BORDER;
+
+		Dialog dialog = new FilteredTreeDialog((Shell) null, treeStyle) {
+			@Override
+			protected FilteredTree doCreateFilteredTree(Composite comp,
+					int style) {
+				FilteredTree tree = new FilteredTree(comp, style, filter) {
+					@Override
+					protected WorkbenchJob doCreateRefreshJob() {
+						refreshJob[0] = super.doCreateRefreshJob();
+						return refreshJob[0];
+					}
+				};
+				tree.getViewer().setContentProvider(
+						new TestModelContentProvider());
+				tree.getViewer().setLabelProvider(new LabelProvider() {
+					@Override
+					public String getText(Object element) {
+						if (((TestElement) element).getID().startsWith(
+								hiddenPrefix)) {
+							hiddenLabelCount[0]++;
+						}
+						return super.getText(element);
+					}
+				});
+				return tree;
+			}
+		};
+
+		dialog.create();
+		String match = fRootElement.getChildAt(3).getChildAt(12).getID();
+		int indexedLabelCount = -1;
+		// type the rest of the ID once the pattern excludes the hidden elements
+		for (int length = fRootElement.getChildAt(3).getID().length(); length <= match
+				.length(); length++) {
+			fTreeViewer.getFilterControl().setText(match.substring(0, length));
+			refreshJob[0].cancel();
+			refreshJob[0].runInUIThread(new NullProgressMonitor());
+			if (indexedLabelCount == -1) {
+				indexedLabelCount = hiddenLabelCount[0];
+				assertTrue(indexedLabelCount > 0);
+			} else {
+				assertEquals("index rebuilt for pattern "
+						+ match.substring(0, length), indexedLabelCount,
+						hiddenLabelCount[0]);
+			}
+		}
+		assertEquals(1, fTreeViewer.getViewer().getTree().getItemCount());
+		dialog.close();
+	}
+
 	private void runFilteredTreeTest(final int treeStyle){
 		fRootElement = TestElement.createModel(DEPTH, NUM_ITEMS);
 
@@ -125,9 +236,14 @@ public class FilteredTreeTests extends UITestCase {
 	}
 
 	private FilteredTree createFilteredTree(Composite parent, int style){
+		return createFilteredTree(parent, style, new PatternFilter());
+	}
+
+	private FilteredTree createFilteredTree(Composite parent, int style,
+			PatternFilter filter) {
 	      Composite c = new Composite(parent, SWT.NONE);
 	      c.setLayout(new GridLayout());
-	      FilteredTree fTree = new FilteredTree(c, style, new PatternFilter());
+	      FilteredTree fTree = new FilteredTree(c, style, filter);
 
 	      GridData gd = new GridData(SWT.FILL, SWT.FILL, true, true);
 		  gd.widthHint = 400;